@@ -2,7 +2,14 @@ package io.coodoo.workhorse.core.boundary;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 
@@ -26,9 +33,34 @@ import io.coodoo.workhorse.util.WorkhorseUtil;
 @RequestScoped
 public class ExecutionContext {
 
+    /**
+     * Number of log lines that are buffered before they get written to the persistence at once
+     */
+    public static final int LOG_BUFFER_MAX_LINES = 100;
+
+    /**
+     * Time in milliseconds after the first buffered log line, after which the buffer gets written to the persistence with the next line
+     */
+    public static final long LOG_BUFFER_MAX_MILLIS = 1000L;
+
+    // pattern of StaticConfig.LOG_TIME_FORMATTER and its formatter, they are replaced together when the configuration changes
+    private static volatile Map.Entry<String, DateTimeFormatter> logTimeFormatter;
+
     // The visibility is protected to enable mocking in Junit Tests
     protected Execution execution;
 
+    protected List<Execution> workBatch;
+
+    protected final List<String> logBuffer = new ArrayList<>();
+    protected Long logBufferJobId;
+    protected Long logBufferExecutionId;
+    protected long logBufferSince;
+
+    /**
+     * Guards the log buffer
+     */
+    protected final ReentrantLock logBufferLock = new ReentrantLock();
+
     @Inject
     @ExecutionQualifier
     ExecutionPersistence executionPersistence;
@@ -37,7 +69,32 @@ public class ExecutionContext {
      * The job engine will uses this method to initialize the context by providing the execution.
      */
     public void init(Execution execution) {
+        flushLog();
         this.execution = execution;
+        this.workBatch = null;
+    }
+
+    /**
+     * The job engine will uses this method to initialize the context by providing the executions of a work batch. The context refers to the first one until
+     * {@link #select(int)} is called.
+     * 
+     * @param executions executions of the work batch
+     */
+    public void initWorkBatch(List<Execution> executions) {
+        flushLog();
+        this.execution = executions.isEmpty() ? null : executions.get(0);
+        this.workBatch = executions;
+    }
+
+    /**
+     * Selects the execution of the work batch the following calls of this context refer to, e.g. for logging.
+     * 
+     * @param index index of the parameters in the work batch
+     */
+    public void select(int index) {
+        if (workBatch != null && index >= 0 && index < workBatch.size()) {
+            this.execution = workBatch.get(index);
+        }
     }
 
     /**
@@ -76,6 +133,18 @@ public class ExecutionContext {
         return execution.isPriority();
     }
 
+    /**
+     * Retrieves the priority level of the current execution.
+     * 
+     * @return priority level, higher levels are processed first
+     */
+    public int getPriorityLevel() {
+        if (execution == null) {
+            return Execution.PRIORITY_LEVEL_MIN;
+        }
+        return execution.getPriorityLevel();
+    }
+
     /**
      * Retrieves if the current execution is expired.
      * 
@@ -211,6 +280,7 @@ public class ExecutionContext {
      */
     public String getLog() {
 
+        flushLog();
         return executionPersistence.getLog(execution.getJobId(), execution.getId()).getLog();
     }
 
@@ -409,19 +479,34 @@ public class ExecutionContext {
             return;
         }
 
+        applySummary(execution, summary);
+
+        // No special update of the summary field is defined as adding a summary-information do not occur often. Only one execution of a series holds the
+        // summary of all executions of this series.
+        executionPersistence.update(execution);
+
+    }
+
+    /**
+     * Sets the summary of an execution without updating it in the persistence. A summary that exceeds {@link WorkhorseConfig#getMaxExecutionSummaryLength()}
+     * gets cut off and its full length is appended to the logs.
+     * 
+     * @param execution execution of the summary
+     * @param summary short message to add
+     */
+    public void applySummary(Execution execution, String summary) {
+
+        if (summary == null || summary.trim().isEmpty()) {
+            return;
+        }
         if (summary.length() <= StaticConfig.MAX_EXECUTION_SUMMARY_LENGTH) {
             execution.setSummary(summary);
         } else {
             // when the max length of the summary is exceeded, it gets cut off
             execution.setSummary(summary.substring(0, StaticConfig.MAX_EXECUTION_SUMMARY_LENGTH - 1) + "…");
             // the prolonged summary gets logged to avoid data loss
-            executionPersistence.log(execution.getJobId(), execution.getId(), "[SUMMARY] " + summary);
+            bufferLog(execution.getJobId(), execution.getId(), "[SUMMARY] " + summary);
         }
-
-        // No special update of the summary field is defined as adding a summary-information do not occur often. Only one execution of a series holds the
-        // summary of all executions of this series.
-        executionPersistence.update(execution);
-
     }
 
     protected void appendLog(String message, boolean timestamp, String mode) {
@@ -435,8 +520,7 @@ public class ExecutionContext {
         String time = "";
 
         if (timestamp) {
-            DateTimeFormatter logTimeFormat = DateTimeFormatter.ofPattern(StaticConfig.LOG_TIME_FORMATTER);
-            time = WorkhorseUtil.timestamp().format(logTimeFormat) + " ";
+            time = WorkhorseUtil.timestamp().format(getLogTimeFormatter()) + " ";
         }
 
         switch (mode) {
@@ -463,7 +547,72 @@ public class ExecutionContext {
         }
 
         String log = marker + message;
-        executionPersistence.log(getJobId(), getExecutionId(), log);
+        bufferLog(getJobId(), getExecutionId(), log);
+    }
+
+    /**
+     * Adds a log line to the buffer. The buffer is written to the persistence if it holds {@link #LOG_BUFFER_MAX_LINES} lines, if its first line is older than
+     * {@link #LOG_BUFFER_MAX_MILLIS} or if a line of another execution is added. It is written on the thread of the job, there is no timer that could outlive
+     * the request scope of this context.
+     * 
+     * @param jobId ID of the job of the execution
+     * @param executionId ID of the execution
+     * @param log log line
+     */
+    protected void bufferLog(Long jobId, Long executionId, String log) {
+
+        logBufferLock.lock();
+        try {
+            if (!logBuffer.isEmpty() && !(Objects.equals(logBufferExecutionId, executionId) && Objects.equals(logBufferJobId, jobId))) {
+                flushLog();
+            }
+            if (logBuffer.isEmpty()) {
+                logBufferJobId = jobId;
+                logBufferExecutionId = executionId;
+                logBufferSince = System.currentTimeMillis();
+            }
+            logBuffer.add(log);
+
+            if (logBuffer.size() >= LOG_BUFFER_MAX_LINES || System.currentTimeMillis() - logBufferSince >= LOG_BUFFER_MAX_MILLIS) {
+                flushLog();
+            }
+        } finally {
+            logBufferLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the buffered log lines to the persistence. The job engine calls this when an execution is finished or failed, it is also called when the request
+     * scope of this context ends.
+     */
+    @PreDestroy
+    public void flushLog() {
+
+        logBufferLock.lock();
+        try {
+            if (logBuffer.isEmpty() || executionPersistence == null) {
+                return;
+            }
+            List<String> logs = new ArrayList<>(logBuffer);
+            logBuffer.clear();
+            executionPersistence.logAll(logBufferJobId, logBufferExecutionId, logs);
+        } finally {
+            logBufferLock.unlock();
+        }
+    }
+
+    /**
+     * @return the formatter of {@link StaticConfig#LOG_TIME_FORMATTER}, it is only created again if the pattern got changed
+     */
+    protected static DateTimeFormatter getLogTimeFormatter() {
+
+        String pattern = StaticConfig.LOG_TIME_FORMATTER;
+        Map.Entry<String, DateTimeFormatter> current = logTimeFormatter;
+        if (current == null || !current.getKey().equals(pattern)) {
+            current = new SimpleImmutableEntry<>(pattern, DateTimeFormatter.ofPattern(pattern));
+            logTimeFormatter = current;
+        }
+        return current.getValue();
     }
 
 }
@@ -0,0 +1,79 @@
+package io.coodoo.workhorse.core.boundary;
+
+import java.util.List;
+
+import io.coodoo.workhorse.core.entity.Execution;
+
+/**
+ * Result of {@link WorkerWith#doWorkBatch(List)}. It holds one entry per execution of the work batch, in the order of the given parameters.<br>
+ * Every entry that is not marked as failed gets finished, a failed entry is handled like a single failed {@link Execution} including its retries.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class WorkBatchResult {
+
+    private final String[] summaries;
+    private final Throwable[] failures;
+
+    /**
+     * @param size number of executions of the work batch
+     */
+    public WorkBatchResult(int size) {
+        this.summaries = new String[size];
+        this.failures = new Throwable[size];
+    }
+
+    /**
+     * Add a short message to summarize an execution of the work batch
+     *
+     * @param index index of the parameters in the work batch
+     * @param summary short message
+     * @return this result
+     */
+    public WorkBatchResult summarize(int index, String summary) {
+        summaries[index] = summary;
+        return this;
+    }
+
+    /**
+     * Marks an execution of the work batch as failed
+     *
+     * @param index index of the parameters in the work batch
+     * @param throwable cause of the failure
+     * @return this result
+     */
+    public WorkBatchResult fail(int index, Throwable throwable) {
+        failures[index] = throwable;
+        return this;
+    }
+
+    /**
+     * Marks all executions of the work batch as failed
+     *
+     * @param throwable cause of the failure
+     * @return this result
+     */
+    public WorkBatchResult failAll(Throwable throwable) {
+        for (int index = 0; index < failures.length; index++) {
+            failures[index] = throwable;
+        }
+        return this;
+    }
+
+    public int size() {
+        return summaries.length;
+    }
+
+    public String getSummary(int index) {
+        return summaries[index];
+    }
+
+    public Throwable getFailure(int index) {
+        return failures[index];
+    }
+
+    public boolean isFailed(int index) {
+        return failures[index] != null;
+    }
+
+}
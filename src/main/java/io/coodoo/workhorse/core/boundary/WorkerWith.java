@@ -8,9 +8,11 @@ import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
 import java.util.List;
 
+import io.coodoo.workhorse.core.boundary.annotation.InitialJobConfig;
 import io.coodoo.workhorse.core.control.BaseWorker;
 import io.coodoo.workhorse.core.entity.Execution;
-import io.coodoo.workhorse.util.WorkhorseUtil;
+import io.coodoo.workhorse.util.JsonParametersCodec;
+import io.coodoo.workhorse.util.ParametersCodec;
 
 /**
  * worker class to define the creation and processing of execution with parameters. <br>
@@ -23,6 +25,8 @@ public abstract class WorkerWith<T> extends BaseWorker {
 
     private Class<?> parametersClass;
 
+    private volatile ParametersCodec<T> parametersCodec;
+
     /**
      * Process the execution
      * 
@@ -32,12 +36,65 @@ public abstract class WorkerWith<T> extends BaseWorker {
      */
     public abstract String doWork(T parameters) throws Exception;
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Process a work batch of executions at once. This is only called if {@link InitialJobConfig#workBatchSize()} is higher than 1, the executions of the
+     * work batch get set to running and finished together.<br>
+     * <i>If needed, this method can be overwritten to process all parameters in one go, e.g. with a single database statement. By default every parameters
+     * object is given to {@link #doWork(Object)}.</i>
+     * 
+     * @param parametersList the object parameters of the executions in the work batch
+     * @return the summaries and failures of the executions in the order of the given parameters
+     * @throws Exception if thrown, all executions of the work batch fail
+     */
+    public WorkBatchResult doWorkBatch(List<T> parametersList) throws Exception {
+
+        ExecutionContext executionContext = getExecutionContext();
+        WorkBatchResult workBatchResult = new WorkBatchResult(parametersList.size());
+        for (int index = 0; index < parametersList.size(); index++) {
+            if (executionContext != null) {
+                executionContext.select(index);
+            }
+            try {
+                workBatchResult.summarize(index, doWork(parametersList.get(index)));
+            } catch (Exception e) {
+                workBatchResult.fail(index, e);
+            }
+        }
+        return workBatchResult;
+    }
+
     public T getParameters(Execution execution) {
+        return getParametersCodec().decode(execution.getParameters());
+    }
 
-        getParametersClass();
+    /**
+     * @return the codec of the parameters, it is created once per worker
+     */
+    public ParametersCodec<T> getParametersCodec() {
 
-        return (T) WorkhorseUtil.jsonToParameters(execution.getParameters(), parametersClass);
+        ParametersCodec<T> codec = parametersCodec;
+        if (codec == null) {
+            codec = createParametersCodec(getParameterWorkerClassType());
+            parametersCodec = codec;
+        }
+        return codec;
+    }
+
+    /**
+     * Creates the codec that converts the parameters from and to {@link Execution#getParameters()}. <br>
+     * <i>If needed, this method can be overwritten to use another format than JSON. The returned codec is shared by all job threads.</i>
+     * 
+     * @param parametersType generic type <tt>T</tt> of this worker
+     * @return the codec of the parameters
+     */
+    protected ParametersCodec<T> createParametersCodec(Type parametersType) {
+        return new JsonParametersCodec<>(parametersType);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected String encodeParameters(Object parameters) {
+        return getParametersCodec().encode((T) parameters);
     }
 
     protected Class<?> getParametersClass() {
@@ -195,7 +252,7 @@ public abstract class WorkerWith<T> extends BaseWorker {
          * @return execution ID
          */
         public Long build(T parameters) {
-            return createExecution(parameters, priority, plannedFor, expiresAt, null, null).getId();
+            return createExecution(parameters, priorityLevel, plannedFor, expiresAt, null, null).getId();
         }
 
         /**
@@ -206,22 +263,9 @@ public abstract class WorkerWith<T> extends BaseWorker {
          */
         public Long buildBatch(List<T> parametersList) {
 
-            Long batchId = null;
-
-            for (T parameter : parametersList) {
-                if (batchId == null) { // start of batch
-
-                    Execution execution = createExecution(parameter, priority, plannedFor, expiresAt, -1L, null);
-                    // Use the Id of the first added job execution in Batch as BatchId.
-                    execution.setBatchId(execution.getId());
-                    workhorseController.updateExecution(execution);
-
-                    batchId = execution.getId();
-                } else { // now that we have the batch id, all the beloning executions can have it!
-                    createExecution(parameter, priority, plannedFor, expiresAt, batchId, null);
-                }
-            }
-            return batchId;
+            // the ID of the first created execution becomes the batch ID, already queued executions of a unique queued job don't join the batch
+            List<Execution> executions = createNewExecutions(parametersList, priorityLevel, plannedFor, expiresAt, Execution.FIRST_EXECUTION_ID, null);
+            return executions.isEmpty() ? null : executions.get(0).getBatchId();
         }
 
         /**
@@ -232,21 +276,9 @@ public abstract class WorkerWith<T> extends BaseWorker {
          */
         public Long buildChain(List<T> parametersList) {
 
-            Long chainId = null;
-
-            for (T parameter : parametersList) {
-                if (chainId == null) { // start of chain
-
-                    Execution execution = createExecution(parameter, priority, plannedFor, expiresAt, null, -1L);
-                    execution.setChainId(execution.getId());
-                    workhorseController.updateExecution(execution);
-
-                    chainId = execution.getId();
-                } else { // now that we have the chain id, all the beloning executions can have it!
-                    createExecution(parameter, priority, plannedFor, expiresAt, null, chainId);
-                }
-            }
-            return chainId;
+            // the ID of the first created execution becomes the chain ID, already queued executions of a unique queued job don't join the chain
+            List<Execution> executions = createNewExecutions(parametersList, priorityLevel, plannedFor, expiresAt, null, Execution.FIRST_EXECUTION_ID);
+            return executions.isEmpty() ? null : executions.get(0).getChainId();
         }
 
     }
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -16,9 +17,11 @@ import org.slf4j.LoggerFactory;
 import io.coodoo.workhorse.core.control.ExecutionBuffer;
 import io.coodoo.workhorse.core.control.JobScheduler;
 import io.coodoo.workhorse.core.control.JobThread;
+import io.coodoo.workhorse.core.control.ListingCache;
 import io.coodoo.workhorse.core.control.Workhorse;
 import io.coodoo.workhorse.core.control.WorkhorseConfigController;
 import io.coodoo.workhorse.core.control.WorkhorseController;
+import io.coodoo.workhorse.core.control.event.NewExecutionEvent;
 import io.coodoo.workhorse.core.entity.Execution;
 import io.coodoo.workhorse.core.entity.ExecutionLog;
 import io.coodoo.workhorse.core.entity.ExecutionStatus;
@@ -28,6 +31,8 @@ import io.coodoo.workhorse.core.entity.JobBufferStatus;
 import io.coodoo.workhorse.core.entity.JobExecutionStatusSummary;
 import io.coodoo.workhorse.core.entity.JobStatus;
 import io.coodoo.workhorse.core.entity.JobStatusCount;
+import io.coodoo.workhorse.core.entity.ListingCacheMetrics;
+import io.coodoo.workhorse.core.entity.RetryBackoff;
 import io.coodoo.workhorse.core.entity.WorkhorseConfig;
 import io.coodoo.workhorse.core.entity.WorkhorseConfigBuilder;
 import io.coodoo.workhorse.core.entity.WorkhorseInfo;
@@ -70,6 +75,9 @@ public class WorkhorseService {
     @Inject
     JobScheduler jobScheduler;
 
+    @Inject
+    ListingCache listingCache;
+
     WorkhorseConfig currentWorkhorseConfig = null;
 
     /**
@@ -226,7 +234,7 @@ public class WorkhorseService {
     }
 
     /**
-     * Get the listing result of execution
+     * Get the listing result of execution. The result may be cached, see {@link WorkhorseConfig#getListingCacheTtl()}.
      * 
      * @param listingParameters defines the listing queue. It contains optional query parameters as described above
      * @return list of execution
@@ -235,17 +243,39 @@ public class WorkhorseService {
         if (listingParameters.getSortAttribute() == null || listingParameters.getSortAttribute().isEmpty()) {
             listingParameters.setSortAttribute("-createdAt");
         }
-        return workhorseController.getExecutionListing(jobId, listingParameters);
+        return listingCache.get(jobId, ListingCache.key("executionListing", jobId, listingParameters),
+                        () -> workhorseController.getExecutionListing(jobId, listingParameters));
     }
 
     /**
-     * Get the listing result of jobs
+     * Passes every execution of the job that matches the listing parameters to the consumer, e.g. to export them. The executions are read one by one (or page
+     * by page) instead of being listed at once and they are never cached.
+     * 
+     * @param jobId Id of the corresponding job
+     * @param listingParameters filter and sort attributes of the executions, the pagination gets ignored
+     * @param consumer gets every matching execution
+     */
+    public void forEachExecution(Long jobId, ListingParameters listingParameters, Consumer<Execution> consumer) {
+        workhorseController.forEachExecution(jobId, listingParameters, consumer);
+    }
+
+    /**
+     * Get the listing result of jobs. The result may be cached, see {@link WorkhorseConfig#getListingCacheTtl()}.
      * 
      * @param listingParameters defines the listing queue. It contains optional query parameters as described above
      * @return list of jobs
      */
     public ListingResult<Job> getJobListing(ListingParameters listingParameters) {
-        return workhorseController.getJobListing(listingParameters);
+        return listingCache.get(null, ListingCache.key("jobListing", listingParameters), () -> workhorseController.getJobListing(listingParameters));
+    }
+
+    /**
+     * Get the counters of the cache of listings and counts
+     * 
+     * @return hits, misses, evictions and invalidations of the cache
+     */
+    public ListingCacheMetrics getListingCacheMetrics() {
+        return listingCache.getMetrics();
     }
 
     /**
@@ -316,7 +346,9 @@ public class WorkhorseService {
         }
         log.info("Activate {}", job);
         return updateJob(jobId, job.getName(), job.getDescription(), job.getWorkerClassName(), job.getSchedule(), JobStatus.ACTIVE, job.getThreads(),
-                        job.getMaxPerMinute(), job.getFailRetries(), job.getRetryDelay(), job.getMinutesUntilCleanUp(), job.isUniqueQueued());
+                        job.getMaxPerMinute(), job.getRateLimitWindow(), job.getRateLimitBurst(), job.getFailRetries(), job.getRetryDelay(),
+                        job.getRetryBackoff(), job.getRetryDelayMax(), job.getWorkBatchSize(), job.getWorkBatchWait(), job.getMinutesUntilCleanUp(),
+                        job.isUniqueQueued());
     }
 
     /**
@@ -334,7 +366,9 @@ public class WorkhorseService {
         }
         log.info("Activate {}", job);
         return updateJob(job.getId(), job.getName(), job.getDescription(), job.getWorkerClassName(), job.getSchedule(), JobStatus.ACTIVE, job.getThreads(),
-                        job.getMaxPerMinute(), job.getFailRetries(), job.getRetryDelay(), job.getMinutesUntilCleanUp(), job.isUniqueQueued());
+                        job.getMaxPerMinute(), job.getRateLimitWindow(), job.getRateLimitBurst(), job.getFailRetries(), job.getRetryDelay(),
+                        job.getRetryBackoff(), job.getRetryDelayMax(), job.getWorkBatchSize(), job.getWorkBatchWait(), job.getMinutesUntilCleanUp(),
+                        job.isUniqueQueued());
     }
 
     /**
@@ -352,7 +386,9 @@ public class WorkhorseService {
         }
         log.info("Deactivate {}", job);
         return updateJob(jobId, job.getName(), job.getDescription(), job.getWorkerClassName(), job.getSchedule(), JobStatus.INACTIVE, job.getThreads(),
-                        job.getMaxPerMinute(), job.getFailRetries(), job.getRetryDelay(), job.getMinutesUntilCleanUp(), job.isUniqueQueued());
+                        job.getMaxPerMinute(), job.getRateLimitWindow(), job.getRateLimitBurst(), job.getFailRetries(), job.getRetryDelay(),
+                        job.getRetryBackoff(), job.getRetryDelayMax(), job.getWorkBatchSize(), job.getWorkBatchWait(), job.getMinutesUntilCleanUp(),
+                        job.isUniqueQueued());
     }
 
     /**
@@ -370,11 +406,13 @@ public class WorkhorseService {
         }
         log.info("Deactivate {}", job);
         return updateJob(job.getId(), job.getName(), job.getDescription(), job.getWorkerClassName(), job.getSchedule(), JobStatus.INACTIVE, job.getThreads(),
-                        job.getMaxPerMinute(), job.getFailRetries(), job.getRetryDelay(), job.getMinutesUntilCleanUp(), job.isUniqueQueued());
+                        job.getMaxPerMinute(), job.getRateLimitWindow(), job.getRateLimitBurst(), job.getFailRetries(), job.getRetryDelay(),
+                        job.getRetryBackoff(), job.getRetryDelayMax(), job.getWorkBatchSize(), job.getWorkBatchWait(), job.getMinutesUntilCleanUp(),
+                        job.isUniqueQueued());
     }
 
     /**
-     * Update a {@link Job}
+     * Update a {@link Job}, it keeps its rate limit, retry backoff and work batch settings
      * 
      * @param jobId
      * @param name the name of the job
@@ -394,13 +432,79 @@ public class WorkhorseService {
     public Job updateJob(Long jobId, String name, String description, String workerClassName, String schedule, JobStatus status, int threads,
                     Integer maxPerMinute, int failRetries, int retryDelay, int minutesUntilCleanUp, boolean uniqueQueued) {
 
+        Job job = getJobById(jobId);
+        return updateJob(jobId, name, description, workerClassName, schedule, status, threads, maxPerMinute, job.getRateLimitWindow(),
+                        job.getRateLimitBurst(), failRetries, retryDelay, job.getRetryBackoff(), job.getRetryDelayMax(), job.getWorkBatchSize(),
+                        job.getWorkBatchWait(), minutesUntilCleanUp, uniqueQueued);
+    }
+
+    /**
+     * Update a {@link Job}, it keeps its rate limit window and burst
+     * 
+     * @param jobId
+     * @param name the name of the job
+     * @param description the description about what the job do.
+     * @param workerClassName the name of the Class that the Job use as Parameter
+     * @param schedule the timstamp as cron-syntax to schedule the job
+     * @param status the status of the Job. <code>ACTIVE</code>, <code>NO_WORKER</code>
+     * @param threads the number of thread, that can process the job
+     * @param maxPerMinute the max number of execution per minute
+     * @param failRetries the number of retries for a failed execution
+     * @param retryDelay the duration to wait before a retry
+     * @param retryBackoff the strategy to calculate the delay before a retry
+     * @param retryDelayMax the upper limit of the delay before a retry in milliseconds, <code>0</code> for no limit
+     * @param workBatchSize the max number of executions that are processed at once, <code>1</code> or less for no work batches
+     * @param workBatchWait the max time in milliseconds to wait for more executions until a work batch is full
+     * @param minutesUntilCleanUp the number of minutes before delete execution of this Job
+     * @param uniqueQueued if a job has the uniqueInqueue set <code>true</code>, Two or more job execution with the same parameters are not authorized
+     * 
+     * @return the updated job
+     */
+    public Job updateJob(Long jobId, String name, String description, String workerClassName, String schedule, JobStatus status, int threads,
+                    Integer maxPerMinute, int failRetries, int retryDelay, RetryBackoff retryBackoff, int retryDelayMax, int workBatchSize,
+                    int workBatchWait, int minutesUntilCleanUp, boolean uniqueQueued) {
+
+        Job job = getJobById(jobId);
+        return updateJob(jobId, name, description, workerClassName, schedule, status, threads, maxPerMinute, job.getRateLimitWindow(),
+                        job.getRateLimitBurst(), failRetries, retryDelay, retryBackoff, retryDelayMax, workBatchSize, workBatchWait, minutesUntilCleanUp,
+                        uniqueQueued);
+    }
+
+    /**
+     * Update a {@link Job}
+     * 
+     * @param jobId
+     * @param name the name of the job
+     * @param description the description about what the job do.
+     * @param workerClassName the name of the Class that the Job use as Parameter
+     * @param schedule the timstamp as cron-syntax to schedule the job
+     * @param status the status of the Job. <code>ACTIVE</code>, <code>NO_WORKER</code>
+     * @param threads the number of thread, that can process the job
+     * @param maxPerMinute the max number of execution per minute
+     * @param rateLimitWindow the duration of the rate limit window in seconds, <code>0</code> for a minute
+     * @param rateLimitBurst the max number of executions that can be started at once after an idle period
+     * @param failRetries the number of retries for a failed execution
+     * @param retryDelay the duration to wait before a retry
+     * @param retryBackoff the strategy to calculate the delay before a retry
+     * @param retryDelayMax the upper limit of the delay before a retry in milliseconds, <code>0</code> for no limit
+     * @param workBatchSize the max number of executions that are processed at once, <code>1</code> or less for no work batches
+     * @param workBatchWait the max time in milliseconds to wait for more executions until a work batch is full
+     * @param minutesUntilCleanUp the number of minutes before delete execution of this Job
+     * @param uniqueQueued if a job has the uniqueInqueue set <code>true</code>, Two or more job execution with the same parameters are not authorized
+     * 
+     * @return the updated job
+     */
+    public Job updateJob(Long jobId, String name, String description, String workerClassName, String schedule, JobStatus status, int threads,
+                    Integer maxPerMinute, int rateLimitWindow, int rateLimitBurst, int failRetries, int retryDelay, RetryBackoff retryBackoff,
+                    int retryDelayMax, int workBatchSize, int workBatchWait, int minutesUntilCleanUp, boolean uniqueQueued) {
+
         Job job = getJobById(jobId);
 
         jobScheduler.stop(job);
         executionBuffer.clearMemoryQueue(job);
 
-        Job updatedJob = workhorseController.updateJob(jobId, name, description, workerClassName, schedule, status, threads, maxPerMinute, failRetries,
-                        retryDelay, minutesUntilCleanUp, uniqueQueued);
+        Job updatedJob = workhorseController.updateJob(jobId, name, description, workerClassName, schedule, status, threads, maxPerMinute, rateLimitWindow,
+                        rateLimitBurst, failRetries, retryDelay, retryBackoff, retryDelayMax, workBatchSize, workBatchWait, minutesUntilCleanUp, uniqueQueued);
 
         if (JobStatus.ACTIVE.equals(updatedJob.getStatus())) {
             startJob(updatedJob);
@@ -432,6 +536,7 @@ public class WorkhorseService {
         if (job != null) {
             jobScheduler.stop(job);
             executionBuffer.clearMemoryQueue(job);
+            workhorse.cancelPlannedExecutions(jobId);
             workhorseController.deleteJob(jobId);
         }
     }
@@ -463,9 +568,15 @@ public class WorkhorseService {
 
         Execution execution = getExecutionById(jobId, executionId);
 
-        if (ExecutionStatus.QUEUED == execution.getStatus() && ExecutionStatus.QUEUED != status) {
+        // The buffer holds a copy of the execution, so it gets removed and buffered again with the updated values
+        boolean wasQueued = ExecutionStatus.QUEUED == execution.getStatus();
+        if (wasQueued) {
             executionBuffer.removeFromBuffer(execution);
         }
+        boolean wasPlanned = ExecutionStatus.PLANNED == execution.getStatus();
+        if (wasPlanned) {
+            workhorse.cancelPlannedExecution(executionId);
+        }
         execution.setStatus(status);
         execution.setParameters(parameters);
         execution.setPriority(priority);
@@ -474,6 +585,13 @@ public class WorkhorseService {
         log.info("Execution updated: " + execution);
 
         workhorseController.updateExecution(execution);
+
+        if (wasQueued && ExecutionStatus.QUEUED == status) {
+            workhorse.executionDistributor(execution);
+        }
+        if (wasPlanned && ExecutionStatus.PLANNED == status) {
+            workhorse.push(new NewExecutionEvent(execution));
+        }
         return execution;
     }
 
@@ -487,6 +605,9 @@ public class WorkhorseService {
         if (execution.getStatus() == ExecutionStatus.QUEUED) {
             executionBuffer.removeFromBuffer(execution);
         }
+        if (execution.getStatus() == ExecutionStatus.PLANNED) {
+            workhorse.cancelPlannedExecution(executionId);
+        }
         log.info("Execution removed: {}", execution);
 
         workhorseController.deleteExecution(jobId, executionId);
@@ -611,14 +732,15 @@ public class WorkhorseService {
     }
 
     /**
-     * Get all jobs, whose executions are in the given status
+     * Get all jobs, whose executions are in the given status. The result may be cached, see {@link WorkhorseConfig#getListingCacheTtl()}.
      * 
      * @param status status of executions
      * @param since only executions that have been created after this timestamp have to be returned. If null, it is no more considered
      * @return list of job
      */
     public List<JobExecutionStatusSummary> getJobExecutionStatusSummaries(ExecutionStatus status, LocalDateTime since) {
-        return workhorseController.getJobExecutionStatusSummaries(status, since);
+        return listingCache.get(null, ListingCache.key("jobExecutionStatusSummaries", status, since),
+                        () -> workhorseController.getJobExecutionStatusSummaries(status, since));
     }
 
     /**
@@ -634,7 +756,8 @@ public class WorkhorseService {
     }
 
     /**
-     * Retrieves the counts of {@link Execution} by status for a specific job or for all jobs between a time interval
+     * Retrieves the counts of {@link Execution} by status for a specific job or for all jobs between a time interval. The result may be cached, see
+     * {@link WorkhorseConfig#getListingCacheTtl()}.
      * 
      * @param jobId ID of the corresponding job
      * @param from only executions that were created after this time stamp are considered. If <code>null</code>, the default value is generated by subtracting
@@ -644,6 +767,11 @@ public class WorkhorseService {
      * @return {@link ExecutionStatusCounts}
      */
     public ExecutionStatusCounts getExecutionStatusCounts(Long jobId, LocalDateTime from, LocalDateTime to) {
+        // the key holds the given time range, as the default one changes with every call
+        return listingCache.get(jobId, ListingCache.key("executionStatusCounts", jobId, from, to), () -> queryExecutionStatusCounts(jobId, from, to));
+    }
+
+    private ExecutionStatusCounts queryExecutionStatusCounts(Long jobId, LocalDateTime from, LocalDateTime to) {
         LocalDateTime now = WorkhorseUtil.timestamp();
         if (to == null || to.isAfter(now)) {
             to = now;
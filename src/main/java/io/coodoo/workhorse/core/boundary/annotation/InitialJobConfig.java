@@ -5,8 +5,10 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import io.coodoo.workhorse.core.boundary.WorkerWith;
 import io.coodoo.workhorse.core.control.BaseWorker;
 import io.coodoo.workhorse.core.entity.JobStatus;
+import io.coodoo.workhorse.core.entity.RetryBackoff;
 
 /**
  * Initial Job Config
@@ -17,8 +19,13 @@ public @interface InitialJobConfig {
 
     public static final int JOB_CONFIG_THREADS = 1;
     public static final int JOB_CONFIG_MAX_PER_MINUTE = 0;
+    public static final int JOB_CONFIG_RATE_LIMIT_WINDOW = 0;
+    public static final int JOB_CONFIG_RATE_LIMIT_BURST = 1;
     public static final int JOB_CONFIG_FAIL_RETRIES = 0;
     public static final int JOB_CONFIG_RETRY_DELAY = 4000;
+    public static final int JOB_CONFIG_RETRY_DELAY_MAX = 0;
+    public static final int JOB_CONFIG_WORK_BATCH_SIZE = 1;
+    public static final int JOB_CONFIG_WORK_BATCH_WAIT = 0;
 
     // use the workhorse default value
     public static final int JOB_CONFIG_MINUTES_UNTIL_CLEANUP = -1;
@@ -60,6 +67,16 @@ public @interface InitialJobConfig {
      */
     int maxPerMinute() default JOB_CONFIG_MAX_PER_MINUTE;
 
+    /**
+     * @return Duration in seconds of the window the limit of execution throughput refers to. Default is 0 (a minute).
+     */
+    int rateLimitWindow() default JOB_CONFIG_RATE_LIMIT_WINDOW;
+
+    /**
+     * @return Max number of executions that can be started at once after an idle period. Default is 1 (spread evenly over the window).
+     */
+    int rateLimitBurst() default JOB_CONFIG_RATE_LIMIT_BURST;
+
     /**
      * @return Number of retries after the job faild by an exception. Default value is 0 (no retries).
      */
@@ -70,6 +87,26 @@ public @interface InitialJobConfig {
      */
     int retryDelay() default JOB_CONFIG_RETRY_DELAY;
 
+    /**
+     * @return Strategy to calculate the delay of the next retry based on the retry delay. Default is {@link RetryBackoff#FIXED}.
+     */
+    RetryBackoff retryBackoff() default RetryBackoff.FIXED;
+
+    /**
+     * @return Upper limit of the delay to start a retry in milliseconds. Default is 0 (no limit).
+     */
+    int retryDelayMax() default JOB_CONFIG_RETRY_DELAY_MAX;
+
+    /**
+     * @return Max number of executions a {@link WorkerWith} gets at once in {@link WorkerWith#doWorkBatch(java.util.List)}. Default is 1 (no work batches).
+     */
+    int workBatchSize() default JOB_CONFIG_WORK_BATCH_SIZE;
+
+    /**
+     * @return Max time in milliseconds to wait for more executions until a work batch is full. Default is 0 (only the already queued executions).
+     */
+    int workBatchWait() default JOB_CONFIG_WORK_BATCH_WAIT;
+
     /**
      * @return Number of minutes after the job executions get deleted. The default value depends on the active persistence.
      */
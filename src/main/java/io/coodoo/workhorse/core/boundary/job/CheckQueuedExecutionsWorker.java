@@ -84,7 +84,8 @@ public class CheckQueuedExecutionsWorker extends Worker {
             }
 
             // Check if more queued executions than the defined limit <MIN_NUMBER_OF_QUEUED_EXECUTION> were created many minutes ago.
-            ListingParameters listingParameters = new ListingParameters(0);
+            // only the count is needed, so the listing doesn't have to return all of them
+            ListingParameters listingParameters = new ListingParameters(1);
             listingParameters.addFilterAttributes("status", ExecutionStatus.QUEUED);
             listingParameters.addFilterAttributes("createdAt",
                             CollectionListing.OPERATOR_LT + WorkhorseUtil.timestamp().minusMinutes(DURATION_OF_EXECUTIONS_IN_STATUS_QUEUED_IN_MINUTE));
@@ -4,6 +4,8 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.inject.Inject;
 
@@ -124,13 +126,47 @@ public abstract class BaseWorker {
     }
 
     protected Execution createExecution(Object parameters, Boolean priority, LocalDateTime plannedFor, LocalDateTime expiresAt, Long batchId, Long chainId) {
+
+        int priorityLevel = priority != null && priority ? Execution.PRIORITY_LEVEL_MAX : Execution.PRIORITY_LEVEL_MIN;
+        return createExecution(parameters, priorityLevel, plannedFor, expiresAt, batchId, chainId);
+    }
+
+    protected Execution createExecution(Object parameters, int priorityLevel, LocalDateTime plannedFor, LocalDateTime expiresAt, Long batchId, Long chainId) {
+        Long jobId = getJob().getId();
+        boolean uniqueQueued = getJob().isUniqueQueued();
+
+        String encodedParameters = encodeParameters(parameters);
+
+        return workhorseController.createExecution(jobId, encodedParameters, priorityLevel, plannedFor, expiresAt, batchId, chainId, uniqueQueued);
+
+    }
+
+    /**
+     * Creates an execution for every item of the parameters list with a single write to the persistence
+     * 
+     * @return only the newly created executions in the order of the parameters list, without the ones that are already queued
+     */
+    protected List<Execution> createNewExecutions(List<?> parametersList, int priorityLevel, LocalDateTime plannedFor, LocalDateTime expiresAt,
+                    Long batchId, Long chainId) {
         Long jobId = getJob().getId();
         boolean uniqueQueued = getJob().isUniqueQueued();
 
-        String parametersAsJson = WorkhorseUtil.parametersToJson(parameters);
+        List<String> encodedParametersList = new ArrayList<>(parametersList.size());
+        for (Object parameters : parametersList) {
+            encodedParametersList.add(encodeParameters(parameters));
+        }
 
-        return workhorseController.createExecution(jobId, parametersAsJson, priority, plannedFor, expiresAt, batchId, chainId, uniqueQueued);
+        return workhorseController.createNewExecutions(jobId, encodedParametersList, priorityLevel, plannedFor, expiresAt, batchId, chainId, uniqueQueued);
+    }
 
+    /**
+     * Converts the parameters of a new execution to the string that gets stored in {@link Execution#getParameters()}
+     * 
+     * @param parameters parameters object, may be <code>null</code>
+     * @return the stored parameters
+     */
+    protected String encodeParameters(Object parameters) {
+        return WorkhorseUtil.parametersToJson(parameters);
     }
 
     public Job getJob() {
@@ -456,7 +492,7 @@ public abstract class BaseWorker {
 
     public abstract class BaseExecutionBuilder<T> {
 
-        protected boolean priority;
+        protected int priorityLevel = Execution.PRIORITY_LEVEL_MIN;
         protected LocalDateTime plannedFor;
         protected LocalDateTime expiresAt;
 
@@ -466,7 +502,7 @@ public abstract class BaseWorker {
          * @return execution ID
          */
         public Long build() {
-            return createExecution(null, priority, plannedFor, expiresAt, null, null).getId();
+            return createExecution(null, priorityLevel, plannedFor, expiresAt, null, null).getId();
         }
 
         /**
@@ -476,7 +512,19 @@ public abstract class BaseWorker {
          */
         @SuppressWarnings("unchecked")
         public T prioritize() {
-            this.priority = true;
+            this.priorityLevel = Execution.PRIORITY_LEVEL_MAX;
+            return (T) this;
+        }
+
+        /**
+         * Prioritize an execution by a level. Executions with a higher level are processed first.
+         * 
+         * @param priorityLevel level between {@link Execution#PRIORITY_LEVEL_MIN} and {@link Execution#PRIORITY_LEVEL_MAX}
+         * @return the builder to set another feature
+         */
+        @SuppressWarnings("unchecked")
+        public T prioritize(int priorityLevel) {
+            this.priorityLevel = priorityLevel;
             return (T) this;
         }
 
@@ -4,14 +4,16 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -38,16 +40,7 @@ public class ExecutionBuffer {
     @Inject
     WorkhorseController workhorseController;
 
-    private Map<Long, Queue<Long>> executions = new HashMap<>();
-    private Map<Long, Queue<Long>> priorityExecutions = new HashMap<>();
-    private Map<Long, Set<Long>> runningExecutions = new HashMap<>();
-    private Map<Long, Set<JobThread>> jobThreads = new HashMap<>();
-    private Map<Long, Set<CompletionStage<Job>>> completionStages = new HashMap<>();
-    private Map<Long, Integer> runningJobThreadCounts = new HashMap<>();
-    private Map<Long, Integer> jobThreadCounts = new HashMap<>();
-    private Map<Long, Long> jobStartTimes = new HashMap<>();
-    private Map<Long, ReentrantLock> jobLocks = new ConcurrentHashMap<>();
-    private ReentrantLock myLock = new ReentrantLock();
+    private Map<Long, JobBuffer> jobBuffers = new ConcurrentHashMap<>();
 
     public void initialize() {
 
@@ -61,13 +54,32 @@ public class ExecutionBuffer {
 
     public void initialize(Job job) {
 
-        jobThreads.put(job.getId(), new HashSet<>());
-        executions.put(job.getId(), new ConcurrentLinkedQueue<>());
-        priorityExecutions.put(job.getId(), new ConcurrentLinkedQueue<>());
-        runningExecutions.put(job.getId(), new HashSet<>());
-        jobThreadCounts.put(job.getId(), job.getThreads());
-        runningJobThreadCounts.put(job.getId(), 0);
-        completionStages.put(job.getId(), new HashSet<>());
+        // Job threads that are still running keep working on the existing buffer, only the limits get updated
+        JobBuffer jobBuffer = jobBuffers.computeIfAbsent(job.getId(), id -> new JobBuffer(job.getThreads()));
+        jobBuffer.setJobThreadCount(job.getThreads());
+        jobBuffer.updateRateLimit(job.getMaxPerMinute(), job.getRateLimitWindow(), job.getRateLimitBurst());
+        jobBuffer.setPriorityAgingMillis(TimeUnit.SECONDS.toMillis(StaticConfig.PRIORITY_AGING));
+    }
+
+    /**
+     * Applies a new priority aging to the buffers of all jobs
+     * 
+     * @param priorityAging seconds per priority level, <code>0</code> to disable the aging
+     */
+    public void updatePriorityAging(int priorityAging) {
+        for (JobBuffer jobBuffer : jobBuffers.values()) {
+            jobBuffer.setPriorityAgingMillis(TimeUnit.SECONDS.toMillis(priorityAging));
+        }
+    }
+
+    /**
+     * Retrieves the buffer of the given job
+     * 
+     * @param jobId ID of the job
+     * @return the {@link JobBuffer} or <code>null</code> if the job has not been initialized
+     */
+    public JobBuffer getJobBuffer(Long jobId) {
+        return jobBuffers.get(jobId);
     }
 
     /**
@@ -82,27 +94,20 @@ public class ExecutionBuffer {
             return null;
         }
 
-        Queue<Long> jobsExecutions = executions.get(job.getId());
-        Queue<Long> jobsPriorityExecutions = priorityExecutions.get(job.getId());
-        Set<Long> jobsRunningExecutions = runningExecutions.get(job.getId());
-        Set<JobThread> threads = jobThreads.get(job.getId());
-        Set<CompletionStage<Job>> jobsCompletionStages = completionStages.get(job.getId());
-        Integer jobsRunningJobThreadCounts = runningJobThreadCounts.get(job.getId());
-        Integer jobsThreadCounts = jobThreadCounts.get(job.getId());
+        JobBuffer jobBuffer = jobBuffers.get(job.getId());
+        if (jobBuffer == null) {
+            return new JobBufferStatus();
+        }
+        return new JobBufferStatus(toIds(jobBuffer.getExecutions()), toIds(jobBuffer.getPriorityExecutions()), jobBuffer.getRunningExecutions(),
+                        jobBuffer.getJobThreads(), jobBuffer.getCompletionStages(), jobBuffer.getRunningJobThreadCount(), jobBuffer.getJobThreadCount());
+    }
 
-        return new JobBufferStatus(jobsExecutions, jobsPriorityExecutions, jobsRunningExecutions, threads, jobsCompletionStages, jobsRunningJobThreadCounts,
-                        jobsThreadCounts);
+    private Queue<Long> toIds(List<Execution> executions) {
+        return executions.stream().map(Execution::getId).collect(Collectors.toCollection(LinkedList::new));
     }
 
     public void clear() {
-
-        jobThreads.clear();
-        executions.clear();
-        priorityExecutions.clear();
-        runningExecutions.clear();
-        jobThreadCounts.clear();
-        runningJobThreadCounts.clear();
-        completionStages.clear();
+        jobBuffers.clear();
     }
 
     /**
@@ -123,21 +128,18 @@ public class ExecutionBuffer {
     public void clearMemoryQueue(Job job) {
         log.trace("The Processing of the job {} will be cancel", job);
 
-        if (!executions.containsKey(job.getId()) || !priorityExecutions.containsKey(job.getId())) {
+        JobBuffer jobBuffer = jobBuffers.get(job.getId());
+        if (jobBuffer == null) {
             log.warn("Queue is missing for job: {} ", job);
             return;
         }
 
-        int sizeMemoryQueue = executions.get(job.getId()).size();
-        int sizePriorityMemoryQueue = priorityExecutions.get(job.getId()).size();
-
-        if (sizeMemoryQueue > 0 || sizePriorityMemoryQueue > 0) {
+        if (jobBuffer.hasQueuedExecutions()) {
 
-            log.trace("Clearing job execution queue with {} elements and {} priority elements for job: {}", executions.get(job.getId()).size(),
-                            priorityExecutions.get(job.getId()).size(), job.getName());
+            log.trace("Clearing job execution queue with {} elements and {} priority elements for job: {}", jobBuffer.getExecutions().size(),
+                            jobBuffer.getPriorityExecutions().size(), job.getName());
 
-            executions.get(job.getId()).clear();
-            priorityExecutions.get(job.getId()).clear();
+            jobBuffer.clearQueues();
         }
     }
 
@@ -159,98 +161,75 @@ public class ExecutionBuffer {
      */
     public void stopAllJobThread(Job job) {
 
-        if (jobThreads.containsKey(job.getId()) && jobThreads.get(job.getId()).isEmpty()) {
+        JobBuffer jobBuffer = jobBuffers.get(job.getId());
+        if (jobBuffer == null) {
+            return;
+        }
+
+        if (jobBuffer.getJobThreads().isEmpty()) {
             log.trace("Process cancelled. All job threads and job executions removed.");
         } else {
 
-            for (JobThread jobThread : this.jobThreads.get(job.getId())) {
+            for (JobThread jobThread : jobBuffer.getJobThreads()) {
 
                 // Stop the process
                 jobThread.stop();
             }
 
-            jobThreads.get(job.getId()).clear();
+            jobBuffer.getJobThreads().clear();
         }
 
-        runningJobThreadCounts.replace(job.getId(), 0);
+        jobBuffer.resetRunningJobThreadCount();
 
-        if (!completionStages.containsKey(job.getId())) {
-            return;
-        }
-
-        for (CompletionStage<Job> completion : completionStages.get(job.getId())) {
+        for (CompletionStage<Job> completion : jobBuffer.getCompletionStages()) {
 
             // Stop the thread. The thread is not really stopped. The link with the thread is just broken.
             completion.toCompletableFuture().cancel(true);
         }
 
-        completionStages.get(job.getId()).clear();
+        jobBuffer.getCompletionStages().clear();
     }
 
     public void removeFromBuffer(Execution execution) {
 
-        Long jobId = execution.getJobId();
+        JobBuffer jobBuffer = jobBuffers.get(execution.getJobId());
+        if (jobBuffer == null) {
+            return;
+        }
         Long executionId = execution.getId();
 
-        if (runningExecutions.containsKey(jobId) && runningExecutions.get(jobId).contains(executionId)) {
+        if (jobBuffer.getRunningExecutions().contains(executionId)) {
             log.warn("Can't remove running job execution from queue: {} ", execution);
 
-        } else if (executions.containsKey(jobId) && executions.get(jobId).remove(executionId)) {
+        } else if (jobBuffer.remove(executionId)) {
             log.trace("Removed from queue: {} ", execution);
-
-        } else if (priorityExecutions.containsKey(jobId) && priorityExecutions.get(jobId).remove(executionId)) {
-            log.trace("Removed from priority queue: {}", execution);
         }
     }
 
     public int getNumberOfExecution(Long jobId) {
-        return executions.get(jobId).size() + runningExecutions.get(jobId).size();
-    }
-
-    public ReentrantLock getLock(Long jobId) {
-        ReentrantLock keyLock = jobLocks.get(jobId);
-
-        if (keyLock == null) {
-            myLock.lock();
-            try {
-                keyLock = jobLocks.get(jobId);
-                if (keyLock == null) {
-                    keyLock = new ReentrantLock();
-                    jobLocks.put(jobId, keyLock);
-                }
-            } finally {
-                myLock.unlock();
-            }
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        if (jobBuffer == null) {
+            return 0;
         }
-        return keyLock;
+        return jobBuffer.size();
     }
 
-    public Map<Long, Queue<Long>> getExecutions() {
-        return executions;
-    }
-
-    public void addExecution(Long jobId, Long execution) {
-        executions.get(jobId).add(execution);
-    }
-
-    public Long pollExecutionQueue(Long jobId) {
-        return executions.get(jobId).poll();
-    }
-
-    public Map<Long, Queue<Long>> getPriorityExecutions() {
-        return priorityExecutions;
-    }
-
-    public void addPriorityExecution(Long jobId, Long execution) {
-        priorityExecutions.get(jobId).add(execution);
+    public ReentrantLock getLock(Long jobId) {
+        return jobBuffers.get(jobId).getLock();
     }
 
-    public Long pollPriorityExecutionQueue(Long jobId) {
-        return priorityExecutions.get(jobId).poll();
+    public boolean addExecution(Long jobId, Execution execution) {
+        return jobBuffers.get(jobId).offer(execution);
     }
 
-    public Map<Long, Set<Long>> getRunningExecutions() {
-        return runningExecutions;
+    /**
+     * Retrieves the next execution to process by its aged priority level
+     * 
+     * @param jobId ID of the job
+     * @return the next buffered execution or <code>null</code> if there is none
+     */
+    public Execution pollExecutionQueue(Long jobId) {
+        return jobBuffers.get(jobId).poll();
     }
 
     /**
@@ -263,92 +242,101 @@ public class ExecutionBuffer {
      */
     public boolean isAddable(Long jobId, Long executionId) {
 
-        if (runningExecutions.get(jobId) == null || executions.get(jobId) == null || priorityExecutions.get(jobId) == null) {
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        if (jobBuffer == null) {
             log.error("They are not ExecutionQueue for the job with Id {} ", jobId);
             return false;
         }
-        if (runningExecutions.get(jobId).contains(executionId) || executions.get(jobId).contains(executionId)
-                        || priorityExecutions.get(jobId).contains(executionId)) {
-            return false;
-        }
-        return true;
+        return !jobBuffer.isKnown(executionId);
     }
 
     public void addRunningExecution(Long jobId, Long execution) {
-        runningExecutions.get(jobId).add(execution);
+        jobBuffers.get(jobId).addRunningExecution(execution);
     }
 
     public void removeRunningExecution(Long jobId, Long execution) {
-        runningExecutions.get(jobId).remove(execution);
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        if (jobBuffer != null) {
+            jobBuffer.removeRunningExecution(execution);
+        }
     }
 
     public void addJobStartTimes(Long jobId, Long startTime) {
-        jobStartTimes.put(jobId, startTime);
+        jobBuffers.get(jobId).setStartTime(startTime);
     }
 
     public Long getJobStartTimes(Long jobId) {
-        return jobStartTimes.get(jobId);
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        return jobBuffer == null ? null : jobBuffer.getStartTime();
     }
 
     public void removeJobStartTimes(Long jobId) {
-        jobStartTimes.remove(jobId);
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        if (jobBuffer != null) {
+            jobBuffer.setStartTime(null);
+        }
     }
 
     public Map<Long, Set<JobThread>> getJobThreads() {
+        Map<Long, Set<JobThread>> jobThreads = new HashMap<>();
+        jobBuffers.forEach((jobId, jobBuffer) -> jobThreads.put(jobId, jobBuffer.getJobThreads()));
         return jobThreads;
     }
 
     public Set<JobThread> getJobThreads(Long jobId) {
-        log.trace("Number of Threads: {} ", jobThreads.get(jobId).size());
-        return jobThreads.get(jobId);
+        log.trace("Number of Threads: {} ", jobBuffers.get(jobId).getJobThreads().size());
+        return jobBuffers.get(jobId).getJobThreads();
     }
 
     public void addJobThreads(Long jobId, JobThread jobThread) {
         log.trace("Add JobThread in Queue: {} ", jobThread);
-        jobThreads.get(jobId).add(jobThread);
+        jobBuffers.get(jobId).getJobThreads().add(jobThread);
     }
 
     public void removeJobThread(Long jobId, JobThread jobThread) {
         log.trace("Remove Thread: {}", jobThread);
-        jobThreads.get(jobId).remove(jobThread);
+        jobBuffers.get(jobId).getJobThreads().remove(jobThread);
     }
 
     public int getRunningJobThreadCounts(Long jobId) {
-        return runningJobThreadCounts.get(jobId);
+        return jobBuffers.get(jobId).getRunningJobThreadCount();
     }
 
-    public void addRunningJobThreadCounts(Long jobId) {
-        int actualCount = runningJobThreadCounts.get(jobId);
-        runningJobThreadCounts.replace(jobId, actualCount + 1);
+    /**
+     * Reserves a slot for a new {@link JobThread} of the given job
+     * 
+     * @param jobId ID of the job
+     * @return <code>true</code> if the thread limit of the job allows another job thread
+     */
+    public boolean tryAcquireJobThread(Long jobId) {
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        return jobBuffer != null && jobBuffer.tryAcquireJobThread();
     }
 
-    public void removeRunningJobThreadCounts(Long jobId) {
-        int actualCount = runningJobThreadCounts.get(jobId);
-        runningJobThreadCounts.replace(jobId, actualCount - 1);
+    public void releaseJobThread(Long jobId) {
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        if (jobBuffer != null) {
+            jobBuffer.releaseJobThread();
+        }
     }
 
     public void addCompletionStage(Long jobId, CompletionStage<Job> completion) {
-        completionStages.get(jobId).add(completion);
+        jobBuffers.get(jobId).getCompletionStages().add(completion);
     }
 
     public Set<CompletionStage<Job>> getCompletionStage(Long jobId) {
-        return completionStages.get(jobId);
+        return jobBuffers.get(jobId).getCompletionStages();
     }
 
     public void removeCompletionStage(Long jobId, CompletionStage<Job> completion) {
-        completionStages.get(jobId).remove(completion);
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        if (jobBuffer != null) {
+            jobBuffer.getCompletionStages().remove(completion);
+        }
     }
 
     public int getJobThreadCounts(Long jobId) {
-        return jobThreadCounts.get(jobId);
-    }
-
-    public ReentrantLock getJobLocks(Long jobId) {
-        return jobLocks.get(jobId);
-    }
-
-    public ReentrantLock getMyLock() {
-        return myLock;
+        return jobBuffers.get(jobId).getJobThreadCount();
     }
 
     /**
@@ -362,26 +350,20 @@ public class ExecutionBuffer {
         WorkhorseInfo info = new WorkhorseInfo();
         info.setJobId(jobId);
 
-        if (executions != null && executions.get(jobId) != null) {
-            info.setQueuedExecutions(executions.get(jobId).size());
-        }
-        if (priorityExecutions != null && priorityExecutions.get(jobId) != null) {
-            info.setQueuedPriorityExecutions(priorityExecutions.get(jobId).size());
+        JobBuffer jobBuffer = jobBuffers.get(jobId);
+        if (jobBuffer == null) {
+            return info;
         }
-        if (runningExecutions != null && runningExecutions.get(jobId) != null) {
-            for (Long executionId : runningExecutions.get(jobId)) {
-                info.getRunningExecutions().add(workhorseController.getExecutionById(jobId, executionId));
-            }
-        }
-        if (jobThreadCounts != null && jobThreadCounts.get(jobId) != null) {
-            info.setThreadCount(jobThreadCounts.get(jobId));
+
+        info.setQueuedExecutions(jobBuffer.getExecutions().size());
+        info.setQueuedPriorityExecutions(jobBuffer.getPriorityExecutions().size());
+        for (Long executionId : jobBuffer.getRunningExecutions()) {
+            info.getRunningExecutions().add(workhorseController.getExecutionById(jobId, executionId));
         }
-        if (jobStartTimes != null && jobStartTimes.get(jobId) != null) {
-            info.setThreadStartTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(jobStartTimes.get(jobId)), ZoneId.of(StaticConfig.TIME_ZONE)));
+        info.setThreadCount(jobBuffer.getJobThreadCount());
+        if (jobBuffer.getStartTime() != null) {
+            info.setThreadStartTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(jobBuffer.getStartTime()), ZoneId.of(StaticConfig.TIME_ZONE)));
         }
-        // if (pausedJobs != null && pausedJobs.get(jobId) != null) {
-        // info.setPaused(pausedJobs.get(jobId));
-        // }
         return info;
     }
 
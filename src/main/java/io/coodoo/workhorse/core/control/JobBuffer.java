@@ -0,0 +1,365 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.Job;
+
+/**
+ * Buffer of a single {@link Job} that holds the executions to process and the {@link JobThread}s processing them.
+ *
+ * The queues hold the already loaded {@link Execution} objects, so a job thread doesn't need to read them from the persistence again. The IDs of all queued
+ * and running executions are additionally kept in a set, so the check whether an execution is already buffered doesn't need to walk the queues.
+ *
+ * There is one FIFO queue per priority level. An execution that waits longer gets aged: every <code>priorityAgingMillis</code> it is treated like one of
+ * the next higher level, so executions with a low level get processed even behind a steady stream of higher ones.
+ *
+ * All members are thread-safe, so the poller, the pusher and the job threads can access them without a global lock.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class JobBuffer {
+
+    private final List<Queue<QueuedExecution>> levels = new ArrayList<>();
+    private final Set<Long> runningExecutions = ConcurrentHashMap.newKeySet();
+    private final Set<Long> knownExecutionIds = ConcurrentHashMap.newKeySet();
+    private final Set<JobThread> jobThreads = ConcurrentHashMap.newKeySet();
+    private final Set<CompletionStage<Job>> completionStages = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger runningJobThreadCount = new AtomicInteger(0);
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int jobThreadCount;
+    private volatile Long startTime;
+    private volatile RateLimiter rateLimiter;
+    private volatile long priorityAgingMillis;
+    private final AtomicBoolean resumeScheduled = new AtomicBoolean(false);
+
+    public JobBuffer(int jobThreadCount) {
+        this.jobThreadCount = jobThreadCount;
+        for (int level = Execution.PRIORITY_LEVEL_MIN; level <= Execution.PRIORITY_LEVEL_MAX; level++) {
+            levels.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Reserves a slot for a new {@link JobThread}, if the limit of {@link Job#getThreads()} is not reached yet.
+     *
+     * @return <code>true</code> if a slot got reserved and a new job thread may be started, otherwise <code>false</code>
+     */
+    public boolean tryAcquireJobThread() {
+        while (true) {
+            int count = runningJobThreadCount.get();
+            if (count >= jobThreadCount) {
+                return false;
+            }
+            if (runningJobThreadCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot reserved by {@link #tryAcquireJobThread()}
+     */
+    public void releaseJobThread() {
+        runningJobThreadCount.updateAndGet(count -> count > 0 ? count - 1 : 0);
+    }
+
+    /**
+     * @return <code>true</code> if there are executions waiting in one of the queues
+     */
+    public boolean hasQueuedExecutions() {
+        for (Queue<QueuedExecution> queue : levels) {
+            if (!queue.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an execution to the queue, if it is neither queued nor running yet.
+     * 
+     * @param execution execution to add
+     * @return <code>true</code> if the execution got added
+     */
+    public boolean offer(Execution execution) {
+
+        if (!knownExecutionIds.add(execution.getId())) {
+            return false;
+        }
+        levels.get(execution.getPriorityLevel()).add(new QueuedExecution(execution, System.currentTimeMillis()));
+        return true;
+    }
+
+    /**
+     * @param executionId ID of the execution
+     * @return <code>true</code> if the execution is either queued or running
+     */
+    public boolean isKnown(Long executionId) {
+        return knownExecutionIds.contains(executionId);
+    }
+
+    /**
+     * @return number of queued and running executions
+     */
+    public int size() {
+        return knownExecutionIds.size();
+    }
+
+    /**
+     * Marks a polled execution as running
+     * 
+     * @param executionId ID of the execution
+     */
+    public void addRunningExecution(Long executionId) {
+        knownExecutionIds.add(executionId);
+        runningExecutions.add(executionId);
+    }
+
+    /**
+     * Removes a running or polled execution from this buffer, so it can be added again.
+     * 
+     * @param executionId ID of the execution
+     */
+    public void removeRunningExecution(Long executionId) {
+        runningExecutions.remove(executionId);
+        knownExecutionIds.remove(executionId);
+    }
+
+    /**
+     * Removes all queued executions of this buffer
+     */
+    public void clearQueues() {
+        for (Queue<QueuedExecution> queue : levels) {
+            QueuedExecution queuedExecution;
+            while ((queuedExecution = queue.poll()) != null) {
+                knownExecutionIds.remove(queuedExecution.execution.getId());
+            }
+        }
+    }
+
+    /**
+     * Retrieves the next execution to process. The heads of all levels are compared by their aged priority level, on equal levels the execution that waits
+     * longer is taken.
+     * 
+     * @return the next buffered execution or <code>null</code> if there is none
+     */
+    public Execution poll() {
+
+        long agingMillis = priorityAgingMillis;
+        if (agingMillis <= 0) {
+            // without aging the highest level always wins
+            for (int level = Execution.PRIORITY_LEVEL_MAX; level >= Execution.PRIORITY_LEVEL_MIN; level--) {
+                QueuedExecution queuedExecution = levels.get(level).poll();
+                if (queuedExecution != null) {
+                    return queuedExecution.execution;
+                }
+            }
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        Queue<QueuedExecution> nextQueue = null;
+        long nextLevel = -1;
+        long nextQueuedAt = Long.MAX_VALUE;
+
+        for (int level = Execution.PRIORITY_LEVEL_MAX; level >= Execution.PRIORITY_LEVEL_MIN; level--) {
+            Queue<QueuedExecution> queue = levels.get(level);
+            QueuedExecution head = queue.peek();
+            if (head == null) {
+                continue;
+            }
+            long agedLevel = level + (now - head.queuedAt) / agingMillis;
+            if (agedLevel > nextLevel || (agedLevel == nextLevel && head.queuedAt < nextQueuedAt)) {
+                nextQueue = queue;
+                nextLevel = agedLevel;
+                nextQueuedAt = head.queuedAt;
+            }
+        }
+        if (nextQueue == null) {
+            return null;
+        }
+        QueuedExecution queuedExecution = nextQueue.poll();
+        return queuedExecution == null ? null : queuedExecution.execution;
+    }
+
+    /**
+     * @param executionId ID of the execution
+     * @return <code>true</code> if the execution is waiting in one of the queues
+     */
+    public boolean isQueued(Long executionId) {
+        return knownExecutionIds.contains(executionId) && !runningExecutions.contains(executionId);
+    }
+
+    /**
+     * Removes an execution from the queues
+     * 
+     * @param executionId ID of the execution
+     * @return <code>true</code> if the execution was waiting in one of the queues
+     */
+    public boolean remove(Long executionId) {
+
+        if (!isQueued(executionId)) {
+            return false;
+        }
+        boolean removed = false;
+        for (Queue<QueuedExecution> queue : levels) {
+            if (queue.removeIf(queuedExecution -> executionId.equals(queuedExecution.execution.getId()))) {
+                removed = true;
+                break;
+            }
+        }
+        if (removed) {
+            knownExecutionIds.remove(executionId);
+        }
+        return removed;
+    }
+
+    /**
+     * Applies {@link Job#getMaxPerMinute()} with a window of a minute and no burst. The current rate limiter is kept, if the limit did not change.
+     * 
+     * @param maxPerMinute max number of executions per minute, <code>null</code> or less than 1 for no limit
+     */
+    public void updateRateLimit(Integer maxPerMinute) {
+        updateRateLimit(maxPerMinute, 0, 1);
+    }
+
+    /**
+     * Applies {@link Job#getMaxPerMinute()}, {@link Job#getRateLimitWindow()} and {@link Job#getRateLimitBurst()}. The current rate limiter is kept, if the
+     * limit did not change.
+     * 
+     * @param permits max number of executions per window, <code>null</code> or less than 1 for no limit
+     * @param windowSeconds duration of the window in seconds, less than 1 for a minute
+     * @param burst max number of executions that can be started at once after an idle period, less than 1 for none
+     */
+    public void updateRateLimit(Integer permits, int windowSeconds, int burst) {
+
+        if (permits == null || permits < 1) {
+            rateLimiter = null;
+        } else if (rateLimiter == null
+                        || !rateLimiter.hasLimit(permits, RateLimiter.windowSeconds(windowSeconds), TimeUnit.SECONDS, Math.max(burst, 1))) {
+            rateLimiter = RateLimiter.perWindow(permits, windowSeconds, burst);
+        }
+    }
+
+    /**
+     * Marks that the job threads get resumed later, because the rate limit is reached
+     * 
+     * @return <code>true</code> if the resume was not scheduled yet
+     */
+    public boolean scheduleResume() {
+        return resumeScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks that the scheduled resume has happened
+     */
+    public void resumed() {
+        resumeScheduled.set(false);
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return snapshot of the queued executions without priority
+     */
+    public List<Execution> getExecutions() {
+        return snapshot(Execution.PRIORITY_LEVEL_MIN, Execution.PRIORITY_LEVEL_MIN);
+    }
+
+    /**
+     * @return snapshot of the queued priority executions, highest level first
+     */
+    public List<Execution> getPriorityExecutions() {
+        return snapshot(Execution.PRIORITY_LEVEL_MIN + 1, Execution.PRIORITY_LEVEL_MAX);
+    }
+
+    private List<Execution> snapshot(int minLevel, int maxLevel) {
+        List<Execution> snapshot = new ArrayList<>();
+        for (int level = maxLevel; level >= minLevel; level--) {
+            for (QueuedExecution queuedExecution : levels.get(level)) {
+                snapshot.add(queuedExecution.execution);
+            }
+        }
+        return snapshot;
+    }
+
+    public long getPriorityAgingMillis() {
+        return priorityAgingMillis;
+    }
+
+    public void setPriorityAgingMillis(long priorityAgingMillis) {
+        this.priorityAgingMillis = priorityAgingMillis;
+    }
+
+    public Set<Long> getRunningExecutions() {
+        return runningExecutions;
+    }
+
+    public Set<JobThread> getJobThreads() {
+        return jobThreads;
+    }
+
+    public Set<CompletionStage<Job>> getCompletionStages() {
+        return completionStages;
+    }
+
+    public int getRunningJobThreadCount() {
+        return runningJobThreadCount.get();
+    }
+
+    public void resetRunningJobThreadCount() {
+        runningJobThreadCount.set(0);
+    }
+
+    public int getJobThreadCount() {
+        return jobThreadCount;
+    }
+
+    public void setJobThreadCount(int jobThreadCount) {
+        this.jobThreadCount = jobThreadCount;
+    }
+
+    public Long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Long startTime) {
+        this.startTime = startTime;
+    }
+
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    @Override
+    public String toString() {
+        return "JobBuffer [queuedExecutions=" + (knownExecutionIds.size() - runningExecutions.size()) + ", runningExecutions="
+                        + runningExecutions.size() + ", jobThreads=" + jobThreads.size() + ", runningJobThreadCount=" + runningJobThreadCount
+                        + ", jobThreadCount=" + jobThreadCount + ", rateLimiter=" + rateLimiter + "]";
+    }
+
+    private static final class QueuedExecution {
+
+        private final Execution execution;
+        private final long queuedAt;
+
+        private QueuedExecution(Execution execution, long queuedAt) {
+            this.execution = execution;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+}
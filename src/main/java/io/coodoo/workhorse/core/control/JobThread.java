@@ -1,29 +1,26 @@
 package io.coodoo.workhorse.core.control;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 import javax.enterprise.context.Dependent;
-import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.event.Event;
 import javax.enterprise.event.ObservesAsync;
-import javax.enterprise.inject.Any;
-import javax.enterprise.inject.spi.Bean;
-import javax.enterprise.inject.spi.BeanManager;
-import javax.enterprise.util.AnnotationLiteral;
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.coodoo.workhorse.core.boundary.ExecutionContext;
+import io.coodoo.workhorse.core.boundary.WorkBatchResult;
 import io.coodoo.workhorse.core.boundary.Worker;
 import io.coodoo.workhorse.core.boundary.WorkerWith;
 import io.coodoo.workhorse.core.control.event.AllExecutionsDoneEvent;
 import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
 import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
 import io.coodoo.workhorse.persistence.interfaces.JobPersistence;
@@ -39,7 +36,7 @@ import io.coodoo.workhorse.persistence.interfaces.qualifier.JobQualifier;
 public class JobThread {
 
     @Inject
-    BeanManager beanManager;
+    WorkerRegistry workerRegistry;
 
     @Inject
     @ExecutionQualifier
@@ -55,6 +52,9 @@ public class JobThread {
     @Inject
     ExecutionBuffer executionBuffer;
 
+    @Inject
+    Workhorse workhorse;
+
     @Inject
     Event<AllExecutionsDoneEvent> allExecutionsDoneEvent;
 
@@ -62,25 +62,23 @@ public class JobThread {
     ExecutionContext executionContext;
 
     private Job job;
-    private boolean stopMe;
+    private JobBuffer jobBuffer;
+    private volatile boolean stopMe;
     private Execution runningExecution;
     private Thread thread;
     private List<Execution> chainedExecutions = new ArrayList<>();
     private Long chainId = null;
+    private Execution nextExecution;
+
+    private static final long WORK_BATCH_POLL_INTERVAL = 5;
 
     private static final Logger log = LoggerFactory.getLogger(JobThread.class);
 
     private BaseWorker getWorker(Job job) throws ClassNotFoundException {
-        @SuppressWarnings("serial")
-        Set<Bean<?>> beans = beanManager.getBeans(BaseWorker.class, new AnnotationLiteral<Any>() {});
-        for (Bean<?> bean : beans) {
-            Class<?> workerclass = bean.getBeanClass();
-            if (job.getWorkerClassName().equals(workerclass.getName())) {
-
-                CreationalContext<?> creationalContext = beanManager.createCreationalContext(bean);
-                return (BaseWorker) beanManager.getReference(bean, bean.getBeanClass(), creationalContext);
-            }
 
+        BaseWorker worker = workerRegistry.getWorker(job.getWorkerClassName());
+        if (worker != null) {
+            return worker;
         }
 
         log.error("No worker class {} found for {} ({})", job.getWorkerClassName(), job.getName(), job.getId());
@@ -97,7 +95,12 @@ public class JobThread {
         this.job = job;
         Long jobId = job.getId();
 
-        executionBuffer.addJobThreads(jobId, this);
+        jobBuffer = executionBuffer.getJobBuffer(jobId);
+        if (jobBuffer == null) {
+            log.error("No buffer found for {}", job);
+            return Long.valueOf(0);
+        }
+        jobBuffer.getJobThreads().add(this);
 
         final BaseWorker workerInstance = getWorker(job);
         boolean isWorkerWithParameters = workerInstance instanceof WorkerWith;
@@ -109,26 +112,66 @@ public class JobThread {
             worker = ((Worker) workerInstance);
         }
 
+        boolean isWorkBatch = isWorkerWithParameters && job.getWorkBatchSize() > 1 && !job.isAsynchronous();
+
         while (true) {
             if (this.stopMe) {
+                if (nextExecution != null) {
+                    jobBuffer.removeRunningExecution(nextExecution.getId());
+                    nextExecution = null;
+                }
                 break;
             }
 
-            Execution execution = pollNextExecutionfromBuffer(job);
+            RateLimiter rateLimiter = jobBuffer.getRateLimiter();
+            Execution execution = nextExecution;
+            nextExecution = null;
 
             if (execution == null) {
-                allExecutionsDoneEvent.fire(new AllExecutionsDoneEvent(job));
-                break;
+                boolean acquired = false;
+                if (rateLimiter != null && jobBuffer.hasQueuedExecutions()) {
+                    if (!rateLimiter.tryAcquire()) {
+                        // The thread is freed for other jobs until the next execution is permitted
+                        throttle(rateLimiter);
+                        break;
+                    }
+                    acquired = true;
+                }
+
+                execution = pollNextExecutionfromBuffer(job);
+
+                if (execution == null) {
+                    if (acquired) {
+                        // Another thread took the execution or its claim got lost, so the permit is still unused
+                        rateLimiter.release();
+                    }
+                    if (!release()) {
+                        continue;
+                    }
+                    allExecutionsDoneEvent.fire(new AllExecutionsDoneEvent(job));
+                    break;
+                }
+            } else {
+                runningExecution = execution;
             }
 
-            int minMillisPerExecution = 0;
-            if (job.getMaxPerMinute() != null && job.getMaxPerMinute() > 0 && job.getMaxPerMinute() <= 60000) {
-                minMillisPerExecution = 60000 / job.getMaxPerMinute();
+            // Chains are processed one execution after another, so they are never part of a work batch
+            if (isWorkBatch && execution.getChainId() == null) {
+                processWorkBatch(workerInstance, workerWith, pollWorkBatch(execution, rateLimiter));
+                continue;
             }
 
+            boolean permitted = true;
+
             executionLoop: while (true) {
 
-                executionBuffer.addRunningExecution(jobId, execution.getId());
+                // Chained executions and retries stay on this thread, so it waits for their permit
+                if (!permitted && rateLimiter != null) {
+                    rateLimiter.acquire();
+                }
+                permitted = false;
+
+                jobBuffer.addRunningExecution(execution.getId());
 
                 log.trace("On Running Job Execution: {}", runningExecution);
 
@@ -137,7 +180,20 @@ public class JobThread {
 
                 try {
 
-                    workhorseController.setExecutionStatusToRunning(execution);
+                    // Executions of the buffer are already claimed, chained executions and retries are not
+                    if (execution.getStatus() != ExecutionStatus.RUNNING) {
+                        Execution claimedExecution = workhorseController.claimExecution(execution);
+                        if (claimedExecution == null) {
+                            log.trace("Execution {} is no longer in status {} and gets skipped", execution.getId(), ExecutionStatus.QUEUED);
+                            jobBuffer.removeRunningExecution(execution.getId());
+                            // the rest of an aborted chain is skipped as well
+                            chainId = null;
+                            chainedExecutions = new ArrayList<>();
+                            break executionLoop;
+                        }
+                        execution = claimedExecution;
+                        runningExecution = execution;
+                    }
                     workerInstance.getExecutionContext().init(execution);
                     String summary = null;
 
@@ -149,20 +205,13 @@ public class JobThread {
                         summary = worker.doWork();
                     }
 
-                    long duration = System.currentTimeMillis() - millisAtStart;
-
-                    if (duration < minMillisPerExecution) {
-                        // this execution was to fast and must wait to not exceed the limit of
-                        // executions per minute
-                        TimeUnit.MILLISECONDS.sleep(minMillisPerExecution - duration);
-                    }
-
                     if (summary != null && !summary.isEmpty()) {
                         executionContext.summarize(execution, summary);
                     }
 
                     // Executions of asynchronous jobs get terminated by a external call
                     if (job.isAsynchronous()) {
+                        executionContext.flushLog();
                         break executionLoop;
                     }
 
@@ -209,11 +258,20 @@ public class JobThread {
                         break executionLoop; // Do not retry
                     }
 
+                    if (execution.getStatus() == ExecutionStatus.PLANNED) {
+                        // The retry is processed when it is due, meanwhile this thread continues with other executions
+                        log.trace("Execution {} failed. The retry {} is planned for {}", execution.getFailRetryExecutionId(), execution.getId(),
+                                        execution.getPlannedFor());
+                        break executionLoop;
+                    }
+
                     runningExecution = execution;
 
-                    log.trace("Execution {} failed. It will be retry in {} seconds. ", execution.getJobId(), job.getRetryDelay() / 1000);
+                    long retryDelay = workhorseController.getRetryDelay(job, execution.getFailRetry());
+                    log.trace("Execution {} of the chain {} failed. It will be retry in {} milliseconds. ", execution.getId(), execution.getChainId(),
+                                    retryDelay);
 
-                    Thread.sleep(job.getRetryDelay());
+                    Thread.sleep(retryDelay);
                 }
             }
         }
@@ -224,51 +282,188 @@ public class JobThread {
         return Long.valueOf(t2 - t1);
     }
 
-    private Execution pollNextExecutionfromBuffer(Job job) {
-        Execution execution = null;
-        Long jobId = job.getId();
+    /**
+     * Polls further executions from the buffer until the work batch is full, the buffer stays empty for {@link Job#getWorkBatchWait()} or the rate limit is
+     * reached. They get claimed all at once by {@link WorkhorseController#claimExecutions(List)}, the ones that got claimed elsewhere are left out. A polled
+     * execution of a chain ends the work batch and gets processed next on its own.
+     * 
+     * @param execution first execution of the work batch, it is already claimed
+     * @param rateLimiter rate limiter of the job, may be <code>null</code>
+     * @return executions of the work batch
+     * @throws InterruptedException if the thread got interrupted while waiting for more executions
+     */
+    private List<Execution> pollWorkBatch(Execution execution, RateLimiter rateLimiter) throws InterruptedException {
+
+        List<Execution> polled = new ArrayList<>(job.getWorkBatchSize());
+        long deadline = System.currentTimeMillis() + job.getWorkBatchWait();
+
+        while (polled.size() + 1 < job.getWorkBatchSize() && !stopMe) {
+
+            if (!jobBuffer.hasQueuedExecutions()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                Thread.sleep(Math.min(remaining, WORK_BATCH_POLL_INTERVAL));
+                continue;
+            }
+            if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+                break;
+            }
+            Execution nextInBuffer = pollBuffer();
+            if (nextInBuffer == null) {
+                if (rateLimiter != null) {
+                    rateLimiter.release();
+                }
+                continue;
+            }
+            if (nextInBuffer.getChainId() != null) {
+                // it gets claimed when it is processed
+                nextExecution = nextInBuffer;
+                break;
+            }
+            polled.add(nextInBuffer);
+        }
 
-        // only the poll-function have to be thread-safe.
-        ReentrantLock lock = executionBuffer.getLock(jobId);
-        try {
-            lock.lock();
+        List<Execution> workBatch = new ArrayList<>(polled.size() + 1);
+        workBatch.add(execution);
+        if (polled.isEmpty()) {
+            return workBatch;
+        }
+        List<Execution> claimed = workhorseController.claimExecutions(polled);
+        workBatch.addAll(claimed);
 
-            // Get the next Job Execution Id
-            Long executionId = executionBuffer.pollPriorityExecutionQueue(jobId);
-            if (executionId != null) {
-                // Get the correspondent Execution
-                execution = executionPersistence.getById(jobId, executionId);
+        if (claimed.size() < polled.size()) {
+            Set<Long> claimedIds = new HashSet<>();
+            for (Execution claimedExecution : claimed) {
+                claimedIds.add(claimedExecution.getId());
+            }
+            for (Execution lost : polled) {
+                if (!claimedIds.contains(lost.getId())) {
+                    log.trace("Buffered execution {} is no longer in status {} and gets skipped", lost.getId(), ExecutionStatus.QUEUED);
+                    jobBuffer.removeRunningExecution(lost.getId());
+                    if (rateLimiter != null) {
+                        rateLimiter.release();
+                    }
+                }
             }
+        }
+        return workBatch;
+    }
 
-            // If they are no priority Execution, get a normal one.
-            if (execution == null) {
-                executionId = executionBuffer.pollExecutionQueue(jobId);
+    /**
+     * Processes the executions of a work batch with a single call of {@link WorkerWith#doWorkBatch(List)}. They got claimed when they were polled and are
+     * finished together, failed executions are handled one by one.
+     * 
+     * @param workerInstance worker of the job
+     * @param workerWith worker of the job
+     * @param workBatch executions of the work batch
+     */
+    private void processWorkBatch(BaseWorker workerInstance, WorkerWith<Object> workerWith, List<Execution> workBatch) {
+
+        for (Execution execution : workBatch) {
+            jobBuffer.addRunningExecution(execution.getId());
+        }
+        log.trace("On Running work batch of {} executions", workBatch.size());
 
-                if (executionId != null) {
-                    execution = executionPersistence.getById(jobId, executionId);
+        long millisAtStart = System.currentTimeMillis();
+        List<Object> parametersList = new ArrayList<>(workBatch.size());
+        WorkBatchResult workBatchResult;
 
-                }
+        try {
+            workerInstance.getExecutionContext().initWorkBatch(workBatch);
+            for (Execution execution : workBatch) {
+                parametersList.add(workerWith.getParameters(execution));
             }
 
-            // If they are no more Execution, finish the JobThread
-            if (execution == null) {
-                log.trace("No more executions for the Job: {} to execute", job);
+            workBatchResult = workerWith.doWorkBatch(parametersList);
 
-                executionBuffer.removeJobThread(jobId, this);
-                executionBuffer.removeRunningJobThreadCounts(jobId);
-                if (executionBuffer.getJobThreads(jobId).isEmpty()) {
-                    log.trace("All job executions done for job {} ", job);
-                }
+            if (workBatchResult == null) {
+                workBatchResult = new WorkBatchResult(workBatch.size());
+            } else if (workBatchResult.size() != workBatch.size()) {
+                workBatchResult = new WorkBatchResult(workBatch.size())
+                                .failAll(new RuntimeException("The result of a work batch must have one entry per execution!"));
+            }
+        } catch (Exception e) {
+            while (parametersList.size() < workBatch.size()) {
+                parametersList.add(null);
+            }
+            workBatchResult = new WorkBatchResult(workBatch.size()).failAll(e);
+        }
+
+        workhorseController.finishWorkBatch(job, workerWith, workBatch, parametersList, workBatchResult, System.currentTimeMillis() - millisAtStart);
+    }
+
+    private Execution pollNextExecutionfromBuffer(Job job) {
+        Execution execution = null;
+
+        while (true) {
 
+            execution = pollBuffer();
+
+            if (execution == null) {
+                break;
             }
+            // The buffer holds a copy of the execution, only the persistence knows if it is still QUEUED
+            Execution claimedExecution = workhorseController.claimExecution(execution);
+            if (claimedExecution != null) {
+                execution = claimedExecution;
+                break;
+            }
+            log.trace("Buffered execution {} is no longer in status {} and gets skipped", execution.getId(), ExecutionStatus.QUEUED);
+            jobBuffer.removeRunningExecution(execution.getId());
+        }
 
-            runningExecution = execution;
+        runningExecution = execution;
+        return execution;
+    }
+
+    private Execution pollBuffer() {
 
+        // only the poll-function have to be thread-safe.
+        ReentrantLock lock = jobBuffer.getLock();
+        try {
+            lock.lock();
+            return jobBuffer.poll();
         } finally {
             lock.unlock();
         }
+    }
 
-        return execution;
+    /**
+     * Gives back the slot of this job thread. If an execution got added to the buffer in the meantime and no other thread is able to take it, this thread
+     * reserves the slot again and continues.
+     * 
+     * @return <code>true</code> if this thread has to end, <code>false</code> if it has to continue polling
+     */
+    private boolean release() {
+
+        jobBuffer.releaseJobThread();
+
+        if (!stopMe && jobBuffer.hasQueuedExecutions() && jobBuffer.tryAcquireJobThread()) {
+            return false;
+        }
+
+        log.trace("No more executions for the Job: {} to execute", job);
+        jobBuffer.getJobThreads().remove(this);
+        if (jobBuffer.getJobThreads().isEmpty()) {
+            log.trace("All job executions done for job {} ", job);
+        }
+        return true;
+    }
+
+    /**
+     * Gives back the slot of this job thread, because the rate limit of the job is reached. The job threads get started again as soon as the next execution
+     * is permitted.
+     * 
+     * @param rateLimiter rate limiter of the job
+     */
+    private void throttle(RateLimiter rateLimiter) {
+
+        log.trace("Rate limit of the job {} reached", job);
+        jobBuffer.releaseJobThread();
+        jobBuffer.getJobThreads().remove(this);
+        workhorse.resumeJobThreads(job.getId(), rateLimiter.getMillisUntilAvailable());
     }
 
     public void stop() {
@@ -0,0 +1,279 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import io.coodoo.workhorse.core.entity.ListingCacheMetrics;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+import io.coodoo.workhorse.util.CollectionListing;
+
+/**
+ * Short living cache for the listings and counts that get requested again and again by dashboards.
+ *
+ * A result is kept for {@link StaticConfig#LISTING_CACHE_TTL} seconds and at most {@link StaticConfig#LISTING_CACHE_SIZE} results are kept, the least
+ * recently used ones get evicted. Concurrent requests of a result that is not cached yet wait for the first of them to query it, so many viewers of the same
+ * dashboard only cost one query.
+ *
+ * The results of a job are dropped as soon as an execution of the job gets created, changes its status or gets deleted by the {@link WorkhorseController}.
+ * Results across all jobs are dropped when any job or any execution changes.
+ *
+ * A cached result is shared by all callers, so lists are handed out read-only and a {@link ListingResult} as a copy with a read-only list of results.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+@ApplicationScoped
+public class ListingCache {
+
+    private final Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Guards the entries.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Every invalidation takes a new value of the sequence, a cached result is valid as long as the generation of its job is the one it was queried in
+     */
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> jobGenerations = new ConcurrentHashMap<>();
+    private volatile long jobsGeneration;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Gets a cached result or queries it. If the cache is disabled the query is always executed.
+     *
+     * @param <T> type of the result
+     * @param jobId ID of the job the result belongs to, <code>null</code> if it covers all jobs
+     * @param key normalized parameters of the query, see {@link #key(Object...)}
+     * @param query queries the result if it is not cached
+     * @return the cached or queried result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long jobId, Object key, Supplier<T> query) {
+
+        long ttlNanos = TimeUnit.SECONDS.toNanos(StaticConfig.LISTING_CACHE_TTL);
+        if (ttlNanos <= 0) {
+            return query.get();
+        }
+
+        long now = now();
+        long generation = generation(jobId);
+        Entry entry;
+        boolean queried = false;
+
+        lock.lock();
+        try {
+            entry = entries.get(key);
+            if (entry == null || entry.generation != generation || now - entry.expiresAt >= 0) {
+                entry = new Entry(generation, now + ttlNanos);
+                entries.put(key, entry);
+                queried = true;
+                evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!queried) {
+            hits.increment();
+            try {
+                return (T) readOnly(entry.result.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        misses.increment();
+        try {
+            T result = query.get();
+            entry.result.complete(result);
+            return (T) readOnly(result);
+        } catch (RuntimeException | Error e) {
+            // a failed query isn't cached, the next request tries again
+            lock.lock();
+            try {
+                entries.remove(key, entry);
+            } finally {
+                lock.unlock();
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached results of a job and the cached results that cover all jobs, as they include the executions of the job
+     *
+     * @param jobId ID of the job whose executions have changed
+     */
+    public void invalidate(Long jobId) {
+
+        if (jobId == null || StaticConfig.LISTING_CACHE_TTL <= 0) {
+            return;
+        }
+        long generation = sequence.incrementAndGet();
+        jobGenerations.put(jobId, generation);
+        jobsGeneration = generation;
+        invalidations.increment();
+    }
+
+    /**
+     * Drops the cached results that cover all jobs
+     */
+    public void invalidateJobs() {
+
+        if (StaticConfig.LISTING_CACHE_TTL <= 0) {
+            return;
+        }
+        jobsGeneration = sequence.incrementAndGet();
+        invalidations.increment();
+    }
+
+    /**
+     * Drops all cached results
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the counters of the cache since the start
+     */
+    public ListingCacheMetrics getMetrics() {
+
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new ListingCacheMetrics(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size);
+    }
+
+    /**
+     * Builds a cache key of query parameters. {@link ListingParameters} get normalized, so parameters that lead to the same listing get the same key: the
+     * pagination gets resolved to its defaults, the ascending sort operator is dropped and empty filters are ignored.
+     *
+     * @param parameters name of the query followed by its parameters
+     * @return the cache key
+     */
+    public static Object key(Object... parameters) {
+
+        Object[] key = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            key[i] = parameters[i] instanceof ListingParameters ? normalize((ListingParameters) parameters[i]) : parameters[i];
+        }
+        return Arrays.asList(key);
+    }
+
+    private static List<Object> normalize(ListingParameters listingParameters) {
+
+        String sort = listingParameters.getSortAttribute();
+        if (sort != null && sort.startsWith(CollectionListing.SORT_ASC)) {
+            sort = sort.substring(CollectionListing.SORT_ASC.length());
+        }
+        if (sort != null && sort.isEmpty()) {
+            sort = null;
+        }
+        String filter = listingParameters.getFilter();
+        if (filter != null && filter.trim().isEmpty()) {
+            filter = null;
+        }
+        Map<String, String> filterAttributes = new TreeMap<>();
+        if (listingParameters.getFilterAttributes() != null) {
+            for (Map.Entry<String, String> filterAttribute : listingParameters.getFilterAttributes().entrySet()) {
+                if (filterAttribute.getKey() != null && !filterAttribute.getKey().isEmpty() && filterAttribute.getValue() != null
+                                && !filterAttribute.getValue().isEmpty()) {
+                    filterAttributes.put(filterAttribute.getKey(), filterAttribute.getValue());
+                }
+            }
+        }
+        return Arrays.asList(listingParameters.getPage(), listingParameters.getLimit(), listingParameters.getIndex(), listingParameters.getCursor(), sort, filter,
+                        filterAttributes);
+    }
+
+    long now() {
+        return System.nanoTime();
+    }
+
+    /**
+     * @return a read-only view of a list, a copy of a listing result with a read-only view of its results, otherwise the result itself
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object readOnly(Object result) {
+
+        if (result instanceof List) {
+            return Collections.unmodifiableList((List<?>) result);
+        }
+        if (result instanceof ListingResult) {
+            ListingResult<?> listingResult = (ListingResult<?>) result;
+            List<?> results = listingResult.getResults() == null ? null : Collections.unmodifiableList(listingResult.getResults());
+            return new ListingResult(results, listingResult.getMetadata());
+        }
+        return result;
+    }
+
+    private long generation(Long jobId) {
+        if (jobId == null) {
+            return jobsGeneration;
+        }
+        Long generation = jobGenerations.get(jobId);
+        return generation == null ? 0L : generation;
+    }
+
+    /**
+     * Evicts the least recently used results, guarded by the lock
+     */
+    private void evict() {
+
+        int maxSize = Math.max(1, StaticConfig.LISTING_CACHE_SIZE);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry {
+
+        private final long generation;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(long generation, long expiresAt) {
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+
+/**
+ * Time-bucketed delay queue for {@link ExecutionStatus#PLANNED} executions.
+ *
+ * Executions are grouped in buckets by the millisecond they are due. A single timer thread sleeps until the first bucket is due and hands all due buckets
+ * as one batch to the consumer. Holding an execution costs one map entry, there is no scheduled task per execution.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class PlannedExecutionQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PlannedExecutionQueue.class);
+
+    private final NavigableMap<Long, Map<Long, Execution>> buckets = new TreeMap<>();
+    private final Map<Long, Long> dueTimes = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private Thread timerThread;
+
+    /**
+     * Adds an execution. If the execution is already held it gets rescheduled.
+     *
+     * @param execution planned execution
+     * @param dueTime time in epoch milliseconds the execution is due
+     */
+    public void add(Execution execution, long dueTime) {
+
+        lock.lock();
+        try {
+            removeLocked(execution.getId());
+            buckets.computeIfAbsent(dueTime, time -> new LinkedHashMap<>()).put(execution.getId(), execution);
+            dueTimes.put(execution.getId(), dueTime);
+            if (buckets.firstKey() == dueTime) {
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an execution, so it won't be handed to the consumer.
+     *
+     * @param executionId ID of the execution
+     * @return <code>true</code> if the execution was held
+     */
+    public boolean cancel(Long executionId) {
+
+        lock.lock();
+        try {
+            return removeLocked(executionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all executions of a job
+     *
+     * @param jobId ID of the job
+     */
+    public void cancelJob(Long jobId) {
+
+        lock.lock();
+        try {
+            Iterator<Map<Long, Execution>> bucketIterator = buckets.values().iterator();
+            while (bucketIterator.hasNext()) {
+                Map<Long, Execution> bucket = bucketIterator.next();
+                bucket.values().removeIf(execution -> {
+                    if (jobId.equals(execution.getJobId())) {
+                        dueTimes.remove(execution.getId());
+                        return true;
+                    }
+                    return false;
+                });
+                if (bucket.isEmpty()) {
+                    bucketIterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean removeLocked(Long executionId) {
+
+        Long dueTime = dueTimes.remove(executionId);
+        if (dueTime == null) {
+            return false;
+        }
+        Map<Long, Execution> bucket = buckets.get(dueTime);
+        bucket.remove(executionId);
+        if (bucket.isEmpty()) {
+            buckets.remove(dueTime);
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns all executions that are due at the given time
+     *
+     * @param now time in epoch milliseconds
+     * @return due executions in the order they are due, empty if there are none
+     */
+    public List<Execution> pollDue(long now) {
+
+        lock.lock();
+        try {
+            List<Execution> dueExecutions = new ArrayList<>();
+            Map<Long, Map<Long, Execution>> dueBuckets = buckets.headMap(now, true);
+            for (Map<Long, Execution> bucket : dueBuckets.values()) {
+                for (Execution execution : bucket.values()) {
+                    dueTimes.remove(execution.getId());
+                    dueExecutions.add(execution);
+                }
+            }
+            dueBuckets.clear();
+            return dueExecutions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param executionId ID of the execution
+     * @return <code>true</code> if the execution is held
+     */
+    public boolean contains(Long executionId) {
+
+        lock.lock();
+        try {
+            return dueTimes.containsKey(executionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of held executions
+     */
+    public int size() {
+
+        lock.lock();
+        try {
+            return dueTimes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all executions
+     */
+    public void clear() {
+
+        lock.lock();
+        try {
+            buckets.clear();
+            dueTimes.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts the timer thread that hands the due executions to the consumer, one batch per tick.
+     *
+     * @param consumer receives the due executions
+     */
+    public void start(Consumer<List<Execution>> consumer) {
+
+        lock.lock();
+        try {
+            if (timerThread != null) {
+                return;
+            }
+            timerThread = new Thread(() -> run(consumer), "workhorse-planned-executions");
+            timerThread.setDaemon(true);
+            timerThread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the timer thread. The held executions stay in the queue.
+     */
+    public void stop() {
+
+        lock.lock();
+        try {
+            if (timerThread != null) {
+                timerThread.interrupt();
+                timerThread = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the timer thread is running
+     */
+    public boolean isRunning() {
+        return timerThread != null;
+    }
+
+    private void run(Consumer<List<Execution>> consumer) {
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                awaitNextDueTime();
+            } catch (InterruptedException e) {
+                break;
+            }
+            List<Execution> dueExecutions = pollDue(System.currentTimeMillis());
+            if (dueExecutions.isEmpty()) {
+                continue;
+            }
+            try {
+                consumer.accept(dueExecutions);
+            } catch (Exception e) {
+                log.error("Could not promote {} planned executions", dueExecutions.size(), e);
+            }
+        }
+        log.trace("Timer thread of the planned executions stopped");
+    }
+
+    private void awaitNextDueTime() throws InterruptedException {
+
+        lock.lock();
+        try {
+            while (true) {
+                if (buckets.isEmpty()) {
+                    changed.await();
+                    continue;
+                }
+                long delay = buckets.firstKey() - System.currentTimeMillis();
+                if (delay <= 0) {
+                    return;
+                }
+                changed.await(delay, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
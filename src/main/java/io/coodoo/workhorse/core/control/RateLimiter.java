@@ -0,0 +1,191 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.coodoo.workhorse.core.entity.Job;
+
+/**
+ * Token bucket that limits the number of executions a {@link Job} may start within a time window. It is shared by all {@link JobThread}s of the job.
+ *
+ * The bucket holds up to <code>burst</code> tokens and refills continuously with <code>permits</code> tokens per window, so the window can be any duration
+ * and not only a minute.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class RateLimiter {
+
+    private final int permits;
+    private final long windowNanos;
+    private final int burst;
+    private final double nanosPerToken;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param permits number of permits per window
+     * @param window duration of the window
+     * @param unit time unit of the window
+     * @param burst maximum number of permits that can be taken at once after an idle period
+     */
+    public RateLimiter(int permits, long window, TimeUnit unit, int burst) {
+        if (permits < 1 || window < 1 || burst < 1) {
+            throw new RuntimeException("The permits, the window and the burst of a rate limiter must be higher than 0!");
+        }
+        this.permits = permits;
+        this.windowNanos = unit.toNanos(window);
+        this.burst = burst;
+        this.nanosPerToken = (double) windowNanos / permits;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Creates the rate limiter for {@link Job#getMaxPerMinute()}. The executions are spread evenly over the minute, like before.
+     *
+     * @param maxPerMinute max number of executions per minute
+     * @return the rate limiter or <code>null</code> if the job is not limited
+     */
+    public static RateLimiter perMinute(Integer maxPerMinute) {
+        return perWindow(maxPerMinute, (int) TimeUnit.MINUTES.toSeconds(1), 1);
+    }
+
+    /**
+     * Creates the rate limiter for {@link Job#getMaxPerMinute()}, {@link Job#getRateLimitWindow()} and {@link Job#getRateLimitBurst()}
+     *
+     * @param permits max number of executions per window
+     * @param windowSeconds duration of the window in seconds, less than 1 for a minute
+     * @param burst max number of executions that can be started at once after an idle period, less than 1 for none
+     * @return the rate limiter or <code>null</code> if the job is not limited
+     */
+    public static RateLimiter perWindow(Integer permits, int windowSeconds, int burst) {
+        if (permits == null || permits < 1) {
+            return null;
+        }
+        return new RateLimiter(permits, windowSeconds(windowSeconds), TimeUnit.SECONDS, Math.max(burst, 1));
+    }
+
+    /**
+     * @param windowSeconds configured duration of the window in seconds
+     * @return the duration of the window in seconds, a minute if none is configured
+     */
+    static int windowSeconds(int windowSeconds) {
+        return windowSeconds < 1 ? (int) TimeUnit.MINUTES.toSeconds(1) : windowSeconds;
+    }
+
+    /**
+     * Takes a permit, if one is available
+     *
+     * @return <code>true</code> if a permit got taken
+     */
+    public boolean tryAcquire() {
+
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back a permit taken by {@link #tryAcquire()} that was not used, e.g. because there was no execution to start
+     */
+    public void release() {
+
+        lock.lock();
+        try {
+            tokens = Math.min(burst, tokens + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a permit and waits for it, if none is available
+     *
+     * @throws InterruptedException if the thread got interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        while (!tryAcquire()) {
+            TimeUnit.NANOSECONDS.sleep(Math.max(getNanosUntilAvailable(), 1));
+        }
+    }
+
+    /**
+     * @return number of permits that can be taken right now
+     */
+    public int getAvailablePermits() {
+
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return (int) tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return nanoseconds until the next permit is available, <code>0</code> if a permit is available right now
+     */
+    public long getNanosUntilAvailable() {
+
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (tokens >= 1) {
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return milliseconds until the next permit is available, <code>0</code> if a permit is available right now
+     */
+    public long getMillisUntilAvailable() {
+        return TimeUnit.NANOSECONDS.toMillis(getNanosUntilAvailable() + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed / nanosPerToken);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * @param permits number of permits per window
+     * @param window duration of the window
+     * @param unit time unit of the window
+     * @param burst maximum number of permits that can be taken at once
+     * @return <code>true</code> if this rate limiter has the same configuration
+     */
+    public boolean hasLimit(int permits, long window, TimeUnit unit, int burst) {
+        return this.permits == permits && this.windowNanos == unit.toNanos(window) && this.burst == burst;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter [permits=" + permits + ", windowMillis=" + TimeUnit.NANOSECONDS.toMillis(windowNanos) + ", burst=" + burst + "]";
+    }
+
+}
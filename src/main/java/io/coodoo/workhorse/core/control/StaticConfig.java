@@ -45,6 +45,31 @@ public final class StaticConfig {
      */
     public static int BUFFER_PUSH_FALL_BACK_POLL_INTERVAL;
 
+    /**
+     * Max amount of threads that process executions of all jobs
+     */
+    public static int WORKER_POOL_SIZE;
+
+    /**
+     * If <code>true</code> the job threads run on virtual threads
+     */
+    public static boolean VIRTUAL_THREADS;
+
+    /**
+     * Number of seconds after which a buffered execution is treated like one of the next higher priority level
+     */
+    public static int PRIORITY_AGING;
+
+    /**
+     * Number of seconds the results of listings and counts are cached, <code>0</code> disables the cache
+     */
+    public static int LISTING_CACHE_TTL;
+
+    /**
+     * Max amount of cached results of listings and counts
+     */
+    public static int LISTING_CACHE_SIZE;
+
     /**
      * Number of minutes an execution can be held in the persistence before being deleted.
      * 
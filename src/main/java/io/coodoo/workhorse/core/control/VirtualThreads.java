@@ -0,0 +1,37 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads for the job threads.
+ *
+ * This is the Java 8 variant that is used on runtimes without virtual threads. The JAR contains a Java 21 variant in <code>META-INF/versions/21</code> that
+ * replaces this class on Java 21 or higher.
+ *
+ * The code a job thread runs guards its shared state with a {@link java.util.concurrent.locks.ReentrantLock} instead of <code>synchronized</code>, because a
+ * virtual thread that blocks inside a <code>synchronized</code> block pins its carrier thread until Java 24.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * @return <code>true</code> if the runtime supports virtual threads
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task
+     * 
+     * @param namePrefix prefix of the thread names
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        throw new RuntimeException("Virtual threads require Java 21 or higher!");
+    }
+
+}
@@ -0,0 +1,154 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.util.AnnotationLiteral;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.coodoo.workhorse.core.entity.Job;
+
+/**
+ * Registry of all {@link BaseWorker} beans, mapped by the class name of the worker ({@link Job#getWorkerClassName()}).
+ *
+ * The beans are resolved once by {@link #load()}, so starting a job thread doesn't need to scan the {@link BeanManager}. A worker with a normal scope (e.g.
+ * <code>@ApplicationScoped</code>) is represented by a client proxy, so its reference is cached as well. A worker of the pseudo-scope
+ * <code>@Dependent</code> gets a new reference on every lookup, like before.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+@ApplicationScoped
+public class WorkerRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerRegistry.class);
+
+    @Inject
+    BeanManager beanManager;
+
+    private volatile Map<String, Bean<?>> beans;
+    private final Map<String, BaseWorker> references = new ConcurrentHashMap<>();
+
+    /**
+     * Guards resolving the beans on the first lookup
+     */
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * Resolves all worker beans and replaces the current registry
+     *
+     * @return the worker beans sorted by class name
+     */
+    public List<Bean<?>> load() {
+
+        List<Bean<?>> sortedBeans = resolveBeans();
+        register(sortedBeans);
+        return Collections.unmodifiableList(sortedBeans);
+    }
+
+    /**
+     * @param workerClassName class name of the worker
+     * @return the worker bean or <code>null</code> if there is none
+     */
+    public Bean<?> getBean(String workerClassName) {
+        if (workerClassName == null) {
+            return null;
+        }
+        Map<String, Bean<?>> currentBeans = beans;
+        if (currentBeans == null) {
+            currentBeans = loadBeans();
+        }
+        return currentBeans.get(workerClassName);
+    }
+
+    /**
+     * @param workerClassName class name of the worker
+     * @return the class of the worker bean or <code>null</code> if there is none
+     */
+    public Class<?> getWorkerClass(String workerClassName) {
+        Bean<?> bean = getBean(workerClassName);
+        return bean == null ? null : bean.getBeanClass();
+    }
+
+    /**
+     * @param workerClassName class name of the worker
+     * @return a reference of the worker or <code>null</code> if there is none
+     */
+    public BaseWorker getWorker(String workerClassName) {
+
+        if (workerClassName == null) {
+            return null;
+        }
+        BaseWorker reference = references.get(workerClassName);
+        if (reference != null) {
+            return reference;
+        }
+        Bean<?> bean = getBean(workerClassName);
+        if (bean == null) {
+            return null;
+        }
+        CreationalContext<?> creationalContext = beanManager.createCreationalContext(bean);
+        reference = (BaseWorker) beanManager.getReference(bean, bean.getBeanClass(), creationalContext);
+
+        if (beanManager.isNormalScope(bean.getScope())) {
+            references.put(workerClassName, reference);
+        }
+        return reference;
+    }
+
+    /**
+     * Removes all workers, so the next lookup resolves them again
+     */
+    public void clear() {
+        beans = null;
+        references.clear();
+    }
+
+    private Map<String, Bean<?>> loadBeans() {
+        loadLock.lock();
+        try {
+            Map<String, Bean<?>> currentBeans = beans;
+            if (currentBeans == null) {
+                currentBeans = register(resolveBeans());
+            }
+            return currentBeans;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private List<Bean<?>> resolveBeans() {
+
+        @SuppressWarnings("serial")
+        List<Bean<?>> sortedBeans = new ArrayList<>(beanManager.getBeans(BaseWorker.class, new AnnotationLiteral<Any>() {}));
+        // sort Beans by class name to avoid shuffled Job-IDs
+        sortedBeans.sort(Comparator.comparing(bean -> bean.getBeanClass().getName()));
+        return sortedBeans;
+    }
+
+    private Map<String, Bean<?>> register(List<Bean<?>> sortedBeans) {
+
+        Map<String, Bean<?>> registeredBeans = new ConcurrentHashMap<>();
+        for (Bean<?> bean : sortedBeans) {
+            registeredBeans.put(bean.getBeanClass().getName(), bean);
+        }
+        references.clear();
+        beans = registeredBeans;
+
+        log.trace("Registered {} workers", registeredBeans.size());
+        return registeredBeans;
+    }
+
+}
@@ -1,14 +1,18 @@
 package io.coodoo.workhorse.core.control;
 
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
@@ -24,12 +28,14 @@ import org.slf4j.LoggerFactory;
 import io.coodoo.workhorse.core.control.event.AllExecutionsDoneEvent;
 import io.coodoo.workhorse.core.control.event.JobErrorEvent;
 import io.coodoo.workhorse.core.control.event.NewExecutionEvent;
+import io.coodoo.workhorse.core.control.event.NewExecutionsEvent;
 import io.coodoo.workhorse.core.entity.ErrorType;
 import io.coodoo.workhorse.core.entity.Execution;
 import io.coodoo.workhorse.core.entity.ExecutionFailStatus;
 import io.coodoo.workhorse.core.entity.ExecutionStatus;
 import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.JobStatus;
+import io.coodoo.workhorse.core.entity.WorkhorseConfig;
 import io.coodoo.workhorse.persistence.WorkhorsePersistence;
 import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
 import io.coodoo.workhorse.persistence.interfaces.JobPersistence;
@@ -73,7 +79,16 @@ public class Workhorse {
 
     protected ScheduledExecutorService scheduledExecutorService;
 
-    protected ExecutorService jobThreadExecutorService;
+    /**
+     * Bounded pool of threads shared by all jobs. Idle threads wait in the pool for the next job thread to start. If virtual threads are used, every job
+     * thread gets its own virtual thread instead.
+     */
+    protected volatile ExecutorService jobThreadExecutorService;
+
+    /**
+     * Holds the pushed {@link ExecutionStatus#PLANNED} executions until they are due
+     */
+    protected PlannedExecutionQueue plannedExecutionQueue;
 
     /**
      * Stores the poll scheduler object. There is always one instance of this scheduler if the engine is active.
@@ -83,7 +98,78 @@ public class Workhorse {
     @PostConstruct
     public void init() {
         scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
-        jobThreadExecutorService = Executors.newCachedThreadPool();
+        plannedExecutionQueue = new PlannedExecutionQueue();
+        jobThreadExecutorService = createWorkerPool(getWorkerPoolSize());
+    }
+
+    /**
+     * @return the configured size of the worker pool, the default of {@link WorkhorseConfig} until the configuration is loaded
+     */
+    private static int getWorkerPoolSize() {
+        return StaticConfig.WORKER_POOL_SIZE > 0 ? StaticConfig.WORKER_POOL_SIZE : WorkhorseConfig.DEFAULT_WORKER_POOL_SIZE;
+    }
+
+    static ThreadPoolExecutor createWorkerPool(int workerPoolSize) {
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory threadFactory = runnable -> new Thread(runnable, "workhorse-worker-" + threadNumber.getAndIncrement());
+        return new ThreadPoolExecutor(workerPoolSize, workerPoolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    }
+
+    /**
+     * Change the amount of threads that process the executions of all jobs. Has no effect while virtual threads are used.
+     * 
+     * @param workerPoolSize new maximum amount of threads
+     */
+    public void resizeWorkerPool(int workerPoolSize) {
+
+        if (workerPoolSize < 1 || !(jobThreadExecutorService instanceof ThreadPoolExecutor)) {
+            return;
+        }
+        ThreadPoolExecutor workerPool = (ThreadPoolExecutor) jobThreadExecutorService;
+        if (workerPool.getMaximumPoolSize() == workerPoolSize) {
+            return;
+        }
+        // the core pool size may never exceed the maximum pool size
+        if (workerPoolSize > workerPool.getMaximumPoolSize()) {
+            workerPool.setMaximumPoolSize(workerPoolSize);
+            workerPool.setCorePoolSize(workerPoolSize);
+        } else {
+            workerPool.setCorePoolSize(workerPoolSize);
+            workerPool.setMaximumPoolSize(workerPoolSize);
+        }
+        log.trace("Worker pool resized to {} threads", workerPoolSize);
+    }
+
+    /**
+     * Switch between virtual threads and the worker pool. Job threads that are already running finish on their current thread.
+     * 
+     * @param virtualThreads <code>true</code> to run new job threads on virtual threads
+     */
+    public void useVirtualThreads(boolean virtualThreads) {
+
+        if (jobThreadExecutorService == null || isUsingVirtualThreads() == virtualThreads) {
+            return;
+        }
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            log.warn("Virtual threads require Java 21 or higher, the worker pool is used instead");
+            return;
+        }
+        ExecutorService previousExecutorService = jobThreadExecutorService;
+        if (virtualThreads) {
+            jobThreadExecutorService = VirtualThreads.newExecutor("workhorse-virtual-");
+        } else {
+            jobThreadExecutorService = createWorkerPool(getWorkerPoolSize());
+        }
+        previousExecutorService.shutdown();
+        log.trace("Job threads run on {}", virtualThreads ? "virtual threads" : "the worker pool");
+    }
+
+    /**
+     * @return <code>true</code> if the job threads run on virtual threads
+     */
+    public boolean isUsingVirtualThreads() {
+        return jobThreadExecutorService != null && !(jobThreadExecutorService instanceof ThreadPoolExecutor);
     }
 
     /**
@@ -98,6 +184,7 @@ public class Workhorse {
         if (executionPersistence.isPusherAvailable()) {
 
             executionPersistence.subscribe();
+            plannedExecutionQueue.start(this::promotePlannedExecutions);
             scheduledFuture = scheduledExecutorService.scheduleAtFixedRate(this::poll, 0, StaticConfig.BUFFER_PUSH_FALL_BACK_POLL_INTERVAL, TimeUnit.SECONDS);
             log.trace("Job queue pusher started. Backup poller started with a {} seconds interval", StaticConfig.BUFFER_PUSH_FALL_BACK_POLL_INTERVAL);
 
@@ -148,23 +235,79 @@ public class Workhorse {
         if (executionPersistence.isPusherAvailable() && isRunning() && newExecutionEvent.execution != null) {
 
             log.trace("New Execution pushed: {}", newExecutionEvent);
-            Execution execution = newExecutionEvent.execution;
-
-            if (executionBuffer.getNumberOfExecution(execution.getJobId()) < StaticConfig.BUFFER_MAX) {
-
-                if (execution.getStatus() == ExecutionStatus.PLANNED) {
-                    long delayInSeconds = ChronoUnit.SECONDS.between(WorkhorseUtil.timestamp(), execution.getPlannedFor());
-                    scheduledExecutorService.schedule(() -> {
-                        executionDistributor(execution);
-                    }, delayInSeconds, TimeUnit.SECONDS);
-                    log.trace("Execution {} will be process in {} seconds", execution.getId(), delayInSeconds);
-                } else {
-                    executionDistributor(execution);
-                }
+            pushExecution(newExecutionEvent.execution);
+        }
+    }
+
+    /**
+     * Receive the notification about many new persisted executions, e.g. a batch or a chain
+     * 
+     * @param newExecutionsEvent describes the newly persisted executions
+     */
+    public void pushAll(@ObservesAsync NewExecutionsEvent newExecutionsEvent) {
+        if (executionPersistence.isPusherAvailable() && isRunning() && newExecutionsEvent.executions != null) {
+
+            log.trace("New Executions pushed: {}", newExecutionsEvent);
+            for (Execution execution : newExecutionsEvent.executions) {
+                pushExecution(execution);
             }
         }
     }
 
+    private void pushExecution(Execution execution) {
+
+        if (executionBuffer.getNumberOfExecution(execution.getJobId()) < StaticConfig.BUFFER_MAX) {
+
+            if (execution.getStatus() == ExecutionStatus.PLANNED) {
+                long delayInMillis = ChronoUnit.MILLIS.between(WorkhorseUtil.timestamp(), execution.getPlannedFor());
+                plannedExecutionQueue.add(execution, System.currentTimeMillis() + delayInMillis);
+                log.trace("Execution {} will be process in {} milliseconds", execution.getId(), delayInMillis);
+            } else {
+                executionDistributor(execution);
+            }
+        }
+    }
+
+    /**
+     * Promote the due {@link ExecutionStatus#PLANNED} executions of one tick to {@link ExecutionStatus#QUEUED}
+     * 
+     * @param executions due executions
+     */
+    void promotePlannedExecutions(List<Execution> executions) {
+        log.trace("{} planned executions are due", executions.size());
+
+        List<Execution> dueExecutions = new ArrayList<>(executions.size());
+        for (Execution execution : executions) {
+            if (execution.getStatus() == ExecutionStatus.PLANNED && isChainHead(execution)) {
+                dueExecutions.add(execution);
+            }
+        }
+        // All due executions of the tick get QUEUED with one write per job, only the ones that are still PLANNED get buffered
+        for (Execution execution : workhorseController.setExecutionStatusToQueued(dueExecutions)) {
+            bufferExecution(execution);
+        }
+    }
+
+    /**
+     * Remove a pushed {@link ExecutionStatus#PLANNED} execution, that is not due yet
+     * 
+     * @param executionId ID of the execution
+     */
+    public void cancelPlannedExecution(Long executionId) {
+        if (plannedExecutionQueue.cancel(executionId)) {
+            log.trace("Planned execution {} canceled", executionId);
+        }
+    }
+
+    /**
+     * Remove all pushed {@link ExecutionStatus#PLANNED} executions of a job, that are not due yet
+     * 
+     * @param jobId ID of the job
+     */
+    public void cancelPlannedExecutions(Long jobId) {
+        plannedExecutionQueue.cancelJob(jobId);
+    }
+
     /**
      * Stop the poller/pusher process
      */
@@ -175,6 +318,7 @@ public class Workhorse {
 
             if (executionPersistence.isPusherAvailable()) {
                 executionPersistence.unsubscribe();
+                plannedExecutionQueue.stop();
                 log.trace("Job queue pusher stopped");
             } else {
                 log.trace("Job queue poller stopped");
@@ -206,16 +350,33 @@ public class Workhorse {
      */
     public boolean executionDistributor(Execution execution) {
 
-        if (execution.getChainId() != null && !execution.getId().equals(execution.getChainId())) {
+        if (!isChainHead(execution)) {
             // Only the head of a chainExecution may integrate the executionBuffer
             return false;
         }
 
+        // The poller may find a planned execution before the timer is due
+        if (execution.getStatus() == ExecutionStatus.PLANNED || execution.getPlannedFor() != null) {
+            plannedExecutionQueue.cancel(execution.getId());
+        }
+        return bufferExecution(execution);
+    }
+
+    /**
+     * Add a {@link ExecutionStatus#QUEUED} or {@link ExecutionStatus#PLANNED} execution to the buffer of its job and start the job threads
+     * 
+     * @param execution head of a chain or an execution without chain
+     * @return true if the execution got added to the buffer
+     */
+    private boolean bufferExecution(Execution execution) {
+
         switch (execution.getStatus()) {
             // Execution in status PLANNED have to be updated to QUEUED before being added
             // to the buffer.
             case PLANNED:
                 workhorseController.updateExecutionStatus(execution.getJobId(), execution.getId(), ExecutionStatus.QUEUED);
+                // The buffered execution must reflect the persisted status
+                execution.setStatus(ExecutionStatus.QUEUED);
             case QUEUED:
                 // If the execution is 'expired' these don't have to be processed.
                 if (execution.getExpiresAt() != null && execution.getExpiresAt().isBefore(WorkhorseUtil.timestamp())) {
@@ -230,47 +391,80 @@ public class Workhorse {
 
         Long jobId = execution.getJobId();
 
-        if (!executionBuffer.isAddable(jobId, execution.getId())) {
+        JobBuffer jobBuffer = executionBuffer.getJobBuffer(jobId);
+        if (jobBuffer == null) {
+            log.error("They are not ExecutionQueue for the job with Id {} ", jobId);
             return false;
         }
 
-        final int numberOfExecutions = executionBuffer.getNumberOfExecution(jobId);
+        final int numberOfExecutions = jobBuffer.size();
+
+        // The execution is only added, if it is neither queued nor running
+        if (!jobBuffer.offer(execution)) {
+            return false;
+        }
 
         if (numberOfExecutions == 0) {
-            executionBuffer.addJobStartTimes(jobId, System.currentTimeMillis());
+            jobBuffer.setStartTime(System.currentTimeMillis());
         }
 
-        final ReentrantLock lock = executionBuffer.getLock(jobId);
-        try {
-            lock.lock();
+        log.trace("New Execution: {} in Queue. Number of Executions in Queue: {} ", execution, numberOfExecutions);
 
-            if (execution.isPriority()) {
-                executionBuffer.addPriorityExecution(jobId, execution.getId());
-            } else {
-                executionBuffer.addExecution(jobId, execution.getId());
-            }
+        log.trace("Numbers of running's jobThreads: {}", jobBuffer.getRunningJobThreadCount());
+        startJobThreads(jobId, jobBuffer);
+        return true;
+    }
 
-            log.trace("New Execution: {} in Queue. Number of Executions in Queue: {} ", execution, numberOfExecutions);
-        } finally {
-            lock.unlock();
-        }
+    private static boolean isChainHead(Execution execution) {
+        return execution.getChainId() == null || execution.getId().equals(execution.getChainId());
+    }
 
-        log.trace("Numbers of running's jobThreads: {}", executionBuffer.getRunningJobThreadCounts(jobId));
-        if (executionBuffer.getJobThreadCounts(jobId) > executionBuffer.getRunningJobThreadCounts(jobId)) {
-            try {
-                lock.lock();
-                for (int i = executionBuffer.getRunningJobThreadCounts(jobId); i < executionBuffer.getJobThreadCounts(jobId); i++) {
-                    startJobThread(jobId);
-                }
-            } finally {
-                lock.unlock();
+    /**
+     * Start as many job threads as the thread limit and the rate limit of the job permit
+     * 
+     * @param jobId ID of the job
+     * @param jobBuffer buffer of the job
+     */
+    private void startJobThreads(Long jobId, JobBuffer jobBuffer) {
+
+        int permits = Integer.MAX_VALUE;
+        RateLimiter rateLimiter = jobBuffer.getRateLimiter();
+        if (rateLimiter != null) {
+            permits = rateLimiter.getAvailablePermits();
+            if (permits < 1) {
+                // No thread gets occupied until the next execution is permitted
+                resumeJobThreads(jobId, rateLimiter.getMillisUntilAvailable());
+                return;
             }
         }
-        return true;
+        while (permits-- > 0 && jobBuffer.tryAcquireJobThread()) {
+            startJobThread(jobId);
+        }
+    }
+
+    /**
+     * Start the job threads of a job again after a delay, because its rate limit is reached. Several calls within the delay lead to one resume.
+     * 
+     * @param jobId ID of the job
+     * @param delayInMillis milliseconds until the next execution is permitted
+     */
+    public void resumeJobThreads(Long jobId, long delayInMillis) {
+
+        JobBuffer jobBuffer = executionBuffer.getJobBuffer(jobId);
+        if (jobBuffer == null || !jobBuffer.scheduleResume()) {
+            return;
+        }
+        scheduledExecutorService.schedule(() -> {
+            jobBuffer.resumed();
+            if (jobBuffer.hasQueuedExecutions()) {
+                startJobThreads(jobId, jobBuffer);
+            }
+        }, delayInMillis, TimeUnit.MILLISECONDS);
+        log.trace("Job threads of job {} resume in {} milliseconds", jobId, delayInMillis);
     }
 
     /**
-     * Start a thread to process the job execution of the given Job.
+     * Start a thread to process the job execution of the given Job. The caller must have reserved a slot by {@link ExecutionBuffer#tryAcquireJobThread(Long)}.
      * 
      * @param jobId Id of the job, which job execution have to be process.
      */
@@ -278,12 +472,12 @@ public class Workhorse {
         Job job = jobPersistence.get(jobId);
 
         if (!JobStatus.ACTIVE.equals(job.getStatus())) {
+            // Give back the slot reserved by the caller
+            executionBuffer.releaseJobThread(jobId);
             return;
         }
 
         CompletionStage<Job> completion = jobThreadManager.fireAsync(job, NotificationOptions.ofExecutor(jobThreadExecutorService));
-        // Increment the number of created JobThread for the Job with the Id jobId
-        executionBuffer.addRunningJobThreadCounts(jobId);
 
         executionBuffer.addCompletionStage(jobId, completion);
 
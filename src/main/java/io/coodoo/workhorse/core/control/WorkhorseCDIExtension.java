@@ -10,6 +10,11 @@ import io.coodoo.workhorse.persistence.WorkhorsePersistence;
 import io.coodoo.workhorse.persistence.interfaces.ConfigPersistence;
 import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
 import io.coodoo.workhorse.persistence.interfaces.JobPersistence;
+import io.coodoo.workhorse.persistence.mapped.MappedConfigPersistence;
+import io.coodoo.workhorse.persistence.mapped.MappedExecutionPersistence;
+import io.coodoo.workhorse.persistence.mapped.MappedJobPersistence;
+import io.coodoo.workhorse.persistence.mapped.MappedLogPersistence;
+import io.coodoo.workhorse.persistence.mapped.MappedPersistence;
 import io.coodoo.workhorse.persistence.memory.MemoryConfigPersistence;
 import io.coodoo.workhorse.persistence.memory.MemoryExecutionPersistence;
 import io.coodoo.workhorse.persistence.memory.MemoryJobPersistence;
@@ -42,5 +47,10 @@ public class WorkhorseCDIExtension {
         bbdEvent.addAnnotatedType(MemoryExecutionPersistence.class, MemoryExecutionPersistence.class.getName());
         bbdEvent.addAnnotatedType(MemoryLogPersistence.class, MemoryLogPersistence.class.getName());
         bbdEvent.addAnnotatedType(MemoryConfigPersistence.class, MemoryConfigPersistence.class.getName());
+        bbdEvent.addAnnotatedType(MappedPersistence.class, MappedPersistence.class.getName());
+        bbdEvent.addAnnotatedType(MappedJobPersistence.class, MappedJobPersistence.class.getName());
+        bbdEvent.addAnnotatedType(MappedExecutionPersistence.class, MappedExecutionPersistence.class.getName());
+        bbdEvent.addAnnotatedType(MappedLogPersistence.class, MappedLogPersistence.class.getName());
+        bbdEvent.addAnnotatedType(MappedConfigPersistence.class, MappedConfigPersistence.class.getName());
     }
 }
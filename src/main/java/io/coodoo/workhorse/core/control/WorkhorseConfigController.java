@@ -35,6 +35,12 @@ public class WorkhorseConfigController {
     @Inject
     Workhorse workhorse;
 
+    @Inject
+    ExecutionBuffer executionBuffer;
+
+    @Inject
+    ListingCache listingCache;
+
     /**
      * Retrieves the configuration of the job engine
      * 
@@ -68,6 +74,11 @@ public class WorkhorseConfigController {
         updateBufferPollInterval(workhorseConfig, newWorkhorseConfig.getBufferPollInterval());
         updateBufferPushFallbackPollInterval(workhorseConfig, newWorkhorseConfig.getBufferPushFallbackPollInterval());
         updateExecutionTimeout(workhorseConfig, newWorkhorseConfig.getExecutionTimeout());
+        updateWorkerPoolSize(workhorseConfig, newWorkhorseConfig.getWorkerPoolSize());
+        updateVirtualThreads(workhorseConfig, newWorkhorseConfig.isVirtualThreads());
+        updatePriorityAging(workhorseConfig, newWorkhorseConfig.getPriorityAging());
+        updateListingCacheTtl(workhorseConfig, newWorkhorseConfig.getListingCacheTtl());
+        updateListingCacheSize(workhorseConfig, newWorkhorseConfig.getListingCacheSize());
         updateBufferMax(workhorseConfig, newWorkhorseConfig.getBufferMax());
         updateBufferMin(workhorseConfig, newWorkhorseConfig.getBufferMin());
         updateMinutesUntilCleanup(workhorseConfig, newWorkhorseConfig.getMinutesUntilCleanup());
@@ -99,6 +110,11 @@ public class WorkhorseConfigController {
         StaticConfig.BUFFER_MIN = workhorseConfig.getBufferMin();
         StaticConfig.BUFFER_POLL_INTERVAL = workhorseConfig.getBufferPollInterval();
         StaticConfig.BUFFER_PUSH_FALL_BACK_POLL_INTERVAL = workhorseConfig.getBufferPushFallbackPollInterval();
+        StaticConfig.WORKER_POOL_SIZE = workhorseConfig.getWorkerPoolSize();
+        StaticConfig.VIRTUAL_THREADS = workhorseConfig.isVirtualThreads();
+        StaticConfig.PRIORITY_AGING = workhorseConfig.getPriorityAging();
+        StaticConfig.LISTING_CACHE_TTL = workhorseConfig.getListingCacheTtl();
+        StaticConfig.LISTING_CACHE_SIZE = workhorseConfig.getListingCacheSize();
         StaticConfig.MINUTES_UNTIL_CLEANUP = workhorseConfig.getMinutesUntilCleanup();
         StaticConfig.EXECUTION_TIMEOUT = workhorseConfig.getExecutionTimeout();
         StaticConfig.EXECUTION_TIMEOUT_STATUS = workhorseConfig.getExecutionTimeoutStatus();
@@ -109,6 +125,9 @@ public class WorkhorseConfigController {
         StaticConfig.LOG_ERROR_MARKER = workhorseConfig.getLogErrorMarker();
         StaticConfig.MAX_EXECUTION_SUMMARY_LENGTH = workhorseConfig.getMaxExecutionSummaryLength();
 
+        workhorse.resizeWorkerPool(workhorseConfig.getWorkerPoolSize());
+        workhorse.useVirtualThreads(workhorseConfig.isVirtualThreads());
+
         configPersistence.update(workhorseConfig);
 
         return workhorseConfig;
@@ -151,6 +170,82 @@ public class WorkhorseConfigController {
 
     }
 
+    protected void updateWorkerPoolSize(WorkhorseConfig workhorseConfig, int workerPoolSize) {
+
+        if (workerPoolSize < 1) {
+            throw new RuntimeException("The worker pool size must be higher than 0!");
+        }
+        if (workhorseConfig.getWorkerPoolSize() != workerPoolSize) {
+
+            StaticConfig.WORKER_POOL_SIZE = workerPoolSize;
+            workhorseLogService.logChange(null, null, "Worker pool size", workhorseConfig.getWorkerPoolSize(), workerPoolSize, null);
+            workhorseConfig.setWorkerPoolSize(workerPoolSize);
+
+            workhorse.resizeWorkerPool(workerPoolSize);
+        }
+    }
+
+    protected void updateVirtualThreads(WorkhorseConfig workhorseConfig, boolean virtualThreads) {
+
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            throw new RuntimeException("Virtual threads require Java 21 or higher!");
+        }
+        if (workhorseConfig.isVirtualThreads() != virtualThreads) {
+
+            StaticConfig.VIRTUAL_THREADS = virtualThreads;
+            workhorseLogService.logChange(null, null, "Virtual threads", workhorseConfig.isVirtualThreads(), virtualThreads, null);
+            workhorseConfig.setVirtualThreads(virtualThreads);
+
+            workhorse.useVirtualThreads(virtualThreads);
+        }
+    }
+
+    protected void updatePriorityAging(WorkhorseConfig workhorseConfig, int priorityAging) {
+
+        if (priorityAging < 0) {
+            throw new RuntimeException("The priority aging can't be negative!");
+        }
+        if (workhorseConfig.getPriorityAging() != priorityAging) {
+
+            StaticConfig.PRIORITY_AGING = priorityAging;
+            workhorseLogService.logChange(null, null, "Priority aging", workhorseConfig.getPriorityAging(), priorityAging, null);
+            workhorseConfig.setPriorityAging(priorityAging);
+
+            executionBuffer.updatePriorityAging(priorityAging);
+        }
+    }
+
+    protected void updateListingCacheTtl(WorkhorseConfig workhorseConfig, int listingCacheTtl) {
+
+        if (listingCacheTtl < 0) {
+            throw new RuntimeException("The listing cache TTL can't be negative!");
+        }
+        if (workhorseConfig.getListingCacheTtl() != listingCacheTtl) {
+
+            StaticConfig.LISTING_CACHE_TTL = listingCacheTtl;
+            workhorseLogService.logChange(null, null, "Listing cache TTL", workhorseConfig.getListingCacheTtl(), listingCacheTtl, null);
+            workhorseConfig.setListingCacheTtl(listingCacheTtl);
+
+            // results cached with the former TTL would live on, a disabled cache isn't invalidated anymore
+            listingCache.clear();
+        }
+    }
+
+    protected void updateListingCacheSize(WorkhorseConfig workhorseConfig, int listingCacheSize) {
+
+        if (listingCacheSize < 1) {
+            throw new RuntimeException("The listing cache size must be at least 1!");
+        }
+        if (workhorseConfig.getListingCacheSize() != listingCacheSize) {
+
+            StaticConfig.LISTING_CACHE_SIZE = listingCacheSize;
+            workhorseLogService.logChange(null, null, "Listing cache size", workhorseConfig.getListingCacheSize(), listingCacheSize, null);
+            workhorseConfig.setListingCacheSize(listingCacheSize);
+
+            listingCache.clear();
+        }
+    }
+
     protected void updateExecutionTimeout(WorkhorseConfig workhorseConfig, int executionTimeout) {
 
         if (executionTimeout < 0) {
@@ -6,24 +6,25 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 import javax.enterprise.context.ApplicationScoped;
-import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.context.ContextNotActiveException;
 import javax.enterprise.event.Event;
-import javax.enterprise.inject.Any;
 import javax.enterprise.inject.spi.Bean;
-import javax.enterprise.inject.spi.BeanManager;
-import javax.enterprise.util.AnnotationLiteral;
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.coodoo.workhorse.core.boundary.ExecutionContext;
+import io.coodoo.workhorse.core.boundary.WorkBatchResult;
 import io.coodoo.workhorse.core.boundary.Worker;
 import io.coodoo.workhorse.core.boundary.WorkerWith;
 import io.coodoo.workhorse.core.boundary.WorkhorseLogService;
@@ -39,6 +40,7 @@ import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.JobExecutionStatusSummary;
 import io.coodoo.workhorse.core.entity.JobStatus;
 import io.coodoo.workhorse.core.entity.JobStatusCount;
+import io.coodoo.workhorse.core.entity.RetryBackoff;
 import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
 import io.coodoo.workhorse.persistence.interfaces.JobPersistence;
 import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
@@ -58,8 +60,10 @@ public class WorkhorseController {
 
     private static final Logger log = LoggerFactory.getLogger(WorkhorseController.class);
 
-    @Inject
-    BeanManager beanManager;
+    /**
+     * Serializes the handling of failed executions.
+     */
+    private final ReentrantLock failedExecutionLock = new ReentrantLock();
 
     @Inject
     ExecutionBuffer executionBuffer;
@@ -81,17 +85,20 @@ public class WorkhorseController {
     @Inject
     ExecutionContext executionContext;
 
+    @Inject
+    WorkerRegistry workerRegistry;
+
+    @Inject
+    ListingCache listingCache;
+
     /**
      * Load all worker-Class of the classpath
      */
     public void loadWorkers() {
 
         List<Class<?>> workerClasses = new ArrayList<>();
-        @SuppressWarnings("serial")
-        Set<Bean<?>> beans = beanManager.getBeans(BaseWorker.class, new AnnotationLiteral<Any>() {});
-        List<Bean<?>> sortedBeans = new ArrayList<>(beans);
-        // sort Beans by class name to avoid shuffled Job-IDs
-        sortedBeans.sort(Comparator.comparing(bean -> bean.getBeanClass().getName()));
+        // the registry gets rebuilt, so all later lookups use the current workers
+        List<Bean<?>> sortedBeans = workerRegistry.load();
         // check whether new worker exists and must be created and persisted
         for (Bean<?> bean : sortedBeans) {
             Class<?> workerclass = bean.getBeanClass();
@@ -150,6 +157,7 @@ public class WorkhorseController {
                 jobPersistence.update(job);
             }
         }
+        listingCache.invalidateJobs();
     }
 
     protected Job createJob(Class<?> workerClass) {
@@ -205,8 +213,14 @@ public class WorkhorseController {
             if (initialJobConfig.maxPerMinute() != InitialJobConfig.JOB_CONFIG_MAX_PER_MINUTE) {
                 job.setMaxPerMinute(initialJobConfig.maxPerMinute());
             }
+            job.setRateLimitWindow(initialJobConfig.rateLimitWindow());
+            job.setRateLimitBurst(initialJobConfig.rateLimitBurst());
             job.setFailRetries(initialJobConfig.failRetries());
             job.setRetryDelay(initialJobConfig.retryDelay());
+            job.setRetryBackoff(initialJobConfig.retryBackoff());
+            job.setRetryDelayMax(initialJobConfig.retryDelayMax());
+            job.setWorkBatchSize(initialJobConfig.workBatchSize());
+            job.setWorkBatchWait(initialJobConfig.workBatchWait());
 
             // Use workhorse default cleanup config if configuration is set to number less zero
             if (initialJobConfig.minutesUntilCleanUp() < 0) {
@@ -237,6 +251,7 @@ public class WorkhorseController {
         job.setParametersClassName(parameterClassName);
 
         Job persistedJob = jobPersistence.persist(job);
+        listingCache.invalidateJobs();
 
         if (persistedJob == null || persistedJob.getId() == null) {
             String exceptionMessage = "The job " + job.getName() + " couldn't be persisited by the persisitence " + jobPersistence.getPersistenceName();
@@ -255,6 +270,8 @@ public class WorkhorseController {
 
     public void deleteJob(Long jobId) {
         jobPersistence.deleteJob(jobId);
+        listingCache.invalidate(jobId);
+        listingCache.invalidateJobs();
     }
 
     /**
@@ -299,15 +316,10 @@ public class WorkhorseController {
      * @throws Exception
      */
     public BaseWorker getWorker(Job job) throws ClassNotFoundException {
-        @SuppressWarnings("serial")
-        Set<Bean<?>> beans = beanManager.getBeans(BaseWorker.class, new AnnotationLiteral<Any>() {});
-        for (Bean<?> bean : beans) {
-            Class<?> workerclass = bean.getBeanClass();
-            if (job.getWorkerClassName().equals(workerclass.getName())) {
-                CreationalContext<?> creationalContext = beanManager.createCreationalContext(bean);
-                return (BaseWorker) beanManager.getReference(bean, bean.getBeanClass(), creationalContext);
-            }
 
+        BaseWorker worker = workerRegistry.getWorker(job.getWorkerClassName());
+        if (worker != null) {
+            return worker;
         }
 
         log.error("No Worker class found for {}", job);
@@ -315,6 +327,7 @@ public class WorkhorseController {
 
         job.setStatus(JobStatus.NO_WORKER);
         jobPersistence.update(job);
+        listingCache.invalidateJobs();
 
         jobErrorEvent.fire(new JobErrorEvent(new ClassNotFoundException(), ErrorType.NO_JOB_WORKER_FOUND.getMessage(), job.getId(), job.getStatus()));
         throw new ClassNotFoundException();
@@ -330,13 +343,10 @@ public class WorkhorseController {
      * @throws Exception
      */
     private Class<?> getWorkerClass(Job job) throws ClassNotFoundException {
-        @SuppressWarnings("serial")
-        Set<Bean<?>> beans = beanManager.getBeans(BaseWorker.class, new AnnotationLiteral<Any>() {});
-        for (Bean<?> bean : beans) {
-            Class<?> workerclass = bean.getBeanClass();
-            if (job.getWorkerClassName().equals(workerclass.getName())) {
-                return workerclass;
-            }
+
+        Class<?> workerClass = workerRegistry.getWorkerClass(job.getWorkerClassName());
+        if (workerClass != null) {
+            return workerClass;
         }
 
         log.error("No Worker class found for {}", job);
@@ -344,6 +354,7 @@ public class WorkhorseController {
 
         job.setStatus(JobStatus.NO_WORKER);
         jobPersistence.update(job);
+        listingCache.invalidateJobs();
 
         jobErrorEvent.fire(new JobErrorEvent(new ClassNotFoundException(), ErrorType.NO_JOB_WORKER_FOUND.getMessage(), job.getId(), job.getStatus()));
         throw new ClassNotFoundException();
@@ -389,6 +400,27 @@ public class WorkhorseController {
     public Execution createExecution(Long jobId, String parameters, Boolean priority, LocalDateTime plannedFor, LocalDateTime expiresAt, Long batchId,
                     Long chainId, boolean uniqueQueued) {
 
+        int priorityLevel = priority != null && priority ? Execution.PRIORITY_LEVEL_MAX : Execution.PRIORITY_LEVEL_MIN;
+        return createExecution(jobId, parameters, priorityLevel, plannedFor, expiresAt, batchId, chainId, uniqueQueued);
+    }
+
+    /**
+     * create an {@link Execution}
+     * 
+     * @param jobId Id of the corresponding job
+     * @param parameters parameters of the execution
+     * @param priorityLevel executions with a higher level between {@link Execution#PRIORITY_LEVEL_MIN} and {@link Execution#PRIORITY_LEVEL_MAX} are processed
+     *        first
+     * @param plannedFor If a plannedFor is given, the job execution will not be executed before this time.
+     * @param expiresAt If expiresAt is given, the execution have to be process before this time. Otherwise the execution is cancelled.
+     * @param batchId Id to refer to a group of executions to handle as a single entity.
+     * @param chainId Id to refer to a group of executions to process by an order.
+     * @param uniqueQueued if true then no more than one execution with specified parameters can be queued at the time.
+     * @return the created execution
+     */
+    public Execution createExecution(Long jobId, String parameters, int priorityLevel, LocalDateTime plannedFor, LocalDateTime expiresAt, Long batchId,
+                    Long chainId, boolean uniqueQueued) {
+
         Integer parametersHash = null;
         if (parameters != null) {
             parametersHash = parameters.hashCode();
@@ -418,13 +450,14 @@ public class WorkhorseController {
 
         execution.setParameters(parameters);
         execution.setParametersHash(parametersHash);
-        execution.setPriority(priority != null ? priority : false);
+        execution.setPriorityLevel(priorityLevel);
         execution.setPlannedFor(plannedFor);
         execution.setExpiresAt(expiresAt);
         execution.setBatchId(batchId);
         execution.setChainId(chainId);
 
         Execution persistedExecution = executionPersistence.persist(execution);
+        listingCache.invalidate(jobId);
 
         if (persistedExecution == null || persistedExecution.getId() == null) {
             JobErrorEvent jobErrorMessage = new JobErrorEvent(new Throwable(ErrorType.ERROR_BY_EXECUTION_PERSIST.getMessage()),
@@ -440,6 +473,140 @@ public class WorkhorseController {
 
     }
 
+    /**
+     * create many {@link Execution} with a single write to the persistence, e.g. the executions of a batch or a chain. The executions share all attributes
+     * except for their parameters.
+     * 
+     * @param jobId Id of the corresponding job
+     * @param parametersList parameters of the executions in the order of their creation
+     * @param priorityLevel executions with a higher level between {@link Execution#PRIORITY_LEVEL_MIN} and {@link Execution#PRIORITY_LEVEL_MAX} are processed
+     *        first
+     * @param plannedFor If a plannedFor is given, the job executions will not be executed before this time.
+     * @param expiresAt If expiresAt is given, the executions have to be process before this time. Otherwise the executions are cancelled.
+     * @param batchId Id to refer to a group of executions to handle as a single entity. {@link Execution#FIRST_EXECUTION_ID} uses the ID of the first
+     *        created execution.
+     * @param chainId Id to refer to a group of executions to process by an order. {@link Execution#FIRST_EXECUTION_ID} uses the ID of the first created
+     *        execution.
+     * @param uniqueQueued if true then no more than one execution with specified parameters can be queued at the time.
+     * @return the created executions in the order of the given parameters
+     */
+    public List<Execution> createExecutions(Long jobId, List<String> parametersList, int priorityLevel, LocalDateTime plannedFor, LocalDateTime expiresAt,
+                    Long batchId, Long chainId, boolean uniqueQueued) {
+
+        List<Execution> executions = new ArrayList<>(parametersList.size());
+        createExecutions(jobId, parametersList, priorityLevel, plannedFor, expiresAt, batchId, chainId, uniqueQueued, executions);
+        return executions;
+    }
+
+    /**
+     * create many {@link Execution} with a single write to the persistence like
+     * {@link #createExecutions(Long, List, int, LocalDateTime, LocalDateTime, Long, Long, boolean)}, but only the new executions are returned. The first of
+     * them holds the ID of a batch or chain that is created by {@link Execution#FIRST_EXECUTION_ID}, even if the first parameters are already queued.
+     * 
+     * @param jobId Id of the corresponding job
+     * @param parametersList parameters of the executions in the order of their creation
+     * @param priorityLevel executions with a higher level between {@link Execution#PRIORITY_LEVEL_MIN} and {@link Execution#PRIORITY_LEVEL_MAX} are processed
+     *        first
+     * @param plannedFor If a plannedFor is given, the job executions will not be executed before this time.
+     * @param expiresAt If expiresAt is given, the executions have to be process before this time. Otherwise the executions are cancelled.
+     * @param batchId Id to refer to a group of executions to handle as a single entity. {@link Execution#FIRST_EXECUTION_ID} uses the ID of the first
+     *        created execution.
+     * @param chainId Id to refer to a group of executions to process by an order. {@link Execution#FIRST_EXECUTION_ID} uses the ID of the first created
+     *        execution.
+     * @param uniqueQueued if true then no more than one execution with specified parameters can be queued at the time.
+     * @return the newly created executions in the order of the given parameters, without the ones that are already queued
+     */
+    public List<Execution> createNewExecutions(Long jobId, List<String> parametersList, int priorityLevel, LocalDateTime plannedFor,
+                    LocalDateTime expiresAt, Long batchId, Long chainId, boolean uniqueQueued) {
+
+        return createExecutions(jobId, parametersList, priorityLevel, plannedFor, expiresAt, batchId, chainId, uniqueQueued,
+                        new ArrayList<>(parametersList.size()));
+    }
+
+    /**
+     * @param executions gets all executions in the order of the given parameters, including the ones that are already queued
+     * @return the newly created executions
+     */
+    private List<Execution> createExecutions(Long jobId, List<String> parametersList, int priorityLevel, LocalDateTime plannedFor, LocalDateTime expiresAt,
+                    Long batchId, Long chainId, boolean uniqueQueued, List<Execution> executions) {
+
+        ExecutionStatus status = plannedFor != null && WorkhorseUtil.timestamp().isBefore(plannedFor) ? ExecutionStatus.PLANNED : ExecutionStatus.QUEUED;
+
+        // the result keeps the order of the parameters, even if some are already queued
+        List<Execution> newExecutions = new ArrayList<>(parametersList.size());
+        Map<Integer, Execution> queuedByParametersHash = new HashMap<>();
+
+        for (String parameters : parametersList) {
+
+            Integer parametersHash = null;
+            if (parameters != null) {
+                parametersHash = parameters.hashCode();
+                if (parameters.trim().isEmpty()) {
+                    parameters = null;
+                    parametersHash = null;
+                }
+            }
+
+            if (uniqueQueued) {
+                Execution equalQueuedJobExcecution = queuedByParametersHash.get(parametersHash);
+                if (equalQueuedJobExcecution == null) {
+                    equalQueuedJobExcecution = executionPersistence.getFirstCreatedByJobIdAndParametersHash(jobId, parametersHash);
+                }
+                if (equalQueuedJobExcecution != null) {
+                    log.trace("Attempt to create {} that is already in queue! Parameters: {}", equalQueuedJobExcecution, parameters);
+                    executions.add(equalQueuedJobExcecution);
+                    continue;
+                }
+            }
+            Execution execution = new Execution();
+            execution.setJobId(jobId);
+            execution.setStatus(status);
+            execution.setParameters(parameters);
+            execution.setParametersHash(parametersHash);
+            execution.setPriorityLevel(priorityLevel);
+            execution.setPlannedFor(plannedFor);
+            execution.setExpiresAt(expiresAt);
+            execution.setBatchId(batchId);
+            execution.setChainId(chainId);
+
+            executions.add(execution);
+            newExecutions.add(execution);
+            if (uniqueQueued) {
+                queuedByParametersHash.put(parametersHash, execution);
+            }
+        }
+
+        if (newExecutions.isEmpty()) {
+            return newExecutions;
+        }
+
+        List<Execution> persistedExecutions = executionPersistence.persistAll(newExecutions);
+        listingCache.invalidate(jobId);
+
+        if (persistedExecutions == null || persistedExecutions.size() != newExecutions.size()
+                        || persistedExecutions.stream().anyMatch(persistedExecution -> persistedExecution == null || persistedExecution.getId() == null)) {
+            JobErrorEvent jobErrorMessage = new JobErrorEvent(new Throwable(ErrorType.ERROR_BY_EXECUTION_PERSIST.getMessage()),
+                            ErrorType.ERROR_BY_EXECUTION_PERSIST.getMessage(), jobId, null);
+
+            jobErrorEvent.fireAsync(jobErrorMessage);
+            workhorseLogService.logException(jobErrorMessage);
+
+            throw new RuntimeException("The " + newExecutions.size() + " executions of job " + jobId + " couldn't be persisited by the persisitence.");
+        }
+
+        // the persistence may return other instances than the given ones
+        for (int index = 0, persisted = 0; index < executions.size(); index++) {
+            if (executions.get(index) == newExecutions.get(persisted)) {
+                executions.set(index, persistedExecutions.get(persisted));
+                if (++persisted == newExecutions.size()) {
+                    break;
+                }
+            }
+        }
+        log.trace("{} executions successfully created for job {}", persistedExecutions.size(), jobId);
+        return persistedExecutions;
+    }
+
     /**
      * Set the execution on status FINISHED and calls the callback method onFinished() and/or onFinishedBatch()
      * 
@@ -455,6 +622,7 @@ public class WorkhorseController {
     public void finishExecution(Job job, Execution execution, BaseWorker workerInstance, Worker worker, WorkerWith<Object> workerWith,
                     boolean isWorkerWithParameters, Object parameters, String summary) {
 
+        flushExecutionLog();
         if (summary != null && !summary.isEmpty()) {
             executionContext.summarize(execution, summary);
         }
@@ -474,6 +642,79 @@ public class WorkhorseController {
         }
     }
 
+    /**
+     * Set the executions of a work batch on status FINISHED with a single update of the persistence and calls the callback methods. The failed executions of
+     * the work batch are handled one by one like a failed single execution.
+     * 
+     * @param job job of the executions
+     * @param workerWith worker that processed the work batch
+     * @param executions executions of the work batch
+     * @param parametersList parameters of the executions in the same order
+     * @param workBatchResult summaries and failures of the executions in the same order
+     * @param duration duration of the work batch in milliseconds
+     */
+    public void finishWorkBatch(Job job, WorkerWith<Object> workerWith, List<Execution> executions, List<Object> parametersList,
+                    WorkBatchResult workBatchResult, long duration) {
+
+        flushExecutionLog();
+        LocalDateTime endTime = WorkhorseUtil.timestamp();
+        List<Execution> finishedExecutions = new ArrayList<>(executions.size());
+        List<Integer> finishedIndexes = new ArrayList<>(executions.size());
+
+        for (int index = 0; index < executions.size(); index++) {
+            if (workBatchResult.isFailed(index)) {
+                continue;
+            }
+            Execution execution = executions.get(index);
+            executionContext.applySummary(execution, workBatchResult.getSummary(index));
+            execution.setStatus(ExecutionStatus.FINISHED);
+            execution.setFailStatus(ExecutionFailStatus.NONE);
+            execution.setEndedAt(endTime);
+            execution.setDuration(Duration.between(execution.getStartedAt(), endTime).toMillis());
+            finishedExecutions.add(execution);
+            finishedIndexes.add(index);
+        }
+        if (!finishedExecutions.isEmpty()) {
+            executionPersistence.updateAll(finishedExecutions);
+            listingCache.invalidate(job.getId());
+        }
+        log.trace("Work batch of {} executions, duration: {}, {} finished", executions.size(), duration, finishedExecutions.size());
+
+        Map<Long, Long> lastExecutionIdByBatchId = new LinkedHashMap<>();
+        for (int index : finishedIndexes) {
+            Execution execution = executions.get(index);
+            executionBuffer.removeRunningExecution(job.getId(), execution.getId());
+            workerWith.onFinished(execution.getId(), parametersList.get(index), workBatchResult.getSummary(index));
+            if (execution.getBatchId() != null) {
+                lastExecutionIdByBatchId.put(execution.getBatchId(), execution.getId());
+            }
+        }
+        // every batch is checked once for the whole work batch
+        for (Map.Entry<Long, Long> entry : lastExecutionIdByBatchId.entrySet()) {
+            if (executionPersistence.isBatchFinished(job.getId(), entry.getKey())) {
+                workerWith.onFinishedBatch(entry.getKey(), entry.getValue());
+            }
+        }
+
+        for (int index = 0; index < executions.size(); index++) {
+            if (workBatchResult.isFailed(index)) {
+                handleFailedExecution(job, executions.get(index).getId(), workBatchResult.getFailure(index), duration, true, null, workerWith,
+                                parametersList.get(index));
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered log lines of the {@link ExecutionContext} to the persistence. Without an active request context there is nothing buffered.
+     */
+    private void flushExecutionLog() {
+        try {
+            executionContext.flushLog();
+        } catch (ContextNotActiveException e) {
+            log.trace("No execution context to flush the log");
+        }
+    }
+
     /**
      * Create a new job execution to retry an execution
      * 
@@ -481,12 +722,49 @@ public class WorkhorseController {
      * @return the created job execution
      */
     public Execution createRetryExecution(Execution failedExecution) {
+        return persistRetryExecution(buildRetryExecution(failedExecution));
+    }
+
+    /**
+     * Create a new job execution to retry a failed execution. The retry gets {@link ExecutionStatus#PLANNED} after the delay of the {@link RetryBackoff} of
+     * the job, so no job thread has to wait for it. A failed execution of a chain is retried right away by its job thread, because a chain is processed in
+     * order.
+     * 
+     * @param job job of the failed execution
+     * @param failedExecution job execution to retry
+     * @return the created job execution
+     */
+    public Execution createRetryExecution(Job job, Execution failedExecution) {
+
+        Execution retryExecution = buildRetryExecution(failedExecution);
+        if (failedExecution.getChainId() == null) {
+            long delay = getRetryDelay(job, retryExecution.getFailRetry());
+            retryExecution.setStatus(ExecutionStatus.PLANNED);
+            retryExecution.setStartedAt(null);
+            retryExecution.setPlannedFor(WorkhorseUtil.timestamp().plus(Duration.ofMillis(delay)));
+        }
+        return persistRetryExecution(retryExecution);
+    }
+
+    /**
+     * Calculate the delay before a retry by the {@link RetryBackoff} of the job
+     * 
+     * @param job job of the failed execution
+     * @param failRetry number of the retry, starting with 1
+     * @return delay in milliseconds
+     */
+    public long getRetryDelay(Job job, int failRetry) {
+        RetryBackoff retryBackoff = job.getRetryBackoff() == null ? RetryBackoff.FIXED : job.getRetryBackoff();
+        return retryBackoff.getDelay(job.getRetryDelay(), job.getRetryDelayMax(), failRetry);
+    }
+
+    private Execution buildRetryExecution(Execution failedExecution) {
 
         Execution retryExecution = new Execution();
         retryExecution.setJobId(failedExecution.getJobId());
         retryExecution.setStatus(failedExecution.getStatus());
         retryExecution.setStartedAt(LocalDateTime.now(ZoneId.of(StaticConfig.TIME_ZONE)));
-        retryExecution.setPriority(failedExecution.isPriority());
+        retryExecution.setPriorityLevel(failedExecution.getPriorityLevel());
         retryExecution.setPlannedFor(failedExecution.getPlannedFor());
         retryExecution.setChainId(failedExecution.getChainId());
         retryExecution.setParameters(failedExecution.getParameters());
@@ -497,8 +775,13 @@ public class WorkhorseController {
         if (retryExecution.getFailRetryExecutionId() == null) {
             retryExecution.setFailRetryExecutionId(failedExecution.getId());
         }
+        return retryExecution;
+    }
+
+    private Execution persistRetryExecution(Execution retryExecution) {
 
         Execution persistedExecution = executionPersistence.persist(retryExecution);
+        listingCache.invalidate(retryExecution.getJobId());
 
         if (persistedExecution == null || persistedExecution.getId() == null) {
             JobErrorEvent jobErrorMessage = new JobErrorEvent(new Throwable(ErrorType.ERROR_BY_EXECUTION_PERSIST.getMessage()),
@@ -526,64 +809,71 @@ public class WorkhorseController {
      * @param parameters job parameters object if parameter <code>isWorkerWithParameters</code> is <code>true</code>
      * @return new created/cloned execution
      */
-    public synchronized Execution handleFailedExecution(Job job, Long executionId, Throwable throwable, Long duration, boolean isWorkerWithParameters,
+    public Execution handleFailedExecution(Job job, Long executionId, Throwable throwable, Long duration, boolean isWorkerWithParameters,
                     Worker worker, WorkerWith<Object> workerWith, Object parameters) {
 
-        executionBuffer.removeRunningExecution(job.getId(), executionId);
-
-        Execution failedExecution = executionPersistence.getById(job.getId(), executionId);
-        Execution retryExecution = null;
-
-        log.error("The execution failed", throwable);
-        if (failedExecution == null) {
-            String message = "The execution with ID: " + executionId + " of job: " + job.getName() + " with JobID: " + job.getId()
-                            + " could not be found in the persistence.";
-            log.error(message);
-            workhorseLogService.logMessage(message, job.getId(), false);
-            return null;
-        }
-
-        // Asynchronous Job didn't support Retry Execution
-        if (!job.isAsynchronous() && failedExecution.getFailRetry() < job.getFailRetries()) {
-            retryExecution = createRetryExecution(failedExecution);
-        } else if (failedExecution.getChainId() != null) {
+        flushExecutionLog();
+        failedExecutionLock.lock();
+        try {
+            executionBuffer.removeRunningExecution(job.getId(), executionId);
+
+            Execution failedExecution = executionPersistence.getById(job.getId(), executionId);
+            Execution retryExecution = null;
+
+            log.error("The execution failed", throwable);
+            if (failedExecution == null) {
+                String message = "The execution with ID: " + executionId + " of job: " + job.getName() + " with JobID: " + job.getId()
+                                + " could not be found in the persistence.";
+                log.error(message);
+                workhorseLogService.logMessage(message, job.getId(), false);
+                return null;
+            }
 
-            executionPersistence.abortChain(job.getId(), failedExecution.getChainId());
-        }
+            // Asynchronous Job didn't support Retry Execution
+            if (!job.isAsynchronous() && failedExecution.getFailRetry() < job.getFailRetries()) {
+                retryExecution = createRetryExecution(job, failedExecution);
+            } else if (failedExecution.getChainId() != null) {
 
-        failedExecution.setStatus(ExecutionStatus.FAILED);
-        failedExecution.setEndedAt(LocalDateTime.now(ZoneId.of(StaticConfig.TIME_ZONE)));
-        failedExecution.setDuration(duration);
+                executionPersistence.abortChain(job.getId(), failedExecution.getChainId());
+            }
 
-        if (failedExecution.getSummary() == null) {
-            failedExecution.setSummary(WorkhorseUtil.getMessagesFromException(throwable));
-        } else {
-            executionPersistence.log(job.getId(), executionId, WorkhorseUtil.getMessagesFromException(throwable));
-        }
-        executionPersistence.logStacktrace(job.getId(), executionId, WorkhorseUtil.stacktraceToString(throwable));
+            failedExecution.setStatus(ExecutionStatus.FAILED);
+            failedExecution.setEndedAt(LocalDateTime.now(ZoneId.of(StaticConfig.TIME_ZONE)));
+            failedExecution.setDuration(duration);
 
-        if (isWorkerWithParameters) {
-            if (retryExecution == null) {
-                workerWith.onFailed(executionId, parameters, throwable);
-                if (failedExecution.getChainId() != null) {
-                    workerWith.onFailedChain(failedExecution.getChainId(), executionId);
-                }
+            if (failedExecution.getSummary() == null) {
+                failedExecution.setSummary(WorkhorseUtil.getMessagesFromException(throwable));
             } else {
-                workerWith.onRetry(executionId, retryExecution.getId(), parameters, throwable);
+                executionPersistence.log(job.getId(), executionId, WorkhorseUtil.getMessagesFromException(throwable));
             }
-        } else {
-            if (retryExecution == null) {
-                worker.onFailed(executionId, throwable);
-                if (failedExecution.getChainId() != null) {
-                    worker.onFailedChain(failedExecution.getChainId(), executionId);
+            executionPersistence.logStacktrace(job.getId(), executionId, WorkhorseUtil.stacktraceToString(throwable));
+
+            if (isWorkerWithParameters) {
+                if (retryExecution == null) {
+                    workerWith.onFailed(executionId, parameters, throwable);
+                    if (failedExecution.getChainId() != null) {
+                        workerWith.onFailedChain(failedExecution.getChainId(), executionId);
+                    }
+                } else {
+                    workerWith.onRetry(executionId, retryExecution.getId(), parameters, throwable);
                 }
             } else {
-                worker.onRetry(executionId, retryExecution.getId(), throwable);
+                if (retryExecution == null) {
+                    worker.onFailed(executionId, throwable);
+                    if (failedExecution.getChainId() != null) {
+                        worker.onFailedChain(failedExecution.getChainId(), executionId);
+                    }
+                } else {
+                    worker.onRetry(executionId, retryExecution.getId(), throwable);
+                }
             }
-        }
-        executionPersistence.update(failedExecution);
+            executionPersistence.update(failedExecution);
+            listingCache.invalidate(job.getId());
 
-        return retryExecution;
+            return retryExecution;
+        } finally {
+            failedExecutionLock.unlock();
+        }
     }
 
     /**
@@ -607,7 +897,11 @@ public class WorkhorseController {
 
         LocalDateTime time = LocalDateTime.now(ZoneId.of(StaticConfig.TIME_ZONE)).minusMinutes(minMinutesOld);
 
-        return executionPersistence.deleteOlderExecutions(jobId, time);
+        int deleted = executionPersistence.deleteOlderExecutions(jobId, time);
+        if (deleted > 0) {
+            listingCache.invalidate(jobId);
+        }
+        return deleted;
     }
 
     /**
@@ -621,6 +915,17 @@ public class WorkhorseController {
         return executionPersistence.getExecutionListing(jobId, listingParameters);
     }
 
+    /**
+     * Passes every execution of the job that matches the listing parameters to the consumer, without holding all of them in memory
+     * 
+     * @param jobId Id of the corresponding job
+     * @param listingParameters filter and sort attributes of the executions, the pagination gets ignored
+     * @param consumer gets every matching execution
+     */
+    public void forEachExecution(Long jobId, ListingParameters listingParameters, Consumer<Execution> consumer) {
+        executionPersistence.forEachExecution(jobId, listingParameters, consumer);
+    }
+
     /**
      * Get the listing result of jobs
      * 
@@ -657,7 +962,9 @@ public class WorkhorseController {
 
     public Job update(Job job) {
         return updateJob(job.getId(), job.getName(), job.getDescription(), job.getWorkerClassName(), job.getSchedule(), job.getStatus(), job.getThreads(),
-                        job.getMaxPerMinute(), job.getFailRetries(), job.getRetryDelay(), job.getMinutesUntilCleanUp(), job.isUniqueQueued());
+                        job.getMaxPerMinute(), job.getRateLimitWindow(), job.getRateLimitBurst(), job.getFailRetries(), job.getRetryDelay(),
+                        job.getRetryBackoff(), job.getRetryDelayMax(), job.getWorkBatchSize(), job.getWorkBatchWait(), job.getMinutesUntilCleanUp(),
+                        job.isUniqueQueued());
     }
 
     /**
@@ -671,15 +978,22 @@ public class WorkhorseController {
      * @param status the status of the Job. <code>ACTIVE</code>, <code>NO_WORKER</code>
      * @param threads the number of thread, that can process the job
      * @param maxPerMinute the max number of execution per minute
+     * @param rateLimitWindow the duration of the rate limit window in seconds, <code>0</code> for a minute
+     * @param rateLimitBurst the max number of executions that can be started at once after an idle period
      * @param failRetries the number of retries for a failed execution
      * @param retryDelay the duration to wait before a retry
+     * @param retryBackoff the strategy to calculate the delay before a retry
+     * @param retryDelayMax the upper limit of the delay before a retry in milliseconds, <code>0</code> for no limit
+     * @param workBatchSize the max number of executions that are processed at once, <code>1</code> or less for no work batches
+     * @param workBatchWait the max time in milliseconds to wait for more executions until a work batch is full
      * @param minutesUntilCleanUp the number of minutes before delete execution of this Job
      * @param uniqueQueued if a job has the uniqueInqueue set <code>true</code>, Two or more job execution with the same parameters are not authorized
      * 
      * @return the updated job
      */
     public Job updateJob(Long jobId, String name, String description, String workerClassName, String schedule, JobStatus status, int threads,
-                    Integer maxPerMinute, int failRetries, int retryDelay, int minutesUntilCleanUp, boolean uniqueQueued) {
+                    Integer maxPerMinute, int rateLimitWindow, int rateLimitBurst, int failRetries, int retryDelay, RetryBackoff retryBackoff,
+                    int retryDelayMax, int workBatchSize, int workBatchWait, int minutesUntilCleanUp, boolean uniqueQueued) {
 
         Job job = getJobById(jobId);
 
@@ -711,6 +1025,14 @@ public class WorkhorseController {
             workhorseLogService.logChange(jobId, status, "Max executions per minute", job.getMaxPerMinute(), maxPerMinute, null);
             job.setMaxPerMinute(maxPerMinute);
         }
+        if (!Objects.equals(job.getRateLimitWindow(), rateLimitWindow)) {
+            workhorseLogService.logChange(jobId, status, "Rate limit window", job.getRateLimitWindow(), rateLimitWindow, null);
+            job.setRateLimitWindow(rateLimitWindow);
+        }
+        if (!Objects.equals(job.getRateLimitBurst(), rateLimitBurst)) {
+            workhorseLogService.logChange(jobId, status, "Rate limit burst", job.getRateLimitBurst(), rateLimitBurst, null);
+            job.setRateLimitBurst(rateLimitBurst);
+        }
         if (!Objects.equals(job.getFailRetries(), failRetries)) {
             workhorseLogService.logChange(jobId, status, "Fail retries", job.getFailRetries(), failRetries, null);
             job.setFailRetries(failRetries);
@@ -719,6 +1041,22 @@ public class WorkhorseController {
             workhorseLogService.logChange(jobId, status, "Retry delay", job.getRetryDelay(), retryDelay, null);
             job.setRetryDelay(retryDelay);
         }
+        if (!Objects.equals(job.getRetryBackoff(), retryBackoff)) {
+            workhorseLogService.logChange(jobId, status, "Retry backoff", job.getRetryBackoff(), retryBackoff, null);
+            job.setRetryBackoff(retryBackoff);
+        }
+        if (!Objects.equals(job.getRetryDelayMax(), retryDelayMax)) {
+            workhorseLogService.logChange(jobId, status, "Retry delay max", job.getRetryDelayMax(), retryDelayMax, null);
+            job.setRetryDelayMax(retryDelayMax);
+        }
+        if (!Objects.equals(job.getWorkBatchSize(), workBatchSize)) {
+            workhorseLogService.logChange(jobId, status, "Work batch size", job.getWorkBatchSize(), workBatchSize, null);
+            job.setWorkBatchSize(workBatchSize);
+        }
+        if (!Objects.equals(job.getWorkBatchWait(), workBatchWait)) {
+            workhorseLogService.logChange(jobId, status, "Work batch wait", job.getWorkBatchWait(), workBatchWait, null);
+            job.setWorkBatchWait(workBatchWait);
+        }
         if (!Objects.equals(job.getMinutesUntilCleanUp(), minutesUntilCleanUp)) {
             workhorseLogService.logChange(jobId, status, "Minutes until cleanup", job.getMinutesUntilCleanUp(), minutesUntilCleanUp, null);
             job.setMinutesUntilCleanUp(minutesUntilCleanUp);
@@ -730,7 +1068,9 @@ public class WorkhorseController {
 
         log.trace("Job updated: {}", job);
 
-        return jobPersistence.update(job);
+        Job updatedJob = jobPersistence.update(job);
+        listingCache.invalidateJobs();
+        return updatedJob;
     }
 
     public List<Execution> getBatch(Long jobId, Long batchId) {
@@ -758,6 +1098,69 @@ public class WorkhorseController {
         updateExecutionStatus(execution, ExecutionStatus.RUNNING, ExecutionFailStatus.NONE);
     }
 
+    /**
+     * Claim a buffered execution, it is set on status RUNNING only if it is still QUEUED in the persistence
+     *
+     * @param execution buffered execution
+     * @return the execution in status RUNNING or <code>null</code> if it got claimed elsewhere or is not QUEUED anymore
+     */
+    public Execution claimExecution(Execution execution) {
+
+        Execution claimedExecution = executionPersistence.claim(execution.getJobId(), execution.getId());
+        if (claimedExecution != null) {
+            listingCache.invalidate(execution.getJobId());
+        }
+        return claimedExecution;
+    }
+
+    /**
+     * Claim the buffered executions of a work batch with a single conditional write, they are set on status RUNNING only if they are still QUEUED in the
+     * persistence
+     *
+     * @param executions buffered executions of one job
+     * @return the executions in status RUNNING, the ones that got claimed elsewhere or are not QUEUED anymore are left out
+     */
+    public List<Execution> claimExecutions(List<Execution> executions) {
+
+        if (executions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Long jobId = executions.get(0).getJobId();
+        List<Long> executionIds = new ArrayList<>(executions.size());
+        for (Execution execution : executions) {
+            executionIds.add(execution.getId());
+        }
+        List<Execution> claimedExecutions = executionPersistence.claimAll(jobId, executionIds);
+        if (!claimedExecutions.isEmpty()) {
+            listingCache.invalidate(jobId);
+        }
+        return claimedExecutions;
+    }
+
+    /**
+     * Set due PLANNED executions on status QUEUED with one conditional write per job. Only the executions that are still PLANNED in the persistence get
+     * QUEUED, so the pushed instances don't overwrite changes that got made since they were pushed.
+     *
+     * @param executions due executions, they may belong to different jobs
+     * @return the executions that got set on status QUEUED, as they are in the persistence
+     */
+    public List<Execution> setExecutionStatusToQueued(List<Execution> executions) {
+
+        Map<Long, List<Long>> executionIdsByJob = new LinkedHashMap<>();
+        for (Execution execution : executions) {
+            executionIdsByJob.computeIfAbsent(execution.getJobId(), jobId -> new ArrayList<>()).add(execution.getId());
+        }
+        List<Execution> queuedExecutions = new ArrayList<>(executions.size());
+        for (Map.Entry<Long, List<Long>> entry : executionIdsByJob.entrySet()) {
+            List<Execution> queued = executionPersistence.queuePlanned(entry.getKey(), entry.getValue());
+            if (!queued.isEmpty()) {
+                queuedExecutions.addAll(queued);
+                listingCache.invalidate(entry.getKey());
+            }
+        }
+        return queuedExecutions;
+    }
+
     public void setExecutionStatusToFinished(Execution execution) {
         updateExecutionStatus(execution, ExecutionStatus.FINISHED, ExecutionFailStatus.NONE);
     }
@@ -784,7 +1187,9 @@ public class WorkhorseController {
     }
 
     public Execution updateExecutionStatus(Long jobId, Long executionId, ExecutionStatus executionStatus) {
-        return executionPersistence.updateStatus(jobId, executionId, executionStatus, ExecutionFailStatus.NONE);
+        Execution execution = executionPersistence.updateStatus(jobId, executionId, executionStatus, ExecutionFailStatus.NONE);
+        listingCache.invalidate(jobId);
+        return execution;
     }
 
     /**
@@ -834,11 +1239,14 @@ public class WorkhorseController {
     }
 
     public Execution updateExecution(Execution execution) {
-        return executionPersistence.update(execution);
+        Execution updatedExecution = executionPersistence.update(execution);
+        listingCache.invalidate(execution.getJobId());
+        return updatedExecution;
     }
 
     public void deleteExecution(Long jobId, Long executionId) {
         executionPersistence.delete(jobId, executionId);
+        listingCache.invalidate(jobId);
     }
 
     /**
@@ -0,0 +1,27 @@
+package io.coodoo.workhorse.core.control.event;
+
+import java.util.List;
+
+import io.coodoo.workhorse.core.entity.Execution;
+
+/**
+ * Notification about many executions that got persisted at once, e.g. a batch or a chain
+ * 
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class NewExecutionsEvent {
+
+    public List<Execution> executions;
+
+    public NewExecutionsEvent() {}
+
+    public NewExecutionsEvent(List<Execution> executions) {
+        this.executions = executions;
+    }
+
+    @Override
+    public String toString() {
+        return "NewExecutionsEvent [executions=" + (executions == null ? null : executions.size()) + "]";
+    }
+
+}
@@ -14,6 +14,15 @@ import java.time.LocalDateTime;
  */
 public class Execution extends BaseEntity {
 
+    public static final int PRIORITY_LEVEL_MIN = 0;
+    public static final int PRIORITY_LEVEL_MAX = 9;
+
+    /**
+     * Placeholder of {@link #getBatchId()} or {@link #getChainId()} for executions that are persisted together, it gets replaced by the ID of the first of
+     * them.
+     */
+    public static final Long FIRST_EXECUTION_ID = -1L;
+
     /**
      * Id to refer to the concerned job
      */
@@ -54,6 +63,12 @@ public class Execution extends BaseEntity {
      */
     private boolean priority;
 
+    /**
+     * Priority level between {@link #PRIORITY_LEVEL_MIN} and {@link #PRIORITY_LEVEL_MAX}. Executions with a higher level are executed first. A priority
+     * execution without a given level gets {@link #PRIORITY_LEVEL_MAX}.
+     */
+    private int priorityLevel;
+
     /**
      * If a plannedFor is given, the job execution will not be executed before this time.
      */
@@ -132,6 +147,20 @@ public class Execution extends BaseEntity {
 
     public void setPriority(boolean priority) {
         this.priority = priority;
+        if (!priority) {
+            priorityLevel = PRIORITY_LEVEL_MIN;
+        } else if (priorityLevel == PRIORITY_LEVEL_MIN) {
+            priorityLevel = PRIORITY_LEVEL_MAX;
+        }
+    }
+
+    public int getPriorityLevel() {
+        return priorityLevel;
+    }
+
+    public void setPriorityLevel(int priorityLevel) {
+        this.priorityLevel = Math.max(PRIORITY_LEVEL_MIN, Math.min(PRIORITY_LEVEL_MAX, priorityLevel));
+        this.priority = this.priorityLevel > PRIORITY_LEVEL_MIN;
     }
 
     public LocalDateTime getPlannedFor() {
@@ -46,10 +46,20 @@ public class Job extends BaseEntity {
     private int threads;
 
     /**
-     * Max number of execution per minute
+     * Max number of execution per minute, or per {@link #rateLimitWindow} if it is set
      */
     private Integer maxPerMinute;
 
+    /**
+     * Duration in seconds of the window {@link #maxPerMinute} refers to, <code>0</code> for a minute
+     */
+    private int rateLimitWindow;
+
+    /**
+     * Max number of executions that can be started at once after an idle period, <code>1</code> or less for an even spread over the window
+     */
+    private int rateLimitBurst = 1;
+
     /**
      * Number of retries for a failed execution
      */
@@ -60,6 +70,26 @@ public class Job extends BaseEntity {
      */
     private int retryDelay;
 
+    /**
+     * Strategy to calculate the delay before a retry, based on {@link #retryDelay}
+     */
+    private RetryBackoff retryBackoff = RetryBackoff.FIXED;
+
+    /**
+     * Upper limit of the delay before a retry in milliseconds, <code>0</code> for no limit
+     */
+    private int retryDelayMax;
+
+    /**
+     * Max number of executions that are processed at once by <code>WorkerWith.doWorkBatch()</code>, <code>1</code> or less for no work batches
+     */
+    private int workBatchSize = 1;
+
+    /**
+     * Max time in milliseconds to wait for more executions until a work batch is full
+     */
+    private int workBatchWait;
+
     /**
      * number of minutes before delete execution of this Job
      */
@@ -146,6 +176,22 @@ public class Job extends BaseEntity {
         this.maxPerMinute = maxPerMinute;
     }
 
+    public int getRateLimitWindow() {
+        return rateLimitWindow;
+    }
+
+    public void setRateLimitWindow(int rateLimitWindow) {
+        this.rateLimitWindow = rateLimitWindow;
+    }
+
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(int rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
     public int getFailRetries() {
         return failRetries;
     }
@@ -162,6 +208,38 @@ public class Job extends BaseEntity {
         this.retryDelay = retryDelay;
     }
 
+    public RetryBackoff getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(RetryBackoff retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public int getRetryDelayMax() {
+        return retryDelayMax;
+    }
+
+    public void setRetryDelayMax(int retryDelayMax) {
+        this.retryDelayMax = retryDelayMax;
+    }
+
+    public int getWorkBatchSize() {
+        return workBatchSize;
+    }
+
+    public void setWorkBatchSize(int workBatchSize) {
+        this.workBatchSize = workBatchSize;
+    }
+
+    public int getWorkBatchWait() {
+        return workBatchWait;
+    }
+
+    public void setWorkBatchWait(int workBatchWait) {
+        this.workBatchWait = workBatchWait;
+    }
+
     public int getMinutesUntilCleanUp() {
         return minutesUntilCleanUp;
     }
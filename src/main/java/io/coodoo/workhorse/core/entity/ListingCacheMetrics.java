@@ -0,0 +1,95 @@
+package io.coodoo.workhorse.core.entity;
+
+/**
+ * Class that contain the counters of the cache of listings and counts
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class ListingCacheMetrics {
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private int size;
+
+    public ListingCacheMetrics() {}
+
+    public ListingCacheMetrics(long hits, long misses, long evictions, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    /**
+     * @return number of requests that got a cached result
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * @return number of requests that had to query the persistence
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * @return number of results that got evicted as the cache was full
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    /**
+     * @return number of times the results of a job or across all jobs got dropped because of a change
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public void setInvalidations(long invalidations) {
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * @return number of currently cached results
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * @return share of the requests that got a cached result, <code>0</code> if there was no request
+     */
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "ListingCacheMetrics [hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", invalidations=" + invalidations + ", size=" + size
+                        + "]";
+    }
+
+}
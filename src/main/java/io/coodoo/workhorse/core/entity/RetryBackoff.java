@@ -0,0 +1,55 @@
+package io.coodoo.workhorse.core.entity;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy to calculate the delay before a failed execution gets retried
+ * 
+ * @author coodoo GmbH (coodoo.io)
+ */
+public enum RetryBackoff {
+
+    /**
+     * Every retry waits the retry delay of the job
+     */
+    FIXED,
+
+    /**
+     * The delay doubles with every retry, starting with the retry delay of the job
+     */
+    EXPONENTIAL,
+
+    /**
+     * A random delay between zero and the delay of {@link #EXPONENTIAL}, so retries of many failed executions don't hit a recovering system at once
+     */
+    EXPONENTIAL_JITTER;
+
+    /**
+     * Calculates the delay before a retry
+     * 
+     * @param retryDelay base delay in milliseconds
+     * @param retryDelayMax upper limit of the delay in milliseconds, <code>0</code> for no limit
+     * @param failRetry number of the retry, starting with 1
+     * @return delay in milliseconds
+     */
+    public long getDelay(int retryDelay, int retryDelayMax, int failRetry) {
+
+        long delay = Math.max(retryDelay, 0);
+        if (this != FIXED && failRetry > 1) {
+            // limit the shift, so the delay can't overflow
+            int exponent = Math.min(failRetry - 1, 30);
+            delay = delay << exponent;
+            if (delay < 0) {
+                delay = Long.MAX_VALUE;
+            }
+        }
+        if (retryDelayMax > 0) {
+            delay = Math.min(delay, retryDelayMax);
+        }
+        if (this == EXPONENTIAL_JITTER && delay > 0) {
+            delay = ThreadLocalRandom.current().nextLong(delay + 1);
+        }
+        return delay;
+    }
+
+}
@@ -9,6 +9,11 @@ import java.time.ZoneId;
  */
 public abstract class WorkhorseConfig {
 
+    /**
+     * Default of {@link #getWorkerPoolSize()}
+     */
+    public static final int DEFAULT_WORKER_POOL_SIZE = 64;
+
     /**
      * ZoneId for LocalDateTime instance creation. The default setting is that defined by the system.
      */
@@ -34,6 +39,32 @@ public abstract class WorkhorseConfig {
      */
     protected int bufferPushFallbackPollInterval = 120;
 
+    /**
+     * Max amount of threads that process executions of all jobs. The threads of a job ({@link Job#getThreads()}) are taken from this pool.
+     */
+    protected int workerPoolSize = DEFAULT_WORKER_POOL_SIZE;
+
+    /**
+     * If <code>true</code> every job thread runs on its own virtual thread instead of the worker pool. Requires Java 21 or higher.
+     */
+    protected boolean virtualThreads = false;
+
+    /**
+     * Number of seconds after which a buffered execution is treated like one of the next higher priority level, so executions with a low priority level don't
+     * starve behind a steady stream of higher ones. <code>0</code> disables the aging.
+     */
+    protected int priorityAging = 10;
+
+    /**
+     * Number of seconds the results of listings and counts requested by the dashboard are cached. <code>0</code> disables the cache.
+     */
+    protected int listingCacheTtl = 0;
+
+    /**
+     * Max amount of cached results of listings and counts, the least recently used ones get evicted
+     */
+    protected int listingCacheSize = 1000;
+
     /**
      * Number of minutes an execution can be held in the persistence before being automatically deleted.
      * 
@@ -142,6 +173,46 @@ public abstract class WorkhorseConfig {
         this.bufferPushFallbackPollInterval = bufferPushFallbackPollInterval;
     }
 
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    public void setWorkerPoolSize(int workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getPriorityAging() {
+        return priorityAging;
+    }
+
+    public void setPriorityAging(int priorityAging) {
+        this.priorityAging = priorityAging;
+    }
+
+    public int getListingCacheTtl() {
+        return listingCacheTtl;
+    }
+
+    public void setListingCacheTtl(int listingCacheTtl) {
+        this.listingCacheTtl = listingCacheTtl;
+    }
+
+    public int getListingCacheSize() {
+        return listingCacheSize;
+    }
+
+    public void setListingCacheSize(int listingCacheSize) {
+        this.listingCacheSize = listingCacheSize;
+    }
+
     public long getMinutesUntilCleanup() {
         return minutesUntilCleanup;
     }
@@ -217,7 +288,9 @@ public abstract class WorkhorseConfig {
     @Override
     public String toString() {
         return "WorkhorseConfig [timeZone=" + timeZone + ", bufferMax=" + bufferMax + ", bufferMin=" + bufferMin + ", bufferPollInterval=" + bufferPollInterval
-                        + ", bufferPushFallbackPollInterval=" + bufferPushFallbackPollInterval + ", minutesUntilCleanup=" + minutesUntilCleanup
+                        + ", bufferPushFallbackPollInterval=" + bufferPushFallbackPollInterval + ", workerPoolSize=" + workerPoolSize + ", virtualThreads=" + virtualThreads + ", priorityAging=" + priorityAging
+                        + ", listingCacheTtl=" + listingCacheTtl + ", listingCacheSize=" + listingCacheSize
+                        + ", minutesUntilCleanup=" + minutesUntilCleanup
                         + ", executionTimeout=" + executionTimeout + ", maxExecutionSummaryLength=" + maxExecutionSummaryLength + ", executionTimeoutStatus="
                         + executionTimeoutStatus + ", logChange=" + logChange + ", logTimeFormat=" + logTimeFormat + ", logInfoMarker=" + logInfoMarker
                         + ", logWarnMarker=" + logWarnMarker + ", logErrorMarker=" + logErrorMarker + "]";
@@ -74,6 +74,53 @@ public abstract class WorkhorseConfigBuilder {
         return this;
     }
 
+    /**
+     * Set the maximum amount of threads that process the executions of all jobs.
+     * 
+     * @param workerPoolSize the maximum amount of threads
+     * @return the builder to set another configuration
+     */
+    public WorkhorseConfigBuilder workerPoolSize(int workerPoolSize) {
+        workhorseConfig.setWorkerPoolSize(workerPoolSize);
+        return this;
+    }
+
+    /**
+     * Run the job threads on virtual threads instead of the worker pool. Requires Java 21 or higher.
+     * 
+     * @param virtualThreads <code>true</code> to use virtual threads
+     * @return the builder to set another configuration
+     */
+    public WorkhorseConfigBuilder virtualThreads(boolean virtualThreads) {
+        workhorseConfig.setVirtualThreads(virtualThreads);
+        return this;
+    }
+
+    /**
+     * Set the number of seconds after which a buffered execution is treated like one of the next higher priority level.
+     * 
+     * @param priorityAging seconds per priority level, <code>0</code> to disable the aging
+     * @return the builder to set another configuration
+     */
+    public WorkhorseConfigBuilder priorityAging(int priorityAging) {
+        workhorseConfig.setPriorityAging(priorityAging);
+        return this;
+    }
+
+    /**
+     * Cache the results of listings and counts requested by the dashboard. Results of a job are dropped as soon as its executions change, results across all
+     * jobs only expire.
+     * 
+     * @param listingCacheTtl seconds a result is cached, <code>0</code> to disable the cache
+     * @param listingCacheSize max amount of cached results
+     * @return the builder to set another configuration
+     */
+    public WorkhorseConfigBuilder listingCache(int listingCacheTtl, int listingCacheSize) {
+        workhorseConfig.setListingCacheTtl(listingCacheTtl);
+        workhorseConfig.setListingCacheSize(listingCacheSize);
+        return this;
+    }
+
     /***
      * Set how long an execution can be held in the persistence before being automatically deleted
      * 
@@ -1,7 +1,9 @@
 package io.coodoo.workhorse.persistence.interfaces;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import io.coodoo.workhorse.core.entity.Execution;
 import io.coodoo.workhorse.core.entity.ExecutionFailStatus;
@@ -12,6 +14,7 @@ import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.JobExecutionStatusSummary;
 import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
 import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+import io.coodoo.workhorse.util.WorkhorseUtil;
 
 /**
  * @author coodoo GmbH (coodoo.io)
@@ -43,7 +46,8 @@ public interface ExecutionPersistence {
     List<Execution> getByJobId(Long jobId, Long limit);
 
     /**
-     * Get the listing result of execution
+     * Get the listing result of execution. If the listing parameters have a cursor, the page continues after the cursor in the order of the sort attribute and
+     * the ID and the metadata holds the cursor of the next page instead of the count (see {@link ListingParameters#setCursor(String)}).
      * 
      * @param jobId Id of the job
      * @param listingParameters defines the listing queue. It contains optional query parameters as described above
@@ -51,6 +55,29 @@ public interface ExecutionPersistence {
      */
     ListingResult<Execution> getExecutionListing(Long jobId, ListingParameters listingParameters);
 
+    /**
+     * Passes every execution of the job that matches the filter attributes of the listing parameters to the consumer, without holding all of them in memory.
+     * Pagination of the listing parameters gets ignored. This reads the listing page by page with a {@link ListingParameters#setCursor(String) cursor}, so a
+     * page continues after the previous one instead of counting the executions before it. Persistences that can iterate their executions should override this.
+     * 
+     * @param jobId Id of the job
+     * @param listingParameters filter and sort attributes of the executions
+     * @param consumer gets every matching execution
+     */
+    default void forEachExecution(Long jobId, ListingParameters listingParameters, Consumer<Execution> consumer) {
+
+        ListingParameters pageParameters = new ListingParameters(1, 1000, listingParameters.getSortAttribute());
+        pageParameters.setFilter(listingParameters.getFilter());
+        pageParameters.setFilterAttributes(listingParameters.getFilterAttributes());
+        pageParameters.setCursor("");
+
+        while (pageParameters.getCursor() != null) {
+            ListingResult<Execution> page = getExecutionListing(jobId, pageParameters);
+            page.getResults().forEach(consumer);
+            pageParameters.setCursor(page.getMetadata().getNextCursor());
+        }
+    }
+
     /**
      * Retrieves the next queued executions and the planned executions that have to be process now with given JobId, order by priority and createdAt. Executions
      * with existent value <code>ChainedPreviousExecutionId</code> do not have to be retrieve.
@@ -85,6 +112,64 @@ public interface ExecutionPersistence {
      */
     Execution update(Execution execution);
 
+    /**
+     * Persist a list of new job executions at once. The IDs are assigned in the order of the list. A batch ID or chain ID of
+     * {@link Execution#FIRST_EXECUTION_ID} is replaced by the ID of the first execution of the list, so a batch or chain is written without updating its first
+     * execution afterwards. Persistences that support bulk writes should override this.
+     * 
+     * @param executions new job executions
+     * @return the persisted job executions
+     */
+    default List<Execution> persistAll(List<Execution> executions) {
+
+        List<Execution> persistedExecutions = new ArrayList<>(executions.size());
+        Long firstExecutionId = null;
+
+        for (Execution execution : executions) {
+            if (firstExecutionId != null) {
+                if (Execution.FIRST_EXECUTION_ID.equals(execution.getBatchId())) {
+                    execution.setBatchId(firstExecutionId);
+                }
+                if (Execution.FIRST_EXECUTION_ID.equals(execution.getChainId())) {
+                    execution.setChainId(firstExecutionId);
+                }
+            }
+            Execution persistedExecution = persist(execution);
+            persistedExecutions.add(persistedExecution);
+
+            if (firstExecutionId == null && persistedExecution != null) {
+                firstExecutionId = persistedExecution.getId();
+                boolean placeholder = false;
+                if (Execution.FIRST_EXECUTION_ID.equals(persistedExecution.getBatchId())) {
+                    persistedExecution.setBatchId(firstExecutionId);
+                    placeholder = true;
+                }
+                if (Execution.FIRST_EXECUTION_ID.equals(persistedExecution.getChainId())) {
+                    persistedExecution.setChainId(firstExecutionId);
+                    placeholder = true;
+                }
+                if (placeholder) {
+                    update(persistedExecution);
+                }
+            }
+        }
+        return persistedExecutions;
+    }
+
+    /**
+     * Update a list of job executions at once. Persistences that support bulk writes should override this.
+     * 
+     * @param executions New values of the job executions
+     * @return the updated job executions
+     */
+    default List<Execution> updateAll(List<Execution> executions) {
+        List<Execution> updatedExecutions = new ArrayList<>(executions.size());
+        for (Execution execution : executions) {
+            updatedExecutions.add(update(execution));
+        }
+        return updatedExecutions;
+    }
+
     /**
      * Update the status of an execution
      * 
@@ -96,6 +181,76 @@ public interface ExecutionPersistence {
      */
     Execution updateStatus(Long jobId, Long executionId, ExecutionStatus status, ExecutionFailStatus failStatus);
 
+    /**
+     * Claim a queued execution to process it. The execution is set from {@link ExecutionStatus#QUEUED} to {@link ExecutionStatus#RUNNING} only if it is still
+     * {@link ExecutionStatus#QUEUED} in the persistence, so it is started only once even if it is buffered by several threads or nodes.
+     *
+     * This default is not atomic. A persistence that is shared by threads or nodes has to override it with a conditional write.
+     *
+     * @param jobId ID of the corresponding job
+     * @param executionId ID of the execution
+     * @return the execution in status {@link ExecutionStatus#RUNNING} or <code>null</code> if it is not {@link ExecutionStatus#QUEUED} anymore
+     */
+    default Execution claim(Long jobId, Long executionId) {
+
+        Execution execution = getById(jobId, executionId);
+        if (execution == null || execution.getStatus() != ExecutionStatus.QUEUED) {
+            return null;
+        }
+        execution.setStatus(ExecutionStatus.RUNNING);
+        execution.setFailStatus(ExecutionFailStatus.NONE);
+        execution.setStartedAt(WorkhorseUtil.timestamp());
+        return update(execution);
+    }
+
+    /**
+     * Claim the queued executions of a work batch. Like {@link #claim(Long, Long)} an execution is set from {@link ExecutionStatus#QUEUED} to
+     * {@link ExecutionStatus#RUNNING} only if it is still {@link ExecutionStatus#QUEUED} in the persistence.
+     *
+     * This default claims one execution after another. A persistence with a database should override it with a single conditional update.
+     *
+     * @param jobId ID of the corresponding job
+     * @param executionIds IDs of the executions
+     * @return the executions in status {@link ExecutionStatus#RUNNING}, the ones that are not {@link ExecutionStatus#QUEUED} anymore are left out
+     */
+    default List<Execution> claimAll(Long jobId, List<Long> executionIds) {
+
+        List<Execution> claimedExecutions = new ArrayList<>(executionIds.size());
+        for (Long executionId : executionIds) {
+            Execution execution = claim(jobId, executionId);
+            if (execution != null) {
+                claimedExecutions.add(execution);
+            }
+        }
+        return claimedExecutions;
+    }
+
+    /**
+     * Queue due planned executions. An execution is set from {@link ExecutionStatus#PLANNED} to {@link ExecutionStatus#QUEUED} only if it is still
+     * {@link ExecutionStatus#PLANNED} in the persistence, so an execution that got changed, aborted or queued in the meantime is left as it is.
+     *
+     * This default is not atomic. A persistence that is shared by threads or nodes has to override it with a conditional write.
+     *
+     * @param jobId ID of the corresponding job
+     * @param executionIds IDs of the due executions
+     * @return the executions that got set on status {@link ExecutionStatus#QUEUED}
+     */
+    default List<Execution> queuePlanned(Long jobId, List<Long> executionIds) {
+
+        List<Execution> queuedExecutions = new ArrayList<>(executionIds.size());
+        for (Long executionId : executionIds) {
+            Execution execution = getById(jobId, executionId);
+            if (execution != null && execution.getStatus() == ExecutionStatus.PLANNED) {
+                execution.setStatus(ExecutionStatus.QUEUED);
+                Execution queuedExecution = update(execution);
+                if (queuedExecution != null) {
+                    queuedExecutions.add(queuedExecution);
+                }
+            }
+        }
+        return queuedExecutions;
+    }
+
     /**
      * Given the Id of the correspondent job <code>jobId</code> and the limit date <code>preDate</code>, delete all job executions that are in status
      * {@link ExecutionStatus#FINISHED} or {@link ExecutionStatus#FAILED} where <code>Execution.createdAt &lt; preDate</code>
@@ -195,6 +350,21 @@ public interface ExecutionPersistence {
      */
     void log(Long jobId, Long executionId, String log);
 
+    /**
+     * Add many messages to the log at once, each as a new line. Persistences that support bulk writes should override this.
+     * 
+     * @param jobId ID of the corresponding {@link Job}
+     * @param executionId ID of corresponding {@link Execution}
+     * @param logs messages to log in their order
+     */
+    default void logAll(Long jobId, Long executionId, List<String> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        // the lines are joined, so it is still a single write
+        log(jobId, executionId, String.join(System.lineSeparator(), logs));
+    }
+
     /**
      * Add a stacktrace to the log.
      * 
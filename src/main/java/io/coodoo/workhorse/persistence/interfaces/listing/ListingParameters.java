@@ -37,6 +37,8 @@ public class ListingParameters {
 
     private Map<String, String> filterAttributes = new HashMap<>();
 
+    private String cursor;
+
     public ListingParameters() {}
 
     /**
@@ -181,10 +183,27 @@ public class ListingParameters {
         this.filterAttributes = filterAttributes;
     }
 
+    /**
+     * @return cursor to continue a listing after the last result of the previous page or <code>null</code> to use the page and index
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Use the cursor instead of the page and index for pagination. The results are ordered by the sort attribute and the ID and the page contains the next
+     * <code>limit</code> results after the cursor. An empty cursor starts at the first result, the next one is given by {@link Metadata#getNextCursor()}.
+     * 
+     * @param cursor cursor of the previous page or an empty String for the first page
+     */
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
     @Override
     public String toString() {
         return "ListingParameters [index=" + index + ", page=" + page + ", limit=" + limit + ", sortAttribute=" + sortAttribute + ", filter=" + filter
-                        + ", filterAttributes=" + filterAttributes + "]";
+                        + ", filterAttributes=" + filterAttributes + ", cursor=" + cursor + "]";
     }
 
 }
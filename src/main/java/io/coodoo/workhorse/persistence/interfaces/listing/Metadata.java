@@ -11,6 +11,7 @@ package io.coodoo.workhorse.persistence.interfaces.listing;
  * <code>sort</code>: Name of the attribute, the result is sorter by (ascending by default, starts with "-" for descending)<br>
  * <code>startIndex</code>: Index of the first result for the current page<br>
  * <code>endIndex</code>: Index of the last result for the current page<br>
+ * <code>nextCursor</code>: Cursor of the next page, if the listing uses a cursor and there are more results<br>
  * 
  * @author coodoo GmbH (coodoo.io)
  */
@@ -23,6 +24,7 @@ public class Metadata {
     private String sort;
     private Integer startIndex;
     private Integer endIndex;
+    private String nextCursor;
 
     public Metadata(Long count, ListingParameters listingParameters) {
         this(count, listingParameters.getPage(), listingParameters.getLimit(), listingParameters.getSortAttribute());
@@ -127,9 +129,17 @@ public class Metadata {
         this.endIndex = endIndex;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     @Override
     public String toString() {
         return "Metadata [count=" + count + ", currentPage=" + currentPage + ", numPages=" + numPages + ", limit=" + limit + ", sort=" + sort + ", startIndex="
-                        + startIndex + ", endIndex=" + endIndex + "]";
+                        + startIndex + ", endIndex=" + endIndex + ", nextCursor=" + nextCursor + "]";
     }
 }
@@ -0,0 +1,1219 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionFailStatus;
+import io.coodoo.workhorse.core.entity.ExecutionLog;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
+
+/**
+ * Executions in memory-mapped segment files.
+ *
+ * Every execution has a record of {@link #RECORD_SIZE} bytes at a fixed position given by its ID, the IDs are sequential and never reused. The Strings of an
+ * execution are kept in the {@link PayloadStore}, the record only holds their addresses. Only these indexes are kept on the heap and get rebuilt from the
+ * records on startup:
+ * <ul>
+ * <li>the IDs of the executions per job and per {@link ExecutionStatus} as {@link IdBitSet}, with a counter per job and status</li>
+ * <li>the {@link ExecutionStatus#QUEUED} and {@link ExecutionStatus#PLANNED} executions per job and priority level as sorted arrays of the time they are due
+ * and their ID</li>
+ * <li>the {@link ExecutionStatus#QUEUED} executions per job by their parameters hash as {@link ParametersHashIndex}</li>
+ * </ul>
+ * The record is written in place. The Strings of an update are compared with their payloads in place, only a changed String gets appended. A deleted execution
+ * only clears the ID of its record, a segment gets deleted once all of its executions are deleted.
+ *
+ * The changes are visible in the files as soon as they are written, the operating system writes them back to the storage device even if the JVM crashes.
+ * Only {@link #close()} forces them to the device.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class ExecutionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionStore.class);
+
+    static final int RECORD_SIZE = 160;
+
+    private static final int ID = 0;
+    private static final int JOB_ID = 8;
+    private static final int CREATED_AT = 16;
+    private static final int UPDATED_AT = 24;
+    private static final int STARTED_AT = 32;
+    private static final int ENDED_AT = 40;
+    private static final int PLANNED_FOR = 48;
+    private static final int EXPIRES_AT = 56;
+    private static final int DURATION = 64;
+    private static final int BATCH_ID = 72;
+    private static final int CHAIN_ID = 80;
+    private static final int FAIL_RETRY_EXECUTION_ID = 88;
+    private static final int PARAMETERS = 96;
+    private static final int SUMMARY = 104;
+    private static final int LOG = 112;
+    private static final int STACKTRACE = 120;
+    private static final int LOG_CREATED_AT = 128;
+    private static final int LOG_UPDATED_AT = 136;
+    private static final int PARAMETERS_HASH = 144;
+    private static final int PRIORITY_LEVEL = 148;
+    private static final int FAIL_RETRY = 152;
+    private static final int STATUS = 156;
+    private static final int FAIL_STATUS = 157;
+    private static final int FLAGS = 158;
+
+    private static final byte HAS_PARAMETERS_HASH = 1;
+
+    /**
+     * Stands for <code>null</code> in a field of type {@link Long} or {@link LocalDateTime}
+     */
+    private static final long NULL = Long.MIN_VALUE;
+    private static final byte NULL_ENUM = -1;
+
+    private static final int META_SIZE = 32;
+    private static final int META_MAGIC = 0x57484d50;
+    private static final int META_VERSION = 1;
+    private static final int META_RECORD_SEGMENT_SIZE = 8;
+    private static final int META_PAYLOAD_SEGMENT_SIZE = 12;
+    private static final int META_NEXT_ID = 16;
+
+    private static final ExecutionStatus[] STATUSES = ExecutionStatus.values();
+    private static final ExecutionFailStatus[] FAIL_STATUSES = ExecutionFailStatus.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final MappedByteBuffer meta;
+    private final MappedSegments records;
+    private final PayloadStore payloads;
+    private final int recordsPerSegment;
+
+    private final IdBitSet executionIds = new IdBitSet();
+    private final IdBitSet[] statusIndex = new IdBitSet[STATUSES.length];
+    private final Map<Long, JobIndex> jobIndexes = new HashMap<>();
+
+    /**
+     * Opens the store in the directory and rebuilds the indexes from the records. An existing store keeps the segment size it was created with.
+     *
+     * @param directory directory of the segment files, it gets created if it doesn't exist
+     * @param segmentSize size of a new segment file in bytes
+     */
+    ExecutionStore(Path directory, int segmentSize) {
+
+        if (segmentSize < RECORD_SIZE * 64) {
+            throw new RuntimeException("The segment size must be at least " + RECORD_SIZE * 64 + " bytes!");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't create the directory " + directory, e);
+        }
+        meta = mapMeta(directory.resolve("executions.meta"));
+        if (meta.getInt(0) != META_MAGIC) {
+            meta.putInt(4, META_VERSION);
+            meta.putInt(META_RECORD_SEGMENT_SIZE, segmentSize);
+            meta.putInt(META_PAYLOAD_SEGMENT_SIZE, segmentSize);
+            meta.putLong(META_NEXT_ID, 1L);
+            meta.putInt(0, META_MAGIC);
+        } else if (meta.getInt(META_RECORD_SEGMENT_SIZE) != segmentSize) {
+            log.info("The executions in {} keep their segment size of {} bytes", directory, meta.getInt(META_RECORD_SEGMENT_SIZE));
+        }
+
+        for (ExecutionStatus status : STATUSES) {
+            statusIndex[status.ordinal()] = new IdBitSet();
+        }
+        records = new MappedSegments(directory, "executions", meta.getInt(META_RECORD_SEGMENT_SIZE));
+        payloads = new PayloadStore(directory, meta.getInt(META_PAYLOAD_SEGMENT_SIZE));
+        recordsPerSegment = meta.getInt(META_RECORD_SEGMENT_SIZE) / RECORD_SIZE;
+
+        rebuildIndexes();
+    }
+
+    /**
+     * Reserves a block of IDs for new executions
+     *
+     * @param count number of IDs
+     * @return the first ID of the block
+     */
+    long nextIds(int count) {
+
+        lock.writeLock().lock();
+        try {
+            long id = meta.getLong(META_NEXT_ID);
+            meta.putLong(META_NEXT_ID, id + count);
+            return id;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes an execution to its record and updates the indexes. Its Strings are only appended to the payloads if they have changed.
+     *
+     * @param execution execution with an ID of {@link #nextIds(int)}
+     * @param created <code>true</code> if the execution is new
+     * @return <code>false</code> if the execution to update doesn't exist
+     */
+    boolean write(Execution execution, boolean created) {
+
+        long id = execution.getId();
+        lock.writeLock().lock();
+        try {
+            if (!created && !executionIds.contains(id)) {
+                return false;
+            }
+            MappedByteBuffer segment = records.getOrCreate(segmentOf(id));
+            int offset = offsetOf(id);
+
+            // an execution stays with its job
+            long jobId = created ? execution.getJobId() : segment.getLong(offset + JOB_ID);
+            ExecutionStatus previousStatus = null;
+            boolean previouslyDue = false;
+            int previousPriorityLevel = 0;
+            long previousDueTime = NULL;
+            boolean previouslyQueued = false;
+            boolean previousHasParametersHash = false;
+            int previousParametersHash = 0;
+            long parameters = PayloadStore.NULL;
+            long summary = PayloadStore.NULL;
+            if (created) {
+                segment.putLong(offset + LOG, PayloadStore.NULL);
+                segment.putLong(offset + STACKTRACE, PayloadStore.NULL);
+                segment.putLong(offset + LOG_CREATED_AT, NULL);
+                segment.putLong(offset + LOG_UPDATED_AT, NULL);
+            } else {
+                previousStatus = status(segment, offset);
+                previouslyDue = isDue(segment, offset, id);
+                previousPriorityLevel = segment.getInt(offset + PRIORITY_LEVEL);
+                previousDueTime = segment.getLong(offset + PLANNED_FOR);
+                previouslyQueued = previousStatus == ExecutionStatus.QUEUED;
+                previousHasParametersHash = hasParametersHash(segment, offset);
+                previousParametersHash = segment.getInt(offset + PARAMETERS_HASH);
+                parameters = segment.getLong(offset + PARAMETERS);
+                summary = segment.getLong(offset + SUMMARY);
+            }
+            if (!payloads.matches(parameters, execution.getParameters())) {
+                parameters = payloads.append(id, execution.getParameters(), PayloadStore.NULL);
+            }
+            if (!payloads.matches(summary, execution.getSummary())) {
+                summary = payloads.append(id, execution.getSummary(), PayloadStore.NULL);
+            }
+
+            segment.putLong(offset + JOB_ID, jobId);
+            segment.putLong(offset + CREATED_AT, encode(execution.getCreatedAt()));
+            segment.putLong(offset + UPDATED_AT, encode(execution.getUpdatedAt()));
+            segment.putLong(offset + STARTED_AT, encode(execution.getStartedAt()));
+            segment.putLong(offset + ENDED_AT, encode(execution.getEndedAt()));
+            segment.putLong(offset + PLANNED_FOR, encode(execution.getPlannedFor()));
+            segment.putLong(offset + EXPIRES_AT, encode(execution.getExpiresAt()));
+            segment.putLong(offset + DURATION, encode(execution.getDuration()));
+            segment.putLong(offset + BATCH_ID, encode(execution.getBatchId()));
+            segment.putLong(offset + CHAIN_ID, encode(execution.getChainId()));
+            segment.putLong(offset + FAIL_RETRY_EXECUTION_ID, encode(execution.getFailRetryExecutionId()));
+            segment.putLong(offset + PARAMETERS, parameters);
+            segment.putLong(offset + SUMMARY, summary);
+            segment.putInt(offset + PARAMETERS_HASH, execution.getParametersHash() == null ? 0 : execution.getParametersHash());
+            segment.putInt(offset + PRIORITY_LEVEL, execution.getPriorityLevel());
+            segment.putInt(offset + FAIL_RETRY, execution.getFailRetry());
+            segment.put(offset + STATUS, execution.getStatus() == null ? NULL_ENUM : (byte) execution.getStatus().ordinal());
+            segment.put(offset + FAIL_STATUS, execution.getFailStatus() == null ? NULL_ENUM : (byte) execution.getFailStatus().ordinal());
+            segment.put(offset + FLAGS, execution.getParametersHash() == null ? 0 : HAS_PARAMETERS_HASH);
+
+            if (created) {
+                // the ID is written last, a record without ID is free
+                segment.putLong(offset + ID, id);
+                index(segment, offset, id);
+            } else {
+                JobIndex jobIndex = jobIndexes.get(jobId);
+                ExecutionStatus status = execution.getStatus();
+                if (previousStatus != status) {
+                    if (previousStatus != null) {
+                        statusIndex[previousStatus.ordinal()].remove(id);
+                        jobIndex.counts[previousStatus.ordinal()]--;
+                    }
+                    if (status != null) {
+                        statusIndex[status.ordinal()].add(id);
+                        jobIndex.counts[status.ordinal()]++;
+                    }
+                }
+                if (previouslyDue) {
+                    jobIndex.removeDue(previousPriorityLevel, previousDueTime, id);
+                }
+                if (isDue(segment, offset, id)) {
+                    jobIndex.addDue(segment.getInt(offset + PRIORITY_LEVEL), segment.getLong(offset + PLANNED_FOR), id);
+                }
+                if (previouslyQueued) {
+                    jobIndex.removeQueued(previousHasParametersHash, previousParametersHash, id);
+                }
+                if (status == ExecutionStatus.QUEUED) {
+                    jobIndex.addQueued(hasParametersHash(segment, offset), segment.getInt(offset + PARAMETERS_HASH), id);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets an execution from {@link ExecutionStatus#QUEUED} to {@link ExecutionStatus#RUNNING} if it is still {@link ExecutionStatus#QUEUED}
+     *
+     * @param id ID of the execution
+     * @param startedAt start and update time of the execution
+     * @return <code>true</code> if the execution got claimed, <code>false</code> if it doesn't exist or is not {@link ExecutionStatus#QUEUED}
+     */
+    boolean claim(long id, LocalDateTime startedAt) {
+
+        lock.writeLock().lock();
+        try {
+            if (!executionIds.contains(id)) {
+                return false;
+            }
+            MappedByteBuffer segment = records.get(segmentOf(id));
+            int offset = offsetOf(id);
+            if (status(segment, offset) != ExecutionStatus.QUEUED) {
+                return false;
+            }
+            JobIndex jobIndex = jobIndexes.get(segment.getLong(offset + JOB_ID));
+            if (isDue(segment, offset, id)) {
+                jobIndex.removeDue(segment.getInt(offset + PRIORITY_LEVEL), segment.getLong(offset + PLANNED_FOR), id);
+            }
+
+            long timestamp = encode(startedAt);
+            segment.putLong(offset + STARTED_AT, timestamp);
+            segment.putLong(offset + UPDATED_AT, timestamp);
+            segment.put(offset + FAIL_STATUS, (byte) ExecutionFailStatus.NONE.ordinal());
+            segment.put(offset + STATUS, (byte) ExecutionStatus.RUNNING.ordinal());
+
+            statusIndex[ExecutionStatus.QUEUED.ordinal()].remove(id);
+            statusIndex[ExecutionStatus.RUNNING.ordinal()].add(id);
+            jobIndex.counts[ExecutionStatus.QUEUED.ordinal()]--;
+            jobIndex.counts[ExecutionStatus.RUNNING.ordinal()]++;
+            jobIndex.removeQueued(hasParametersHash(segment, offset), segment.getInt(offset + PARAMETERS_HASH), id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets an execution from {@link ExecutionStatus#PLANNED} to {@link ExecutionStatus#QUEUED} if it is still {@link ExecutionStatus#PLANNED}. It keeps its
+     * place in the due executions, neither its priority level nor its due time change.
+     *
+     * @param id ID of the execution
+     * @param updatedAt update time of the execution
+     * @return <code>true</code> if the execution got queued, <code>false</code> if it doesn't exist or is not {@link ExecutionStatus#PLANNED}
+     */
+    boolean queue(long id, LocalDateTime updatedAt) {
+
+        lock.writeLock().lock();
+        try {
+            if (!executionIds.contains(id)) {
+                return false;
+            }
+            MappedByteBuffer segment = records.get(segmentOf(id));
+            int offset = offsetOf(id);
+            if (status(segment, offset) != ExecutionStatus.PLANNED) {
+                return false;
+            }
+            JobIndex jobIndex = jobIndexes.get(segment.getLong(offset + JOB_ID));
+
+            segment.putLong(offset + UPDATED_AT, encode(updatedAt));
+            segment.put(offset + STATUS, (byte) ExecutionStatus.QUEUED.ordinal());
+
+            statusIndex[ExecutionStatus.PLANNED.ordinal()].remove(id);
+            statusIndex[ExecutionStatus.QUEUED.ordinal()].add(id);
+            jobIndex.counts[ExecutionStatus.PLANNED.ordinal()]--;
+            jobIndex.counts[ExecutionStatus.QUEUED.ordinal()]++;
+            jobIndex.addQueued(hasParametersHash(segment, offset), segment.getInt(offset + PARAMETERS_HASH), id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id ID of the execution
+     * @return a new instance of the execution or <code>null</code> if it doesn't exist
+     */
+    Execution read(long id) {
+
+        lock.readLock().lock();
+        try {
+            if (!executionIds.contains(id)) {
+                return null;
+            }
+            return decode(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the next execution of a job in the order of the IDs, which is the order of creation
+     *
+     * @param jobId ID of the job
+     * @param fromId ID to start at (inclusive)
+     * @param descending <code>true</code> to go from the latest to the earliest execution
+     * @return the next execution or <code>null</code> if there is none
+     */
+    Execution next(Long jobId, long fromId, boolean descending) {
+
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null) {
+                return null;
+            }
+            long id = descending ? jobIndex.executionIds.previous(fromId) : jobIndex.executionIds.next(fromId);
+            return id < 0 ? null : decode(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param id ID of the execution
+     * @return <code>true</code> if the execution got deleted
+     */
+    boolean delete(long id) {
+
+        lock.writeLock().lock();
+        try {
+            if (!executionIds.contains(id)) {
+                return false;
+            }
+            MappedByteBuffer segment = records.get(segmentOf(id));
+            int offset = offsetOf(id);
+            JobIndex jobIndex = jobIndexes.get(segment.getLong(offset + JOB_ID));
+            ExecutionStatus status = status(segment, offset);
+            boolean due = isDue(segment, offset, id);
+
+            segment.putLong(offset + ID, 0L);
+            executionIds.remove(id);
+            if (status != null) {
+                statusIndex[status.ordinal()].remove(id);
+            }
+            if (jobIndex != null) {
+                jobIndex.executionIds.remove(id);
+                if (status != null) {
+                    jobIndex.counts[status.ordinal()]--;
+                }
+                if (due) {
+                    jobIndex.removeDue(segment.getInt(offset + PRIORITY_LEVEL), segment.getLong(offset + PLANNED_FOR), id);
+                }
+                if (status == ExecutionStatus.QUEUED) {
+                    jobIndex.removeQueued(hasParametersHash(segment, offset), segment.getInt(offset + PARAMETERS_HASH), id);
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes all executions of a job
+     *
+     * @param jobId ID of the job
+     * @return number of deleted executions
+     */
+    int deleteJob(Long jobId) {
+
+        lock.writeLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null) {
+                return 0;
+            }
+            int deleted = 0;
+            for (long id = jobIndex.executionIds.first(); id >= 0; id = jobIndex.executionIds.next(id + 1)) {
+                if (delete(id)) {
+                    deleted++;
+                }
+            }
+            jobIndexes.remove(jobId);
+            reclaim();
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the {@link ExecutionStatus#FINISHED} and {@link ExecutionStatus#FAILED} executions of a job that got created before the given time. The records
+     * of the job get read, no execution gets instantiated.
+     *
+     * @param jobId ID of the job
+     * @param preDate executions created before this time get deleted
+     * @return number of deleted executions
+     */
+    int deleteOlder(Long jobId, LocalDateTime preDate) {
+
+        long preTime = encode(preDate);
+        lock.writeLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null) {
+                return 0;
+            }
+            int deleted = 0;
+            for (long id = jobIndex.executionIds.first(); id >= 0; id = jobIndex.executionIds.next(id + 1)) {
+                MappedByteBuffer segment = records.get(segmentOf(id));
+                int offset = offsetOf(id);
+                ExecutionStatus status = status(segment, offset);
+                long createdAt = segment.getLong(offset + CREATED_AT);
+                if ((status == ExecutionStatus.FINISHED || status == ExecutionStatus.FAILED) && createdAt != NULL && createdAt < preTime && delete(id)) {
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                reclaim();
+            }
+            return deleted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments of records and payloads whose executions are all deleted
+     *
+     * @return number of deleted segments
+     */
+    int reclaim() {
+
+        lock.writeLock().lock();
+        try {
+            int deleted = payloads.reclaim(executionIds);
+            int current = segmentOf(meta.getLong(META_NEXT_ID));
+            List<Integer> unused = new ArrayList<>();
+            for (Integer index : records.getSegments().keySet()) {
+                long firstId = (long) index * recordsPerSegment + 1;
+                long next = executionIds.next(firstId);
+                if (index < current && (next < 0 || next >= firstId + recordsPerSegment)) {
+                    unused.add(index);
+                }
+            }
+            unused.forEach(records::delete);
+            return deleted + unused.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param jobId ID of the job
+     * @param status status of the executions
+     * @return the IDs of the executions of the job in the given status, the earliest first
+     */
+    long[] getIds(Long jobId, ExecutionStatus status) {
+
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null) {
+                return new long[0];
+            }
+            long[] ids = new long[jobIndex.counts[status.ordinal()]];
+            int count = 0;
+            IdBitSet statusIds = statusIndex[status.ordinal()];
+
+            // the smaller set gets iterated and checked against the other one
+            if (statusIds.size() < jobIndex.executionIds.size()) {
+                for (long id = statusIds.first(); id >= 0 && count < ids.length; id = statusIds.next(id + 1)) {
+                    if (jobIndex.executionIds.contains(id)) {
+                        ids[count++] = id;
+                    }
+                }
+            } else {
+                for (long id = jobIndex.executionIds.first(); id >= 0 && count < ids.length; id = jobIndex.executionIds.next(id + 1)) {
+                    if (statusIds.contains(id)) {
+                        ids[count++] = id;
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param status status of the executions
+     * @return the IDs of the executions of all jobs in the given status, the earliest first
+     */
+    long[] getIds(ExecutionStatus status) {
+
+        lock.readLock().lock();
+        try {
+            IdBitSet statusIds = statusIndex[status.ordinal()];
+            long[] ids = new long[statusIds.size()];
+            int count = 0;
+            for (long id = statusIds.first(); id >= 0; id = statusIds.next(id + 1)) {
+                ids[count++] = id;
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param jobId ID of the job
+     * @param parametersHash parameters hash, <code>null</code> for the executions without parameters
+     * @return the ID of the earliest {@link ExecutionStatus#QUEUED} execution of the job with the parameters hash, <code>-1</code> if there is none
+     */
+    long getFirstQueuedId(Long jobId, Integer parametersHash) {
+
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null) {
+                return -1;
+            }
+            if (parametersHash == null) {
+                return jobIndex.queuedWithoutParametersHash.first();
+            }
+            return jobIndex.queuedParametersHashes.first(parametersHash);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param jobId ID of the job
+     * @param batchId ID of the batch
+     * @param status status of the executions, <code>null</code> for all
+     * @return the IDs of the executions of the batch in the given status, the earliest first
+     */
+    long[] getBatchIds(Long jobId, long batchId, ExecutionStatus status) {
+        return getGroupIds(jobId, BATCH_ID, batchId, status);
+    }
+
+    /**
+     * @param jobId ID of the job
+     * @param chainId ID of the chain
+     * @param status status of the executions, <code>null</code> for all
+     * @return the IDs of the executions of the chain in the given status in the order of the chain
+     */
+    long[] getChainIds(Long jobId, long chainId, ExecutionStatus status) {
+        return getGroupIds(jobId, CHAIN_ID, chainId, status);
+    }
+
+    /**
+     * Gets the IDs of the {@link ExecutionStatus#QUEUED} and {@link ExecutionStatus#PLANNED} executions of the job that are due in the order of
+     * {@link ExecutionPersistence#pollNextExecutions(Long, int)}: the highest priority level first and within a level the earliest due first, that is the
+     * order of creation for the executions that are not planned. Only the IDs up to the limit are visited.
+     *
+     * @param jobId ID of the job
+     * @param now current time
+     * @param limit maximum number of IDs
+     * @return the IDs of the due executions
+     */
+    long[] getDueIds(Long jobId, LocalDateTime now, int limit) {
+
+        long nowTime = encode(now);
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null || limit < 1) {
+                return new long[0];
+            }
+            long[] ids = new long[Math.min(limit, jobIndex.dueCount())];
+            int count = 0;
+            for (int level = 0; level < jobIndex.dueQueues.length && count < ids.length; level++) {
+                count = jobIndex.dueQueues[level].collect(nowTime, ids, count);
+            }
+            return count == ids.length ? ids : Arrays.copyOf(ids, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param jobId ID of the job
+     * @return number of executions of the job
+     */
+    int count(Long jobId) {
+
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            return jobIndex == null ? 0 : jobIndex.executionIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param jobId ID of the job
+     * @param status status of the executions
+     * @return number of executions of the job in the given status
+     */
+    long count(Long jobId, ExecutionStatus status) {
+
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            return jobIndex == null ? 0L : jobIndex.counts[status.ordinal()];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the executions of a job per status that got created in the given time range. The records of the job get read, no execution gets instantiated.
+     *
+     * @param jobId ID of the job
+     * @param from start of the range (inclusive), <code>null</code> for no start
+     * @param to end of the range (inclusive), <code>null</code> for no end
+     * @return the counts by the ordinal of the {@link ExecutionStatus}
+     */
+    long[] countCreated(Long jobId, LocalDateTime from, LocalDateTime to) {
+
+        long[] counts = new long[STATUSES.length];
+        long fromTime = from == null ? NULL : encode(from);
+        long toTime = to == null ? Long.MAX_VALUE : encode(to);
+
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null) {
+                return counts;
+            }
+            for (long id = jobIndex.executionIds.first(); id >= 0; id = jobIndex.executionIds.next(id + 1)) {
+                MappedByteBuffer segment = records.get(segmentOf(id));
+                int offset = offsetOf(id);
+                long createdAt = segment.getLong(offset + CREATED_AT);
+                byte status = segment.get(offset + STATUS);
+                if (createdAt != NULL && fromTime <= createdAt && createdAt <= toTime && status != NULL_ENUM) {
+                    counts[status]++;
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a line to the log of an execution
+     *
+     * @param id ID of the execution
+     * @param line log line
+     * @param timestamp time of the change, the creation time of a new log
+     */
+    void appendLog(long id, String line, LocalDateTime timestamp) {
+
+        lock.writeLock().lock();
+        try {
+            if (!executionIds.contains(id)) {
+                return;
+            }
+            MappedByteBuffer segment = records.get(segmentOf(id));
+            int offset = offsetOf(id);
+            segment.putLong(offset + LOG, payloads.append(id, String.valueOf(line), segment.getLong(offset + LOG)));
+            touchLog(segment, offset, timestamp);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id ID of the execution
+     * @param stacktrace stacktrace of the execution
+     * @param timestamp time of the change, the creation time of a new log
+     */
+    void setStacktrace(long id, String stacktrace, LocalDateTime timestamp) {
+
+        lock.writeLock().lock();
+        try {
+            if (!executionIds.contains(id)) {
+                return;
+            }
+            MappedByteBuffer segment = records.get(segmentOf(id));
+            int offset = offsetOf(id);
+            segment.putLong(offset + STACKTRACE, payloads.append(id, stacktrace, PayloadStore.NULL));
+            touchLog(segment, offset, timestamp);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id ID of the execution
+     * @return the log of the execution or <code>null</code> if nothing got logged
+     */
+    ExecutionLog readLog(long id) {
+
+        lock.readLock().lock();
+        try {
+            if (!executionIds.contains(id)) {
+                return null;
+            }
+            MappedByteBuffer segment = records.get(segmentOf(id));
+            int offset = offsetOf(id);
+            long createdAt = segment.getLong(offset + LOG_CREATED_AT);
+            if (createdAt == NULL) {
+                return null;
+            }
+            long logAddress = segment.getLong(offset + LOG);
+
+            ExecutionLog executionLog = new ExecutionLog();
+            executionLog.setId(id);
+            executionLog.setExecutionId(id);
+            executionLog.setCreatedAt(decodeTime(createdAt));
+            executionLog.setUpdatedAt(decodeTime(segment.getLong(offset + LOG_UPDATED_AT)));
+            executionLog.setLog(logAddress == PayloadStore.NULL ? null : String.join(System.lineSeparator(), payloads.readChain(logAddress)));
+            executionLog.setStacktrace(payloads.read(segment.getLong(offset + STACKTRACE)));
+            return executionLog;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of bytes of the indexes on the heap
+     */
+    long getIndexMemorySize() {
+
+        lock.readLock().lock();
+        try {
+            long size = executionIds.memorySize();
+            for (IdBitSet statusIds : statusIndex) {
+                size += statusIds.memorySize();
+            }
+            for (JobIndex jobIndex : jobIndexes.values()) {
+                size += jobIndex.executionIds.memorySize();
+                size += jobIndex.queuedParametersHashes.memorySize() + jobIndex.queuedWithoutParametersHash.memorySize();
+                for (DueQueue dueQueue : jobIndex.dueQueues) {
+                    size += dueQueue.memorySize();
+                }
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int getSegmentCount() {
+
+        lock.readLock().lock();
+        try {
+            return records.getSegments().size() + payloads.getSegmentCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces all changes to the storage device
+     */
+    void close() {
+
+        lock.writeLock().lock();
+        try {
+            records.force();
+            payloads.force();
+            meta.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The ID of a batch or a chain is the ID of its first execution, so only the IDs from there on are candidates. Only the field of their records gets read,
+     * no execution gets instantiated.
+     *
+     * @param field offset of {@link #BATCH_ID} or {@link #CHAIN_ID} in the record
+     */
+    private long[] getGroupIds(Long jobId, int field, long groupId, ExecutionStatus status) {
+
+        lock.readLock().lock();
+        try {
+            JobIndex jobIndex = jobIndexes.get(jobId);
+            if (jobIndex == null) {
+                return new long[0];
+            }
+            IdBitSet jobIds = jobIndex.executionIds;
+            IdBitSet statusIds = status == null ? null : statusIndex[status.ordinal()];
+
+            // the smaller set gets iterated and checked against the other one
+            IdBitSet candidates = statusIds != null && statusIds.size() < jobIds.size() ? statusIds : jobIds;
+            IdBitSet filter = candidates == jobIds ? statusIds : jobIds;
+
+            long[] ids = new long[8];
+            int count = 0;
+            for (long id = candidates.next(groupId); id >= 0; id = candidates.next(id + 1)) {
+                if ((filter == null || filter.contains(id)) && records.get(segmentOf(id)).getLong(offsetOf(id) + field) == groupId) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = id;
+                }
+            }
+            return Arrays.copyOf(ids, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuildIndexes() {
+
+        long maxId = 0L;
+        for (Map.Entry<Integer, MappedByteBuffer> entry : records.getSegments().entrySet()) {
+            MappedByteBuffer segment = entry.getValue();
+            for (int slot = 0; slot < recordsPerSegment; slot++) {
+                int offset = slot * RECORD_SIZE;
+                long id = segment.getLong(offset + ID);
+                if (id != 0L) {
+                    index(segment, offset, id);
+                    maxId = Math.max(maxId, id);
+                }
+            }
+        }
+        if (meta.getLong(META_NEXT_ID) <= maxId) {
+            meta.putLong(META_NEXT_ID, maxId + 1);
+        }
+        log.info("Loaded {} executions, {} bytes of indexes", executionIds.size(), getIndexMemorySize());
+    }
+
+    private void index(MappedByteBuffer segment, int offset, long id) {
+
+        Long jobId = segment.getLong(offset + JOB_ID);
+        JobIndex jobIndex = jobIndexes.computeIfAbsent(jobId, key -> new JobIndex());
+        ExecutionStatus status = status(segment, offset);
+
+        executionIds.add(id);
+        jobIndex.executionIds.add(id);
+        if (status != null) {
+            statusIndex[status.ordinal()].add(id);
+            jobIndex.counts[status.ordinal()]++;
+        }
+        if (isDue(segment, offset, id)) {
+            jobIndex.addDue(segment.getInt(offset + PRIORITY_LEVEL), segment.getLong(offset + PLANNED_FOR), id);
+        }
+        if (status == ExecutionStatus.QUEUED) {
+            jobIndex.addQueued(hasParametersHash(segment, offset), segment.getInt(offset + PARAMETERS_HASH), id);
+        }
+    }
+
+    private Execution decode(long id) {
+
+        MappedByteBuffer segment = records.get(segmentOf(id));
+        int offset = offsetOf(id);
+
+        Execution execution = new Execution();
+        execution.setId(id);
+        execution.setJobId(segment.getLong(offset + JOB_ID));
+        execution.setCreatedAt(decodeTime(segment.getLong(offset + CREATED_AT)));
+        execution.setUpdatedAt(decodeTime(segment.getLong(offset + UPDATED_AT)));
+        execution.setStartedAt(decodeTime(segment.getLong(offset + STARTED_AT)));
+        execution.setEndedAt(decodeTime(segment.getLong(offset + ENDED_AT)));
+        execution.setPlannedFor(decodeTime(segment.getLong(offset + PLANNED_FOR)));
+        execution.setExpiresAt(decodeTime(segment.getLong(offset + EXPIRES_AT)));
+        execution.setDuration(decodeLong(segment.getLong(offset + DURATION)));
+        execution.setBatchId(decodeLong(segment.getLong(offset + BATCH_ID)));
+        execution.setChainId(decodeLong(segment.getLong(offset + CHAIN_ID)));
+        execution.setFailRetryExecutionId(decodeLong(segment.getLong(offset + FAIL_RETRY_EXECUTION_ID)));
+        execution.setParameters(payloads.read(segment.getLong(offset + PARAMETERS)));
+        execution.setSummary(payloads.read(segment.getLong(offset + SUMMARY)));
+        execution.setParametersHash(hasParametersHash(segment, offset) ? segment.getInt(offset + PARAMETERS_HASH) : null);
+        execution.setPriorityLevel(segment.getInt(offset + PRIORITY_LEVEL));
+        execution.setFailRetry(segment.getInt(offset + FAIL_RETRY));
+        execution.setStatus(status(segment, offset));
+        byte failStatus = segment.get(offset + FAIL_STATUS);
+        execution.setFailStatus(failStatus == NULL_ENUM ? null : FAIL_STATUSES[failStatus]);
+        return execution;
+    }
+
+    private void touchLog(MappedByteBuffer segment, int offset, LocalDateTime timestamp) {
+        if (segment.getLong(offset + LOG_CREATED_AT) == NULL) {
+            segment.putLong(offset + LOG_CREATED_AT, encode(timestamp));
+        } else {
+            segment.putLong(offset + LOG_UPDATED_AT, encode(timestamp));
+        }
+    }
+
+    private static boolean hasParametersHash(MappedByteBuffer segment, int offset) {
+        return (segment.get(offset + FLAGS) & HAS_PARAMETERS_HASH) != 0;
+    }
+
+    private static ExecutionStatus status(MappedByteBuffer segment, int offset) {
+        byte status = segment.get(offset + STATUS);
+        return status == NULL_ENUM ? null : STATUSES[status];
+    }
+
+    /**
+     * Only the first execution of a chain gets polled, the others are processed by the job thread of the chain.
+     */
+    private static boolean isDue(MappedByteBuffer segment, int offset, long id) {
+
+        ExecutionStatus status = status(segment, offset);
+        long chainId = segment.getLong(offset + CHAIN_ID);
+        return (status == ExecutionStatus.QUEUED || status == ExecutionStatus.PLANNED) && (chainId == NULL || chainId == id);
+    }
+
+    private int segmentOf(long id) {
+        return (int) ((id - 1) / recordsPerSegment);
+    }
+
+    private int offsetOf(long id) {
+        return (int) ((id - 1) % recordsPerSegment) * RECORD_SIZE;
+    }
+
+    /**
+     * A {@link LocalDateTime} is stored as nanoseconds since the epoch, without a time zone
+     */
+    static long encode(LocalDateTime localDateTime) {
+        if (localDateTime == null) {
+            return NULL;
+        }
+        return localDateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + localDateTime.getNano();
+    }
+
+    static LocalDateTime decodeTime(long value) {
+        if (value == NULL) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L), (int) Math.floorMod(value, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static long encode(Long value) {
+        return value == null ? NULL : value;
+    }
+
+    private static Long decodeLong(long value) {
+        return value == NULL ? null : value;
+    }
+
+    private static MappedByteBuffer mapMeta(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, META_SIZE);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't map " + file, e);
+        }
+    }
+
+    /**
+     * Indexes of the executions of a job, guarded by the lock of the store
+     */
+    private static final class JobIndex {
+
+        private static final DueQueue[] NO_DUE_QUEUES = new DueQueue[0];
+
+        private final IdBitSet executionIds = new IdBitSet();
+        private final int[] counts = new int[STATUSES.length];
+
+        /**
+         * The {@link ExecutionStatus#QUEUED} executions by their parameters hash, the ones without a hash are kept apart
+         */
+        private final ParametersHashIndex queuedParametersHashes = new ParametersHashIndex();
+        private final IdBitSet queuedWithoutParametersHash = new IdBitSet();
+
+        /**
+         * Only the executions that wait to be polled, not the history of the job. There is a queue per priority level, the highest level first.
+         */
+        private DueQueue[] dueQueues = NO_DUE_QUEUES;
+
+        private void addDue(int priorityLevel, long dueTime, long id) {
+
+            int level = 0;
+            while (level < dueQueues.length && dueQueues[level].priorityLevel > priorityLevel) {
+                level++;
+            }
+            if (level == dueQueues.length || dueQueues[level].priorityLevel != priorityLevel) {
+                DueQueue[] queues = new DueQueue[dueQueues.length + 1];
+                System.arraycopy(dueQueues, 0, queues, 0, level);
+                System.arraycopy(dueQueues, level, queues, level + 1, dueQueues.length - level);
+                queues[level] = new DueQueue(priorityLevel);
+                dueQueues = queues;
+            }
+            dueQueues[level].add(dueTime, id);
+        }
+
+        private void removeDue(int priorityLevel, long dueTime, long id) {
+            for (DueQueue dueQueue : dueQueues) {
+                if (dueQueue.priorityLevel == priorityLevel) {
+                    dueQueue.remove(dueTime, id);
+                    return;
+                }
+            }
+        }
+
+        private void addQueued(boolean hasParametersHash, int parametersHash, long id) {
+            if (hasParametersHash) {
+                queuedParametersHashes.add(parametersHash, id);
+            } else {
+                queuedWithoutParametersHash.add(id);
+            }
+        }
+
+        private void removeQueued(boolean hasParametersHash, int parametersHash, long id) {
+            if (hasParametersHash) {
+                queuedParametersHashes.remove(parametersHash, id);
+            } else {
+                queuedWithoutParametersHash.remove(id);
+            }
+        }
+
+        private int dueCount() {
+            int count = 0;
+            for (DueQueue dueQueue : dueQueues) {
+                count += dueQueue.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The due executions of a priority level as pairs of the time they are due and their ID, sorted by both. The pairs lie between <code>start</code> and
+     * <code>end</code> with free slots on both sides, so the earliest pair gets removed and the latest pair gets added without moving the others.
+     */
+    private static final class DueQueue {
+
+        private static final int MIN_CAPACITY = 16;
+
+        private final int priorityLevel;
+        private long[] dueTimes = new long[MIN_CAPACITY];
+        private long[] ids = new long[MIN_CAPACITY];
+        private int start = MIN_CAPACITY / 2;
+        private int end = MIN_CAPACITY / 2;
+
+        private DueQueue(int priorityLevel) {
+            this.priorityLevel = priorityLevel;
+        }
+
+        private void add(long dueTime, long id) {
+
+            int index = indexOf(dueTime, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+
+            // the pairs on the shorter side get moved, if that side is full the pairs get centered in a new array
+            boolean right = end - index <= index - start;
+            if (right ? end == ids.length : start == 0) {
+                int shift = resize();
+                index += shift;
+            }
+            if (right) {
+                System.arraycopy(dueTimes, index, dueTimes, index + 1, end - index);
+                System.arraycopy(ids, index, ids, index + 1, end - index);
+                end++;
+            } else {
+                System.arraycopy(dueTimes, start, dueTimes, start - 1, index - start);
+                System.arraycopy(ids, start, ids, start - 1, index - start);
+                start--;
+                index--;
+            }
+            dueTimes[index] = dueTime;
+            ids[index] = id;
+        }
+
+        private void remove(long dueTime, long id) {
+
+            int index = indexOf(dueTime, id);
+            if (index < 0) {
+                return;
+            }
+            if (index - start < end - index - 1) {
+                System.arraycopy(dueTimes, start, dueTimes, start + 1, index - start);
+                System.arraycopy(ids, start, ids, start + 1, index - start);
+                start++;
+            } else {
+                System.arraycopy(dueTimes, index + 1, dueTimes, index, end - index - 1);
+                System.arraycopy(ids, index + 1, ids, index, end - index - 1);
+                end--;
+            }
+            if (ids.length > MIN_CAPACITY && size() < ids.length / 4) {
+                resize();
+            }
+        }
+
+        /**
+         * Copies the IDs that are due in their order
+         *
+         * @param now current time
+         * @param target array of the IDs
+         * @param count number of IDs that are already in the array
+         * @return the new number of IDs in the array
+         */
+        private int collect(long now, long[] target, int count) {
+            for (int index = start; index < end && count < target.length && dueTimes[index] <= now; index++) {
+                target[count++] = ids[index];
+            }
+            return count;
+        }
+
+        private int size() {
+            return end - start;
+        }
+
+        private long memorySize() {
+            return 16L * ids.length;
+        }
+
+        /**
+         * Centers the pairs in new arrays of twice their number
+         *
+         * @return the distance the pairs got moved by
+         */
+        private int resize() {
+
+            int size = size();
+            int capacity = Math.max(MIN_CAPACITY, size * 2);
+            int newStart = (capacity - size) / 2;
+            long[] newDueTimes = new long[capacity];
+            long[] newIds = new long[capacity];
+            System.arraycopy(dueTimes, start, newDueTimes, newStart, size);
+            System.arraycopy(ids, start, newIds, newStart, size);
+
+            int shift = newStart - start;
+            dueTimes = newDueTimes;
+            ids = newIds;
+            start = newStart;
+            end = newStart + size;
+            return shift;
+        }
+
+        /**
+         * @return the index of the pair or <code>-(insertion point) - 1</code> if it doesn't exist
+         */
+        private int indexOf(long dueTime, long id) {
+
+            int low = start;
+            int high = end - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int compare = Long.compare(dueTimes[middle], dueTime);
+                if (compare == 0) {
+                    compare = Long.compare(ids[middle], id);
+                }
+                if (compare < 0) {
+                    low = middle + 1;
+                } else if (compare > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+}
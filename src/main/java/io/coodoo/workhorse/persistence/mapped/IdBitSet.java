@@ -0,0 +1,203 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.util.Arrays;
+
+/**
+ * Set of execution IDs as a bitmap on the heap, it takes one bit per ID between the lowest and the highest ID of the set.
+ *
+ * The IDs of the executions are sequential and old executions get deleted by the cleanup, so the words below the lowest ID get dropped and the bitmap only
+ * spans the retained IDs. It is not thread safe, it is guarded by the lock of the {@link ExecutionStore}.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class IdBitSet {
+
+    private static final int MIN_WORDS = 16;
+
+    private long[] words = new long[0];
+
+    /**
+     * Index of the word of ID 0 relative to <code>words[0]</code>, so <code>words[0]</code> holds the IDs from <code>base * 64</code>
+     */
+    private long base;
+
+    /**
+     * Index of the first word that may contain an ID, the words before are empty
+     */
+    private int low;
+
+    private int size;
+
+    /**
+     * @param id positive ID
+     * @return <code>true</code> if the ID was not in the set
+     */
+    boolean add(long id) {
+
+        long wordIndex = id >>> 6;
+        if (words.length == 0) {
+            base = wordIndex;
+            low = 0;
+            words = new long[MIN_WORDS];
+        } else if (wordIndex < base) {
+            // an ID below the range, like an execution that is restored out of order
+            int shift = (int) (base - wordIndex);
+            long[] grown = new long[words.length + shift];
+            System.arraycopy(words, 0, grown, shift, words.length);
+            words = grown;
+            base = wordIndex;
+            low = 0;
+        } else if (wordIndex - base >= words.length) {
+            int needed = (int) (wordIndex - base + 1);
+            words = Arrays.copyOf(words, Math.max(needed, words.length + (words.length >> 1)));
+        }
+        int index = (int) (wordIndex - base);
+        long bit = 1L << id;
+        if ((words[index] & bit) != 0) {
+            return false;
+        }
+        words[index] |= bit;
+        if (index < low) {
+            low = index;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * @param id positive ID
+     * @return <code>true</code> if the ID was in the set
+     */
+    boolean remove(long id) {
+
+        int index = indexOf(id);
+        if (index < 0) {
+            return false;
+        }
+        long bit = 1L << id;
+        if ((words[index] & bit) == 0) {
+            return false;
+        }
+        words[index] &= ~bit;
+        size--;
+
+        if (size == 0) {
+            words = new long[0];
+            low = 0;
+        } else if (index == low) {
+            while (words[low] == 0) {
+                low++;
+            }
+            // drop the empty words below the lowest ID once they are half of the bitmap
+            if (low >= MIN_WORDS && low > words.length / 2) {
+                words = Arrays.copyOfRange(words, low, words.length);
+                base += low;
+                low = 0;
+            }
+        }
+        return true;
+    }
+
+    boolean contains(long id) {
+        int index = indexOf(id);
+        return index >= 0 && (words[index] & (1L << id)) != 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param fromId ID to start at (inclusive)
+     * @return the lowest ID of the set that is greater or equal to the given ID, <code>-1</code> if there is none
+     */
+    long next(long fromId) {
+
+        if (size == 0) {
+            return -1;
+        }
+        long wordIndex = Math.max(0, fromId) >>> 6;
+        int index;
+        long word;
+        if (wordIndex - base < low) {
+            index = low;
+            word = words[index];
+        } else if (wordIndex - base >= words.length) {
+            return -1;
+        } else {
+            index = (int) (wordIndex - base);
+            word = words[index] & (-1L << fromId);
+        }
+        while (true) {
+            if (word != 0) {
+                return ((base + index) << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index >= words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * @param fromId ID to start at (inclusive)
+     * @return the highest ID of the set that is lower or equal to the given ID, <code>-1</code> if there is none
+     */
+    long previous(long fromId) {
+
+        if (size == 0 || fromId < 0) {
+            return -1;
+        }
+        long wordIndex = fromId >>> 6;
+        int index;
+        long word;
+        if (wordIndex - base >= words.length) {
+            index = words.length - 1;
+            word = words[index];
+        } else if (wordIndex - base < low) {
+            return -1;
+        } else {
+            index = (int) (wordIndex - base);
+            word = words[index] & (-1L >>> (63 - (fromId & 63)));
+        }
+        while (true) {
+            if (word != 0) {
+                return ((base + index) << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (--index < low) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * @return the lowest ID of the set, <code>-1</code> if it is empty
+     */
+    long first() {
+        return next(0);
+    }
+
+    /**
+     * @return the highest ID of the set, <code>-1</code> if it is empty
+     */
+    long last() {
+        return previous(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return number of bytes of the bitmap
+     */
+    long memorySize() {
+        return words.length * 8L;
+    }
+
+    private int indexOf(long id) {
+        if (id < 0 || words.length == 0) {
+            return -1;
+        }
+        long index = (id >>> 6) - base;
+        return index < 0 || index >= words.length ? -1 : (int) index;
+    }
+
+}
@@ -0,0 +1,55 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.nio.file.Paths;
+
+import io.coodoo.workhorse.core.entity.WorkhorseConfig;
+import io.coodoo.workhorse.util.WorkhorseUtil;
+
+/**
+ * A class to access the {@link WorkhorseConfig} configurations defined by the Mapped Persistence.
+ * 
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class MappedConfig extends WorkhorseConfig {
+
+    public static final String NAME = "Mapped Persistence";
+
+    /**
+     * Directory of the files of the persistence, the executions survive a restart as long as it is the same
+     */
+    protected String directory = Paths.get(System.getProperty("user.home"), ".workhorse").toString();
+
+    /**
+     * Size of a segment file of the executions and of their payloads in bytes
+     */
+    protected int segmentSize = 64 * 1024 * 1024;
+
+    @Override
+    public String getPersistenceName() {
+        return NAME;
+    }
+
+    @Override
+    public String getPersistenceVersion() {
+        return WorkhorseUtil.getVersion();
+    }
+
+    public MappedConfig() {}
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+}
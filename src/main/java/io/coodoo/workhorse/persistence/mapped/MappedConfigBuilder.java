@@ -0,0 +1,50 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import io.coodoo.workhorse.core.entity.WorkhorseConfigBuilder;
+
+/**
+ * A class to build an object of type {@link MappedConfig}
+ * 
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class MappedConfigBuilder extends WorkhorseConfigBuilder {
+
+    private MappedConfig mappedConfig = new MappedConfig();
+
+    public MappedConfigBuilder() {
+
+        // the executions don't burden the heap, so they last a week per default...
+        mappedConfig.setMinutesUntilCleanup(7 * 24 * 60);
+
+        this.workhorseConfig = mappedConfig;
+    }
+
+    /**
+     * Set the directory of the files of the persistence
+     * 
+     * @param directory path of the directory, it gets created if it doesn't exist
+     * @return the builder to set another configuration
+     */
+    public MappedConfigBuilder directory(String directory) {
+        mappedConfig.setDirectory(directory);
+        return this;
+    }
+
+    /**
+     * Set the size of the segment files. A store that already exists keeps the segment size it was created with.
+     * 
+     * @param segmentSize size of a segment file in bytes
+     * @return the builder to set another configuration
+     */
+    public MappedConfigBuilder segmentSize(int segmentSize) {
+        mappedConfig.setSegmentSize(segmentSize);
+        return this;
+    }
+
+    @Override
+    public MappedConfig build() {
+
+        return this.mappedConfig;
+    }
+
+}
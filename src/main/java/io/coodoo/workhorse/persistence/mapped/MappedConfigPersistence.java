@@ -0,0 +1,52 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.coodoo.workhorse.core.entity.WorkhorseConfig;
+import io.coodoo.workhorse.persistence.interfaces.ConfigPersistence;
+import io.coodoo.workhorse.util.WorkhorseUtil;
+
+@ApplicationScoped
+public class MappedConfigPersistence implements ConfigPersistence {
+
+    @Inject
+    MappedPersistence mappedPersistence;
+
+    @Override
+    public String getPersistenceName() {
+        return MappedConfig.NAME;
+    }
+
+    @Override
+    public String getPersistenceVersion() {
+        return WorkhorseUtil.getVersion();
+    }
+
+    /**
+     * Opens the files of the persistence
+     *
+     * @param params the {@link MappedConfig}, without it the default configuration is used
+     */
+    @Override
+    public void initialize(Object... params) {
+
+        MappedConfig mappedConfig = new MappedConfig();
+        if (params != null && params.length > 0 && params[0] instanceof MappedConfig) {
+            mappedConfig = (MappedConfig) params[0];
+        }
+        mappedPersistence.open(mappedConfig);
+    }
+
+    @Override
+    public WorkhorseConfig get() {
+        return mappedPersistence.getWorkhorseConfig();
+    }
+
+    @Override
+    public WorkhorseConfig update(WorkhorseConfig workhorseConfig) {
+        mappedPersistence.setWorkhorseConfig(workhorseConfig);
+        return workhorseConfig;
+    }
+
+}
@@ -0,0 +1,456 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import io.coodoo.workhorse.core.control.StaticConfig;
+import io.coodoo.workhorse.core.control.event.NewExecutionEvent;
+import io.coodoo.workhorse.core.control.event.NewExecutionsEvent;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionFailStatus;
+import io.coodoo.workhorse.core.entity.ExecutionLog;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.core.entity.ExecutionStatusCounts;
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.core.entity.JobExecutionStatusSummary;
+import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+import io.coodoo.workhorse.util.CollectionListing;
+import io.coodoo.workhorse.util.ListingCursor;
+import io.coodoo.workhorse.util.WorkhorseUtil;
+
+/**
+ * The executions live in the {@link ExecutionStore}, every read returns a new instance of the execution and every change has to be written back by an update.
+ */
+@ApplicationScoped
+public class MappedExecutionPersistence implements ExecutionPersistence {
+
+    private static final String ID = "id";
+
+    @Inject
+    MappedPersistence mappedPersistence;
+
+    @Inject
+    Event<NewExecutionEvent> newExecutionEventEvent;
+
+    @Inject
+    Event<NewExecutionsEvent> newExecutionsEventEvent;
+
+    @Override
+    public String getPersistenceName() {
+        return MappedConfig.NAME;
+    }
+
+    @Override
+    public Execution getById(Long jobId, Long executionId) {
+
+        if (executionId == null) {
+            return null;
+        }
+        Execution execution = mappedPersistence.getExecutionStore().read(executionId);
+        if (execution == null || (jobId != null && !jobId.equals(execution.getJobId()))) {
+            return null;
+        }
+        return execution;
+    }
+
+    @Override
+    public ListingResult<Execution> getExecutionListing(Long jobId, ListingParameters listingParameters) {
+
+        // a cursor on the ID continues directly on the index, without visiting the executions before the cursor
+        ListingCursor cursor = ListingCursor.of(Execution.class, listingParameters);
+        if (cursor != null && cursor.getAttribute() == null) {
+            Iterator<Execution> ordered = iterateById(jobId, cursor.getId(), cursor.isDescending());
+            return CollectionListing.getCursorListingResult(ordered, Execution.class, listingParameters);
+        }
+
+        // the executions get read one by one while they are filtered, so only the matches stay on the heap
+        Collection<Execution> executions = new AbstractCollection<Execution>() {
+
+            @Override
+            public Iterator<Execution> iterator() {
+                return iterateById(jobId, null, false);
+            }
+
+            @Override
+            public int size() {
+                return mappedPersistence.getExecutionStore().count(jobId);
+            }
+        };
+        return CollectionListing.getListingResult(executions, Execution.class, listingParameters, 0);
+    }
+
+    @Override
+    public void forEachExecution(Long jobId, ListingParameters listingParameters, Consumer<Execution> consumer) {
+
+        String sort = listingParameters.getSortAttribute();
+        boolean descending = sort != null && sort.startsWith(CollectionListing.SORT_DESC);
+        String attribute = sort == null ? "" : sort.replaceFirst("^[+-]", "");
+
+        if (!attribute.isEmpty() && !ID.equals(attribute)) {
+            // other sort attributes are read page by page after a cursor, only a page of matches is held at once
+            ExecutionPersistence.super.forEachExecution(jobId, listingParameters, consumer);
+            return;
+        }
+
+        // the IDs are in the order of creation, so the executions get passed one by one
+        Predicate<Execution> predicate = CollectionListing.getPredicate(Execution.class, listingParameters);
+        Iterator<Execution> iterator = iterateById(jobId, null, descending);
+        while (iterator.hasNext()) {
+            Execution execution = iterator.next();
+            if (predicate.test(execution)) {
+                consumer.accept(execution);
+            }
+        }
+    }
+
+    @Override
+    public Execution persist(Execution execution) {
+
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        execution.setId(executionStore.nextIds(1));
+        execution.setCreatedAt(WorkhorseUtil.timestamp());
+        executionStore.write(execution, true);
+
+        newExecutionEventEvent.fireAsync(new NewExecutionEvent(execution));
+        return execution;
+    }
+
+    @Override
+    public List<Execution> persistAll(List<Execution> executions) {
+
+        if (executions.isEmpty()) {
+            return executions;
+        }
+        // one block of IDs for all executions
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        long firstId = executionStore.nextIds(executions.size());
+        LocalDateTime createdAt = WorkhorseUtil.timestamp();
+
+        for (int index = 0; index < executions.size(); index++) {
+            Execution execution = executions.get(index);
+            execution.setId(firstId + index);
+            execution.setCreatedAt(createdAt);
+            if (Execution.FIRST_EXECUTION_ID.equals(execution.getBatchId())) {
+                execution.setBatchId(firstId);
+            }
+            if (Execution.FIRST_EXECUTION_ID.equals(execution.getChainId())) {
+                execution.setChainId(firstId);
+            }
+            executionStore.write(execution, true);
+        }
+
+        newExecutionsEventEvent.fireAsync(new NewExecutionsEvent(new ArrayList<>(executions)));
+        return executions;
+    }
+
+    @Override
+    public List<Execution> getByJobId(Long jobId, Long limit) {
+        ListingParameters listingParameters = new ListingParameters(limit.intValue());
+        ListingResult<Execution> listingResult = getExecutionListing(jobId, listingParameters);
+        return listingResult.getResults();
+    }
+
+    @Override
+    public List<Execution> pollNextExecutions(Long jobId, int limit) {
+
+        List<Execution> executions = new ArrayList<>();
+        LocalDateTime currentTimeStamp = LocalDateTime.now(ZoneId.of(StaticConfig.TIME_ZONE));
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+
+        // only the due executions up to the limit are read, the index already has the order of the priority levels
+        for (long id : executionStore.getDueIds(jobId, currentTimeStamp, limit)) {
+
+            Execution execution = executionStore.read(id);
+            if (execution != null && (execution.getStatus() == ExecutionStatus.QUEUED || execution.getStatus() == ExecutionStatus.PLANNED)
+                            && (execution.getPlannedFor() == null || execution.getPlannedFor().isBefore(currentTimeStamp))
+                            && (execution.getChainId() == null || execution.getId().equals(execution.getChainId()))) {
+
+                executions.add(execution);
+            }
+        }
+        return executions;
+    }
+
+    @Override
+    public boolean isPusherAvailable() {
+        return true;
+    }
+
+    @Override
+    public Execution update(Execution execution) {
+
+        execution.setUpdatedAt(WorkhorseUtil.timestamp());
+        if (!mappedPersistence.getExecutionStore().write(execution, false)) {
+            return null;
+        }
+        return execution;
+    }
+
+    @Override
+    public List<Execution> updateAll(List<Execution> executions) {
+
+        LocalDateTime updatedAt = WorkhorseUtil.timestamp();
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        List<Execution> updatedExecutions = new ArrayList<>(executions.size());
+
+        for (Execution execution : executions) {
+            execution.setUpdatedAt(updatedAt);
+            updatedExecutions.add(executionStore.write(execution, false) ? execution : null);
+        }
+        return updatedExecutions;
+    }
+
+    @Override
+    public Execution updateStatus(Long jobId, Long executionId, ExecutionStatus status, ExecutionFailStatus failStatus) {
+
+        Execution execution = getById(jobId, executionId);
+        if (execution == null) {
+            return null;
+        }
+        execution.setStatus(status);
+        if (failStatus != null) {
+            execution.setFailStatus(failStatus);
+        }
+        return update(execution);
+    }
+
+    @Override
+    public Execution claim(Long jobId, Long executionId) {
+
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        if (!executionStore.claim(executionId, WorkhorseUtil.timestamp())) {
+            return null;
+        }
+        return executionStore.read(executionId);
+    }
+
+    @Override
+    public List<Execution> queuePlanned(Long jobId, List<Long> executionIds) {
+
+        List<Execution> queuedExecutions = new ArrayList<>(executionIds.size());
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        LocalDateTime timestamp = WorkhorseUtil.timestamp();
+        for (Long executionId : executionIds) {
+            if (executionStore.queue(executionId, timestamp)) {
+                Execution execution = executionStore.read(executionId);
+                if (execution != null) {
+                    queuedExecutions.add(execution);
+                }
+            }
+        }
+        return queuedExecutions;
+    }
+
+    @Override
+    public boolean isBatchFinished(Long jobId, Long batchId) {
+        return mappedPersistence.getExecutionStore().getBatchIds(jobId, batchId, ExecutionStatus.QUEUED).length == 0;
+    }
+
+    @Override
+    public boolean abortChain(Long jobId, Long chainId) {
+
+        for (Execution execution : read(mappedPersistence.getExecutionStore().getChainIds(jobId, chainId, ExecutionStatus.QUEUED))) {
+            execution.setStatus(ExecutionStatus.FAILED);
+            update(execution);
+        }
+        return true;
+    }
+
+    @Override
+    public List<Execution> getBatch(Long jobId, Long batchId) {
+        return read(mappedPersistence.getExecutionStore().getBatchIds(jobId, batchId, null));
+    }
+
+    @Override
+    public List<Execution> getChain(Long jobId, Long chainId) {
+        // the executions of a chain share their creation time, the IDs give their order
+        return read(mappedPersistence.getExecutionStore().getChainIds(jobId, chainId, null));
+    }
+
+    @Override
+    public void delete(Long jobId, Long executionId) {
+        mappedPersistence.getExecutionStore().delete(executionId);
+    }
+
+    @Override
+    public int deleteOlderExecutions(Long jobId, LocalDateTime preDate) {
+        return mappedPersistence.getExecutionStore().deleteOlder(jobId, preDate);
+    }
+
+    @Override
+    public Execution getFirstCreatedByJobIdAndParametersHash(Long jobId, Integer parameterHash) {
+
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        long id = executionStore.getFirstQueuedId(jobId, parameterHash);
+        return id < 0 ? null : executionStore.read(id);
+    }
+
+    @Override
+    public List<Execution> findTimeoutExecutions(LocalDateTime time) {
+
+        List<Execution> executions = new ArrayList<>();
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+
+        for (long id : executionStore.getIds(ExecutionStatus.RUNNING)) {
+            Execution execution = executionStore.read(id);
+            if (execution != null && execution.getStatus() == ExecutionStatus.RUNNING && execution.getStartedAt() != null
+                            && execution.getStartedAt().isBefore(time)) {
+                executions.add(execution);
+            }
+        }
+        return executions;
+    }
+
+    @Override
+    public ExecutionLog getLog(Long jobId, Long executionId) {
+        return mappedPersistence.getExecutionStore().readLog(executionId);
+    }
+
+    @Override
+    public void log(Long jobId, Long executionId, String log) {
+        mappedPersistence.getExecutionStore().appendLog(executionId, log, WorkhorseUtil.timestamp());
+    }
+
+    @Override
+    public void logAll(Long jobId, Long executionId, List<String> logs) {
+
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        LocalDateTime timestamp = WorkhorseUtil.timestamp();
+        for (String log : logs) {
+            executionStore.appendLog(executionId, log, timestamp);
+        }
+    }
+
+    @Override
+    public void logStacktrace(Long jobId, Long executionId, String stacktrace) {
+        mappedPersistence.getExecutionStore().setStacktrace(executionId, stacktrace, WorkhorseUtil.timestamp());
+    }
+
+    @Override
+    public List<JobExecutionStatusSummary> getJobExecutionStatusSummaries(ExecutionStatus status, LocalDateTime since) {
+
+        List<JobExecutionStatusSummary> result = new ArrayList<>();
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+
+        for (Job job : mappedPersistence.getJobs().values()) {
+
+            long count;
+            if (since == null) {
+                count = executionStore.count(job.getId(), status);
+            } else {
+                count = executionStore.countCreated(job.getId(), since.plusNanos(1), null)[status.ordinal()];
+            }
+            // Only job with executions in the given status are considered
+            if (count > 0) {
+                result.add(new JobExecutionStatusSummary(status, count, job));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ExecutionStatusCounts getExecutionStatusCounts(Long jobId, LocalDateTime from, LocalDateTime to) {
+
+        Collection<Long> jobIds = new ArrayList<>();
+
+        if (jobId == null) {
+            jobIds.addAll(mappedPersistence.getJobs().keySet());
+        } else {
+            jobIds.add(jobId);
+        }
+
+        long[] counts = new long[ExecutionStatus.values().length];
+        for (Long id : jobIds) {
+            long[] jobCounts = mappedPersistence.getExecutionStore().countCreated(id, from, to);
+            for (int index = 0; index < counts.length; index++) {
+                counts[index] += jobCounts[index];
+            }
+        }
+
+        return new ExecutionStatusCounts(jobId, from, to, counts[ExecutionStatus.PLANNED.ordinal()], counts[ExecutionStatus.QUEUED.ordinal()],
+                        counts[ExecutionStatus.RUNNING.ordinal()], counts[ExecutionStatus.FINISHED.ordinal()], counts[ExecutionStatus.FAILED.ordinal()],
+                        counts[ExecutionStatus.ABORTED.ordinal()]);
+    }
+
+    @Override
+    public void subscribe() {}
+
+    @Override
+    public void unsubscribe() {}
+
+    /**
+     * @return the executions of the IDs that still exist
+     */
+    private List<Execution> read(long[] ids) {
+
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        List<Execution> executions = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Execution execution = executionStore.read(id);
+            if (execution != null) {
+                executions.add(execution);
+            }
+        }
+        return executions;
+    }
+
+    /**
+     * Reads the executions of a job one by one in the order of their IDs
+     *
+     * @param afterId ID to start after, <code>null</code> to start at the first (or last) execution
+     * @param descending <code>true</code> to iterate from the latest to the earliest execution
+     */
+    private Iterator<Execution> iterateById(Long jobId, Long afterId, boolean descending) {
+
+        ExecutionStore executionStore = mappedPersistence.getExecutionStore();
+        return new Iterator<Execution>() {
+
+            private long fromId = afterId == null ? (descending ? Long.MAX_VALUE : 0L) : (descending ? afterId - 1 : afterId + 1);
+            private Execution next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Execution next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Execution execution = next;
+                next = advance();
+                return execution;
+            }
+
+            private Execution advance() {
+                if (fromId < 0) {
+                    return null;
+                }
+                Execution execution = executionStore.next(jobId, fromId, descending);
+                if (execution != null) {
+                    fromId = descending ? execution.getId() - 1 : execution.getId() + 1;
+                }
+                return execution;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,145 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.core.entity.JobStatus;
+import io.coodoo.workhorse.core.entity.JobStatusCount;
+import io.coodoo.workhorse.persistence.interfaces.JobPersistence;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+import io.coodoo.workhorse.util.CollectionListing;
+import io.coodoo.workhorse.util.WorkhorseUtil;
+
+@ApplicationScoped
+public class MappedJobPersistence implements JobPersistence {
+
+    @Inject
+    MappedPersistence mappedPersistence;
+
+    @Override
+    public String getPersistenceName() {
+        return MappedConfig.NAME;
+    }
+
+    @Override
+    public Job get(Long jobId) {
+        return mappedPersistence.getJobs().get(jobId);
+    }
+
+    @Override
+    public ListingResult<Job> getJobListing(ListingParameters listingParameters) {
+
+        Collection<Job> jobs = mappedPersistence.getJobs().values();
+        return CollectionListing.getListingResult(jobs, Job.class, listingParameters);
+    }
+
+    @Override
+    public Job getByWorkerClassName(String jobClassName) {
+
+        ListingParameters listingParameters = new ListingParameters(1);
+        listingParameters.addFilterAttributes("workerClassName", jobClassName);
+
+        return CollectionListing.getFirstResult(mappedPersistence.getJobs().values(), Job.class, listingParameters);
+    }
+
+    @Override
+    public Job persist(Job job) {
+
+        MappedJournal<Job> jobJournal = mappedPersistence.getJobJournal();
+        Long jobId = jobJournal.nextId();
+        job.setId(jobId);
+        job.setCreatedAt(WorkhorseUtil.timestamp());
+
+        jobJournal.put(jobId, job);
+        mappedPersistence.getJobs().put(jobId, job);
+        return job;
+    }
+
+    @Override
+    public Job update(Job job) {
+
+        job.setUpdatedAt(WorkhorseUtil.timestamp());
+        mappedPersistence.getJobJournal().put(job.getId(), job);
+        mappedPersistence.getJobs().put(job.getId(), job);
+        return job;
+    }
+
+    @Override
+    public void deleteJob(Long jobId) {
+
+        mappedPersistence.getExecutionStore().deleteJob(jobId);
+        if (mappedPersistence.getJobs().remove(jobId) != null) {
+            mappedPersistence.getJobJournal().delete(jobId);
+        }
+    }
+
+    @Override
+    public List<Job> getAll() {
+        return new ArrayList<>(mappedPersistence.getJobs().values());
+    }
+
+    @Override
+    public Long count() {
+        return Long.valueOf(mappedPersistence.getJobs().size());
+    }
+
+    @Override
+    public Job getByName(String jobName) {
+
+        ListingParameters listingParameters = new ListingParameters(1);
+        listingParameters.addFilterAttributes("name", jobName);
+
+        return CollectionListing.getFirstResult(mappedPersistence.getJobs().values(), Job.class, listingParameters);
+    }
+
+    @Override
+    public List<Job> getAllByStatus(JobStatus jobStatus) {
+
+        ListingParameters listingParameters = new ListingParameters(0);
+        listingParameters.addFilterAttributes("status", quoted(jobStatus));
+        ListingResult<Job> listingResult = getJobListing(listingParameters);
+
+        return listingResult.getResults();
+    }
+
+    @Override
+    public List<Job> getAllScheduled() {
+
+        ListingParameters listingParameters = new ListingParameters(0);
+        listingParameters.addFilterAttributes("schedule", " "); // every schedule has at least one blank
+        ListingResult<Job> listingResult = getJobListing(listingParameters);
+
+        return listingResult.getResults();
+    }
+
+    @Override
+    public Long countByStatus(JobStatus jobStatus) {
+
+        ListingParameters listingParameters = new ListingParameters(0);
+        listingParameters.addFilterAttributes("status", quoted(jobStatus));
+
+        return CollectionListing.count(mappedPersistence.getJobs().values(), Job.class, listingParameters);
+    }
+
+    @Override
+    public JobStatusCount getJobStatusCount() {
+
+        long countActive = countByStatus(JobStatus.ACTIVE);
+        long countInactive = countByStatus(JobStatus.INACTIVE);
+        long countError = countByStatus(JobStatus.ERROR);
+        long countNoWorker = countByStatus(JobStatus.NO_WORKER);
+
+        return new JobStatusCount(countActive, countInactive, countNoWorker, countError);
+    }
+
+    private String quoted(JobStatus jobStatus) {
+        return "\"" + jobStatus.name() + "\"";
+    }
+
+}
@@ -0,0 +1,184 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.coodoo.workhorse.util.WorkhorseUtil;
+
+/**
+ * Journal of the few entities that are kept on the heap, like the jobs and the workhorse logs. Every change gets appended as a line of JSON and the journal
+ * gets compacted to the current entities when it is loaded.
+ *
+ * <ul>
+ * <li><code>N &lt;id&gt;</code>: the next ID to assign</li>
+ * <li><code>P &lt;id&gt; &lt;json&gt;</code>: the entity got persisted or updated</li>
+ * <li><code>D &lt;id&gt;</code>: the entity got deleted</li>
+ * </ul>
+ *
+ * @param <T> type of the entities
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class MappedJournal<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedJournal.class);
+
+    private static final ObjectMapper objectMapper = WorkhorseUtil.getObjectMapper().copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+                    false);
+
+    /**
+     * Guards the writer and the next ID.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Path file;
+    private final Class<T> type;
+    private BufferedWriter writer;
+    private long nextId = 1L;
+
+    MappedJournal(Path file, Class<T> type) {
+        this.file = file;
+        this.type = type;
+    }
+
+    /**
+     * Reads the entities of the journal and compacts it
+     *
+     * @return the current entities by their ID, in the order of their creation
+     */
+    Map<Long, T> load() {
+
+        Map<Long, T> entities = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            if (Files.exists(file)) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        try {
+                            replay(line, entities);
+                        } catch (IOException | RuntimeException e) {
+                            // like a line that got cut by a crash
+                            log.warn("Skipped an invalid line of the journal {}: {}", file, e.getMessage());
+                        }
+                    }
+                }
+            }
+            Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter compactedWriter = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                compactedWriter.write("N " + nextId);
+                compactedWriter.newLine();
+                for (Map.Entry<Long, T> entity : entities.entrySet()) {
+                    compactedWriter.write("P " + entity.getKey() + " " + objectMapper.writeValueAsString(entity.getValue()));
+                    compactedWriter.newLine();
+                }
+            }
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't load the journal " + file, e);
+        } finally {
+            lock.unlock();
+        }
+        return entities;
+    }
+
+    /**
+     * @return the next ID, it is recorded by the line of the persisted entity
+     */
+    long nextId() {
+        lock.lock();
+        try {
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(Long id, T entity) {
+        lock.lock();
+        try {
+            append("P " + id + " " + objectMapper.writeValueAsString(entity));
+        } catch (IOException e) {
+            throw new RuntimeException("Can't write " + type.getSimpleName() + " " + id + " to the journal " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void delete(Long id) {
+        lock.lock();
+        try {
+            append("D " + id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    throw new RuntimeException("Can't close the journal " + file, e);
+                }
+                writer = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(String line) {
+        if (writer == null) {
+            throw new RuntimeException("The journal " + file + " is not loaded");
+        }
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Can't write to the journal " + file, e);
+        }
+    }
+
+    private void replay(String line, Map<Long, T> entities) throws IOException {
+
+        if (line.length() < 3) {
+            return;
+        }
+        int separator = line.indexOf(' ', 2);
+        Long id = Long.valueOf(separator < 0 ? line.substring(2) : line.substring(2, separator));
+        switch (line.charAt(0)) {
+            case 'N':
+                nextId = Math.max(nextId, id);
+                break;
+            case 'P':
+                entities.put(id, objectMapper.readValue(line.substring(separator + 1), type));
+                nextId = Math.max(nextId, id + 1);
+                break;
+            case 'D':
+                entities.remove(id);
+                break;
+            default:
+                throw new RuntimeException("Unknown operation " + line.charAt(0));
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import io.coodoo.workhorse.core.entity.WorkhorseLog;
+import io.coodoo.workhorse.persistence.interfaces.LogPersistence;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+import io.coodoo.workhorse.util.CollectionListing;
+import io.coodoo.workhorse.util.WorkhorseUtil;
+
+@ApplicationScoped
+public class MappedLogPersistence implements LogPersistence {
+
+    @Inject
+    MappedPersistence mappedPersistence;
+
+    @Override
+    public String getPersistenceName() {
+        return MappedConfig.NAME;
+    }
+
+    @Override
+    public WorkhorseLog get(Long id) {
+        return mappedPersistence.getWorkhorseLog().get(id);
+    }
+
+    @Override
+    public ListingResult<WorkhorseLog> getWorkhorseLogListing(ListingParameters listingParameters) {
+
+        Collection<WorkhorseLog> logs = mappedPersistence.getWorkhorseLog().values();
+        return CollectionListing.getListingResult(logs, WorkhorseLog.class, listingParameters);
+    }
+
+    @Override
+    public WorkhorseLog update(Long id, WorkhorseLog workhorseLog) {
+        workhorseLog.setUpdatedAt(WorkhorseUtil.timestamp());
+        mappedPersistence.getWorkhorseLogJournal().put(id, workhorseLog);
+        mappedPersistence.getWorkhorseLog().put(id, workhorseLog);
+        return workhorseLog;
+    }
+
+    @Override
+    public WorkhorseLog delete(Long id) {
+        WorkhorseLog workhorseLog = mappedPersistence.getWorkhorseLog().remove(id);
+        if (workhorseLog != null) {
+            mappedPersistence.getWorkhorseLogJournal().delete(id);
+        }
+        return workhorseLog;
+    }
+
+    @Override
+    public WorkhorseLog persist(WorkhorseLog workhorseLog) {
+        MappedJournal<WorkhorseLog> workhorseLogJournal = mappedPersistence.getWorkhorseLogJournal();
+        Long id = workhorseLogJournal.nextId();
+        workhorseLog.setId(id);
+        workhorseLog.setCreatedAt(WorkhorseUtil.timestamp());
+        workhorseLogJournal.put(id, workhorseLog);
+        mappedPersistence.getWorkhorseLog().put(id, workhorseLog);
+        return workhorseLog;
+    }
+
+    @Override
+    public List<WorkhorseLog> getAll(int limit) {
+        List<WorkhorseLog> workhorseLogs = new ArrayList<>();
+        workhorseLogs.addAll(mappedPersistence.getWorkhorseLog().values());
+        int logSize = workhorseLogs.size();
+        limit = limit > logSize ? logSize : limit;
+        return workhorseLogs.subList(0, limit);
+    }
+
+    @Override
+    public int deleteByJobId(Long jobId) {
+        int count = 0;
+        for (WorkhorseLog workhorseLog : mappedPersistence.getWorkhorseLog().values()) {
+            if (workhorseLog.getJobId() != null && workhorseLog.getJobId().equals(jobId)) {
+                if (mappedPersistence.getWorkhorseLog().remove(workhorseLog.getId(), workhorseLog)) {
+                    mappedPersistence.getWorkhorseLogJournal().delete(workhorseLog.getId());
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
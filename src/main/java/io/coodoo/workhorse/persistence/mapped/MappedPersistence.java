@@ -0,0 +1,163 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.core.entity.WorkhorseConfig;
+import io.coodoo.workhorse.core.entity.WorkhorseLog;
+
+/**
+ * Storage of the Mapped Persistence in the directory of the {@link MappedConfig}.
+ *
+ * The executions are kept off the heap in memory-mapped segment files by the {@link ExecutionStore}, so the heap only holds their indexes. The jobs and the
+ * workhorse logs are few, they are kept on the heap and every change gets written to a journal. Everything but the configuration survives a restart, the
+ * configuration is given by the application on every start.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+@ApplicationScoped
+public class MappedPersistence {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedPersistence.class);
+
+    /**
+     * Guards opening and closing the files.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile WorkhorseConfig workhorseConfig;
+    private volatile Path directory;
+    private volatile ExecutionStore executionStore;
+    private MappedJournal<Job> jobJournal;
+    private MappedJournal<WorkhorseLog> workhorseLogJournal;
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, WorkhorseLog> workhorseLog = new ConcurrentHashMap<>();
+
+    /**
+     * Opens the files in the directory of the configuration. If they are already open, nothing happens.
+     *
+     * @param mappedConfig configuration of the persistence
+     */
+    public void open(MappedConfig mappedConfig) {
+
+        lock.lock();
+        try {
+            workhorseConfig = mappedConfig;
+            Path newDirectory = Paths.get(mappedConfig.getDirectory()).toAbsolutePath();
+            if (newDirectory.equals(directory)) {
+                return;
+            }
+            close();
+
+            ExecutionStore newExecutionStore = null;
+            MappedJournal<Job> newJobJournal = null;
+            MappedJournal<WorkhorseLog> newWorkhorseLogJournal = null;
+            try {
+                newExecutionStore = new ExecutionStore(newDirectory, mappedConfig.getSegmentSize());
+                newJobJournal = new MappedJournal<>(newDirectory.resolve("jobs.journal"), Job.class);
+                jobs.putAll(newJobJournal.load());
+                newWorkhorseLogJournal = new MappedJournal<>(newDirectory.resolve("workhorse-logs.journal"), WorkhorseLog.class);
+                workhorseLog.putAll(newWorkhorseLogJournal.load());
+            } catch (RuntimeException e) {
+                // the files that got opened before the failure are closed again, the persistence stays closed
+                if (newWorkhorseLogJournal != null) {
+                    closeAfterFailure(newWorkhorseLogJournal::close, e);
+                }
+                if (newJobJournal != null) {
+                    closeAfterFailure(newJobJournal::close, e);
+                }
+                if (newExecutionStore != null) {
+                    closeAfterFailure(newExecutionStore::close, e);
+                }
+                jobs.clear();
+                workhorseLog.clear();
+                throw e;
+            }
+
+            jobJournal = newJobJournal;
+            workhorseLogJournal = newWorkhorseLogJournal;
+            executionStore = newExecutionStore;
+            directory = newDirectory;
+            log.info("Opened {} with {} jobs", directory, jobs.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces all changes to the storage device and closes the files
+     */
+    @PreDestroy
+    public void close() {
+
+        lock.lock();
+        try {
+            if (directory == null) {
+                return;
+            }
+            executionStore.close();
+            jobJournal.close();
+            workhorseLogJournal.close();
+            jobs.clear();
+            workhorseLog.clear();
+            executionStore = null;
+            directory = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void closeAfterFailure(Runnable close, RuntimeException failure) {
+        try {
+            close.run();
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    public WorkhorseConfig getWorkhorseConfig() {
+        return workhorseConfig;
+    }
+
+    public WorkhorseConfig setWorkhorseConfig(WorkhorseConfig workhorseConfig) {
+        this.workhorseConfig = workhorseConfig;
+        return workhorseConfig;
+    }
+
+    public Map<Long, Job> getJobs() {
+        return jobs;
+    }
+
+    public Map<Long, WorkhorseLog> getWorkhorseLog() {
+        return workhorseLog;
+    }
+
+    ExecutionStore getExecutionStore() {
+        ExecutionStore store = executionStore;
+        if (store == null) {
+            throw new RuntimeException("The " + MappedConfig.NAME + " is not initialized");
+        }
+        return store;
+    }
+
+    MappedJournal<Job> getJobJournal() {
+        getExecutionStore();
+        return jobJournal;
+    }
+
+    MappedJournal<WorkhorseLog> getWorkhorseLogJournal() {
+        getExecutionStore();
+        return workhorseLogJournal;
+    }
+
+}
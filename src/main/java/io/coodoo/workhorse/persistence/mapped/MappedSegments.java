@@ -0,0 +1,125 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Files of the same size that are mapped into memory, named <code>&lt;prefix&gt;-&lt;index&gt;.seg</code>.
+ *
+ * The content of the files lives in the page cache of the operating system, not on the heap. A segment gets created when it is first written and stays mapped
+ * until it is deleted. It is not thread safe, it is guarded by the lock of the {@link ExecutionStore}.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class MappedSegments {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedSegments.class);
+
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final NavigableMap<Integer, MappedByteBuffer> segments = new TreeMap<>();
+
+    /**
+     * Maps the existing segment files of the prefix in the directory
+     */
+    MappedSegments(Path directory, String prefix, int segmentSize) {
+
+        this.directory = directory;
+        this.prefix = prefix + "-";
+        this.segmentSize = segmentSize;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, this.prefix + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                int index = Integer.parseInt(name.substring(this.prefix.length(), name.length() - SUFFIX.length()));
+                if (Files.size(file) != segmentSize) {
+                    throw new RuntimeException("The segment " + file + " doesn't have the segment size of " + segmentSize + " bytes");
+                }
+                segments.put(index, map(file));
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new RuntimeException("Can't open the segments " + this.prefix + "* in " + directory, e);
+        }
+    }
+
+    int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @param index index of the segment
+     * @return the segment or <code>null</code> if it doesn't exist
+     */
+    MappedByteBuffer get(int index) {
+        return segments.get(index);
+    }
+
+    /**
+     * @param index index of the segment
+     * @return the segment, a new one is filled with zeros
+     */
+    MappedByteBuffer getOrCreate(int index) {
+
+        MappedByteBuffer segment = segments.get(index);
+        if (segment == null) {
+            segment = map(directory.resolve(prefix + String.format("%06d", index) + SUFFIX));
+            segments.put(index, segment);
+        }
+        return segment;
+    }
+
+    /**
+     * @return the existing segments by their index
+     */
+    NavigableMap<Integer, MappedByteBuffer> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Deletes the file of a segment, the memory gets released once the mapping is garbage collected
+     */
+    void delete(int index) {
+
+        if (segments.remove(index) == null) {
+            return;
+        }
+        Path file = directory.resolve(prefix + String.format("%06d", index) + SUFFIX);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Can't delete the segment {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the changes of all segments to the storage device
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments.values()) {
+            segment.force();
+        }
+    }
+
+    private MappedByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new RuntimeException("Can't map the segment " + file, e);
+        }
+    }
+
+}
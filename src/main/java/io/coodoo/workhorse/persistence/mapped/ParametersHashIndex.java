@@ -0,0 +1,141 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+/**
+ * Pairs of a parameters hash and an execution ID in an open addressing table on the heap, several IDs can share a hash.
+ *
+ * A removed pair gets filled by shifting the following pairs of its probe sequence back, so a lookup stops at the first free slot. It is not thread safe, it
+ * is guarded by the lock of the {@link ExecutionStore}.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class ParametersHashIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] hashes = new int[0];
+
+    /**
+     * IDs of the pairs, <code>0</code> marks a free slot
+     */
+    private long[] ids = new long[0];
+
+    private int size;
+
+    /**
+     * @param hash parameters hash
+     * @param id positive ID
+     * @return <code>true</code> if the pair was not in the index
+     */
+    boolean add(int hash, long id) {
+
+        if ((size + 1) * 2 > ids.length) {
+            resize(Math.max(MIN_CAPACITY, ids.length * 2));
+        }
+        int mask = ids.length - 1;
+        int slot = slotOf(hash, mask);
+        while (ids[slot] != 0L) {
+            if (ids[slot] == id && hashes[slot] == hash) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        ids[slot] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * @param hash parameters hash
+     * @param id positive ID
+     * @return <code>true</code> if the pair was in the index
+     */
+    boolean remove(int hash, long id) {
+
+        if (size == 0) {
+            return false;
+        }
+        int mask = ids.length - 1;
+        int gap = slotOf(hash, mask);
+        while (ids[gap] != id || hashes[gap] != hash) {
+            if (ids[gap] == 0L) {
+                return false;
+            }
+            gap = (gap + 1) & mask;
+        }
+        // a following pair moves into the gap, unless the gap lies before its own slot
+        for (int slot = (gap + 1) & mask; ids[slot] != 0L; slot = (slot + 1) & mask) {
+            int home = slotOf(hashes[slot], mask);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                hashes[gap] = hashes[slot];
+                ids[gap] = ids[slot];
+                gap = slot;
+            }
+        }
+        ids[gap] = 0L;
+        size--;
+
+        if (size == 0) {
+            hashes = new int[0];
+            ids = new long[0];
+        } else if (ids.length > MIN_CAPACITY && size * 8 < ids.length) {
+            resize(ids.length / 2);
+        }
+        return true;
+    }
+
+    /**
+     * @param hash parameters hash
+     * @return the lowest ID with the hash, <code>-1</code> if there is none
+     */
+    long first(int hash) {
+
+        if (size == 0) {
+            return -1;
+        }
+        int mask = ids.length - 1;
+        long first = -1;
+        for (int slot = slotOf(hash, mask); ids[slot] != 0L; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && (first < 0 || ids[slot] < first)) {
+                first = ids[slot];
+            }
+        }
+        return first;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long memorySize() {
+        return 12L * ids.length;
+    }
+
+    private void resize(int capacity) {
+
+        int[] oldHashes = hashes;
+        long[] oldIds = ids;
+        hashes = new int[capacity];
+        ids = new long[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < oldIds.length; index++) {
+            if (oldIds[index] != 0L) {
+                int slot = slotOf(oldHashes[index], mask);
+                while (ids[slot] != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[index];
+                ids[slot] = oldIds[index];
+            }
+        }
+    }
+
+    /**
+     * The hashes of Strings are close to each other for similar parameters, so they get spread before they are masked
+     */
+    private static int slotOf(int hash, int mask) {
+        int spread = hash * 0x9E3779B9;
+        return (spread ^ (spread >>> 16)) & mask;
+    }
+
+}
@@ -0,0 +1,221 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Variable-length payloads of the executions (parameters, summaries, logs and stacktraces) in append-only segments.
+ *
+ * An entry is <code>[int length][long link][UTF-8 bytes]</code> and is addressed by <code>segment &lt;&lt; 32 | offset</code>, the address <code>0</code>
+ * stands for <code>null</code>. The link chains the lines of a log from the latest back to the first one, so appending a line never copies the log. The
+ * header of a segment holds its write position and the range of the IDs of the executions that wrote into it. A replaced or deleted payload stays in its
+ * segment, the whole segment gets deleted once all executions of its ID range are gone.
+ *
+ * It is not thread safe, it is guarded by the lock of the {@link ExecutionStore}.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class PayloadStore {
+
+    static final long NULL = 0L;
+
+    private static final int POSITION = 0;
+    private static final int MIN_EXECUTION_ID = 8;
+    private static final int MAX_EXECUTION_ID = 16;
+    private static final int HEADER_SIZE = 24;
+    private static final int ENTRY_HEADER_SIZE = 12;
+
+    private final MappedSegments segments;
+
+    PayloadStore(Path directory, int segmentSize) {
+        this.segments = new MappedSegments(directory, "payloads", segmentSize);
+    }
+
+    /**
+     * Appends a String
+     *
+     * @param executionId ID of the execution the payload belongs to
+     * @param value the String
+     * @param link address of a previous entry, {@link #NULL} if there is none
+     * @return the address of the entry, {@link #NULL} if the value is <code>null</code>
+     */
+    long append(long executionId, String value, long link) {
+
+        if (value == null) {
+            return NULL;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int entrySize = ENTRY_HEADER_SIZE + bytes.length;
+        if (entrySize > segments.getSegmentSize() - HEADER_SIZE) {
+            throw new RuntimeException("A payload of " + bytes.length + " bytes doesn't fit into a segment of " + segments.getSegmentSize() + " bytes");
+        }
+
+        int index = segments.getSegments().isEmpty() ? 0 : segments.getSegments().lastKey();
+        MappedByteBuffer segment = segments.getOrCreate(index);
+        int position = position(segment);
+        if (position + entrySize > segments.getSegmentSize()) {
+            index++;
+            segment = segments.getOrCreate(index);
+            position = position(segment);
+        }
+
+        segment.putInt(position, bytes.length);
+        segment.putLong(position + 4, link);
+        ByteBuffer entry = segment.duplicate();
+        entry.position(position + ENTRY_HEADER_SIZE);
+        entry.put(bytes);
+        long minExecutionId = segment.getLong(MIN_EXECUTION_ID);
+        if (minExecutionId == 0 || executionId < minExecutionId) {
+            segment.putLong(MIN_EXECUTION_ID, executionId);
+        }
+        if (executionId > segment.getLong(MAX_EXECUTION_ID)) {
+            segment.putLong(MAX_EXECUTION_ID, executionId);
+        }
+        // the position moves after the entry is written, so an interrupted write leaves no entry
+        segment.putLong(POSITION, position + entrySize);
+
+        return ((long) index << 32) | position;
+    }
+
+    /**
+     * @param address address of an entry
+     * @return the String of the entry or <code>null</code> if the address is {@link #NULL}
+     */
+    String read(long address) {
+
+        if (address == NULL) {
+            return null;
+        }
+        MappedByteBuffer segment = segment(address);
+        int position = (int) address;
+        byte[] bytes = new byte[segment.getInt(position)];
+        ByteBuffer entry = segment.duplicate();
+        entry.position(position + ENTRY_HEADER_SIZE);
+        entry.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a String with an entry in place, it gets encoded char by char, so neither the entry nor the String gets copied
+     *
+     * @param address address of an entry
+     * @param value the String
+     * @return <code>true</code> if the entry holds the String, also if the address is {@link #NULL} and the String is <code>null</code>
+     */
+    boolean matches(long address, String value) {
+
+        if (address == NULL || value == null) {
+            return address == NULL && value == null;
+        }
+        MappedByteBuffer segment = segment(address);
+        int position = (int) address;
+        int index = position + ENTRY_HEADER_SIZE;
+        int end = index + segment.getInt(position);
+
+        for (int charIndex = 0; charIndex < value.length(); charIndex++) {
+            int codePoint = value.codePointAt(charIndex);
+            if (Character.isSupplementaryCodePoint(codePoint)) {
+                charIndex++;
+            }
+            if (codePoint < 0x80) {
+                index = matches(segment, index, end, codePoint);
+            } else if (codePoint < 0x800) {
+                index = matches(segment, index, end, 0xC0 | codePoint >> 6);
+                index = matches(segment, index, end, 0x80 | codePoint & 0x3F);
+            } else if (codePoint < 0x10000) {
+                index = matches(segment, index, end, 0xE0 | codePoint >> 12);
+                index = matches(segment, index, end, 0x80 | codePoint >> 6 & 0x3F);
+                index = matches(segment, index, end, 0x80 | codePoint & 0x3F);
+            } else {
+                index = matches(segment, index, end, 0xF0 | codePoint >> 18);
+                index = matches(segment, index, end, 0x80 | codePoint >> 12 & 0x3F);
+                index = matches(segment, index, end, 0x80 | codePoint >> 6 & 0x3F);
+                index = matches(segment, index, end, 0x80 | codePoint & 0x3F);
+            }
+            if (index < 0) {
+                return false;
+            }
+        }
+        return index == end;
+    }
+
+    /**
+     * @return the index of the next byte or <code>-1</code> if the byte doesn't match
+     */
+    private static int matches(MappedByteBuffer segment, int index, int end, int value) {
+        if (index < 0 || index >= end || segment.get(index) != (byte) value) {
+            return -1;
+        }
+        return index + 1;
+    }
+
+    /**
+     * Reads the Strings of a chain of entries
+     *
+     * @param address address of the latest entry
+     * @return the Strings from the first to the latest entry
+     */
+    List<String> readChain(long address) {
+
+        List<String> values = new ArrayList<>();
+        while (address != NULL) {
+            values.add(read(address));
+            address = segment(address).getLong((int) address + 4);
+        }
+        Collections.reverse(values);
+        return values;
+    }
+
+    /**
+     * Deletes the segments, except the one that is currently written, whose executions are all deleted
+     *
+     * @param executionIds IDs of the existing executions
+     * @return number of deleted segments
+     */
+    int reclaim(IdBitSet executionIds) {
+
+        if (segments.getSegments().size() < 2) {
+            return 0;
+        }
+        int current = segments.getSegments().lastKey();
+        List<Integer> unused = new ArrayList<>();
+        for (Map.Entry<Integer, MappedByteBuffer> entry : segments.getSegments().headMap(current, false).entrySet()) {
+            long minExecutionId = entry.getValue().getLong(MIN_EXECUTION_ID);
+            long maxExecutionId = entry.getValue().getLong(MAX_EXECUTION_ID);
+            long next = executionIds.next(minExecutionId);
+            if (next < 0 || next > maxExecutionId) {
+                unused.add(entry.getKey());
+            }
+        }
+        unused.forEach(segments::delete);
+        return unused.size();
+    }
+
+    int getSegmentCount() {
+        return segments.getSegments().size();
+    }
+
+    void force() {
+        segments.force();
+    }
+
+    private static int position(MappedByteBuffer segment) {
+        int position = (int) segment.getLong(POSITION);
+        return position < HEADER_SIZE ? HEADER_SIZE : position;
+    }
+
+    private MappedByteBuffer segment(long address) {
+        MappedByteBuffer segment = segments.get((int) (address >>> 32));
+        if (segment == null) {
+            throw new RuntimeException("The payload " + address + " doesn't exist anymore");
+        }
+        return segment;
+    }
+
+}
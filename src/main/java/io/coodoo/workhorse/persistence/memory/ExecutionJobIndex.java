@@ -0,0 +1,185 @@
+package io.coodoo.workhorse.persistence.memory;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Maps the ID of every execution to the ID of its job, so an execution can be found without knowing its job.
+ *
+ * It is an open addressing hash table of primitive <code>long</code> pairs with linear probing, so there is no boxing and no entry object per execution. The
+ * execution IDs of the memory persistence start at 1, the key <code>0</code> marks a free slot. Writes are exclusive, lookups are optimistic and only take the
+ * lock if a write happened in between.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class ExecutionJobIndex {
+
+    private static final long FREE = 0L;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StampedLock lock = new StampedLock();
+
+    // key and value of a slot are next to each other, so an optimistic read always sees matching pairs
+    private long[] table = new long[INITIAL_CAPACITY * 2];
+    private int size;
+
+    /**
+     * @param executionId ID of the execution
+     * @param jobId ID of the job of the execution
+     */
+    public void put(long executionId, long jobId) {
+
+        if (executionId == FREE) {
+            throw new RuntimeException("Execution ID " + FREE + " can't be indexed");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 4 > table.length) {
+                resize(table.length * 2);
+            }
+            int slot = slot(table, executionId);
+            if (table[slot] == FREE) {
+                table[slot] = executionId;
+                size++;
+            }
+            table[slot + 1] = jobId;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param executionId ID of the execution
+     * @return ID of the job of the execution or <code>null</code> if the execution is unknown
+     */
+    public Long get(long executionId) {
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            long[] currentTable = table;
+            int slot = find(currentTable, executionId);
+            long jobId = slot < 0 ? FREE : currentTable[slot + 1];
+            if (lock.validate(stamp)) {
+                return slot < 0 ? null : jobId;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            int slot = find(table, executionId);
+            return slot < 0 ? null : table[slot + 1];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param executionId ID of the execution
+     */
+    public void remove(long executionId) {
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = slot(table, executionId);
+            if (table[slot] == FREE) {
+                return;
+            }
+            table[slot] = FREE;
+            table[slot + 1] = FREE;
+            size--;
+
+            // move the following entries of the probe sequence back, so no lookup stops at the freed slot
+            int mask = table.length - 1;
+            int free = slot;
+            int next = (slot + 2) & mask;
+            while (table[next] != FREE) {
+                int home = home(table, table[next]);
+                if (((next - home) & mask) >= ((next - free) & mask)) {
+                    table[free] = table[next];
+                    table[free + 1] = table[next + 1];
+                    table[next] = FREE;
+                    table[next + 1] = FREE;
+                    free = next;
+                }
+                next = (next + 2) & mask;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the slot of the key or <code>-1</code>. An optimistic read may see a table that is changed meanwhile, so it never probes more than the whole
+     *         table.
+     */
+    private static int find(long[] table, long key) {
+
+        int mask = table.length - 1;
+        int slot = home(table, key);
+        for (int probes = 0; probes < table.length; probes += 2) {
+            long found = table[slot];
+            if (found == key) {
+                return slot;
+            }
+            if (found == FREE) {
+                return -1;
+            }
+            slot = (slot + 2) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the slot of the key or the free slot to insert it
+     */
+    private static int slot(long[] table, long key) {
+
+        int mask = table.length - 1;
+        int slot = home(table, key);
+        while (table[slot] != FREE && table[slot] != key) {
+            slot = (slot + 2) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int length) {
+
+        long[] oldTable = table;
+        long[] newTable = new long[length];
+
+        for (int i = 0; i < oldTable.length; i += 2) {
+            if (oldTable[i] != FREE) {
+                int slot = slot(newTable, oldTable[i]);
+                newTable[slot] = oldTable[i];
+                newTable[slot + 1] = oldTable[i + 1];
+            }
+        }
+        table = newTable;
+    }
+
+    /**
+     * @return the first slot of the probe sequence of the key, always an even index
+     */
+    private static int home(long[] table, long key) {
+        return (hash(key) << 1) & (table.length - 1);
+    }
+
+    /**
+     * Sequential IDs would fill one cluster, so the bits get spread (finalizer of MurmurHash3)
+     */
+    private static int hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+}
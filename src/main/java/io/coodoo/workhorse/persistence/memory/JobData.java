@@ -1,25 +1,396 @@
 package io.coodoo.workhorse.persistence.memory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
 
 import io.coodoo.workhorse.core.entity.Execution;
-import io.coodoo.workhorse.core.entity.ExecutionLog;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.util.WorkhorseUtil;
 
 /**
+ * Executions and logs of a single job.
+ *
+ * Besides the executions themselves there are secondary indexes, so the persistence doesn't need to scan the whole history of a job:
+ * <ul>
+ * <li>the IDs of the executions per {@link ExecutionStatus}, the size of a set is the current count of the status</li>
+ * <li>the {@link ExecutionStatus#QUEUED} and {@link ExecutionStatus#PLANNED} executions that can be polled, ordered by the time they are due</li>
+ * <li>the executions per minute of their creation, with a counter per {@link ExecutionStatus}, to count the executions created in a time range</li>
+ * </ul>
+ * The executions are changed in place by the job engine, so the indexes remember the indexed state of every execution and get updated by
+ * {@link #index(Execution)} and {@link #unindex(Long)}.
+ *
  * @author coodoo GmbH (coodoo.io)
  */
 public class JobData {
 
-    public List<Long> orderedIds;
+    private static final long BUCKET_MILLIS = 60_000L;
+    private static final ExecutionStatus[] STATUSES = ExecutionStatus.values();
+    private static final Comparator<Execution> CREATION_ORDER = Comparator.comparing(Execution::getCreatedAt).thenComparing(Execution::getId);
+
+    /**
+     * IDs of the executions in the order of their creation. The IDs are sequential, so the natural order of the set is the order of creation, appending and
+     * removing an ID is O(log n) and safe for concurrent callers.
+     */
+    public NavigableSet<Long> orderedIds;
     public Map<Long, Execution> executions;
-    public Map<Long, ExecutionLog> executionLogs;
+    public Map<Long, MemoryExecutionLog> executionLogs;
+
+    private final Map<ExecutionStatus, Set<Long>> statusIndex = new EnumMap<>(ExecutionStatus.class);
+    private final NavigableSet<DueKey> dueIndex = new ConcurrentSkipListSet<>();
+    private final NavigableMap<Long, CreationBucket> creationBuckets = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexEntry> indexEntries = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the updates of the indexes.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
 
     public JobData() {
-        orderedIds = new ArrayList<>();
+        orderedIds = new ConcurrentSkipListSet<>();
         executions = new ConcurrentHashMap<>();
         executionLogs = new ConcurrentHashMap<>();
+        for (ExecutionStatus status : STATUSES) {
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Adds or updates an execution in the indexes
+     *
+     * @param execution the current state of the execution
+     */
+    public void index(Execution execution) {
+
+        lock.lock();
+        try {
+            indexLocked(execution);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void indexLocked(Execution execution) {
+
+        Long id = execution.getId();
+        IndexEntry entry = indexEntries.get(id);
+        if (entry == null) {
+            entry = new IndexEntry(WorkhorseUtil.toEpochMilli(execution.getCreatedAt()));
+            indexEntries.put(id, entry);
+            if (entry.createdAt != null) {
+                creationBuckets.computeIfAbsent(bucketOf(entry.createdAt), bucket -> new CreationBucket()).executionIds.add(id);
+            }
+        }
+
+        ExecutionStatus status = execution.getStatus();
+        if (entry.status != status) {
+            CreationBucket creationBucket = entry.createdAt == null ? null : creationBuckets.get(bucketOf(entry.createdAt));
+            if (entry.status != null) {
+                statusIndex.get(entry.status).remove(id);
+                if (creationBucket != null) {
+                    creationBucket.counts.decrementAndGet(entry.status.ordinal());
+                }
+            }
+            if (status != null) {
+                statusIndex.get(status).add(id);
+                if (creationBucket != null) {
+                    creationBucket.counts.incrementAndGet(status.ordinal());
+                }
+            }
+            entry.status = status;
+        }
+
+        DueKey dueKey = isPollable(execution) ? new DueKey(dueTime(execution), id) : null;
+        if (entry.dueKey != null && !entry.dueKey.equals(dueKey)) {
+            dueIndex.remove(entry.dueKey);
+        }
+        if (dueKey != null) {
+            dueIndex.add(dueKey);
+        }
+        entry.dueKey = dueKey;
+    }
+
+    /**
+     * Removes an execution from the indexes
+     *
+     * @param executionId ID of the execution
+     */
+    public void unindex(Long executionId) {
+
+        lock.lock();
+        try {
+            unindexLocked(executionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unindexLocked(Long executionId) {
+
+        IndexEntry entry = indexEntries.remove(executionId);
+        if (entry == null) {
+            return;
+        }
+        if (entry.status != null) {
+            statusIndex.get(entry.status).remove(executionId);
+        }
+        if (entry.dueKey != null) {
+            dueIndex.remove(entry.dueKey);
+        }
+        if (entry.createdAt != null) {
+            Long bucket = bucketOf(entry.createdAt);
+            CreationBucket creationBucket = creationBuckets.get(bucket);
+            if (creationBucket != null) {
+                creationBucket.executionIds.remove(executionId);
+                if (entry.status != null) {
+                    creationBucket.counts.decrementAndGet(entry.status.ordinal());
+                }
+                if (creationBucket.executionIds.isEmpty()) {
+                    creationBuckets.remove(bucket);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param status status of the executions
+     * @return read-only view of the IDs of all executions in the given status
+     */
+    public Set<Long> getExecutionIds(ExecutionStatus status) {
+        return Collections.unmodifiableSet(statusIndex.get(status));
+    }
+
+    /**
+     * @param status status of the executions
+     * @return number of executions in the given status
+     */
+    public long countExecutions(ExecutionStatus status) {
+        return statusIndex.get(status).size();
+    }
+
+    /**
+     * Counts the executions in the given status that got created in the given time range. The minutes that are completely covered by the range are taken from
+     * their counters, only the executions of a partially covered minute at the start or the end of the range are checked one by one.
+     *
+     * @param status status of the executions
+     * @param fromMillis start of the range in epoch milliseconds (inclusive)
+     * @param toMillis end of the range in epoch milliseconds (inclusive)
+     * @return number of executions in the given status that got created in the time range
+     */
+    public long countExecutions(ExecutionStatus status, long fromMillis, long toMillis) {
+
+        if (fromMillis > toMillis) {
+            return 0L;
+        }
+        long count = 0L;
+        for (Map.Entry<Long, CreationBucket> bucketEntry : creationBuckets.subMap(bucketOf(fromMillis), true, bucketOf(toMillis), true).entrySet()) {
+
+            long bucketStart = bucketEntry.getKey() * BUCKET_MILLIS;
+            CreationBucket creationBucket = bucketEntry.getValue();
+
+            if (fromMillis <= bucketStart && bucketStart + BUCKET_MILLIS - 1 <= toMillis) {
+                count += creationBucket.counts.get(status.ordinal());
+            } else {
+                for (Long id : creationBucket.executionIds) {
+                    IndexEntry entry = indexEntries.get(id);
+                    if (entry != null && entry.status == status && fromMillis <= entry.createdAt && entry.createdAt <= toMillis) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param nowMillis current time in epoch milliseconds
+     * @return the IDs of the {@link ExecutionStatus#QUEUED} and {@link ExecutionStatus#PLANNED} executions that are due, the earliest first
+     */
+    public List<Long> getDueExecutionIds(long nowMillis) {
+
+        List<Long> dueExecutionIds = new ArrayList<>();
+        for (DueKey dueKey : dueIndex.headSet(new DueKey(nowMillis, Long.MAX_VALUE), true)) {
+            dueExecutionIds.add(dueKey.executionId);
+        }
+        return dueExecutionIds;
+    }
+
+    /**
+     * Iterates the executions in the order of their IDs, which is the order of their creation. The iterator is weakly consistent, executions that get deleted
+     * meanwhile are skipped.
+     *
+     * @param afterId ID to start after, <code>null</code> to start at the first (or last) execution
+     * @param descending <code>true</code> to iterate from the latest to the earliest execution
+     * @return the executions after the given ID
+     */
+    public Iterator<Execution> iterateById(Long afterId, boolean descending) {
+
+        NavigableSet<Long> ids = descending ? orderedIds.descendingSet() : orderedIds;
+        if (afterId != null) {
+            ids = ids.tailSet(afterId, false);
+        }
+        Iterator<Long> idIterator = ids.iterator();
+        return new ExecutionIterator() {
+            @Override
+            protected Iterator<Execution> nextExecutions() {
+                while (idIterator.hasNext()) {
+                    Execution execution = executions.get(idIterator.next());
+                    if (execution != null) {
+                        return Collections.singletonList(execution).iterator();
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Iterates the executions in the order of their creation time and ID. The executions are taken minute by minute from the index of their creation, only a
+     * minute that gets reached is sorted, so a page near the given time doesn't visit the whole history of the job.
+     *
+     * @param fromMillis creation time in epoch milliseconds to start at (the whole minute is included), <code>null</code> to start at the first (or last)
+     *        execution
+     * @param descending <code>true</code> to iterate from the latest to the earliest execution
+     * @return the executions from the minute of the given time
+     */
+    public Iterator<Execution> iterateByCreation(Long fromMillis, boolean descending) {
+
+        NavigableMap<Long, CreationBucket> buckets = descending ? creationBuckets.descendingMap() : creationBuckets;
+        if (fromMillis != null) {
+            buckets = buckets.tailMap(bucketOf(fromMillis), true);
+        }
+        Comparator<Execution> order = descending ? CREATION_ORDER.reversed() : CREATION_ORDER;
+        Iterator<CreationBucket> bucketIterator = buckets.values().iterator();
+        return new ExecutionIterator() {
+            @Override
+            protected Iterator<Execution> nextExecutions() {
+                if (!bucketIterator.hasNext()) {
+                    return null;
+                }
+                List<Execution> bucketExecutions = new ArrayList<>();
+                for (Long id : bucketIterator.next().executionIds) {
+                    Execution execution = executions.get(id);
+                    if (execution != null && execution.getCreatedAt() != null) {
+                        bucketExecutions.add(execution);
+                    }
+                }
+                bucketExecutions.sort(order);
+                return bucketExecutions.iterator();
+            }
+        };
+    }
+
+    /**
+     * Only the first execution of a chain gets polled, the others are processed by the job thread of the chain.
+     */
+    private static boolean isPollable(Execution execution) {
+        return (execution.getStatus() == ExecutionStatus.QUEUED || execution.getStatus() == ExecutionStatus.PLANNED)
+                        && (execution.getChainId() == null || execution.getChainId().equals(execution.getId()));
+    }
+
+    private static long dueTime(Execution execution) {
+        Long plannedFor = WorkhorseUtil.toEpochMilli(execution.getPlannedFor());
+        return plannedFor == null ? Long.MIN_VALUE : plannedFor;
     }
+
+    private static Long bucketOf(long millis) {
+        return Math.floorDiv(millis, BUCKET_MILLIS);
+    }
+
+    /**
+     * Indexed state of an execution, guarded by the lock of the {@link JobData}
+     */
+    private static final class IndexEntry {
+
+        private final Long createdAt;
+        private volatile ExecutionStatus status;
+        private DueKey dueKey;
+
+        private IndexEntry(Long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Iterator over chunks of executions, a chunk is fetched once the previous one is consumed
+     */
+    private abstract static class ExecutionIterator implements Iterator<Execution> {
+
+        private Iterator<Execution> chunk = Collections.emptyIterator();
+
+        /**
+         * @return the next chunk of executions or <code>null</code> if there are no more
+         */
+        protected abstract Iterator<Execution> nextExecutions();
+
+        @Override
+        public boolean hasNext() {
+            while (chunk != null && !chunk.hasNext()) {
+                chunk = nextExecutions();
+            }
+            return chunk != null;
+        }
+
+        @Override
+        public Execution next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.next();
+        }
+    }
+
+    /**
+     * Executions created within the same minute
+     */
+    private static final class CreationBucket {
+
+        private final Set<Long> executionIds = ConcurrentHashMap.newKeySet();
+        private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+    }
+
+    private static final class DueKey implements Comparable<DueKey> {
+
+        private final long dueTime;
+        private final long executionId;
+
+        private DueKey(long dueTime, long executionId) {
+            this.dueTime = dueTime;
+            this.executionId = executionId;
+        }
+
+        @Override
+        public int compareTo(DueKey other) {
+            int compare = Long.compare(dueTime, other.dueTime);
+            return compare != 0 ? compare : Long.compare(executionId, other.executionId);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof DueKey)) {
+                return false;
+            }
+            DueKey other = (DueKey) object;
+            return dueTime == other.dueTime && executionId == other.executionId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(dueTime) * 31 + Long.hashCode(executionId);
+        }
+    }
+
 }
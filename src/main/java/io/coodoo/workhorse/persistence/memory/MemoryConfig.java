@@ -2,6 +2,7 @@ package io.coodoo.workhorse.persistence.memory;
 
 import io.coodoo.workhorse.core.entity.ExecutionStatus;
 import io.coodoo.workhorse.core.entity.WorkhorseConfig;
+import io.coodoo.workhorse.util.CollectionListing;
 import io.coodoo.workhorse.util.WorkhorseUtil;
 
 /**
@@ -13,6 +14,16 @@ public class MemoryConfig extends WorkhorseConfig {
 
     public static final String NAME = "Memory Persistence";
 
+    /**
+     * Maximum number of characters of the log of an execution, <code>0</code> keeps the whole log. A longer log keeps its first and its last lines.
+     */
+    protected int maxExecutionLogSize;
+
+    /**
+     * Minimum number of entities of a listing to filter and sort them in parallel, <code>0</code> never does
+     */
+    protected int listingParallelThreshold = CollectionListing.DEFAULT_PARALLEL_THRESHOLD;
+
     @Override
     public String getPersistenceName() {
         return NAME;
@@ -25,6 +36,22 @@ public class MemoryConfig extends WorkhorseConfig {
 
     public MemoryConfig() {}
 
+    public int getMaxExecutionLogSize() {
+        return maxExecutionLogSize;
+    }
+
+    public void setMaxExecutionLogSize(int maxExecutionLogSize) {
+        this.maxExecutionLogSize = maxExecutionLogSize;
+    }
+
+    public int getListingParallelThreshold() {
+        return listingParallelThreshold;
+    }
+
+    public void setListingParallelThreshold(int listingParallelThreshold) {
+        this.listingParallelThreshold = listingParallelThreshold;
+    }
+
     public MemoryConfig(String timeZone, int bufferMax, int bufferMin, int bufferPollInterval, int bufferPushFallbackPollInterval, long minutesUntilCleanup,
                     int executionTimeout, ExecutionStatus executionTimeoutStatus, String logChange, String logTimeFormat, String logInfoMarker,
                     String logWarnMarker, String logErrorMarker) {
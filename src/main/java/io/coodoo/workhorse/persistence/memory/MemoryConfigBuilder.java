@@ -19,6 +19,28 @@ public class MemoryConfigBuilder extends WorkhorseConfigBuilder {
         this.workhorseConfig = memoryConfig;
     }
 
+    /**
+     * Limit the log of an execution. The first half of the limit keeps the head of the log, the second half the most recent lines.
+     * 
+     * @param maxExecutionLogSize maximum number of characters of the log of an execution, <code>0</code> keeps the whole log
+     * @return the builder to set another configuration
+     */
+    public MemoryConfigBuilder maxExecutionLogSize(int maxExecutionLogSize) {
+        memoryConfig.setMaxExecutionLogSize(maxExecutionLogSize);
+        return this;
+    }
+
+    /**
+     * Filter and sort listings of large jobs in parallel. The entities of a listing get split into ranges that are evaluated by the common fork/join pool.
+     * 
+     * @param listingParallelThreshold minimum number of entities of a listing to evaluate them in parallel, <code>0</code> always evaluates sequentially
+     * @return the builder to set another configuration
+     */
+    public MemoryConfigBuilder listingParallelThreshold(int listingParallelThreshold) {
+        memoryConfig.setListingParallelThreshold(listingParallelThreshold);
+        return this;
+    }
+
     @Override
     public MemoryConfig build() {
 
@@ -0,0 +1,181 @@
+package io.coodoo.workhorse.persistence.memory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.coodoo.workhorse.core.entity.ExecutionLog;
+
+/**
+ * Log of an execution in the memory persistence.
+ *
+ * The lines are appended to blocks of up to {@link #BLOCK_SIZE} characters, so appending a line never copies the log written so far. The blocks are only
+ * joined when the log is read and the joined log is kept until the next line gets appended.
+ *
+ * If the log is limited to a maximum size, the first half of it keeps the head of the log and the second half the most recent lines. Older lines of the tail
+ * get dropped and are replaced by a note about the omitted characters.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class MemoryExecutionLog {
+
+    static final int BLOCK_SIZE = 8192;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Long executionId;
+    private final LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private String stacktrace;
+
+    private final List<StringBuilder> head = new ArrayList<>();
+    private final ArrayDeque<StringBuilder> tail = new ArrayDeque<>();
+    private long headSize;
+    private long tailSize;
+    private long omitted;
+    private String joined;
+
+    /**
+     * Guards the blocks of the log.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public MemoryExecutionLog(Long executionId, LocalDateTime createdAt) {
+        this.executionId = executionId;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Appends a line to the log
+     *
+     * @param line log line
+     * @param maxSize maximum number of characters to keep, <code>0</code> keeps all
+     */
+    public void append(String line, int maxSize) {
+
+        lock.lock();
+        try {
+            String text = String.valueOf(line);
+            boolean first = headSize == 0 && tailSize == 0 && omitted == 0;
+            int length = (first ? 0 : LINE_SEPARATOR.length()) + text.length();
+
+            if (maxSize <= 0 || (tail.isEmpty() && omitted == 0 && headSize + length <= maxSize / 2)) {
+                appendTo(blockFor(head.isEmpty() ? null : head.get(head.size() - 1), length, head), first, text);
+                headSize += length;
+            } else {
+                appendTo(blockFor(tail.peekLast(), length, tail), first, text);
+                tailSize += length;
+                trimTail(maxSize - maxSize / 2);
+            }
+            joined = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setStacktrace(String stacktrace) {
+        lock.lock();
+        try {
+            this.stacktrace = stacktrace;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        lock.lock();
+        try {
+            this.updatedAt = updatedAt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the log joined to a single String or <code>null</code> if there is no line
+     */
+    public String getLog() {
+
+        lock.lock();
+        try {
+            if (joined == null && (headSize > 0 || tailSize > 0 || omitted > 0)) {
+                StringBuilder log = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 64, headSize + tailSize + 64));
+                for (StringBuilder block : head) {
+                    log.append(block);
+                }
+                if (omitted > 0) {
+                    if (headSize > 0) {
+                        log.append(LINE_SEPARATOR);
+                    }
+                    log.append("[... ").append(omitted).append(" characters omitted ...]");
+                }
+                for (StringBuilder block : tail) {
+                    log.append(block);
+                }
+                joined = log.toString();
+            }
+            return joined;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a snapshot of this log as {@link ExecutionLog}
+     */
+    public ExecutionLog toExecutionLog() {
+
+        lock.lock();
+        try {
+            ExecutionLog executionLog = new ExecutionLog();
+            executionLog.setId(executionId);
+            executionLog.setExecutionId(executionId);
+            executionLog.setCreatedAt(createdAt);
+            executionLog.setUpdatedAt(updatedAt);
+            executionLog.setLog(getLog());
+            executionLog.setStacktrace(stacktrace);
+            return executionLog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static StringBuilder blockFor(StringBuilder last, int length, Collection<StringBuilder> blocks) {
+
+        if (last != null && last.length() + length <= BLOCK_SIZE) {
+            return last;
+        }
+        StringBuilder block = new StringBuilder(Math.max(256, length));
+        blocks.add(block);
+        return block;
+    }
+
+    private static void appendTo(StringBuilder block, boolean first, String text) {
+        if (!first) {
+            block.append(LINE_SEPARATOR);
+        }
+        block.append(text);
+    }
+
+    /**
+     * Drops the oldest characters of the tail until it fits into the given size
+     */
+    private void trimTail(long maxTailSize) {
+
+        while (tailSize > maxTailSize && tail.size() > 1) {
+            StringBuilder dropped = tail.removeFirst();
+            tailSize -= dropped.length();
+            omitted += dropped.length();
+        }
+        if (tailSize > maxTailSize) {
+            int excess = (int) (tailSize - maxTailSize);
+            tail.peekFirst().delete(0, excess);
+            tailSize -= excess;
+            omitted += excess;
+        }
+    }
+
+}
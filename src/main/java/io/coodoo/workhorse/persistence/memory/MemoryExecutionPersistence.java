@@ -4,10 +4,14 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
@@ -15,6 +19,7 @@ import javax.inject.Inject;
 
 import io.coodoo.workhorse.core.control.StaticConfig;
 import io.coodoo.workhorse.core.control.event.NewExecutionEvent;
+import io.coodoo.workhorse.core.control.event.NewExecutionsEvent;
 import io.coodoo.workhorse.core.entity.Execution;
 import io.coodoo.workhorse.core.entity.ExecutionFailStatus;
 import io.coodoo.workhorse.core.entity.ExecutionLog;
@@ -22,21 +27,38 @@ import io.coodoo.workhorse.core.entity.ExecutionStatus;
 import io.coodoo.workhorse.core.entity.ExecutionStatusCounts;
 import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.JobExecutionStatusSummary;
+import io.coodoo.workhorse.core.entity.WorkhorseConfig;
 import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
 import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
 import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
 import io.coodoo.workhorse.util.CollectionListing;
+import io.coodoo.workhorse.util.ListingCursor;
 import io.coodoo.workhorse.util.WorkhorseUtil;
 
 @ApplicationScoped
 public class MemoryExecutionPersistence implements ExecutionPersistence {
 
+    private static final Comparator<Execution> POLL_ORDER = Comparator.comparingInt(Execution::getPriorityLevel).reversed()
+                    .thenComparing(Execution::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Execution::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /**
+     * Initial capacity limit of the heap in {@link #pollNextExecutions(Long, int)}, so a huge limit doesn't allocate a huge array upfront
+     */
+    private static final int POLL_HEAP_MAX = 1024;
+
+    private static final String ID = "id";
+    private static final String CREATED_AT = "createdAt";
+
     @Inject
     MemoryPersistence memoryPersistence;
 
     @Inject
     Event<NewExecutionEvent> newExecutionEventEvent;
 
+    @Inject
+    Event<NewExecutionsEvent> newExecutionsEventEvent;
+
     private AtomicLong executionId = new AtomicLong(1);
 
     @Override
@@ -48,23 +70,65 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
     public Execution getById(Long jobId, Long executionId) {
 
         if (jobId == null) {
-            Execution execution = null;
-            for (Long id : memoryPersistence.getJobs().keySet()) {
-                Execution foundexecution = memoryPersistence.getJobDataMap().get(id).executions.get(executionId);
-                if (foundexecution != null) {
-                    execution = foundexecution;
-                }
+            if (executionId == null) {
+                return null;
+            }
+            jobId = memoryPersistence.getExecutionJobIndex().get(executionId);
+            if (jobId == null) {
+                return null;
             }
-            return execution;
         }
-        return memoryPersistence.getJobDataMap().get(jobId).executions.get(executionId);
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+        return jobData == null ? null : jobData.executions.get(executionId);
     }
 
     @Override
     public ListingResult<Execution> getExecutionListing(Long jobId, ListingParameters listingParameters) {
 
-        Collection<Execution> exeuctions = memoryPersistence.getJobDataMap().get(jobId).executions.values();
-        return CollectionListing.getListingResult(exeuctions, Execution.class, listingParameters);
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+
+        // a cursor on the ID or the creation time continues directly on the index, without visiting the executions before the cursor
+        ListingCursor cursor = ListingCursor.of(Execution.class, listingParameters);
+        if (cursor != null && cursor.getAttribute() == null) {
+            Iterator<Execution> ordered = jobData.iterateById(cursor.getId(), cursor.isDescending());
+            return CollectionListing.getCursorListingResult(ordered, Execution.class, listingParameters);
+        }
+        if (cursor != null && CREATED_AT.equals(cursor.getAttribute())) {
+            Long fromMillis = WorkhorseUtil.toEpochMilli((LocalDateTime) cursor.getValue());
+            Iterator<Execution> ordered = jobData.iterateByCreation(fromMillis, cursor.isDescending());
+            return CollectionListing.getCursorListingResult(ordered, Execution.class, listingParameters);
+        }
+
+        Collection<Execution> exeuctions = jobData.executions.values();
+        return CollectionListing.getListingResult(exeuctions, Execution.class, listingParameters, memoryPersistence.getListingParallelThreshold());
+    }
+
+    @Override
+    public void forEachExecution(Long jobId, ListingParameters listingParameters, Consumer<Execution> consumer) {
+
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+        String sort = listingParameters.getSortAttribute();
+        boolean descending = sort != null && sort.startsWith(CollectionListing.SORT_DESC);
+        String attribute = sort == null ? "" : sort.replaceFirst("^[+-]", "");
+
+        Iterator<Execution> iterator;
+        if (attribute.isEmpty() || ID.equals(attribute)) {
+            // the IDs are in the order of creation, so the executions get passed one by one
+            iterator = jobData.iterateById(null, descending);
+        } else if (CREATED_AT.equals(attribute)) {
+            iterator = jobData.iterateByCreation(null, descending);
+        } else {
+            // other sort attributes are read page by page after a cursor, only a page of matches is held at once
+            ExecutionPersistence.super.forEachExecution(jobId, listingParameters, consumer);
+            return;
+        }
+        Predicate<Execution> predicate = CollectionListing.getPredicate(Execution.class, listingParameters);
+        while (iterator.hasNext()) {
+            Execution execution = iterator.next();
+            if (predicate.test(execution)) {
+                consumer.accept(execution);
+            }
+        }
     }
 
     @Override
@@ -77,11 +141,50 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
         JobData jobData = memoryPersistence.getJobDataMap().get(execution.getJobId());
         jobData.executions.put(id, execution);
         jobData.orderedIds.add(id);
+        jobData.index(execution);
+        memoryPersistence.getExecutionJobIndex().put(id, execution.getJobId());
 
         newExecutionEventEvent.fireAsync(new NewExecutionEvent(execution));
         return execution;
     }
 
+    @Override
+    public List<Execution> persistAll(List<Execution> executions) {
+
+        if (executions.isEmpty()) {
+            return executions;
+        }
+        // one block of IDs for all executions
+        long firstId = executionId.getAndAdd(executions.size());
+        LocalDateTime createdAt = WorkhorseUtil.timestamp();
+        Long jobId = null;
+        JobData jobData = null;
+
+        for (int index = 0; index < executions.size(); index++) {
+            Execution execution = executions.get(index);
+            Long id = firstId + index;
+            execution.setId(id);
+            execution.setCreatedAt(createdAt);
+            if (Execution.FIRST_EXECUTION_ID.equals(execution.getBatchId())) {
+                execution.setBatchId(firstId);
+            }
+            if (Execution.FIRST_EXECUTION_ID.equals(execution.getChainId())) {
+                execution.setChainId(firstId);
+            }
+            if (jobData == null || !jobId.equals(execution.getJobId())) {
+                jobId = execution.getJobId();
+                jobData = memoryPersistence.getJobDataMap().get(jobId);
+            }
+            jobData.executions.put(id, execution);
+            jobData.orderedIds.add(id);
+            jobData.index(execution);
+            memoryPersistence.getExecutionJobIndex().put(id, jobId);
+        }
+
+        newExecutionsEventEvent.fireAsync(new NewExecutionsEvent(new ArrayList<>(executions)));
+        return executions;
+    }
+
     @Override
     public List<Execution> getByJobId(Long jobId, Long limit) {
         ListingParameters listingParameters = new ListingParameters(limit.intValue());
@@ -92,22 +195,33 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
     @Override
     public List<Execution> pollNextExecutions(Long jobId, int limit) {
 
-        List<Execution> executions = new ArrayList<>();
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
         LocalDateTime currentTimeStamp = LocalDateTime.now(ZoneId.of(StaticConfig.TIME_ZONE));
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
 
-        for (Execution execution : memoryPersistence.getJobDataMap().get(jobId).executions.values()) {
+        // only the due executions are visited, not the whole history of the job, and only the first ones in poll order are kept by a bounded heap
+        PriorityQueue<Execution> heap = new PriorityQueue<>(Math.min(limit, POLL_HEAP_MAX) + 1, POLL_ORDER.reversed());
+        for (Long id : jobData.getDueExecutionIds(WorkhorseUtil.toEpochMilli(currentTimeStamp))) {
 
-            if (execution.getJobId().equals(jobId) && (execution.getStatus() == ExecutionStatus.QUEUED || execution.getStatus() == ExecutionStatus.PLANNED)
+            Execution execution = jobData.executions.get(id);
+            if (execution != null && (execution.getStatus() == ExecutionStatus.QUEUED || execution.getStatus() == ExecutionStatus.PLANNED)
                             && (execution.getPlannedFor() == null || execution.getPlannedFor().isBefore(currentTimeStamp))
-                            && (execution.getChainId() == null || execution.getId().equals(execution.getChainId())) && executions.size() < limit) {
+                            && (execution.getChainId() == null || execution.getId().equals(execution.getChainId()))) {
 
-                executions.add(execution);
+                if (heap.size() < limit) {
+                    heap.add(execution);
+                } else if (POLL_ORDER.compare(execution, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(execution);
+                }
             }
         }
 
-        Comparator<Execution> sortByPriority = (Execution e1, Execution e2) -> Boolean.compare(e1.isPriority(), e2.isPriority());
-        Collections.sort(executions, sortByPriority);
-
+        // highest priority level first, FIFO within a level
+        List<Execution> executions = new ArrayList<>(heap);
+        executions.sort(POLL_ORDER);
         return executions;
     }
 
@@ -121,12 +235,38 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
 
         execution.setUpdatedAt(WorkhorseUtil.timestamp());
 
-        if (memoryPersistence.getJobDataMap().get(execution.getJobId()).executions.put(execution.getId(), execution) == null) {
+        JobData jobData = memoryPersistence.getJobDataMap().get(execution.getJobId());
+        if (jobData.executions.put(execution.getId(), execution) == null) {
             return null;
         }
+        jobData.index(execution);
         return execution;
     }
 
+    @Override
+    public List<Execution> updateAll(List<Execution> executions) {
+
+        LocalDateTime updatedAt = WorkhorseUtil.timestamp();
+        List<Execution> updatedExecutions = new ArrayList<>(executions.size());
+        Long jobId = null;
+        JobData jobData = null;
+
+        for (Execution execution : executions) {
+            if (jobData == null || !jobId.equals(execution.getJobId())) {
+                jobId = execution.getJobId();
+                jobData = memoryPersistence.getJobDataMap().get(jobId);
+            }
+            execution.setUpdatedAt(updatedAt);
+            if (jobData.executions.put(execution.getId(), execution) == null) {
+                updatedExecutions.add(null);
+            } else {
+                jobData.index(execution);
+                updatedExecutions.add(execution);
+            }
+        }
+        return updatedExecutions;
+    }
+
     @Override
     public Execution updateStatus(Long jobId, Long executionId, ExecutionStatus status, ExecutionFailStatus failStatus) {
 
@@ -139,6 +279,60 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
         return update(execution);
     }
 
+    @Override
+    public Execution claim(Long jobId, Long executionId) {
+
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+        if (jobData == null) {
+            return null;
+        }
+        // the status is compared and set atomically for the key of the execution
+        Execution[] claimed = new Execution[1];
+        jobData.executions.computeIfPresent(executionId, (id, execution) -> {
+            if (execution.getStatus() == ExecutionStatus.QUEUED) {
+                LocalDateTime timestamp = WorkhorseUtil.timestamp();
+                execution.setStatus(ExecutionStatus.RUNNING);
+                execution.setFailStatus(ExecutionFailStatus.NONE);
+                execution.setStartedAt(timestamp);
+                execution.setUpdatedAt(timestamp);
+                claimed[0] = execution;
+            }
+            return execution;
+        });
+        if (claimed[0] != null) {
+            jobData.index(claimed[0]);
+        }
+        return claimed[0];
+    }
+
+    @Override
+    public List<Execution> queuePlanned(Long jobId, List<Long> executionIds) {
+
+        List<Execution> queuedExecutions = new ArrayList<>(executionIds.size());
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+        if (jobData == null) {
+            return queuedExecutions;
+        }
+        LocalDateTime timestamp = WorkhorseUtil.timestamp();
+        for (Long executionId : executionIds) {
+            // the status is compared and set atomically for the key of the execution
+            Execution[] queued = new Execution[1];
+            jobData.executions.computeIfPresent(executionId, (id, execution) -> {
+                if (execution.getStatus() == ExecutionStatus.PLANNED) {
+                    execution.setStatus(ExecutionStatus.QUEUED);
+                    execution.setUpdatedAt(timestamp);
+                    queued[0] = execution;
+                }
+                return execution;
+            });
+            if (queued[0] != null) {
+                jobData.index(queued[0]);
+                queuedExecutions.add(queued[0]);
+            }
+        }
+        return queuedExecutions;
+    }
+
     @Override
     public boolean isBatchFinished(Long jobId, Long batchId) {
         return getQueuedBatchExecution(jobId, batchId) == null ? true : false;
@@ -146,30 +340,25 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
 
     private Execution getQueuedBatchExecution(Long jobId, Long batchId) {
 
-        ListingParameters listingParameters = new ListingParameters(1);
-        listingParameters.addFilterAttributes("status", ExecutionStatus.QUEUED);
-        listingParameters.addFilterAttributes("batchId", batchId);
-
-        ListingResult<Execution> executionListing = getExecutionListing(jobId, listingParameters);
-
-        if (executionListing.getResults().isEmpty()) {
-            return null;
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+        for (Long id : jobData.getExecutionIds(ExecutionStatus.QUEUED)) {
+            Execution execution = jobData.executions.get(id);
+            if (execution != null && execution.getStatus() == ExecutionStatus.QUEUED && batchId.equals(execution.getBatchId())) {
+                return execution;
+            }
         }
-        return executionListing.getResults().get(0);
+        return null;
     }
 
     @Override
     public boolean abortChain(Long jobId, Long chainId) {
 
-        ListingParameters listingParameters = new ListingParameters(0);
-        listingParameters.addFilterAttributes("status", ExecutionStatus.QUEUED);
-        listingParameters.addFilterAttributes("chainId", chainId);
-
-        ListingResult<Execution> executionListing = getExecutionListing(jobId, listingParameters);
-
-        for (Execution execution : executionListing.getResults()) {
-            execution.setStatus(ExecutionStatus.FAILED);
-            update(execution);
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+        for (Execution execution : getExecutions(jobData, ExecutionStatus.QUEUED)) {
+            if (chainId.equals(execution.getChainId())) {
+                execution.setStatus(ExecutionStatus.FAILED);
+                update(execution);
+            }
         }
         return true;
     }
@@ -190,7 +379,8 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
 
         ListingParameters listingParameters = new ListingParameters(0);
         listingParameters.addFilterAttributes("chainId", chainId);
-        listingParameters.setSortAttribute(CollectionListing.SORT_ASC + "createdAt");
+        // the executions of a chain share their creation time, the IDs give their order
+        listingParameters.setSortAttribute(CollectionListing.SORT_ASC + "id");
 
         return getExecutionListing(jobId, listingParameters).getResults();
     }
@@ -202,38 +392,40 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
         jobData.executions.remove(executionId);
         jobData.executionLogs.remove(executionId);
         jobData.orderedIds.remove(executionId);
+        jobData.unindex(executionId);
+        memoryPersistence.getExecutionJobIndex().remove(executionId);
     }
 
     @Override
     public int deleteOlderExecutions(Long jobId, LocalDateTime preDate) {
 
         long millis = WorkhorseUtil.toEpochMilli(preDate);
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
 
-        ListingParameters listingParameters = new ListingParameters(0);
-        listingParameters.addFilterAttributes("status", ExecutionStatus.FINISHED + CollectionListing.OPERATOR_OR + ExecutionStatus.FAILED);
-        listingParameters.addFilterAttributes("createdAt", CollectionListing.OPERATOR_LT + millis);
-
-        ListingResult<Execution> executionListing = getExecutionListing(jobId, listingParameters);
+        List<Execution> executions = getExecutions(jobData, ExecutionStatus.FINISHED);
+        executions.addAll(getExecutions(jobData, ExecutionStatus.FAILED));
 
-        for (Execution execution : executionListing.getResults()) {
-            delete(jobId, execution.getId());
+        int deleted = 0;
+        for (Execution execution : executions) {
+            if (execution.getCreatedAt() != null && WorkhorseUtil.toEpochMilli(execution.getCreatedAt()) < millis) {
+                delete(jobId, execution.getId());
+                deleted++;
+            }
         }
-        return executionListing.getResults().size();
+        return deleted;
     }
 
     @Override
     public Execution getFirstCreatedByJobIdAndParametersHash(Long jobId, Integer parameterHash) {
 
-        ListingParameters listingParameters = new ListingParameters(1);
-        listingParameters.addFilterAttributes("status", ExecutionStatus.QUEUED);
-        listingParameters.addFilterAttributes("parametersHash", parameterHash);
-
-        ListingResult<Execution> executionListing = getExecutionListing(jobId, listingParameters);
-
-        if (executionListing.getResults().isEmpty()) {
-            return null;
+        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
+        for (Long id : jobData.getExecutionIds(ExecutionStatus.QUEUED)) {
+            Execution execution = jobData.executions.get(id);
+            if (execution != null && execution.getStatus() == ExecutionStatus.QUEUED && Objects.equals(parameterHash, execution.getParametersHash())) {
+                return execution;
+            }
         }
-        return executionListing.getResults().get(0);
+        return null;
     }
 
     @Override
@@ -242,16 +434,12 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
         List<Execution> executions = new ArrayList<>();
         long millis = WorkhorseUtil.toEpochMilli(time);
 
-        for (Long jobId : memoryPersistence.getJobDataMap().keySet()) {
-
-            ListingParameters listingParameters = new ListingParameters(0);
-            listingParameters.addFilterAttributes("status", ExecutionStatus.RUNNING);
-
-            listingParameters.addFilterAttributes("startedAt", CollectionListing.OPERATOR_LT + millis);
-
-            ListingResult<Execution> executionListing = getExecutionListing(jobId, listingParameters);
-
-            executions.addAll(executionListing.getResults());
+        for (JobData jobData : memoryPersistence.getJobDataMap().values()) {
+            for (Execution execution : getExecutions(jobData, ExecutionStatus.RUNNING)) {
+                if (execution.getStartedAt() != null && WorkhorseUtil.toEpochMilli(execution.getStartedAt()) < millis) {
+                    executions.add(execution);
+                }
+            }
         }
         return executions;
     }
@@ -259,49 +447,61 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
     @Override
     public ExecutionLog getLog(Long jobId, Long executionId) {
 
-        return memoryPersistence.getJobDataMap().get(jobId).executionLogs.get(executionId);
+        MemoryExecutionLog executionLog = memoryPersistence.getJobDataMap().get(jobId).executionLogs.get(executionId);
+        return executionLog == null ? null : executionLog.toExecutionLog();
     }
 
     @Override
     public void log(Long jobId, Long executionId, String log) {
 
-        JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
-        ExecutionLog executionLog = jobData.executionLogs.get(executionId);
-
-        if (executionLog == null) {
-
-            executionLog = new ExecutionLog();
-            executionLog.setId(executionId);
-            executionLog.setExecutionId(executionId);
-            executionLog.setCreatedAt(WorkhorseUtil.timestamp());
-            executionLog.setLog(log);
+        getOrCreateLog(jobId, executionId).append(log, getMaxExecutionLogSize());
+    }
 
-        } else {
+    @Override
+    public void logAll(Long jobId, Long executionId, List<String> logs) {
 
-            executionLog.setLog(executionLog.getLog() + System.lineSeparator() + log);
-            executionLog.setUpdatedAt(WorkhorseUtil.timestamp());
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        MemoryExecutionLog executionLog = getOrCreateLog(jobId, executionId);
+        int maxExecutionLogSize = getMaxExecutionLogSize();
+        for (String log : logs) {
+            executionLog.append(log, maxExecutionLogSize);
         }
-        jobData.executionLogs.put(executionId, executionLog);
     }
 
     @Override
     public void logStacktrace(Long jobId, Long executionId, String stacktrace) {
 
+        getOrCreateLog(jobId, executionId).setStacktrace(stacktrace);
+    }
+
+    /**
+     * @return the log of the execution, a new log gets its creation timestamp and an existing one its update timestamp
+     */
+    private MemoryExecutionLog getOrCreateLog(Long jobId, Long executionId) {
+
         JobData jobData = memoryPersistence.getJobDataMap().get(jobId);
-        ExecutionLog executionLog = jobData.executionLogs.get(executionId);
+        MemoryExecutionLog executionLog = jobData.executionLogs.get(executionId);
 
         if (executionLog == null) {
-
-            executionLog = new ExecutionLog();
-            executionLog.setId(executionId);
-            executionLog.setExecutionId(executionId);
-            executionLog.setCreatedAt(WorkhorseUtil.timestamp());
-        } else {
-            executionLog.setUpdatedAt(WorkhorseUtil.timestamp());
+            MemoryExecutionLog newExecutionLog = new MemoryExecutionLog(executionId, WorkhorseUtil.timestamp());
+            executionLog = jobData.executionLogs.putIfAbsent(executionId, newExecutionLog);
+            if (executionLog == null) {
+                return newExecutionLog;
+            }
         }
-        executionLog.setStacktrace(stacktrace);
+        executionLog.setUpdatedAt(WorkhorseUtil.timestamp());
+        return executionLog;
+    }
 
-        jobData.executionLogs.put(executionId, executionLog);
+    private int getMaxExecutionLogSize() {
+
+        WorkhorseConfig workhorseConfig = memoryPersistence.getWorkhorseConfig();
+        if (workhorseConfig instanceof MemoryConfig) {
+            return ((MemoryConfig) workhorseConfig).getMaxExecutionLogSize();
+        }
+        return 0;
     }
 
     @Override
@@ -311,18 +511,19 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
 
         for (Job job : memoryPersistence.getJobs().values()) {
 
-            ListingParameters listingParameters = new ListingParameters(0);
-            listingParameters.addFilterAttributes("status", status);
-
-            if (since != null) {
-                long millis = WorkhorseUtil.toEpochMilli(since);
-                listingParameters.addFilterAttributes("createdAt", CollectionListing.OPERATOR_GT + millis);
+            JobData jobData = memoryPersistence.getJobDataMap().get(job.getId());
+            if (jobData == null) {
+                continue;
+            }
+            long count;
+            if (since == null) {
+                count = jobData.countExecutions(status);
+            } else {
+                count = jobData.countExecutions(status, WorkhorseUtil.toEpochMilli(since) + 1, Long.MAX_VALUE);
             }
-
-            int count = getExecutionListing(job.getId(), listingParameters).getResults().size();
             // Only job with executions in the given status are considered
             if (count > 0) {
-                result.add(new JobExecutionStatusSummary(status, Long.valueOf(count), job));
+                result.add(new JobExecutionStatusSummary(status, count, job));
             }
         }
         return result;
@@ -346,35 +547,40 @@ public class MemoryExecutionPersistence implements ExecutionPersistence {
         long countAbort = 0L;
         long countQueued = 0L;
 
-        ListingParameters listingParameters = new ListingParameters(0);
-
         long fromMillis = WorkhorseUtil.toEpochMilli(from);
         long toMillis = WorkhorseUtil.toEpochMilli(to);
 
-        listingParameters.addFilterAttributes("createdAt", fromMillis + CollectionListing.OPERATOR_TO + toMillis);
-
         for (Job job : jobs) {
 
-            listingParameters.addFilterAttributes("status", ExecutionStatus.PLANNED);
-            countPlanned = countPlanned + getExecutionListing(job.getId(), listingParameters).getMetadata().getCount();
-
-            listingParameters.addFilterAttributes("status", ExecutionStatus.QUEUED);
-            countQueued = countQueued + getExecutionListing(job.getId(), listingParameters).getMetadata().getCount();
-
-            listingParameters.addFilterAttributes("status", ExecutionStatus.RUNNING);
-            countRunning = countRunning + getExecutionListing(job.getId(), listingParameters).getMetadata().getCount();
+            JobData jobData = memoryPersistence.getJobDataMap().get(job.getId());
+            if (jobData == null) {
+                continue;
+            }
+            // answered from the per minute counters of the job
+            countPlanned = countPlanned + jobData.countExecutions(ExecutionStatus.PLANNED, fromMillis, toMillis);
+            countQueued = countQueued + jobData.countExecutions(ExecutionStatus.QUEUED, fromMillis, toMillis);
+            countRunning = countRunning + jobData.countExecutions(ExecutionStatus.RUNNING, fromMillis, toMillis);
+            countFinished = countFinished + jobData.countExecutions(ExecutionStatus.FINISHED, fromMillis, toMillis);
+            countFailed = countFailed + jobData.countExecutions(ExecutionStatus.FAILED, fromMillis, toMillis);
+            countAbort = countAbort + jobData.countExecutions(ExecutionStatus.ABORTED, fromMillis, toMillis);
+        }
 
-            listingParameters.addFilterAttributes("status", ExecutionStatus.FINISHED);
-            countFinished = countFinished + getExecutionListing(job.getId(), listingParameters).getMetadata().getCount();
+        return new ExecutionStatusCounts(jobId, from, to, countPlanned, countQueued, countRunning, countFinished, countFailed, countAbort);
+    }
 
-            listingParameters.addFilterAttributes("status", ExecutionStatus.FAILED);
-            countFailed = countFailed + getExecutionListing(job.getId(), listingParameters).getMetadata().getCount();
+    /**
+     * @return the executions of the job that are currently in the given status
+     */
+    private static List<Execution> getExecutions(JobData jobData, ExecutionStatus status) {
 
-            listingParameters.addFilterAttributes("status", ExecutionStatus.ABORTED);
-            countAbort = countAbort + getExecutionListing(job.getId(), listingParameters).getMetadata().getCount();
+        List<Execution> executions = new ArrayList<>();
+        for (Long id : jobData.getExecutionIds(status)) {
+            Execution execution = jobData.executions.get(id);
+            if (execution != null && execution.getStatus() == status) {
+                executions.add(execution);
+            }
         }
-
-        return new ExecutionStatusCounts(jobId, from, to, countPlanned, countQueued, countRunning, countFinished, countFailed, countAbort);
+        return executions;
     }
 
     @Override
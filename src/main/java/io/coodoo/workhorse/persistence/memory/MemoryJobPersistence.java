@@ -39,7 +39,7 @@ public class MemoryJobPersistence implements JobPersistence {
     public ListingResult<Job> getJobListing(ListingParameters listingParameters) {
 
         Collection<Job> jobs = memoryPersistence.getJobs().values();
-        return CollectionListing.getListingResult(jobs, Job.class, listingParameters);
+        return CollectionListing.getListingResult(jobs, Job.class, listingParameters, memoryPersistence.getListingParallelThreshold());
     }
 
     @Override
@@ -47,12 +47,8 @@ public class MemoryJobPersistence implements JobPersistence {
 
         ListingParameters listingParameters = new ListingParameters(1);
         listingParameters.addFilterAttributes("workerClassName", jobClassName);
-        ListingResult<Job> listingResult = getJobListing(listingParameters);
 
-        if (listingResult.getResults().isEmpty()) {
-            return null;
-        }
-        return listingResult.getResults().get(0);
+        return CollectionListing.getFirstResult(memoryPersistence.getJobs().values(), Job.class, listingParameters);
     }
 
     @Override
@@ -78,7 +74,12 @@ public class MemoryJobPersistence implements JobPersistence {
 
     @Override
     public void deleteJob(Long jobId) {
-        memoryPersistence.getJobDataMap().remove(jobId);
+        JobData jobData = memoryPersistence.getJobDataMap().remove(jobId);
+        if (jobData != null) {
+            for (Long executionId : jobData.executions.keySet()) {
+                memoryPersistence.getExecutionJobIndex().remove(executionId);
+            }
+        }
     }
 
     @Override
@@ -96,12 +97,8 @@ public class MemoryJobPersistence implements JobPersistence {
 
         ListingParameters listingParameters = new ListingParameters(1);
         listingParameters.addFilterAttributes("name", jobName);
-        ListingResult<Job> listingResult = getJobListing(listingParameters);
 
-        if (listingResult.getResults().isEmpty()) {
-            return null;
-        }
-        return listingResult.getResults().get(0);
+        return CollectionListing.getFirstResult(memoryPersistence.getJobs().values(), Job.class, listingParameters);
     }
 
     @Override
@@ -126,30 +123,20 @@ public class MemoryJobPersistence implements JobPersistence {
 
     @Override
     public Long countByStatus(JobStatus jobStatus) {
-        return Long.valueOf(getAllByStatus(jobStatus).size());
-    }
-
-    @Override
-    public JobStatusCount getJobStatusCount() {
-
-        long countActive = 0L;
-        long countInactive = 0L;
-        long countError = 0L;
-        long countNoWorker = 0L;
 
         ListingParameters listingParameters = new ListingParameters(0);
+        listingParameters.addFilterAttributes("status", quoted(jobStatus));
 
-        listingParameters.addFilterAttributes("status", quoted(JobStatus.ACTIVE));
-        countActive = countActive + getJobListing(listingParameters).getMetadata().getCount();
-
-        listingParameters.addFilterAttributes("status", quoted(JobStatus.INACTIVE));
-        countInactive = countInactive + getJobListing(listingParameters).getMetadata().getCount();
+        return CollectionListing.count(memoryPersistence.getJobs().values(), Job.class, listingParameters);
+    }
 
-        listingParameters.addFilterAttributes("status", quoted(JobStatus.NO_WORKER));
-        countNoWorker = countNoWorker + getJobListing(listingParameters).getMetadata().getCount();
+    @Override
+    public JobStatusCount getJobStatusCount() {
 
-        listingParameters.addFilterAttributes("status", quoted(JobStatus.ERROR));
-        countError = countError + getJobListing(listingParameters).getMetadata().getCount();
+        long countActive = countByStatus(JobStatus.ACTIVE);
+        long countInactive = countByStatus(JobStatus.INACTIVE);
+        long countError = countByStatus(JobStatus.ERROR);
+        long countNoWorker = countByStatus(JobStatus.NO_WORKER);
 
         return new JobStatusCount(countActive, countInactive, countNoWorker, countError);
     }
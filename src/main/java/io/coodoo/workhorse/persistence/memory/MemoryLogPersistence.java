@@ -36,7 +36,7 @@ public class MemoryLogPersistence implements LogPersistence {
     public ListingResult<WorkhorseLog> getWorkhorseLogListing(ListingParameters listingParameters) {
 
         Collection<WorkhorseLog> logs = memoryPersistence.getWorkhorseLog().values();
-        return CollectionListing.getListingResult(logs, WorkhorseLog.class, listingParameters);
+        return CollectionListing.getListingResult(logs, WorkhorseLog.class, listingParameters, memoryPersistence.getListingParallelThreshold());
     }
 
     @Override
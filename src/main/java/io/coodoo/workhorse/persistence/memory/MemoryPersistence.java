@@ -8,14 +8,16 @@ import javax.enterprise.context.ApplicationScoped;
 import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.WorkhorseConfig;
 import io.coodoo.workhorse.core.entity.WorkhorseLog;
+import io.coodoo.workhorse.util.CollectionListing;
 
 @ApplicationScoped
 public class MemoryPersistence {
 
-    private WorkhorseConfig workhorseConfig;
+    private volatile WorkhorseConfig workhorseConfig;
     private Map<Long, WorkhorseLog> workhorseLog = new ConcurrentHashMap<>();
     private Map<Long, Job> jobs = new ConcurrentHashMap<>();
     private Map<Long, JobData> jobDataMap = new ConcurrentHashMap<>();
+    private final ExecutionJobIndex executionJobIndex = new ExecutionJobIndex();
 
     public Map<Long, JobData> getJobDataMap() {
         return jobDataMap;
@@ -25,15 +27,29 @@ public class MemoryPersistence {
         this.jobDataMap = jobDataMap;
     }
 
-    public synchronized WorkhorseConfig getWorkhorseConfig() {
+    public ExecutionJobIndex getExecutionJobIndex() {
+        return executionJobIndex;
+    }
+
+    public WorkhorseConfig getWorkhorseConfig() {
         return workhorseConfig;
     }
 
-    public synchronized WorkhorseConfig setWorkhorseConfig(WorkhorseConfig workhorseConfig) {
+    public WorkhorseConfig setWorkhorseConfig(WorkhorseConfig workhorseConfig) {
         this.workhorseConfig = workhorseConfig;
         return workhorseConfig;
     }
 
+    /**
+     * @return minimum number of entities of a listing to evaluate them in parallel, see {@link MemoryConfig#getListingParallelThreshold()}
+     */
+    public int getListingParallelThreshold() {
+        if (workhorseConfig instanceof MemoryConfig) {
+            return ((MemoryConfig) workhorseConfig).getListingParallelThreshold();
+        }
+        return CollectionListing.DEFAULT_PARALLEL_THRESHOLD;
+    }
+
     public Map<Long, Job> getJobs() {
         return jobs;
     }
@@ -1,26 +1,21 @@
 package io.coodoo.workhorse.util;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.time.DateTimeException;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import io.coodoo.workhorse.core.control.StaticConfig;
 import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
 import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
 import io.coodoo.workhorse.persistence.interfaces.listing.Metadata;
@@ -28,22 +23,43 @@ import io.coodoo.workhorse.persistence.interfaces.listing.Metadata;
 /**
  * This is based on https://github.com/coodoo-io/coodoo-listing but it works on Java Collections instead of JPA
  * 
+ * The filter and sort attributes are compiled to a {@link ListingQueryPlan} once and reused by every listing with the same attributes. Collections from
+ * {@link #DEFAULT_PARALLEL_THRESHOLD} entities on get evaluated in parallel by the {@link ForkJoinPool#commonPool()}. Listings with a
+ * {@link ListingParameters#getCursor() cursor} only keep the next page after the cursor, see {@link ListingCursor}.
+ * 
  * @author coodoo GmbH (coodoo.io)
  */
 public class CollectionListing {
 
-    private static Logger log = LoggerFactory.getLogger(CollectionListing.class);
+    private static final String BLANC = " ";
 
-    private static final String REGEX_LONG = "[-+]?\\d{1,37}";
-    private static final String REGEX_INT = "[-+]?\\d{1,10}";
-    private static final String REGEX_SHORT = "[-+]?\\d{1,5}";
-    private static final String REGEX_FLOAT = "[-+]?\\d*[.,]?\\d+";
-    private static final String REGEX_DOUBLE = "[-+]?\\d*[.,]?\\d+";
-    // _______________________Group_numbers:__12______________34______________5_________
-    private static final String REGEX_DATE = "((\\d{1,2})\\D)?((\\d{1,2})\\D)?(\\d{2,})";
+    /**
+     * Maximum number of compiled filter and sort attributes that are kept, the least recently used ones get evicted
+     */
+    private static final int QUERY_PLAN_CACHE_SIZE = 256;
 
-    private static final String EMPTY = "";
-    private static final String BLANC = " ";
+    /**
+     * Maximum number of sorted results up to the end of the requested page, that get selected by a bounded heap instead of sorting all matches
+     */
+    private static final int TOP_K_MAX = 10_000;
+
+    @SuppressWarnings("serial")
+    private static final Map<List<Object>, ListingQueryPlan<?>> queryPlans = new LinkedHashMap<List<Object>, ListingQueryPlan<?>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, ListingQueryPlan<?>> eldest) {
+            return size() > QUERY_PLAN_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Guards the query plans
+     */
+    private static final ReentrantLock queryPlansLock = new ReentrantLock();
+
+    /**
+     * Default minimum size of a collection that gets evaluated in parallel
+     */
+    public static int DEFAULT_PARALLEL_THRESHOLD = 100_000;
 
     /**
      * Default index for pagination
@@ -198,6 +214,7 @@ public class CollectionListing {
      * <li><strong>limit</strong>: Amount of maximal expected results per request to fit on a page (default = 10)</li>
      * <li><strong>page</strong>: Current page (default = 1)</li>
      * <li><strong>index</strong>: Index (default = 0)</li>
+     * <li><strong>cursor</strong>: Continues after the last result of the previous page instead of using page and index, see {@link ListingCursor}</li>
      * </ul>
      * 
      * @param <T> type of target entity class
@@ -214,64 +231,64 @@ public class CollectionListing {
      *         <li><strong>sort</strong>: Current order by this row (ascending except if it starts with "-" = descending)</li>
      *         <li><strong>startIndex</strong>: Index of the first result in this page (pagination)</li>
      *         <li><strong>endIndex</strong>: Index of the last result in this page (pagination)</li>
+     *         <li><strong>nextCursor</strong>: Cursor of the next page or <code>null</code> on the last page (cursor pagination, the count is not
+     *         determined)</li>
      *         </ul>
      */
     public static <T> ListingResult<T> getListingResult(Collection<T> collection, Class<T> clazz, ListingParameters listingParameters) {
+        return getListingResult(collection, clazz, listingParameters, DEFAULT_PARALLEL_THRESHOLD);
+    }
 
-        List<Predicate<T>> allPredicates = new ArrayList<Predicate<T>>();
-        Map<String, Field> fields = getFields(clazz);
-        Map<String, String> filterAttributes = listingParameters.getFilterAttributes();
+    /**
+     * Gets the listing result as described in {@link #getListingResult(Collection, Class, ListingParameters)}. A collection that has at least the given number
+     * of entities gets split into ranges that are filtered in parallel by the {@link ForkJoinPool#commonPool()}. Every range only keeps the matches up to the
+     * end of the requested page, so the ranges are merged without sorting all matches. The result is the same as the one of the sequential evaluation. On a
+     * single processor the collection always gets evaluated sequentially.
+     * 
+     * @param <T> type of target entity class
+     * @param collection entities to list
+     * @param clazz target entity class
+     * @param listingParameters defines the listing queue as described in {@link #getListingResult(Collection, Class, ListingParameters)}
+     * @param parallelThreshold minimum size of the collection to evaluate it in parallel, <code>0</code> never evaluates in parallel
+     * @return a {@link ListingResult} object containing metadata and the resulting list of the target entity instances (sublist in case of pagination)
+     */
+    public static <T> ListingResult<T> getListingResult(Collection<T> collection, Class<T> clazz, ListingParameters listingParameters,
+                    int parallelThreshold) {
+        // a single processor gains nothing by splitting the collection
+        int threshold = Runtime.getRuntime().availableProcessors() > 1 ? parallelThreshold : 0;
+        return getListingResult(collection, clazz, listingParameters, threshold, ForkJoinPool.commonPool());
+    }
 
-        if (filterAttributes != null && !filterAttributes.isEmpty()) {
+    static <T> ListingResult<T> getListingResult(Collection<T> collection, Class<T> clazz, ListingParameters listingParameters, int parallelThreshold,
+                    ForkJoinPool pool) {
 
-            for (String attribute : filterAttributes.keySet()) {
-                if (attribute == null || attribute.isEmpty()) {
-                    continue;
-                }
-                String filter = filterAttributes.get(attribute);
+        ListingQueryPlan<T> queryPlan = getQueryPlan(clazz, listingParameters);
+        int limit = listingParameters.getLimit();
 
-                if (filter == null || filter.isEmpty()) {
-                    continue;
-                }
-                if (attribute.contains(OPERATOR_OR) || attribute.contains(OPERATOR_OR_WORD)) {
-                    // a filter can be applied on many fields, joined by a "|" (OPERATOR_OR), those get conjuncted
-                    List<String> orAttributes = splitOr(attribute.replaceAll(escape(OPERATOR_OR_WORD), OPERATOR_OR));
-
-                    // many attributes for one or many filter
-                    List<Predicate<T>> orPredicates = new ArrayList<Predicate<T>>();
-                    for (String orAttribute : orAttributes) {
-                        Field field = fields.get(orAttribute);
-                        if (field == null) {
-                            continue;
-                        }
-                        if (filter.contains(OPERATOR_OR) || filter.contains(OPERATOR_OR_WORD)) {
-                            String escapedFilter = filter.replaceAll(escape(OPERATOR_OR_WORD), OPERATOR_OR).replaceAll(escape(OPERATOR_OR), "|");
-                            orPredicates.add(createPredicate(clazz, field, escapedFilter));
-                        } else {
-                            orPredicates.add(createPredicate(clazz, field, filter));
-                        }
-                    }
-                    allPredicates.add(orPredicates.stream().reduce(x -> false, Predicate::or));
-                } else {
-                    Field field = fields.get(attribute);
-                    if (field == null) {
-                        continue;
-                    }
-                    if (filter.contains(OPERATOR_OR) || filter.contains(OPERATOR_OR_WORD)) {
-                        // one attribute for many filter
-                        List<String> orFilters = splitOr(filter.replaceAll(escape(OPERATOR_OR_WORD), OPERATOR_OR));
-                        allPredicates.add(orFilters.stream().map(f -> createPredicate(clazz, field, f)).reduce(x -> false, Predicate::or));
-                    } else {
-                        // one attribute for one filter
-                        allPredicates.add(createPredicate(clazz, field, filter));
-                    }
-                }
+        ListingCursor cursor = ListingCursor.of(clazz, listingParameters);
+        if (cursor != null) {
+            return getCursorPage(collection, queryPlan, cursor, listingParameters);
+        }
+
+        if (parallelThreshold > 0 && collection.size() >= parallelThreshold) {
+            return getParallelPages(collection.toArray(), queryPlan, listingParameters, pool);
+        }
+
+        if (limit > 0) {
+            long from = (long) limit * listingParameters.getPage() - limit;
+            long to = from + limit;
+
+            if (!queryPlan.isSorted()) {
+                return getFirstPages(collection, queryPlan, listingParameters, from, to);
+            }
+            if (to <= TOP_K_MAX && to < collection.size()) {
+                return getTopPages(collection, queryPlan, listingParameters, from, to);
             }
         }
 
-        List<T> filteredList = collection.stream().filter(allPredicates.stream().reduce(x -> true, Predicate::and)).collect(Collectors.toList());
+        List<T> filteredList = queryPlan.filter(collection);
 
-        sort(clazz, listingParameters, fields, filteredList);
+        queryPlan.sort(filteredList);
 
         Metadata metadata = new Metadata(new Long(filteredList.size()), listingParameters);
 
@@ -281,624 +298,230 @@ public class CollectionListing {
         return new ListingResult<T>(filteredList, metadata);
     }
 
-    private static <T> void sort(Class<T> clazz, ListingParameters listingParameters, Map<String, Field> fields, List<T> filteredList) {
-
-        String sort = listingParameters.getSortAttribute();
-
-        if (sort != null && !sort.isEmpty()) {
-            boolean asc = true;
-            if (sort.startsWith(SORT_ASC)) {
-                sort = sort.replace(SORT_ASC, EMPTY);
-            } else if (sort.startsWith(SORT_DESC)) {
-                sort = sort.replace(SORT_DESC, EMPTY);
-                asc = false;
-            }
-            Field field = fields.get(sort);
-
-            if (field != null) {
-
-                if (Comparable.class.isAssignableFrom(field.getType()) || field.getType().isPrimitive()) {
-                    Collections.sort(filteredList, new Comparator<T>() {
-                        @SuppressWarnings({"rawtypes", "unchecked"})
-                        public int compare(T e1, T e2) {
-                            try {
-                                field.setAccessible(true);
-                                Comparable val1 = (Comparable) field.get(e1);
-                                Comparable val2 = (Comparable) field.get(e2);
-
-                                if (val1 == null) {
-                                    if (val2 == null) {
-                                        return 0;
-                                    }
-                                    return -1;
-                                }
-                                if (val2 == null) {
-                                    return 1;
-                                }
-                                return val1.compareTo(val2);
-                            } catch (RuntimeException e) {
-                                throw e;
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        }
-                    });
-                } else {
-                    log.error("Can't compare on attribute '{}' on class {}", field.getName(), clazz.getName());
-                }
-                if (!asc) {
-                    Collections.reverse(filteredList);
-                }
-            }
-        }
+    /**
+     * Gets the first entity that matches the filter attributes of the listing parameters. Without a sort attribute this stops at the first match, otherwise it
+     * is a single pass over the collection without sorting it. The pagination gets ignored.
+     * 
+     * @param <T> type of target entity class
+     * @param collection entities to search
+     * @param clazz target entity class
+     * @param listingParameters filter and sort attributes as described in {@link #getListingResult(Collection, Class, ListingParameters)}
+     * @return the first matching entity or <code>null</code> if nothing matches
+     */
+    public static <T> T getFirstResult(Collection<T> collection, Class<T> clazz, ListingParameters listingParameters) {
+        return getQueryPlan(clazz, listingParameters).first(collection);
     }
 
-    private static <T> Predicate<T> createPredicate(Class<T> clazz, Field field, String filter) {
-        if (filter.startsWith(OPERATOR_NOT)) {
-            return createFilterPredicate(clazz, field, filter.replaceFirst(OPERATOR_NOT, "")).negate();
-        }
-        if (filter.startsWith(OPERATOR_NOT_WORD)) {
-            return createFilterPredicate(clazz, field, filter.replaceFirst(OPERATOR_NOT_WORD, "")).negate();
-        }
-        return createFilterPredicate(clazz, field, filter);
+    /**
+     * Counts the entities that match the filter attributes of the listing parameters without collecting them. This is the same as
+     * <code>getListingResult(collection, clazz, listingParameters).getMetadata().getCount()</code>.
+     * 
+     * @param <T> type of target entity class
+     * @param collection entities to count
+     * @param clazz target entity class
+     * @param listingParameters filter attributes as described in {@link #getListingResult(Collection, Class, ListingParameters)}
+     * @return number of matching entities
+     */
+    public static <T> long count(Collection<T> collection, Class<T> clazz, ListingParameters listingParameters) {
+        return getQueryPlan(clazz, listingParameters).count(collection);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private static <T> Predicate<T> createFilterPredicate(Class<T> clazz, Field field, String filter) {
-
-        String fieldName = field.getName();
-        String simpleName = field.getType().getSimpleName();
-
-        // Nulls
-        if (matches(filter, OPERATOR_NULL)) {
-            return instance -> {
-                try {
-                    field.setAccessible(true);
-                    return field.get(instance) == null;
-                } catch (IllegalArgumentException | IllegalAccessException e) {
-                    return false;
-                }
-            };
-        }
+    /**
+     * Gets the page after the cursor of the listing parameters from entities that are already in the order of the cursor (see {@link ListingCursor}), like an
+     * index of the persistence. The entities up to the cursor are expected to be skipped by the iterator, it only gets consumed until the page is full.
+     * 
+     * @param <T> type of target entity class
+     * @param ordered entities after the cursor, in the order of the cursor
+     * @param clazz target entity class
+     * @param listingParameters filter attributes, limit and cursor
+     * @return a {@link ListingResult} object containing the page and the cursor of the next page
+     */
+    public static <T> ListingResult<T> getCursorListingResult(Iterator<T> ordered, Class<T> clazz, ListingParameters listingParameters) {
 
-        switch (simpleName) {
-
-            case "String":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        if (object != null) {
-                            String string = (String) object;
-                            if (isQuoted(filter)) { // quoted values needs an exact match
-                                return string.toLowerCase().equals(removeQuotes(filter).toLowerCase());
-                            }
-                            return string.toLowerCase().matches(likeValue(filter));
-                        } else {
-                            return false;
-                        }
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "LocalDateTime":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        LocalDateTime value = (LocalDateTime) object;
-                        if (value != null) {
-                            long valueMillis = WorkhorseUtil.toEpochMilli(value);
-                            if (validDate(filter)) {
-                                Long ltMillis = parseDateTimeToMillis(filter, false);
-                                Long gtMillis = parseDateTimeToMillis(filter, true);
-                                return ltMillis <= valueMillis && valueMillis <= gtMillis;
-                            }
-                            if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
-                                String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
-                                if (validDate(ltFilter)) {
-                                    Long filterMillis = parseDateTimeToMillis(ltFilter, false);
-                                    return valueMillis < filterMillis.longValue();
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
-                                String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
-                                if (validDate(gtFilter)) {
-                                    Long filterMillis = parseDateTimeToMillis(gtFilter, false);
-                                    return valueMillis > filterMillis.longValue();
-                                }
-                            }
-                            Matcher dateTimeRange = Pattern.compile(rangePatternDate()).matcher(filter);
-                            if (dateTimeRange.find()) {
-                                Long ltMillis = parseDateTimeToMillis(dateTimeRange.group(1), false);
-                                Long gtMillis = parseDateTimeToMillis(dateTimeRange.group(8), true);
-                                return ltMillis <= valueMillis && valueMillis <= gtMillis;
-                            }
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "Date":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        Date value = (Date) object;
-                        if (value != null) {
-                            long valueMillis = value.getTime();
-                            if (validDate(filter)) {
-                                Long ltMillis = parseDateTimeToMillis(filter, false);
-                                Long gtMillis = parseDateTimeToMillis(filter, true);
-                                return ltMillis <= valueMillis && valueMillis <= gtMillis;
-                            }
-                            if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
-                                String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
-                                if (validDate(ltFilter)) {
-                                    Long filterMillis = parseDateTimeToMillis(ltFilter, false);
-                                    return valueMillis < filterMillis.longValue();
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
-                                String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
-                                if (validDate(gtFilter)) {
-                                    Long filterMillis = parseDateTimeToMillis(gtFilter, false);
-                                    return valueMillis > filterMillis.longValue();
-                                }
-                            }
-                            Matcher dateTimeRange = Pattern.compile(rangePatternDate()).matcher(filter);
-                            if (dateTimeRange.find()) {
-                                Long ltMillis = parseDateTimeToMillis(dateTimeRange.group(1), false);
-                                Long gtMillis = parseDateTimeToMillis(dateTimeRange.group(8), true);
-                                return ltMillis <= valueMillis && valueMillis <= gtMillis;
-                            }
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "Long":
-            case "long":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        Long value = (Long) object;
-                        if (value != null) {
-                            if (validLong(filter)) {
-                                return value.equals(Long.valueOf(filter));
-                            }
-                            if (filter.startsWith(OPERATOR_LIKE) || filter.startsWith(OPERATOR_LIKE_WORD)) {
-                                String likeFilter = filter.replace(OPERATOR_LIKE, EMPTY).replace(OPERATOR_LIKE_WORD, EMPTY);
-                                if (validLong(likeFilter)) {
-                                    return value.toString().matches(likeValue(likeFilter));
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
-                                String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
-                                if (validLong(ltFilter)) {
-                                    return value.compareTo(Long.valueOf(ltFilter)) < 0;
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
-                                String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
-                                if (validLong(gtFilter)) {
-                                    return value.compareTo(Long.valueOf(gtFilter)) > 0;
-                                }
-                            }
-                            Matcher longRange = Pattern.compile(rangePatternLong()).matcher(filter);
-                            if (longRange.find()) {
-                                return Long.valueOf(longRange.group(1)) <= value && value <= Long.valueOf(longRange.group(3));
-                            }
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "Integer":
-            case "int":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        Integer value = (Integer) object;
-                        if (value != null) {
-                            if (validInt(filter)) {
-                                return value.equals(Integer.valueOf(filter));
-                            }
-                            if (filter.startsWith(OPERATOR_LIKE) || filter.startsWith(OPERATOR_LIKE_WORD)) {
-                                String likeFilter = filter.replace(OPERATOR_LIKE, EMPTY).replace(OPERATOR_LIKE_WORD, EMPTY);
-                                if (validInt(likeFilter)) {
-                                    return value.toString().matches(likeValue(likeFilter));
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
-                                String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
-                                if (validInt(ltFilter)) {
-                                    return value.compareTo(Integer.valueOf(ltFilter)) < 0;
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
-                                String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
-                                if (validInt(gtFilter)) {
-                                    return value.compareTo(Integer.valueOf(gtFilter)) > 0;
-                                }
-                            }
-                            Matcher intRange = Pattern.compile(rangePatternInt()).matcher(filter);
-                            if (intRange.find()) {
-                                return Integer.valueOf(intRange.group(1)) <= value && value <= Integer.valueOf(intRange.group(3));
-                            }
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "Short":
-            case "short":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        Short value = (Short) object;
-                        if (value != null) {
-                            if (validShort(filter)) {
-                                return value.equals(Short.valueOf(filter));
-                            }
-                            if (filter.startsWith(OPERATOR_LIKE) || filter.startsWith(OPERATOR_LIKE_WORD)) {
-                                String likeFilter = filter.replace(OPERATOR_LIKE, EMPTY).replace(OPERATOR_LIKE_WORD, EMPTY);
-                                if (validShort(likeFilter)) {
-                                    return value.toString().matches(likeValue(likeFilter));
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
-                                String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
-                                if (validShort(ltFilter)) {
-                                    return value.compareTo(Short.valueOf(ltFilter)) < 0;
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
-                                String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
-                                if (validShort(gtFilter)) {
-                                    return value.compareTo(Short.valueOf(gtFilter)) > 0;
-                                }
-                            }
-                            Matcher shortRange = Pattern.compile(rangePatternShort()).matcher(filter);
-                            if (shortRange.find()) {
-                                return Short.valueOf(shortRange.group(1)) <= value && value <= Short.valueOf(shortRange.group(3));
-                            }
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "Float":
-            case "float":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        Float value = (Float) object;
-                        if (value != null) {
-                            if (validFloat(filter)) {
-                                return value.equals(Float.valueOf(filter));
-                            }
-                            if (filter.startsWith(OPERATOR_LIKE) || filter.startsWith(OPERATOR_LIKE_WORD)) {
-                                String likeFilter = filter.replace(OPERATOR_LIKE, EMPTY).replace(OPERATOR_LIKE_WORD, EMPTY);
-                                if (validFloat(likeFilter)) {
-                                    return value.toString().matches(likeValue(likeFilter));
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
-                                String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
-                                if (validFloat(ltFilter)) {
-                                    return value.compareTo(Float.valueOf(ltFilter)) < 0;
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
-                                String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
-                                if (validFloat(gtFilter)) {
-                                    return value.compareTo(Float.valueOf(gtFilter)) > 0;
-                                }
-                            }
-                            Matcher floatRange = Pattern.compile(rangePatternFloat()).matcher(filter);
-                            if (floatRange.find()) {
-                                return Float.valueOf(floatRange.group(1)) <= value && value <= Float.valueOf(floatRange.group(3));
-                            }
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "Double":
-            case "double":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        Double value = (Double) object;
-                        if (value != null) {
-                            if (validDouble(filter)) {
-                                return value.equals(Double.valueOf(filter));
-                            }
-                            if (filter.startsWith(OPERATOR_LIKE) || filter.startsWith(OPERATOR_LIKE_WORD)) {
-                                String likeFilter = filter.replace(OPERATOR_LIKE, EMPTY).replace(OPERATOR_LIKE_WORD, EMPTY);
-                                if (validDouble(likeFilter)) {
-                                    return value.toString().matches(likeValue(likeFilter));
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
-                                String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
-                                if (validDouble(ltFilter)) {
-                                    return value.compareTo(Double.valueOf(ltFilter)) < 0;
-                                }
-                            }
-                            if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
-                                String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
-                                if (validDouble(gtFilter)) {
-                                    return value.compareTo(Double.valueOf(gtFilter)) > 0;
-                                }
-                            }
-                            Matcher doubleRange = Pattern.compile(rangePatternDouble()).matcher(filter);
-                            if (doubleRange.find()) {
-                                return Double.valueOf(doubleRange.group(1)) <= value && value <= Double.valueOf(doubleRange.group(3));
-                            }
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            case "Boolean":
-            case "boolean":
-                return instance -> {
-                    try {
-                        field.setAccessible(true);
-                        Object object = field.get(instance);
-                        Boolean value = (Boolean) object;
-                        if (value != null && (BOOLEAN_TRUE.equalsIgnoreCase(filter) || BOOLEAN_FALSE.equalsIgnoreCase(filter))) {
-                            return value.equals(Boolean.valueOf(filter));
-                        }
-                        return false;
-                    } catch (IllegalArgumentException | IllegalAccessException e) {
-                        log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                        return false;
-                    }
-                };
-
-            default:
-                // Enum
-                if (field.getType().isEnum()) {
-                    // quoted values needs an exact match
-                    if (isQuoted(filter)) {
-                        return instance -> {
-                            try {
-                                Enum enumValue = null;
-                                try {
-                                    enumValue = Enum.valueOf((Class<Enum>) field.getType(), removeQuotes(filter));
-                                } catch (IllegalArgumentException e) {
-                                    return false;
-                                }
-                                field.setAccessible(true);
-                                Object object = field.get(instance);
-                                Enum value = (Enum) object;
-                                if (value != null) {
-                                    return value.equals(enumValue);
-                                }
-                                return false;
-                            } catch (IllegalArgumentException | IllegalAccessException e) {
-                                log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                                return false;
-                            }
-                        };
-                    }
-                    List<Object> enumValues = new ArrayList<>();
-                    for (Object enumValue : field.getType().getEnumConstants()) {
-                        if (enumValue.toString().toUpperCase().contains(filter.toUpperCase())) {
-                            enumValues.add(enumValue);
-                            continue;
-                        }
-                    }
-                    return instance -> {
-                        try {
-                            field.setAccessible(true);
-                            Object object = field.get(instance);
-                            Enum value = (Enum) object;
-                            if (value != null) {
-                                return enumValues.contains(value);
-                            }
-                            return false;
-                        } catch (IllegalArgumentException | IllegalAccessException e) {
-                            log.error("Can't access {} attribute '{}' on class {}", simpleName, fieldName, clazz.getName(), e);
-                            return false;
-                        }
-                    };
-                }
-                break;
+        ListingQueryPlan<T> queryPlan = getQueryPlan(clazz, listingParameters);
+        ListingCursor cursor = ListingCursor.of(clazz, listingParameters);
+        if (cursor == null) {
+            throw new RuntimeException("The listing parameters have no cursor");
         }
-        return instance -> false;
-    }
+        int limit = listingParameters.getLimit();
 
-    private static Map<String, Field> getFields(Class<?> clazz) {
-        List<Field> fields = new ArrayList<>();
-        Class<?> inheritanceClazz = clazz;
-
-        while (inheritanceClazz != null) {
-            for (Field field : inheritanceClazz.getDeclaredFields()) {
-                // Ignore collections and neither do final nor static fields
-                if (!Collection.class.isAssignableFrom(field.getType()) && !Modifier.isFinal(field.getModifiers())
-                                && !Modifier.isStatic(field.getModifiers())) {
-                    fields.add(field);
-                }
+        List<T> results = new ArrayList<>();
+        while (ordered.hasNext() && (limit <= 0 || results.size() <= limit)) {
+            T instance = ordered.next();
+            if (cursor.isAfter(instance) && queryPlan.test(instance)) {
+                results.add(instance);
             }
-            inheritanceClazz = inheritanceClazz.getSuperclass();
         }
-        return fields.stream().collect(Collectors.toMap(field -> field.getName(), field -> field));
-    }
-
-    private static String likeValue(String value) {
-        return ".*" + value.replace(WILDCARD_MANY, ".*").replace(WILDCARD_ONE, ".{1}").toLowerCase() + ".*";
-    }
-
-    private static boolean isQuoted(String value) {
-        return value.startsWith("\"") && value.endsWith("\"");
-    }
-
-    private static String removeQuotes(String value) {
-        return value.replaceAll("^\"|\"$", EMPTY);
-    }
-
-    private static List<String> splitOr(String value) {
-        return Arrays.asList(value.split(escape(OPERATOR_OR)));
+        return getCursorResult(results, cursor, listingParameters);
     }
 
     /**
-     * Escapes all RegEx control characters for the usage like in {@link String#replaceAll(String, String)} or {@link String#split(String)}
+     * Gets the filter attributes of the listing parameters as a predicate, to match entities one by one without collecting them.
      * 
-     * @param value may containing some RegEx control characters like <code>|</code>, <code>?</code>, or <code>*</code>
-     * @return value with escaped RegEx control characters like <code>\\|</code>, <code>\\?</code>, or <code>\\*</code>
+     * @param <T> type of target entity class
+     * @param clazz target entity class
+     * @param listingParameters filter attributes as described in {@link #getListingResult(Collection, Class, ListingParameters)}
+     * @return predicate that matches the entities of the listing
      */
-    private static String escape(String value) {
-        return value.replaceAll("([\\\\\\.\\[\\{\\(\\*\\+\\?\\^\\$\\|])", "\\\\$1");
+    public static <T> Predicate<T> getPredicate(Class<T> clazz, ListingParameters listingParameters) {
+        return getQueryPlan(clazz, listingParameters)::test;
     }
 
-    private static Long parseDateTimeToMillis(String dateString, boolean end) {
-        if (dateString != null) {
-            Matcher matcher = Pattern.compile(REGEX_DATE).matcher(dateString);
-            if (matcher.find()) {
-                if (matcher.group(5) != null) {
-                    try {
-                        String value = matcher.group(5);
-                        if (value.length() > 4) { // from 10k we interpret this value as milliseconds
-                            return Long.valueOf(value);
-                        }
-                        Integer year = Integer.valueOf(value);
-                        if (year < 100) { // only two digits of year given
-                            year += 2000; // sum it up
-                            if (year > WorkhorseUtil.timestamp().getYear()) {
-                                year -= 100; // if it is in the future, take it back to the 20th century
-                            }
-                        }
-                        // DD.MM.YYYY
-                        if (matcher.group(2) != null && matcher.group(4) != null) {
-                            Integer month = Integer.valueOf(matcher.group(4));
-                            Integer day = Integer.valueOf(matcher.group(2));
-                            LocalDateTime date = LocalDateTime.of(year, month, day, 0, 0, 0).withNano(0);
-                            if (end) {
-
-                                return WorkhorseUtil.toEpochMilli(date.plusDays(1).minus(1l, ChronoUnit.MILLIS));
-                            }
-                            return WorkhorseUtil.toEpochMilli(date);
-                        }
-                        // MM.YYYY
-                        if (matcher.group(2) != null) {
-                            Integer month = Integer.valueOf(matcher.group(2));
-                            LocalDateTime date = LocalDateTime.of(year, month, 1, 0, 0, 0).withNano(0);
-                            if (end) {
-                                return WorkhorseUtil.toEpochMilli(date.plusMonths(1).minus(1l, ChronoUnit.MILLIS));
-                            }
-                            return WorkhorseUtil.toEpochMilli(date);
-                        }
-                        // YYYY
-                        LocalDateTime date = LocalDateTime.of(year, 1, 1, 0, 0, 0).withNano(0);
-                        if (end) {
-                            return WorkhorseUtil.toEpochMilli(date.plusYears(1).minus(1l, ChronoUnit.MILLIS));
-                        }
-                        return WorkhorseUtil.toEpochMilli(date);
-                    } catch (NumberFormatException | DateTimeException e) {
-                        return null;
+    /**
+     * With a cursor only the next <code>limit + 1</code> matches after the cursor are kept by a bounded heap, the last one tells if there is a next page.
+     */
+    private static <T> ListingResult<T> getCursorPage(Collection<T> collection, ListingQueryPlan<T> queryPlan, ListingCursor cursor,
+                    ListingParameters listingParameters) {
+
+        int limit = listingParameters.getLimit();
+        Comparator<T> order = cursor::compare;
+        List<T> results;
+
+        if (limit > 0) {
+            PriorityQueue<T> heap = new PriorityQueue<>(Math.min(limit + 1, TOP_K_MAX), order.reversed());
+            for (T instance : collection) {
+                if (queryPlan.test(instance) && cursor.isAfter(instance)) {
+                    if (heap.size() <= limit) {
+                        heap.add(instance);
+                    } else if (order.compare(instance, heap.peek()) < 0) {
+                        heap.poll();
+                        heap.add(instance);
                     }
                 }
             }
+            results = new ArrayList<>(heap);
+        } else {
+            results = new ArrayList<>();
+            for (T instance : collection) {
+                if (queryPlan.test(instance) && cursor.isAfter(instance)) {
+                    results.add(instance);
+                }
+            }
         }
-        return null;
-    }
-
-    private static boolean validDate(String value) {
-        return matches(value, REGEX_DATE);
-    }
-
-    private static boolean validLong(String value) {
-        return matches(value, REGEX_LONG);
+        results.sort(order);
+        return getCursorResult(results, cursor, listingParameters);
     }
 
-    private static boolean validInt(String value) {
-        return matches(value, REGEX_INT);
-    }
-
-    private static boolean validShort(String value) {
-        return matches(value, REGEX_SHORT);
-    }
-
-    private static boolean validFloat(String value) {
-        return matches(value, REGEX_FLOAT);
-    }
-
-    private static boolean validDouble(String value) {
-        return matches(value, REGEX_DOUBLE);
-    }
-
-    private static boolean matches(String value, String valueRegex) {
-        return value.matches("^" + valueRegex + "$");
-    }
+    /**
+     * The results are the ordered matches after the cursor, if there are more than the limit the page gets cut and the cursor of the next page is set.
+     */
+    private static <T> ListingResult<T> getCursorResult(List<T> results, ListingCursor cursor, ListingParameters listingParameters) {
 
-    private static String rangePatternDate() {
-        return rangePattern(REGEX_DATE);
+        int limit = listingParameters.getLimit();
+        String nextCursor = null;
+        if (limit > 0 && results.size() > limit) {
+            results = new ArrayList<>(results.subList(0, limit));
+            nextCursor = cursor.next(results.get(limit - 1));
+        }
+        Metadata metadata = new Metadata(null, null, limit, listingParameters.getSortAttribute());
+        metadata.setNextCursor(nextCursor);
+        return new ListingResult<T>(results, metadata);
     }
 
-    private static String rangePatternLong() {
-        return rangePattern(REGEX_LONG);
+    /**
+     * Without a sort attribute the page is taken in the order of the collection, so only the matches of the first and the current page are kept.
+     */
+    private static <T> ListingResult<T> getFirstPages(Collection<T> collection, ListingQueryPlan<T> queryPlan, ListingParameters listingParameters, long from,
+                    long to) {
+
+        int limit = listingParameters.getLimit();
+        List<T> firstPage = new ArrayList<>();
+        List<T> page = from == 0 ? firstPage : new ArrayList<>();
+        long count = 0;
+
+        for (T instance : collection) {
+            if (queryPlan.test(instance)) {
+                if (count < limit) {
+                    firstPage.add(instance);
+                }
+                if (from > 0 && from <= count && count < to) {
+                    page.add(instance);
+                }
+                count++;
+            }
+        }
+        // all matches fit on one page
+        List<T> results = count <= limit ? firstPage : page;
+        return new ListingResult<T>(results, new Metadata(count, listingParameters));
     }
 
-    private static String rangePatternInt() {
-        return rangePattern(REGEX_INT);
+    /**
+     * With a sort attribute and a page near the start, only the matches up to the end of the page get selected and sorted.
+     */
+    private static <T> ListingResult<T> getTopPages(Collection<T> collection, ListingQueryPlan<T> queryPlan, ListingParameters listingParameters, long from,
+                    long to) {
+
+        ListingQueryPlan.Selection<T> selection = queryPlan.top(collection, (int) to);
+        List<T> selected = selection.getSelected();
+
+        List<T> results;
+        if (selection.getCount() <= listingParameters.getLimit()) {
+            // all matches fit on one page
+            results = selected;
+        } else if (from < selected.size()) {
+            results = selected.subList((int) from, selected.size());
+        } else {
+            results = new ArrayList<>();
+        }
+        return new ListingResult<T>(results, new Metadata(selection.getCount(), listingParameters));
     }
 
-    private static String rangePatternShort() {
-        return rangePattern(REGEX_SHORT);
+    /**
+     * The ranges of a snapshot of the collection select the matches up to the end of the requested page in parallel, without a limit they select all matches.
+     */
+    private static <T> ListingResult<T> getParallelPages(Object[] elements, ListingQueryPlan<T> queryPlan, ListingParameters listingParameters,
+                    ForkJoinPool pool) {
+
+        int limit = listingParameters.getLimit();
+        long from = limit > 0 ? (long) limit * listingParameters.getPage() - limit : 0;
+        long to = limit > 0 ? Math.min(from + limit, Integer.MAX_VALUE) : Integer.MAX_VALUE;
+
+        ListingQueryPlan.Selection<T> selection = queryPlan.select(elements, (int) to, pool);
+        List<T> selected = selection.getSelected();
+
+        List<T> results;
+        if (limit <= 0 || selection.getCount() <= limit) {
+            // all matches fit on one page
+            results = selected;
+        } else if (from < selected.size()) {
+            results = selected.subList((int) from, selected.size());
+        } else {
+            results = new ArrayList<>();
+        }
+        return new ListingResult<T>(results, new Metadata(selection.getCount(), listingParameters));
     }
 
-    private static String rangePatternFloat() {
-        return rangePattern(REGEX_FLOAT);
-    }
+    /**
+     * Gets the compiled filter and sort attributes of the listing parameters. Plans are cached by the entity class, the filter attributes, the sort attribute
+     * and the time zone the dates are interpreted in, the least recently used plans get evicted.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ListingQueryPlan<T> getQueryPlan(Class<T> clazz, ListingParameters listingParameters) {
 
-    private static String rangePatternDouble() {
-        return rangePattern(REGEX_DOUBLE);
-    }
+        Map<String, String> filterAttributes = listingParameters.getFilterAttributes();
+        List<Object> key = Arrays.asList(clazz, filterAttributes == null ? Collections.emptyMap() : new HashMap<>(filterAttributes),
+                        listingParameters.getSortAttribute(), StaticConfig.TIME_ZONE);
+
+        ListingQueryPlan<T> queryPlan;
+        queryPlansLock.lock();
+        try {
+            queryPlan = (ListingQueryPlan<T>) queryPlans.get(key);
+        } finally {
+            queryPlansLock.unlock();
+        }
+        if (queryPlan != null) {
+            return queryPlan;
+        }
 
-    private static String rangePattern(String valueRegex) {
-        StringBuffer stringBuffer = new StringBuffer();
-        stringBuffer.append("^(");
-        stringBuffer.append(valueRegex);
-        stringBuffer.append(")(");
-        stringBuffer.append(escape(OPERATOR_TO));
-        stringBuffer.append("|");
-        stringBuffer.append(escape(OPERATOR_TO_WORD));
-        stringBuffer.append(")(");
-        stringBuffer.append(valueRegex);
-        stringBuffer.append(")$");
-        return stringBuffer.toString();
+        // compiled outside of the lock, two listings that compile the same plan at once just keep the later one
+        queryPlan = ListingQueryPlan.compile(clazz, listingParameters);
+        queryPlansLock.lock();
+        try {
+            queryPlans.put(key, queryPlan);
+        } finally {
+            queryPlansLock.unlock();
+        }
+        return queryPlan;
     }
 
 }
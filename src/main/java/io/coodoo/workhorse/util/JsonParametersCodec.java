@@ -0,0 +1,72 @@
+package io.coodoo.workhorse.util;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * JSON {@link ParametersCodec} based on the commonly used {@link ObjectMapper} of {@link WorkhorseUtil}.
+ * 
+ * The {@link JavaType} is resolved once from the full generic type, so e.g. a <code>List&lt;Pojo&gt;</code> is read as list of <code>Pojo</code> objects and
+ * not as list of maps. The {@link ObjectReader} and {@link ObjectWriter} are immutable and get reused for every execution.
+ * 
+ * @param <T> type of the parameters
+ * @author coodoo GmbH (coodoo.io)
+ */
+public class JsonParametersCodec<T> implements ParametersCodec<T> {
+
+    private final JavaType javaType;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    /**
+     * @param type generic type of the parameters
+     */
+    public JsonParametersCodec(Type type) {
+        this(WorkhorseUtil.getObjectMapper(), type);
+    }
+
+    /**
+     * @param objectMapper object mapper to use
+     * @param type generic type of the parameters
+     */
+    public JsonParametersCodec(ObjectMapper objectMapper, Type type) {
+        this.javaType = objectMapper.getTypeFactory().constructType(type);
+        this.reader = objectMapper.readerFor(javaType);
+        // A root type that can be extended is written by its runtime type, so no properties of a subclass get lost
+        this.writer = javaType.isFinal() || javaType.isContainerType() ? objectMapper.writerFor(javaType) : objectMapper.writer();
+    }
+
+    @Override
+    public T decode(String parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return null;
+        }
+        try {
+            return reader.readValue(parameters);
+        } catch (IOException e) {
+            throw new RuntimeException("JSON Parameter could not be mapped to an object", e);
+        }
+    }
+
+    @Override
+    public String encode(T parameters) {
+        if (parameters == null) {
+            return null;
+        }
+        try {
+            return writer.writeValueAsString(parameters);
+        } catch (IOException e) {
+            throw new RuntimeException("Parameter object could not be mapped to json", e);
+        }
+    }
+
+    public JavaType getJavaType() {
+        return javaType;
+    }
+
+}
@@ -0,0 +1,169 @@
+package io.coodoo.workhorse.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Attribute of an entity class that can be filtered and sorted by {@link CollectionListing}.
+ *
+ * The value is read by an accessor that is generated once per class: a public getter of the attribute is bound to a {@link Function} by the
+ * {@link LambdaMetafactory}, so reading the value is a plain method call. Attributes without such a getter are read by a {@link MethodHandle} of the field.
+ * Either way there is no {@link Field#get(Object)} and no access check per read.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class ListingAttribute {
+
+    private static Logger log = LoggerFactory.getLogger(ListingAttribute.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<Map<String, ListingAttribute>> ATTRIBUTES = new ClassValue<Map<String, ListingAttribute>>() {
+        @Override
+        protected Map<String, ListingAttribute> computeValue(Class<?> clazz) {
+            return Collections.unmodifiableMap(createAttributes(clazz));
+        }
+    };
+
+    private final String name;
+    private final Class<?> type;
+    private final Function<Object, Object> accessor;
+
+    private ListingAttribute(String name, Class<?> type, Function<Object, Object> accessor) {
+        this.name = name;
+        this.type = type;
+        this.accessor = accessor;
+    }
+
+    /**
+     * @param clazz entity class
+     * @return the attributes of the class and its super classes by their name
+     */
+    static Map<String, ListingAttribute> of(Class<?> clazz) {
+        return ATTRIBUTES.get(clazz);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @param instance entity instance
+     * @return the value of this attribute
+     */
+    Object get(Object instance) {
+        return accessor.apply(instance);
+    }
+
+    private static Map<String, ListingAttribute> createAttributes(Class<?> clazz) {
+
+        Map<String, ListingAttribute> attributes = new HashMap<>();
+        Class<?> inheritanceClazz = clazz;
+
+        while (inheritanceClazz != null) {
+            for (Field field : inheritanceClazz.getDeclaredFields()) {
+                // Ignore collections and neither do final nor static fields
+                if (Collection.class.isAssignableFrom(field.getType()) || Modifier.isFinal(field.getModifiers())
+                                || Modifier.isStatic(field.getModifiers()) || attributes.containsKey(field.getName())) {
+                    continue;
+                }
+                Function<Object, Object> accessor = createAccessor(clazz, field);
+                if (accessor != null) {
+                    attributes.put(field.getName(), new ListingAttribute(field.getName(), field.getType(), accessor));
+                }
+            }
+            inheritanceClazz = inheritanceClazz.getSuperclass();
+        }
+        return attributes;
+    }
+
+    private static Function<Object, Object> createAccessor(Class<?> clazz, Field field) {
+
+        Method getter = findGetter(clazz, field);
+        if (getter != null) {
+            try {
+                return createGetterAccessor(getter);
+            } catch (Throwable e) {
+                log.debug("Can't bind getter of attribute '{}' on class {}, the field gets read instead", field.getName(), clazz.getName(), e);
+            }
+        }
+        try {
+            field.setAccessible(true);
+            MethodHandle fieldGetter = LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            return instance -> {
+                try {
+                    return fieldGetter.invokeExact(instance);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException(e);
+                }
+            };
+        } catch (IllegalAccessException | RuntimeException e) {
+            log.error("Can't access {} attribute '{}' on class {}", field.getType().getSimpleName(), field.getName(), clazz.getName(), e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetterAccessor(Method getter) throws Throwable {
+
+        MethodHandle getterHandle = LOOKUP.unreflect(getter);
+        Class<?> returnType = MethodType.methodType(getter.getReturnType()).wrap().returnType();
+
+        CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), getterHandle,
+                        MethodType.methodType(returnType, getter.getDeclaringClass()));
+
+        return (Function<Object, Object>) callSite.getTarget().invokeExact();
+    }
+
+    /**
+     * The generated accessor calls the getter directly, so it is only used for a public getter that returns the field type and that is declared by a public
+     * class which is visible to the class loader of this class.
+     */
+    private static Method findGetter(Class<?> clazz, Field field) {
+
+        String name = field.getName();
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String prefix : new String[] {"get", "is"}) {
+            try {
+                Method getter = clazz.getMethod(prefix + suffix);
+                if (getter.getReturnType() == field.getType() && !Modifier.isStatic(getter.getModifiers())
+                                && Modifier.isPublic(getter.getDeclaringClass().getModifiers()) && isVisible(getter.getDeclaringClass())) {
+                    return getter;
+                }
+            } catch (NoSuchMethodException | SecurityException e) {
+                continue;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, ListingAttribute.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
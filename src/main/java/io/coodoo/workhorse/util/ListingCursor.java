@@ -0,0 +1,234 @@
+package io.coodoo.workhorse.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.Metadata;
+
+/**
+ * Position in a listing that uses a cursor instead of a page (see {@link ListingParameters#setCursor(String)}).
+ *
+ * A listing with a cursor is ordered by the sort attribute and the ID, so the order is total and stays the same between the requests. The cursor holds the
+ * sort value and the ID of the last result of the previous page and the next page starts right after it, without counting or skipping the results before.
+ * Without a sort attribute the listing is ordered by the ID.
+ *
+ * The cursor of the next page is given by {@link Metadata#getNextCursor()}, it is an opaque URL safe String.
+ *
+ * @author coodoo GmbH (coodoo.io)
+ */
+public final class ListingCursor {
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = ":";
+    private static final String VALUE = "=";
+
+    private final String attribute;
+    private final boolean descending;
+    private final Object value;
+    private final Long id;
+
+    private final ListingAttribute sortAttribute;
+    private final ListingAttribute idAttribute;
+
+    private ListingCursor(String attribute, boolean descending, Object value, Long id, ListingAttribute sortAttribute, ListingAttribute idAttribute) {
+        this.attribute = attribute;
+        this.descending = descending;
+        this.value = value;
+        this.id = id;
+        this.sortAttribute = sortAttribute;
+        this.idAttribute = idAttribute;
+    }
+
+    /**
+     * Reads the cursor of the listing parameters
+     *
+     * @param clazz target entity class, it needs an attribute <code>id</code> of type {@link Long}
+     * @param listingParameters parameters of the listing
+     * @return the cursor or <code>null</code> if the listing doesn't use a cursor
+     */
+    public static ListingCursor of(Class<?> clazz, ListingParameters listingParameters) {
+
+        String cursor = listingParameters.getCursor();
+        if (cursor == null) {
+            return null;
+        }
+        Map<String, ListingAttribute> attributes = ListingAttribute.of(clazz);
+        ListingAttribute idAttribute = attributes.get(ID);
+        if (idAttribute == null || idAttribute.getType() != Long.class) {
+            throw new RuntimeException("A cursor needs an attribute 'id' of type Long on class " + clazz.getName());
+        }
+
+        String sort = listingParameters.getSortAttribute();
+        boolean descending = false;
+        if (sort != null && sort.startsWith(CollectionListing.SORT_DESC)) {
+            sort = sort.substring(CollectionListing.SORT_DESC.length());
+            descending = true;
+        } else if (sort != null && sort.startsWith(CollectionListing.SORT_ASC)) {
+            sort = sort.substring(CollectionListing.SORT_ASC.length());
+        }
+        ListingAttribute sortAttribute = sort == null || sort.isEmpty() || ID.equals(sort) ? null : attributes.get(sort);
+        if (sortAttribute != null && !Comparable.class.isAssignableFrom(sortAttribute.getType()) && !sortAttribute.getType().isPrimitive()) {
+            throw new RuntimeException("Can't use a cursor on attribute '" + sort + "' on class " + clazz.getName());
+        }
+        String attribute = sortAttribute == null ? null : sortAttribute.getName();
+
+        if (cursor.isEmpty()) {
+            return new ListingCursor(attribute, descending, null, null, sortAttribute, idAttribute);
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator < 1) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+        try {
+            Long id = Long.valueOf(decoded.substring(0, separator));
+            String valueString = decoded.substring(separator + 1);
+            Object value = null;
+            if (sortAttribute != null && valueString.startsWith(VALUE)) {
+                value = parse(sortAttribute.getType(), valueString.substring(VALUE.length()));
+            }
+            return new ListingCursor(attribute, descending, value, id, sortAttribute, idAttribute);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * @return name of the sort attribute or <code>null</code> if the listing is ordered by the ID
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * @return <code>true</code> if the listing is in descending order
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return sort value of the last result of the previous page
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return ID of the last result of the previous page or <code>null</code> for the first page
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @param instance entity instance
+     * @return <code>true</code> if the instance is ordered after the cursor
+     */
+    boolean isAfter(Object instance) {
+        return id == null || compare(sortValue(instance), (Long) idAttribute.get(instance), value, id) > 0;
+    }
+
+    /**
+     * Order of the listing: the sort value, <code>null</code> values first in ascending order, then the ID
+     */
+    int compare(Object a, Object b) {
+        return compare(sortValue(a), (Long) idAttribute.get(a), sortValue(b), (Long) idAttribute.get(b));
+    }
+
+    /**
+     * @param instance last result of a page
+     * @return the cursor of the next page
+     */
+    String next(Object instance) {
+
+        Object sortValue = sortValue(instance);
+        StringBuilder cursor = new StringBuilder().append(idAttribute.get(instance)).append(SEPARATOR);
+        if (sortValue != null) {
+            cursor.append(VALUE).append(format(sortValue));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object sortValue(Object instance) {
+        return sortAttribute == null ? null : sortAttribute.get(instance);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private int compare(Object valueA, Long idA, Object valueB, Long idB) {
+
+        int compare = 0;
+        if (valueA == null) {
+            compare = valueB == null ? 0 : -1;
+        } else if (valueB == null) {
+            compare = 1;
+        } else {
+            compare = ((Comparable) valueA).compareTo(valueB);
+        }
+        if (compare == 0) {
+            compare = idA == null ? (idB == null ? 0 : -1) : (idB == null ? 1 : idA.compareTo(idB));
+        }
+        return descending ? -compare : compare;
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Date) {
+            return String.valueOf(((Date) value).getTime());
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(Class<?> type, String value) {
+
+        switch (type.getSimpleName()) {
+            case "String":
+                return value;
+            case "LocalDateTime":
+                return LocalDateTime.parse(value);
+            case "Date":
+                return new Date(Long.parseLong(value));
+            case "Long":
+            case "long":
+                return Long.valueOf(value);
+            case "Integer":
+            case "int":
+                return Integer.valueOf(value);
+            case "Short":
+            case "short":
+                return Short.valueOf(value);
+            case "Float":
+            case "float":
+                return Float.valueOf(value);
+            case "Double":
+            case "double":
+                return Double.valueOf(value);
+            case "Boolean":
+            case "boolean":
+                return Boolean.valueOf(value);
+            default:
+                if (type.isEnum()) {
+                    try {
+                        return Enum.valueOf((Class<Enum>) type, value);
+                    } catch (IllegalArgumentException e) {
+                        throw new NumberFormatException(value);
+                    }
+                }
+                throw new RuntimeException("Can't use a cursor on a " + type.getSimpleName() + " attribute");
+        }
+    }
+
+}
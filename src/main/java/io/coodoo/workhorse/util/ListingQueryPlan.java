@@ -0,0 +1,928 @@
+package io.coodoo.workhorse.util;
+
+import static io.coodoo.workhorse.util.CollectionListing.BOOLEAN_FALSE;
+import static io.coodoo.workhorse.util.CollectionListing.BOOLEAN_TRUE;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_GT;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_GT_WORD;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_LIKE;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_LIKE_WORD;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_LT;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_LT_WORD;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_NOT;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_NOT_WORD;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_NULL;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_OR;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_OR_WORD;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_TO;
+import static io.coodoo.workhorse.util.CollectionListing.OPERATOR_TO_WORD;
+import static io.coodoo.workhorse.util.CollectionListing.SORT_ASC;
+import static io.coodoo.workhorse.util.CollectionListing.SORT_DESC;
+import static io.coodoo.workhorse.util.CollectionListing.WILDCARD_MANY;
+import static io.coodoo.workhorse.util.CollectionListing.WILDCARD_ONE;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.coodoo.workhorse.core.control.StaticConfig;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+
+/**
+ * Compiled filter and sort attributes of {@link ListingParameters} for an entity class.
+ *
+ * The filter strings are parsed only once: the operators get resolved, the filter values get converted to the type of the attribute and the LIKE patterns
+ * get compiled. What is left per entity is reading the attribute by its {@link ListingAttribute} and a typed comparison. A plan doesn't depend on the
+ * pagination, so {@link CollectionListing} reuses it for every listing with the same filter and sort attributes.
+ *
+ * @param <T> type of target entity class
+ * @author coodoo GmbH (coodoo.io)
+ */
+final class ListingQueryPlan<T> {
+
+    private static Logger log = LoggerFactory.getLogger(ListingQueryPlan.class);
+
+    private static final String REGEX_LONG = "[-+]?\\d{1,37}";
+    private static final String REGEX_INT = "[-+]?\\d{1,10}";
+    private static final String REGEX_SHORT = "[-+]?\\d{1,5}";
+    private static final String REGEX_FLOAT = "[-+]?\\d*[.,]?\\d+";
+    private static final String REGEX_DOUBLE = "[-+]?\\d*[.,]?\\d+";
+    // _______________________Group_numbers:__12______________34______________5_________
+    private static final String REGEX_DATE = "((\\d{1,2})\\D)?((\\d{1,2})\\D)?(\\d{2,})";
+
+    private static final Pattern PATTERN_DATE = Pattern.compile(REGEX_DATE);
+    private static final Pattern PATTERN_VALID_DATE = Pattern.compile("^" + REGEX_DATE + "$");
+    private static final Pattern PATTERN_ESCAPE = Pattern.compile("([\\\\\\.\\[\\{\\(\\*\\+\\?\\^\\$\\|])");
+
+    private static final NumberType LONG = new NumberType(REGEX_LONG, Long::valueOf);
+    private static final NumberType INT = new NumberType(REGEX_INT, Integer::valueOf);
+    private static final NumberType SHORT = new NumberType(REGEX_SHORT, Short::valueOf);
+    private static final NumberType FLOAT = new NumberType(REGEX_FLOAT, Float::valueOf);
+    private static final NumberType DOUBLE = new NumberType(REGEX_DOUBLE, Double::valueOf);
+
+    private static final String EMPTY = "";
+    private static final String REGEX_CONTROL_CHARACTERS = "\\.[]{}()+-?^$|&";
+
+    private static final Predicate<Object> NONE = instance -> false;
+
+    /**
+     * Minimum number of entities that a task of {@link #select(Object[], int, ForkJoinPool)} evaluates without splitting them any further
+     */
+    private static final int MIN_RANGE_SIZE = 4096;
+
+    private final Predicate<Object>[] predicates;
+    private final Comparator<Object> comparator;
+    private final boolean reverse;
+
+    private ListingQueryPlan(Predicate<Object>[] predicates, Comparator<Object> comparator, boolean reverse) {
+        this.predicates = predicates;
+        this.comparator = comparator;
+        this.reverse = reverse;
+    }
+
+    /**
+     * @param instance entity instance
+     * @return <code>true</code> if the instance matches all filter attributes
+     */
+    boolean test(T instance) {
+        for (Predicate<Object> predicate : predicates) {
+            if (!predicate.test(instance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param collection entities to filter
+     * @return the matching entities in the order of the collection
+     */
+    List<T> filter(Collection<T> collection) {
+
+        List<T> filteredList = new ArrayList<>();
+        for (T instance : collection) {
+            if (test(instance)) {
+                filteredList.add(instance);
+            }
+        }
+        return filteredList;
+    }
+
+    /**
+     * @param collection entities to count
+     * @return number of matching entities
+     */
+    long count(Collection<T> collection) {
+
+        long count = 0;
+        for (T instance : collection) {
+            if (test(instance)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param collection entities to search
+     * @return the first matching entity in the order of the sort attribute or of the collection if there is no sort attribute, <code>null</code> if nothing
+     *         matches
+     */
+    T first(Collection<T> collection) {
+
+        if (isSorted()) {
+            List<T> top = top(collection, 1).getSelected();
+            return top.isEmpty() ? null : top.get(0);
+        }
+        for (T instance : collection) {
+            if (test(instance)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Selects the first matching entities in the order of the sort attribute in a single pass. Only a bounded heap of <tt>k</tt> entities is kept, so there
+     * is no list of all matches and no sort of it. Equal values keep the order of the collection like the stable sort of {@link #sort(List)} does.
+     *
+     * @param collection entities to filter
+     * @param k maximum number of selected entities, at least 1
+     * @return the number of all matches and the first <tt>k</tt> of them in order
+     */
+    Selection<T> top(Collection<T> collection, int k) {
+
+        Selector selector = new Selector(k);
+        long index = 0;
+        for (T instance : collection) {
+            selector.offer(instance, index++);
+        }
+        return toSelection(selector.toPartition());
+    }
+
+    /**
+     * Selects the first matching entities like {@link #top(Collection, int)}, but the elements get split into ranges that are evaluated by the tasks of a
+     * {@link ForkJoinPool}. Every range selects its own first <tt>k</tt> matches, the ranges are merged pairwise and only keep the first <tt>k</tt> of both.
+     * The position in the array breaks ties, so the result is the same as the one of a sequential pass.
+     *
+     * @param elements snapshot of the entities to filter
+     * @param k maximum number of selected entities, <code>0</code> only counts the matches
+     * @param pool pool to evaluate the ranges
+     * @return the number of all matches and the first <tt>k</tt> of them in order, in the order of the array if there is no attribute to sort by
+     */
+    Selection<T> select(Object[] elements, int k, ForkJoinPool pool) {
+
+        int rangeSize = Math.max(MIN_RANGE_SIZE, elements.length / (Math.max(1, pool.getParallelism()) * 4));
+        return toSelection(pool.invoke(new SelectTask(elements, 0, elements.length, k, rangeSize)));
+    }
+
+    /**
+     * @return <code>true</code> if there is an attribute to sort by, an attribute that can't be compared only reverses the order of the collection
+     */
+    boolean isSorted() {
+        return comparator != null || reverse;
+    }
+
+    private int order(Ranked<T> a, Ranked<T> b) {
+        return order(a.instance, a.index, b.instance, b.index);
+    }
+
+    private int order(Object a, long indexA, Object b, long indexB) {
+        int compare = comparator == null ? 0 : comparator.compare(a, b);
+        if (compare == 0) {
+            compare = Long.compare(indexA, indexB);
+        }
+        return reverse ? -compare : compare;
+    }
+
+    private Selection<T> toSelection(Partition<T> partition) {
+
+        List<T> selected = new ArrayList<>(partition.ranked.size());
+        for (Ranked<T> entry : partition.ranked) {
+            selected.add(entry.instance);
+        }
+        return new Selection<>(partition.count, selected);
+    }
+
+    /**
+     * Merges the selections of two adjacent ranges, all positions of the left range are lower than the ones of the right range
+     */
+    private Partition<T> merge(Partition<T> left, Partition<T> right, int k) {
+
+        List<Ranked<T>> ranked = new ArrayList<>(Math.min(k, left.ranked.size() + right.ranked.size()));
+        int l = 0;
+        int r = 0;
+        while (ranked.size() < k && (l < left.ranked.size() || r < right.ranked.size())) {
+            if (r >= right.ranked.size()
+                            || (l < left.ranked.size() && (!isSorted() || order(left.ranked.get(l), right.ranked.get(r)) < 0))) {
+                ranked.add(left.ranked.get(l++));
+            } else {
+                ranked.add(right.ranked.get(r++));
+            }
+        }
+        return new Partition<>(left.count + right.count, ranked);
+    }
+
+    /**
+     * Sorts the list by the sort attribute, <code>null</code> values first in ascending order
+     *
+     * @param list filtered entities
+     */
+    void sort(List<T> list) {
+        if (comparator != null) {
+            list.sort(comparator);
+        }
+        if (reverse) {
+            Collections.reverse(list);
+        }
+    }
+
+    /**
+     * Compiles the filter and sort attributes of the listing parameters
+     *
+     * @param <T> type of target entity class
+     * @param clazz target entity class
+     * @param listingParameters filter and sort attributes, the pagination is ignored
+     * @return the compiled plan
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ListingQueryPlan<T> compile(Class<T> clazz, ListingParameters listingParameters) {
+
+        List<CostedPredicate> allPredicates = new ArrayList<>();
+        Map<String, ListingAttribute> attributes = ListingAttribute.of(clazz);
+        Map<String, String> filterAttributes = listingParameters.getFilterAttributes();
+
+        if (filterAttributes != null && !filterAttributes.isEmpty()) {
+
+            for (Map.Entry<String, String> filterAttribute : filterAttributes.entrySet()) {
+                String attribute = filterAttribute.getKey();
+                if (attribute == null || attribute.isEmpty()) {
+                    continue;
+                }
+                String filter = filterAttribute.getValue();
+
+                if (filter == null || filter.isEmpty()) {
+                    continue;
+                }
+                if (attribute.contains(OPERATOR_OR) || attribute.contains(OPERATOR_OR_WORD)) {
+                    // a filter can be applied on many fields, joined by a "|" (OPERATOR_OR), those get conjuncted
+                    List<String> orAttributes = splitOr(attribute.replaceAll(escape(OPERATOR_OR_WORD), OPERATOR_OR));
+
+                    // many attributes for one or many filter
+                    List<Predicate<Object>> orPredicates = new ArrayList<>();
+                    int cost = 0;
+                    for (String orAttribute : orAttributes) {
+                        ListingAttribute listingAttribute = attributes.get(orAttribute);
+                        if (listingAttribute == null) {
+                            continue;
+                        }
+                        cost = Math.max(cost, cost(listingAttribute));
+                        if (filter.contains(OPERATOR_OR) || filter.contains(OPERATOR_OR_WORD)) {
+                            String escapedFilter = filter.replaceAll(escape(OPERATOR_OR_WORD), OPERATOR_OR).replaceAll(escape(OPERATOR_OR), "|");
+                            orPredicates.add(createPredicate(clazz, listingAttribute, escapedFilter));
+                        } else {
+                            orPredicates.add(createPredicate(clazz, listingAttribute, filter));
+                        }
+                    }
+                    allPredicates.add(new CostedPredicate(or(orPredicates), cost));
+                } else {
+                    ListingAttribute listingAttribute = attributes.get(attribute);
+                    if (listingAttribute == null) {
+                        continue;
+                    }
+                    if (filter.contains(OPERATOR_OR) || filter.contains(OPERATOR_OR_WORD)) {
+                        // one attribute for many filter
+                        List<Predicate<Object>> orPredicates = new ArrayList<>();
+                        for (String orFilter : splitOr(filter.replaceAll(escape(OPERATOR_OR_WORD), OPERATOR_OR))) {
+                            orPredicates.add(createPredicate(clazz, listingAttribute, orFilter));
+                        }
+                        allPredicates.add(new CostedPredicate(or(orPredicates), cost(listingAttribute)));
+                    } else {
+                        // one attribute for one filter
+                        allPredicates.add(new CostedPredicate(createPredicate(clazz, listingAttribute, filter), cost(listingAttribute)));
+                    }
+                }
+            }
+        }
+
+        Comparator<Object> comparator = null;
+        boolean reverse = false;
+        String sort = listingParameters.getSortAttribute();
+
+        if (sort != null && !sort.isEmpty()) {
+            boolean asc = true;
+            if (sort.startsWith(SORT_ASC)) {
+                sort = sort.replace(SORT_ASC, EMPTY);
+            } else if (sort.startsWith(SORT_DESC)) {
+                sort = sort.replace(SORT_DESC, EMPTY);
+                asc = false;
+            }
+            ListingAttribute listingAttribute = attributes.get(sort);
+
+            if (listingAttribute != null) {
+                if (Comparable.class.isAssignableFrom(listingAttribute.getType()) || listingAttribute.getType().isPrimitive()) {
+                    comparator = createComparator(listingAttribute);
+                } else {
+                    log.error("Can't compare on attribute '{}' on class {}", listingAttribute.getName(), clazz.getName());
+                }
+                reverse = !asc;
+            }
+        }
+        // the conjunction stops at the first predicate that fails, so the cheap ones go first
+        allPredicates.sort(Comparator.comparingInt(costedPredicate -> costedPredicate.cost));
+        Predicate<Object>[] predicates = new Predicate[allPredicates.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = allPredicates.get(i).predicate;
+        }
+        return new ListingQueryPlan<>(predicates, comparator, reverse);
+    }
+
+    /**
+     * @return relative cost to evaluate a filter on the attribute, text gets matched character by character
+     */
+    private static int cost(ListingAttribute listingAttribute) {
+        return listingAttribute.getType() == String.class ? 1 : 0;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Comparator<Object> createComparator(ListingAttribute listingAttribute) {
+        return (e1, e2) -> {
+            Comparable val1 = (Comparable) listingAttribute.get(e1);
+            Comparable val2 = (Comparable) listingAttribute.get(e2);
+
+            if (val1 == null) {
+                if (val2 == null) {
+                    return 0;
+                }
+                return -1;
+            }
+            if (val2 == null) {
+                return 1;
+            }
+            return val1.compareTo(val2);
+        };
+    }
+
+    private static Predicate<Object> or(List<Predicate<Object>> orPredicates) {
+        if (orPredicates.size() == 1) {
+            return orPredicates.get(0);
+        }
+        Predicate<Object>[] alternatives = orPredicates.toArray(new Predicate[orPredicates.size()]);
+        return instance -> {
+            for (Predicate<Object> alternative : alternatives) {
+                if (alternative.test(instance)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static Predicate<Object> createPredicate(Class<?> clazz, ListingAttribute listingAttribute, String filter) {
+        if (filter.startsWith(OPERATOR_NOT)) {
+            return createFilterPredicate(clazz, listingAttribute, filter.replaceFirst(OPERATOR_NOT, "")).negate();
+        }
+        if (filter.startsWith(OPERATOR_NOT_WORD)) {
+            return createFilterPredicate(clazz, listingAttribute, filter.replaceFirst(OPERATOR_NOT_WORD, "")).negate();
+        }
+        return createFilterPredicate(clazz, listingAttribute, filter);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate<Object> createFilterPredicate(Class<?> clazz, ListingAttribute listingAttribute, String filter) {
+
+        // Nulls
+        if (filter.matches("^" + OPERATOR_NULL + "$")) {
+            return instance -> listingAttribute.get(instance) == null;
+        }
+
+        switch (listingAttribute.getType().getSimpleName()) {
+
+            case "String":
+                if (isQuoted(filter)) { // quoted values needs an exact match
+                    String quotedFilter = removeQuotes(filter).toLowerCase();
+                    return value(listingAttribute, value -> ((String) value).toLowerCase().equals(quotedFilter));
+                }
+                Pattern likePattern = likePattern(filter);
+                String[] likeParts = likeParts(filter);
+                if (likeParts != null) {
+                    return value(listingAttribute, value -> {
+                        String string = ((String) value).toLowerCase();
+                        // the wildcard of the pattern doesn't match line terminators
+                        return hasLineTerminator(string) ? likePattern.matcher(string).matches() : containsInOrder(string, likeParts);
+                    });
+                }
+                if (likePattern == null) {
+                    // not a valid pattern, so every value fails like it did before plans got compiled
+                    String likeValue = likeValue(filter);
+                    return value(listingAttribute, value -> ((String) value).toLowerCase().matches(likeValue));
+                }
+                return value(listingAttribute, value -> likePattern.matcher(((String) value).toLowerCase()).matches());
+
+            case "LocalDateTime":
+                LongPredicate localDateTimePredicate = createDatePredicate(filter);
+                // the time zone is part of the cache key of the plan, so it gets resolved only once
+                ZoneId zoneId = ZoneId.of(StaticConfig.TIME_ZONE);
+                return value(listingAttribute, value -> localDateTimePredicate.test(((LocalDateTime) value).atZone(zoneId).toInstant().toEpochMilli()));
+
+            case "Date":
+                LongPredicate datePredicate = createDatePredicate(filter);
+                return value(listingAttribute, value -> datePredicate.test(((Date) value).getTime()));
+
+            case "Long":
+            case "long":
+                return value(listingAttribute, createNumberPredicate(LONG, filter));
+
+            case "Integer":
+            case "int":
+                return value(listingAttribute, createNumberPredicate(INT, filter));
+
+            case "Short":
+            case "short":
+                return value(listingAttribute, createNumberPredicate(SHORT, filter));
+
+            case "Float":
+            case "float":
+                return value(listingAttribute, createNumberPredicate(FLOAT, filter));
+
+            case "Double":
+            case "double":
+                return value(listingAttribute, createNumberPredicate(DOUBLE, filter));
+
+            case "Boolean":
+            case "boolean":
+                if (BOOLEAN_TRUE.equalsIgnoreCase(filter) || BOOLEAN_FALSE.equalsIgnoreCase(filter)) {
+                    Boolean booleanFilter = Boolean.valueOf(filter);
+                    return value(listingAttribute, value -> value.equals(booleanFilter));
+                }
+                return NONE;
+
+            default:
+                // Enum
+                if (listingAttribute.getType().isEnum()) {
+                    // quoted values needs an exact match
+                    if (isQuoted(filter)) {
+                        Enum enumFilter;
+                        try {
+                            enumFilter = Enum.valueOf((Class<Enum>) listingAttribute.getType(), removeQuotes(filter));
+                        } catch (IllegalArgumentException e) {
+                            return NONE;
+                        }
+                        return value(listingAttribute, value -> value.equals(enumFilter));
+                    }
+                    Set<Object> enumValues = new HashSet<>();
+                    for (Object enumValue : listingAttribute.getType().getEnumConstants()) {
+                        if (enumValue.toString().toUpperCase().contains(filter.toUpperCase())) {
+                            enumValues.add(enumValue);
+                        }
+                    }
+                    return value(listingAttribute, enumValues::contains);
+                }
+                break;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return predicate that reads the attribute and only tests a value that is not <code>null</code>
+     */
+    private static Predicate<Object> value(ListingAttribute listingAttribute, Predicate<Object> valuePredicate) {
+        return instance -> {
+            Object value = listingAttribute.get(instance);
+            return value != null && valuePredicate.test(value);
+        };
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static Predicate<Object> createNumberPredicate(NumberType numberType, String filter) {
+
+        if (numberType.isValid(filter)) {
+            Object equalFilter = numberType.parse(filter);
+            return value -> value.equals(equalFilter);
+        }
+        if (filter.startsWith(OPERATOR_LIKE) || filter.startsWith(OPERATOR_LIKE_WORD)) {
+            String likeFilter = filter.replace(OPERATOR_LIKE, EMPTY).replace(OPERATOR_LIKE_WORD, EMPTY);
+            if (numberType.isValid(likeFilter)) {
+                Pattern likePattern = likePattern(likeFilter);
+                return value -> likePattern.matcher(value.toString()).matches();
+            }
+        }
+        if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
+            String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
+            if (numberType.isValid(ltFilter)) {
+                Comparable ltValue = numberType.parse(ltFilter);
+                return value -> ((Comparable) value).compareTo(ltValue) < 0;
+            }
+        }
+        if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
+            String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
+            if (numberType.isValid(gtFilter)) {
+                Comparable gtValue = numberType.parse(gtFilter);
+                return value -> ((Comparable) value).compareTo(gtValue) > 0;
+            }
+        }
+        Matcher range = Pattern.compile(rangePattern(numberType.regex)).matcher(filter);
+        if (range.find()) {
+            Comparable from = numberType.parse(range.group(1));
+            Comparable to = numberType.parse(range.group(3));
+            return value -> from.compareTo(value) <= 0 && ((Comparable) value).compareTo(to) <= 0;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return predicate on the epoch milliseconds of a date value
+     */
+    private static LongPredicate createDatePredicate(String filter) {
+
+        if (validDate(filter)) {
+            return between(parseDateTimeToMillis(filter, false), parseDateTimeToMillis(filter, true));
+        }
+        if (filter.startsWith(OPERATOR_LT) || filter.startsWith(OPERATOR_LT_WORD)) {
+            String ltFilter = filter.replace(OPERATOR_LT, EMPTY).replace(OPERATOR_LT_WORD, EMPTY);
+            if (validDate(ltFilter)) {
+                Long filterMillis = parseDateTimeToMillis(ltFilter, false);
+                return filterMillis == null ? millis -> false : millis -> millis < filterMillis;
+            }
+        }
+        if (filter.startsWith(OPERATOR_GT) || filter.startsWith(OPERATOR_GT_WORD)) {
+            String gtFilter = filter.replace(OPERATOR_GT, EMPTY).replace(OPERATOR_GT_WORD, EMPTY);
+            if (validDate(gtFilter)) {
+                Long filterMillis = parseDateTimeToMillis(gtFilter, false);
+                return filterMillis == null ? millis -> false : millis -> millis > filterMillis;
+            }
+        }
+        Matcher dateTimeRange = Pattern.compile(rangePattern(REGEX_DATE)).matcher(filter);
+        if (dateTimeRange.find()) {
+            return between(parseDateTimeToMillis(dateTimeRange.group(1), false), parseDateTimeToMillis(dateTimeRange.group(8), true));
+        }
+        return millis -> false;
+    }
+
+    private static LongPredicate between(Long fromMillis, Long toMillis) {
+        if (fromMillis == null || toMillis == null) {
+            return millis -> false;
+        }
+        long from = fromMillis;
+        long to = toMillis;
+        return millis -> from <= millis && millis <= to;
+    }
+
+    /**
+     * A LIKE filter that only uses {@link CollectionListing#WILDCARD_MANY} as wildcard and has no other RegEx control characters matches every value that
+     * contains its parts in the given order, so there is no need for a pattern.
+     *
+     * @return the lower case parts between the wildcards or <code>null</code> if the filter needs a pattern
+     */
+    private static String[] likeParts(String filter) {
+
+        String likeFilter = filter.replace(WILDCARD_MANY, "*");
+        for (int i = 0; i < likeFilter.length(); i++) {
+            if (REGEX_CONTROL_CHARACTERS.indexOf(likeFilter.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        if (filter.contains(WILDCARD_ONE)) {
+            return null;
+        }
+        List<String> parts = new ArrayList<>();
+        for (String part : likeFilter.toLowerCase().split("\\*")) {
+            if (!part.isEmpty()) {
+                parts.add(part);
+            }
+        }
+        return parts.toArray(new String[parts.size()]);
+    }
+
+    private static boolean hasLineTerminator(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsInOrder(String value, String[] parts) {
+        int index = 0;
+        for (String part : parts) {
+            index = value.indexOf(part, index);
+            if (index < 0) {
+                return false;
+            }
+            index += part.length();
+        }
+        return true;
+    }
+
+    /**
+     * @return the compiled LIKE pattern or <code>null</code> if the filter isn't a valid pattern
+     */
+    private static Pattern likePattern(String filter) {
+        try {
+            return Pattern.compile(likeValue(filter));
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String likeValue(String value) {
+        return ".*" + value.replace(WILDCARD_MANY, ".*").replace(WILDCARD_ONE, ".{1}").toLowerCase() + ".*";
+    }
+
+    private static boolean isQuoted(String value) {
+        return value.startsWith("\"") && value.endsWith("\"");
+    }
+
+    private static String removeQuotes(String value) {
+        return value.replaceAll("^\"|\"$", EMPTY);
+    }
+
+    private static List<String> splitOr(String value) {
+        return Arrays.asList(value.split(escape(OPERATOR_OR)));
+    }
+
+    /**
+     * Escapes all RegEx control characters for the usage like in {@link String#replaceAll(String, String)} or {@link String#split(String)}
+     *
+     * @param value may containing some RegEx control characters like <code>|</code>, <code>?</code>, or <code>*</code>
+     * @return value with escaped RegEx control characters like <code>\\|</code>, <code>\\?</code>, or <code>\\*</code>
+     */
+    private static String escape(String value) {
+        return PATTERN_ESCAPE.matcher(value).replaceAll("\\\\$1");
+    }
+
+    private static Long parseDateTimeToMillis(String dateString, boolean end) {
+        if (dateString != null) {
+            Matcher matcher = PATTERN_DATE.matcher(dateString);
+            if (matcher.find()) {
+                if (matcher.group(5) != null) {
+                    try {
+                        String value = matcher.group(5);
+                        if (value.length() > 4) { // from 10k we interpret this value as milliseconds
+                            return Long.valueOf(value);
+                        }
+                        Integer year = Integer.valueOf(value);
+                        if (year < 100) { // only two digits of year given
+                            year += 2000; // sum it up
+                            if (year > WorkhorseUtil.timestamp().getYear()) {
+                                year -= 100; // if it is in the future, take it back to the 20th century
+                            }
+                        }
+                        // DD.MM.YYYY
+                        if (matcher.group(2) != null && matcher.group(4) != null) {
+                            Integer month = Integer.valueOf(matcher.group(4));
+                            Integer day = Integer.valueOf(matcher.group(2));
+                            LocalDateTime date = LocalDateTime.of(year, month, day, 0, 0, 0).withNano(0);
+                            if (end) {
+
+                                return WorkhorseUtil.toEpochMilli(date.plusDays(1).minus(1l, ChronoUnit.MILLIS));
+                            }
+                            return WorkhorseUtil.toEpochMilli(date);
+                        }
+                        // MM.YYYY
+                        if (matcher.group(2) != null) {
+                            Integer month = Integer.valueOf(matcher.group(2));
+                            LocalDateTime date = LocalDateTime.of(year, month, 1, 0, 0, 0).withNano(0);
+                            if (end) {
+                                return WorkhorseUtil.toEpochMilli(date.plusMonths(1).minus(1l, ChronoUnit.MILLIS));
+                            }
+                            return WorkhorseUtil.toEpochMilli(date);
+                        }
+                        // YYYY
+                        LocalDateTime date = LocalDateTime.of(year, 1, 1, 0, 0, 0).withNano(0);
+                        if (end) {
+                            return WorkhorseUtil.toEpochMilli(date.plusYears(1).minus(1l, ChronoUnit.MILLIS));
+                        }
+                        return WorkhorseUtil.toEpochMilli(date);
+                    } catch (NumberFormatException | DateTimeException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean validDate(String value) {
+        return PATTERN_VALID_DATE.matcher(value).matches();
+    }
+
+    private static String rangePattern(String valueRegex) {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("^(");
+        stringBuilder.append(valueRegex);
+        stringBuilder.append(")(");
+        stringBuilder.append(escape(OPERATOR_TO));
+        stringBuilder.append("|");
+        stringBuilder.append(escape(OPERATOR_TO_WORD));
+        stringBuilder.append(")(");
+        stringBuilder.append(valueRegex);
+        stringBuilder.append(")$");
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Result of {@link ListingQueryPlan#top(Collection, int)} and {@link ListingQueryPlan#select(Object[], int, ForkJoinPool)}
+     */
+    static final class Selection<T> {
+
+        private final long count;
+        private final List<T> selected;
+
+        private Selection(long count, List<T> selected) {
+            this.count = count;
+            this.selected = selected;
+        }
+
+        /**
+         * @return number of all matching entities
+         */
+        long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the first matching entities in order
+         */
+        List<T> getSelected() {
+            return selected;
+        }
+    }
+
+    /**
+     * Number of matches of a range of entities and the first of them in order
+     */
+    private static final class Partition<T> {
+
+        private final long count;
+        private final List<Ranked<T>> ranked;
+
+        private Partition(long count, List<Ranked<T>> ranked) {
+            this.count = count;
+            this.ranked = ranked;
+        }
+    }
+
+    /**
+     * Counts the matches and keeps the first <tt>k</tt> of them: in a bounded heap if there is an attribute to sort by, otherwise in the order they are offered
+     */
+    private final class Selector {
+
+        private final int k;
+        private final PriorityQueue<Ranked<T>> heap;
+        private final List<Ranked<T>> first;
+        private long count;
+
+        private Selector(int k) {
+            this.k = k;
+            if (isSorted()) {
+                heap = new PriorityQueue<>(Math.min(k, 1024) + 1, (a, b) -> order(b, a));
+                first = null;
+            } else {
+                heap = null;
+                first = new ArrayList<>(Math.min(k, 1024));
+            }
+        }
+
+        private void offer(T instance, long index) {
+
+            if (!test(instance)) {
+                return;
+            }
+            count++;
+            if (heap == null) {
+                if (first.size() < k) {
+                    first.add(new Ranked<>(instance, index));
+                }
+            } else if (heap.size() < k) {
+                heap.add(new Ranked<>(instance, index));
+            } else if (k > 0 && order(instance, index, heap.peek().instance, heap.peek().index) < 0) {
+                // the last of the selected ones gets replaced
+                heap.poll();
+                heap.add(new Ranked<>(instance, index));
+            }
+        }
+
+        private Partition<T> toPartition() {
+
+            if (heap == null) {
+                return new Partition<>(count, first);
+            }
+            List<Ranked<T>> ranked = new ArrayList<>(heap);
+            ranked.sort(ListingQueryPlan.this::order);
+            return new Partition<>(count, ranked);
+        }
+    }
+
+    /**
+     * Selects the matches of the range <tt>[from, to)</tt> of the elements, a range larger than <tt>rangeSize</tt> gets split in halves
+     */
+    private final class SelectTask extends RecursiveTask<Partition<T>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] elements;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final int rangeSize;
+
+        private SelectTask(Object[] elements, int from, int to, int k, int rangeSize) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.rangeSize = rangeSize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Partition<T> compute() {
+
+            if (to - from <= rangeSize) {
+                Selector selector = new Selector(k);
+                for (int i = from; i < to; i++) {
+                    selector.offer((T) elements[i], i);
+                }
+                return selector.toPartition();
+            }
+            int middle = (from + to) >>> 1;
+            SelectTask left = new SelectTask(elements, from, middle, k, rangeSize);
+            left.fork();
+            Partition<T> right = new SelectTask(elements, middle, to, k, rangeSize).compute();
+            return merge(left.join(), right, k);
+        }
+    }
+
+    private static final class Ranked<T> {
+
+        private final T instance;
+        private final long index;
+
+        private Ranked(T instance, long index) {
+            this.instance = instance;
+            this.index = index;
+        }
+    }
+
+    private static final class CostedPredicate {
+
+        private final Predicate<Object> predicate;
+        private final int cost;
+
+        private CostedPredicate(Predicate<Object> predicate, int cost) {
+            this.predicate = predicate;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * Filter values of a number attribute
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class NumberType {
+
+        private final String regex;
+        private final Pattern valid;
+        private final Function<String, Comparable> parser;
+
+        private NumberType(String regex, Function<String, Comparable> parser) {
+            this.regex = regex;
+            this.valid = Pattern.compile("^" + regex + "$");
+            this.parser = parser;
+        }
+
+        private boolean isValid(String value) {
+            return valid.matcher(value).matches();
+        }
+
+        private Comparable parse(String value) {
+            return parser.apply(value);
+        }
+    }
+
+}
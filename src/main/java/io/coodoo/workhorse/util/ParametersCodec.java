@@ -0,0 +1,29 @@
+package io.coodoo.workhorse.util;
+
+import io.coodoo.workhorse.core.boundary.WorkerWith;
+import io.coodoo.workhorse.core.entity.Execution;
+
+/**
+ * Converts the parameters of a {@link WorkerWith} worker from and to the string that is stored in {@link Execution#getParameters()}.
+ * 
+ * A worker gets its codec once by {@link WorkerWith#createParametersCodec(java.lang.reflect.Type)}, so an implementation has to be thread-safe. The default
+ * is {@link JsonParametersCodec}, a worker can override the factory method to use a faster or more compact format.
+ * 
+ * @param <T> type of the parameters
+ * @author coodoo GmbH (coodoo.io)
+ */
+public interface ParametersCodec<T> {
+
+    /**
+     * @param parameters stored parameters, may be <code>null</code>
+     * @return the parameters object or <code>null</code> if there are no parameters
+     */
+    T decode(String parameters);
+
+    /**
+     * @param parameters parameters object, may be <code>null</code>
+     * @return the parameters to store or <code>null</code> if there are no parameters
+     */
+    String encode(T parameters);
+
+}
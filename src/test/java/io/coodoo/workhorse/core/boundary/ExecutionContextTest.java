@@ -1,11 +1,20 @@
 package io.coodoo.workhorse.core.boundary;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -18,6 +27,7 @@ import org.slf4j.Logger;
 
 import io.coodoo.workhorse.core.control.StaticConfig;
 import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionLog;
 import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.WorkhorseConfig;
 import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
@@ -66,7 +76,94 @@ public class ExecutionContextTest {
         classUnderTest.init(execution);
         classUnderTest.logLine(given);
 
-        verify(executionPersistence).log(execution.getJobId(), execution.getId(), expected);
+        classUnderTest.flushLog();
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList(expected));
+    }
+
+    @Test
+    public void testLogLine_buffered() throws Exception {
+
+        classUnderTest.init(execution);
+        classUnderTest.logLine("first");
+        classUnderTest.logLine("second");
+
+        verify(executionPersistence, never()).logAll(anyLong(), anyLong(), anyListOf(String.class));
+
+        classUnderTest.flushLog();
+
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList("first", "second"));
+    }
+
+    @Test
+    public void testLogLine_bufferFull() throws Exception {
+
+        classUnderTest.init(execution);
+        for (int i = 0; i < ExecutionContext.LOG_BUFFER_MAX_LINES; i++) {
+            classUnderTest.logLine("line");
+        }
+
+        verify(executionPersistence).logAll(anyLong(), anyLong(), anyListOf(String.class));
+        assertTrue(classUnderTest.logBuffer.isEmpty());
+    }
+
+    @Test
+    public void testLogLine_flushedWhenDue() throws Exception {
+
+        classUnderTest.init(execution);
+        classUnderTest.logLine("first");
+        classUnderTest.logBufferSince -= ExecutionContext.LOG_BUFFER_MAX_MILLIS;
+
+        // there is no timer, the next line writes the buffer
+        verify(executionPersistence, never()).logAll(anyLong(), anyLong(), anyListOf(String.class));
+
+        classUnderTest.logLine("second");
+
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList("first", "second"));
+        assertTrue(classUnderTest.logBuffer.isEmpty());
+    }
+
+    @Test
+    public void testLogLine_flushedOnNextExecution() throws Exception {
+
+        Execution firstExecution = new Execution();
+        firstExecution.setJobId(1L);
+        firstExecution.setId(1L);
+        Execution secondExecution = new Execution();
+        secondExecution.setJobId(1L);
+        secondExecution.setId(2L);
+
+        classUnderTest.init(firstExecution);
+        classUnderTest.logLine("first");
+        classUnderTest.init(secondExecution);
+        classUnderTest.logLine("second");
+
+        verify(executionPersistence).logAll(1L, 1L, Arrays.asList("first"));
+        verify(executionPersistence, never()).logAll(1L, 2L, Arrays.asList("second"));
+    }
+
+    @Test
+    public void testGetLog_flushesBuffer() throws Exception {
+
+        classUnderTest.init(execution);
+        classUnderTest.logLine("first");
+        when(executionPersistence.getLog(execution.getJobId(), execution.getId())).thenReturn(new ExecutionLog());
+
+        classUnderTest.getLog();
+
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList("first"));
+    }
+
+    @Test
+    public void testGetLogTimeFormatter_cached() throws Exception {
+
+        StaticConfig.LOG_TIME_FORMATTER = "HH:mm";
+        DateTimeFormatter formatter = ExecutionContext.getLogTimeFormatter();
+
+        assertSame(formatter, ExecutionContext.getLogTimeFormatter());
+
+        StaticConfig.LOG_TIME_FORMATTER = "HH:mm:ss";
+
+        assertNotSame(formatter, ExecutionContext.getLogTimeFormatter());
     }
 
     @Test
@@ -90,7 +187,8 @@ public class ExecutionContextTest {
         classUnderTest.init(execution);
         classUnderTest.appendLog(message, false, "i");
 
-        verify(executionPersistence).log(execution.getJobId(), execution.getId(), expected);
+        classUnderTest.flushLog();
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList(expected));
 
     }
 
@@ -115,7 +213,8 @@ public class ExecutionContextTest {
         classUnderTest.init(execution);
         classUnderTest.appendLog(message, false, "w");
 
-        verify(executionPersistence).log(execution.getJobId(), execution.getId(), expected);
+        classUnderTest.flushLog();
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList(expected));
 
     }
 
@@ -140,7 +239,8 @@ public class ExecutionContextTest {
         classUnderTest.init(execution);
         classUnderTest.appendLog(message, false, "e");
 
-        verify(executionPersistence).log(execution.getJobId(), execution.getId(), expected);
+        classUnderTest.flushLog();
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList(expected));
 
     }
 
@@ -180,7 +280,8 @@ public class ExecutionContextTest {
         classUnderTest.init(execution);
         classUnderTest.appendLog(message, false, "e");
 
-        verify(executionPersistence).log(execution.getJobId(), execution.getId(), message);
+        classUnderTest.flushLog();
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList(message));
     }
 
     @Test
@@ -192,7 +293,8 @@ public class ExecutionContextTest {
         classUnderTest.init(execution);
         classUnderTest.appendLog(message, false, "i");
 
-        verify(executionPersistence).log(execution.getJobId(), execution.getId(), message);
+        classUnderTest.flushLog();
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList(message));
 
     }
 
@@ -205,7 +307,8 @@ public class ExecutionContextTest {
         classUnderTest.init(execution);
         classUnderTest.appendLog(message, false, "w");
 
-        verify(executionPersistence).log(execution.getJobId(), execution.getId(), message);
+        classUnderTest.flushLog();
+        verify(executionPersistence).logAll(execution.getJobId(), execution.getId(), Arrays.asList(message));
 
     }
 
@@ -269,12 +372,15 @@ public class ExecutionContextTest {
         Execution expectedExecution = execution;
         expectedExecution.setSummary(summary);
 
-        ArgumentCaptor<String> argumentString = ArgumentCaptor.forClass(String.class);
+        classUnderTest.flushLog();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<List<String>> argumentLogs = ArgumentCaptor.forClass((Class) List.class);
         ArgumentCaptor<Long> argumentJobId = ArgumentCaptor.forClass(Long.class);
         ArgumentCaptor<Long> argumentExecutionId = ArgumentCaptor.forClass(Long.class);
-        verify(executionPersistence).log(argumentJobId.capture(), argumentExecutionId.capture(), argumentString.capture());
+        verify(executionPersistence).logAll(argumentJobId.capture(), argumentExecutionId.capture(), argumentLogs.capture());
 
-        assertTrue(argumentString.getValue().endsWith("[SUMMARY]" + " " + summary));
+        assertTrue(argumentLogs.getValue().get(0).endsWith("[SUMMARY]" + " " + summary));
 
     }
 
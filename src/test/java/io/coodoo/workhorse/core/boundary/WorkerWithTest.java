@@ -1,8 +1,19 @@
 package io.coodoo.workhorse.core.boundary;
 
 import static org.junit.Assert.assertEquals;
-
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -16,7 +27,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import io.coodoo.workhorse.core.control.WorkhorseController;
 import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.util.ParametersCodec;
 import io.coodoo.workhorse.util.WorkhorseUtil;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -31,6 +45,38 @@ public class WorkerWithTest {
     private static Set<String> STRING_SET;
     private static Map<Long, String> LONG_STRING_MAP;
 
+    public class TypeWorkBatch extends WorkerWith<Integer> {
+        @Override
+        public String doWork(Integer parameters) throws Exception {
+            if (parameters < 0) {
+                throw new IllegalArgumentException("negative");
+            }
+            return "done " + parameters;
+        }
+    }
+
+    public class TypeCustomCodec extends WorkerWith<String> {
+        @Override
+        public String doWork(String parameters) throws Exception {
+            return null;
+        }
+
+        @Override
+        protected ParametersCodec<String> createParametersCodec(Type parametersType) {
+            return new ParametersCodec<String>() {
+                @Override
+                public String decode(String parameters) {
+                    return parameters == null ? null : new StringBuilder(parameters).reverse().toString();
+                }
+
+                @Override
+                public String encode(String parameters) {
+                    return parameters == null ? null : new StringBuilder(parameters).reverse().toString();
+                }
+            };
+        }
+    }
+
     public class TypeString extends WorkerWith<String> {
         @Override
         public String doWork(String parameters) throws Exception {
@@ -94,6 +140,9 @@ public class WorkerWithTest {
     @Mock
     private WorkhorseService jobEngineService;
 
+    @Mock
+    private WorkhorseController workhorseController;
+
     @InjectMocks
     private TypeString workerWithString = new TypeString();
 
@@ -130,6 +179,24 @@ public class WorkerWithTest {
         LONG_STRING_MAP = new HashMap<>();
     }
 
+    @Test
+    public void testCreateChainedExecutions_firstAlreadyQueued() throws Exception {
+
+        Job job = new Job();
+        job.setId(1L);
+        job.setUniqueQueued(true);
+        when(workhorseController.getByWorkerClassName(TypeString.class.getName())).thenReturn(job);
+
+        // the execution of the first parameters is already queued, so only the second one gets created
+        Execution created = new Execution();
+        created.setId(100L);
+        created.setChainId(100L);
+        when(workhorseController.createNewExecutions(eq(1L), anyListOf(String.class), anyInt(), any(LocalDateTime.class), any(LocalDateTime.class),
+                        any(Long.class), eq(Execution.FIRST_EXECUTION_ID), eq(true))).thenReturn(Arrays.asList(created));
+
+        assertEquals(Long.valueOf(100L), workerWithString.createChainedExecutions(Arrays.asList("queued", "new")));
+    }
+
     @Test
     public void testGetParametersString() throws Exception {
 
@@ -340,4 +407,66 @@ public class WorkerWithTest {
         workerWithMapLongString.doWork(LONG_STRING_MAP);
     }
 
+    @Test
+    public void testDoWorkBatch() throws Exception {
+
+        WorkBatchResult result = new TypeWorkBatch().doWorkBatch(Arrays.asList(1, -2, 3));
+
+        assertEquals(3, result.size());
+        assertEquals("done 1", result.getSummary(0));
+        assertTrue(result.isFailed(1));
+        assertEquals("negative", result.getFailure(1).getMessage());
+        assertFalse(result.isFailed(2));
+        assertEquals("done 3", result.getSummary(2));
+    }
+
+    @Test
+    public void testGetParametersListPojo_typed() throws Exception {
+
+        Pojo pojo = new Pojo();
+        pojo.s = "first";
+        POJO_LIST.add(pojo);
+        POJO_LIST.add(new Pojo());
+
+        Execution jobExecution = new Execution();
+        jobExecution.setParameters(WorkhorseUtil.parametersToJson(POJO_LIST));
+
+        List<Pojo> result = workerWithListPojo.getParameters(jobExecution);
+
+        assertEquals(2, result.size());
+        assertEquals(Pojo.class, result.get(0).getClass());
+        assertEquals("first", result.get(0).s);
+    }
+
+    @Test
+    public void testGetParametersMapLongString_typed() throws Exception {
+
+        LONG_STRING_MAP.put(7L, "seven");
+
+        Execution jobExecution = new Execution();
+        jobExecution.setParameters(WorkhorseUtil.parametersToJson(LONG_STRING_MAP));
+
+        Map<Long, String> result = workerWithMapLongString.getParameters(jobExecution);
+
+        assertEquals("seven", result.get(7L));
+    }
+
+    @Test
+    public void testGetParametersCodec_created_once() throws Exception {
+
+        assertSame(workerWithListPojo.getParametersCodec(), workerWithListPojo.getParametersCodec());
+    }
+
+    @Test
+    public void testGetParameters_custom_codec() throws Exception {
+
+        TypeCustomCodec worker = new TypeCustomCodec();
+
+        Execution jobExecution = new Execution();
+        jobExecution.setParameters(worker.encodeParameters("abc"));
+
+        assertEquals("cba", jobExecution.getParameters());
+        assertEquals("abc", worker.getParameters(jobExecution));
+    }
+
 }
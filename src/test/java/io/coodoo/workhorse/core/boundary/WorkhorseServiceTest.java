@@ -18,10 +18,12 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import io.coodoo.workhorse.core.control.ExecutionBuffer;
 import io.coodoo.workhorse.core.control.JobScheduler;
+import io.coodoo.workhorse.core.control.ListingCache;
 import io.coodoo.workhorse.core.control.StaticConfig;
 import io.coodoo.workhorse.core.control.Workhorse;
 import io.coodoo.workhorse.core.control.WorkhorseConfigController;
@@ -29,6 +31,7 @@ import io.coodoo.workhorse.core.control.WorkhorseController;
 import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.ExecutionStatusCounts;
 import io.coodoo.workhorse.core.entity.JobStatus;
+import io.coodoo.workhorse.core.entity.RetryBackoff;
 import io.coodoo.workhorse.core.entity.WorkhorseConfig;
 import io.coodoo.workhorse.persistence.WorkhorsePersistence;
 import io.coodoo.workhorse.persistence.memory.MemoryConfigBuilder;
@@ -60,6 +63,9 @@ public class WorkhorseServiceTest {
     @Mock
     JobScheduler jobScheduler;
 
+    @Spy
+    ListingCache listingCache = new ListingCache();
+
     @Rule
     public ExpectedException exceptionRule = ExpectedException.none();
 
@@ -247,7 +253,7 @@ public class WorkhorseServiceTest {
         job.setStatus(JobStatus.ACTIVE);
 
         when(workhorseController.getJobById(jobId)).thenReturn(job);
-        when(workhorseController.updateJob(jobId, null, null, null, null, status, 2, 1000, 1, 4, 30, false)).thenReturn(job);
+        when(workhorseController.updateJob(jobId, null, null, null, null, status, 2, 1000, 0, 1, 1, 4, RetryBackoff.FIXED, 0, 1, 0, 30, false)).thenReturn(job);
 
         classUnderTest.updateJob(jobId, null, null, null, null, status, 2, 1000, 1, 4, 30, false);
 
@@ -268,7 +274,8 @@ public class WorkhorseServiceTest {
         job.setSchedule(schedule);
 
         when(workhorseController.getJobById(jobId)).thenReturn(job);
-        when(workhorseController.updateJob(jobId, null, null, null, schedule, status, 2, 1000, 1, 4, 30, false)).thenReturn(job);
+        when(workhorseController.updateJob(jobId, null, null, null, schedule, status, 2, 1000, 0, 1, 1, 4, RetryBackoff.FIXED, 0, 1, 0, 30, false))
+                        .thenReturn(job);
 
         classUnderTest.updateJob(jobId, null, null, null, schedule, status, 2, 1000, 1, 4, 30, false);
 
@@ -288,7 +295,7 @@ public class WorkhorseServiceTest {
         job.setStatus(JobStatus.INACTIVE);
 
         when(workhorseController.getJobById(jobId)).thenReturn(job);
-        when(workhorseController.updateJob(jobId, null, null, null, null, status, 2, 1000, 1, 4, 30, false)).thenReturn(job);
+        when(workhorseController.updateJob(jobId, null, null, null, null, status, 2, 1000, 0, 1, 1, 4, RetryBackoff.FIXED, 0, 1, 0, 30, false)).thenReturn(job);
 
         classUnderTest.updateJob(jobId, null, null, null, null, status, 2, 1000, 1, 4, 30, false);
 
@@ -297,4 +304,53 @@ public class WorkhorseServiceTest {
         verify(workhorse, times(0)).poll(job);
     }
 
+    @Test
+    public void testUpdateJob_rateLimit() throws Exception {
+
+        Long jobId = 1L;
+        JobStatus status = JobStatus.ACTIVE;
+
+        Job job = new Job();
+        job.setId(jobId);
+        job.setStatus(status);
+        job.setMaxPerMinute(10);
+        job.setRateLimitWindow(3600);
+        job.setRateLimitBurst(5);
+
+        when(workhorseController.getJobById(jobId)).thenReturn(job);
+        when(workhorseController.updateJob(jobId, null, null, null, null, status, 2, 10, 3600, 5, 1, 4, RetryBackoff.FIXED, 0, 1, 0, 30, false))
+                        .thenReturn(job);
+
+        classUnderTest.updateJob(jobId, null, null, null, null, status, 2, 10, 3600, 5, 1, 4, RetryBackoff.FIXED, 0, 1, 0, 30, false);
+
+        // the buffer of the job takes over the new rate limit
+        verify(executionBuffer).initialize(job);
+    }
+
+    @Test
+    public void testUpdateJob_keepsSettings() throws Exception {
+
+        Long jobId = 1L;
+        JobStatus status = JobStatus.INACTIVE;
+
+        Job job = new Job();
+        job.setId(jobId);
+        job.setStatus(status);
+        job.setRateLimitWindow(3600);
+        job.setRateLimitBurst(5);
+        job.setRetryBackoff(RetryBackoff.EXPONENTIAL);
+        job.setRetryDelayMax(60000);
+        job.setWorkBatchSize(10);
+        job.setWorkBatchWait(500);
+
+        when(workhorseController.getJobById(jobId)).thenReturn(job);
+        when(workhorseController.updateJob(jobId, null, null, null, null, status, 2, 10, 3600, 5, 1, 4, RetryBackoff.EXPONENTIAL, 60000, 10, 500, 30, false))
+                        .thenReturn(job);
+
+        classUnderTest.updateJob(jobId, null, null, null, null, status, 2, 10, 1, 4, 30, false);
+
+        verify(workhorseController).updateJob(jobId, null, null, null, null, status, 2, 10, 3600, 5, 1, 4, RetryBackoff.EXPONENTIAL, 60000, 10, 500, 30,
+                        false);
+    }
+
 }
@@ -0,0 +1,104 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+
+/**
+ * Cost of one poll cycle that offers all already buffered executions again to the {@link JobBuffer}, like the fallback poller of the pusher does.
+ *
+ * <code>offer</code> uses the set of known IDs, <code>scanQueues</code> walks the queues like the admission check did before.
+ *
+ * Run the <code>main</code> method on the test classpath (after <code>mvn test-compile</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobBufferBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int bufferSize;
+
+    JobBuffer jobBuffer;
+    List<Execution> polledExecutions;
+    Queue<Execution> executions;
+    Queue<Execution> priorityExecutions;
+
+    @Setup
+    public void setup() {
+        jobBuffer = new JobBuffer(1);
+        polledExecutions = new ArrayList<>();
+        for (long id = 1; id <= bufferSize; id++) {
+            Execution execution = new Execution();
+            execution.setId(id);
+            execution.setJobId(1L);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            execution.setPriority(id % 10 == 0);
+            jobBuffer.offer(execution);
+            polledExecutions.add(execution);
+        }
+        // the queues as they were scanned before
+        executions = new ConcurrentLinkedQueue<>(jobBuffer.getExecutions());
+        priorityExecutions = new ConcurrentLinkedQueue<>(jobBuffer.getPriorityExecutions());
+    }
+
+    @Benchmark
+    public int offer() {
+        int added = 0;
+        for (Execution execution : polledExecutions) {
+            if (jobBuffer.offer(execution)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    @Benchmark
+    public int scanQueues() {
+        int added = 0;
+        for (Execution execution : polledExecutions) {
+            Long executionId = execution.getId();
+            if (!jobBuffer.getRunningExecutions().contains(executionId) && !contains(executions, executionId)
+                            && !contains(priorityExecutions, executionId)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static boolean contains(Queue<Execution> queue, Long executionId) {
+        for (Execution execution : queue) {
+            if (executionId.equals(execution.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JobBufferBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
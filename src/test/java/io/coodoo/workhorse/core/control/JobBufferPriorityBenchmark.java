@@ -0,0 +1,113 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+
+/**
+ * Throughput of offering and polling a batch of executions with mixed priority levels.
+ *
+ * <code>levels</code> uses the {@link JobBuffer} with one queue per priority level (with and without aging), <code>twoQueues</code> is the former
+ * priority/normal queue pair with the same set of known IDs as baseline.
+ *
+ * Run the <code>main</code> method on the test classpath (after <code>mvn test-compile</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobBufferPriorityBenchmark {
+
+    @Param({"100", "1000"})
+    int batchSize;
+
+    @Param({"0", "10000"})
+    long priorityAgingMillis;
+
+    JobBuffer jobBuffer;
+    List<Execution> executions;
+    Queue<Execution> normalQueue;
+    Queue<Execution> priorityQueue;
+    Set<Long> knownExecutionIds;
+
+    @Setup
+    public void setup() {
+        jobBuffer = new JobBuffer(1);
+        jobBuffer.setPriorityAgingMillis(priorityAgingMillis);
+        normalQueue = new ConcurrentLinkedQueue<>();
+        priorityQueue = new ConcurrentLinkedQueue<>();
+        knownExecutionIds = ConcurrentHashMap.newKeySet();
+        executions = new ArrayList<>();
+        for (long id = 1; id <= batchSize; id++) {
+            Execution execution = new Execution();
+            execution.setId(id);
+            execution.setJobId(1L);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            execution.setPriorityLevel((int) (id % 10));
+            executions.add(execution);
+        }
+    }
+
+    @Benchmark
+    public long levels() {
+        for (Execution execution : executions) {
+            jobBuffer.offer(execution);
+        }
+        long sum = 0;
+        Execution execution;
+        while ((execution = jobBuffer.poll()) != null) {
+            jobBuffer.removeRunningExecution(execution.getId());
+            sum += execution.getId();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long twoQueues() {
+        for (Execution execution : executions) {
+            if (!knownExecutionIds.add(execution.getId())) {
+                continue;
+            }
+            if (execution.isPriority()) {
+                priorityQueue.add(execution);
+            } else {
+                normalQueue.add(execution);
+            }
+        }
+        long sum = 0;
+        Execution execution;
+        while ((execution = priorityQueue.isEmpty() ? normalQueue.poll() : priorityQueue.poll()) != null) {
+            knownExecutionIds.remove(execution.getId());
+            sum += execution.getId();
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JobBufferPriorityBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
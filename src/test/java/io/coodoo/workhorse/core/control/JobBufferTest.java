@@ -0,0 +1,303 @@
+package io.coodoo.workhorse.core.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+
+public class JobBufferTest {
+
+    @Test
+    public void testTryAcquireJobThread() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(2);
+
+        assertTrue(classUnderTest.tryAcquireJobThread());
+        assertTrue(classUnderTest.tryAcquireJobThread());
+        assertFalse(classUnderTest.tryAcquireJobThread());
+        assertEquals(2, classUnderTest.getRunningJobThreadCount());
+    }
+
+    @Test
+    public void testReleaseJobThread() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+
+        assertTrue(classUnderTest.tryAcquireJobThread());
+        assertFalse(classUnderTest.tryAcquireJobThread());
+
+        classUnderTest.releaseJobThread();
+
+        assertEquals(0, classUnderTest.getRunningJobThreadCount());
+        assertTrue(classUnderTest.tryAcquireJobThread());
+    }
+
+    @Test
+    public void testReleaseJobThread_never_negative() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+
+        classUnderTest.releaseJobThread();
+
+        assertEquals(0, classUnderTest.getRunningJobThreadCount());
+    }
+
+    @Test
+    public void testTryAcquireJobThread_concurrent() throws Exception {
+
+        int threads = 16;
+        int jobThreadCount = 4;
+        JobBuffer classUnderTest = new JobBuffer(jobThreadCount);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (classUnderTest.tryAcquireJobThread()) {
+                        acquired.incrementAndGet();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(jobThreadCount, acquired.get());
+        assertEquals(jobThreadCount, classUnderTest.getRunningJobThreadCount());
+    }
+
+    @Test
+    public void testHasQueuedExecutions() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        assertFalse(classUnderTest.hasQueuedExecutions());
+
+        classUnderTest.offer(priorityExecution(1L));
+        assertTrue(classUnderTest.hasQueuedExecutions());
+
+        classUnderTest.clearQueues();
+        assertFalse(classUnderTest.hasQueuedExecutions());
+        assertFalse(classUnderTest.isKnown(1L));
+    }
+
+    @Test
+    public void testOffer() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+
+        assertTrue(classUnderTest.offer(execution(1L)));
+        assertFalse(classUnderTest.offer(execution(1L)));
+        assertTrue(classUnderTest.offer(priorityExecution(2L)));
+
+        assertEquals(2, classUnderTest.size());
+        assertEquals(1, classUnderTest.getExecutions().size());
+        assertEquals(1, classUnderTest.getPriorityExecutions().size());
+    }
+
+    @Test
+    public void testOffer_polled_and_running() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        classUnderTest.offer(execution(1L));
+
+        Execution polled = classUnderTest.poll();
+
+        // a polled execution must not be added again while it is processed
+        assertFalse(classUnderTest.offer(polled));
+
+        classUnderTest.addRunningExecution(polled.getId());
+        assertFalse(classUnderTest.offer(polled));
+        assertFalse(classUnderTest.isQueued(polled.getId()));
+        assertEquals(1, classUnderTest.size());
+
+        classUnderTest.removeRunningExecution(polled.getId());
+        assertFalse(classUnderTest.isKnown(polled.getId()));
+        assertEquals(0, classUnderTest.size());
+        assertTrue(classUnderTest.offer(polled));
+    }
+
+    @Test
+    public void testPoll_priority_first() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        Execution execution = execution(1L);
+        Execution priorityExecution = priorityExecution(2L);
+
+        classUnderTest.offer(execution);
+        classUnderTest.offer(priorityExecution);
+
+        assertSame(priorityExecution, classUnderTest.poll());
+        assertSame(execution, classUnderTest.poll());
+        assertNull(classUnderTest.poll());
+    }
+
+    @Test
+    public void testPoll_priority_levels() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        Execution low = execution(1L);
+        low.setPriorityLevel(3);
+        Execution high = execution(2L);
+        high.setPriorityLevel(7);
+        Execution highSecond = execution(3L);
+        highSecond.setPriorityLevel(7);
+
+        classUnderTest.offer(low);
+        classUnderTest.offer(high);
+        classUnderTest.offer(highSecond);
+
+        assertSame(high, classUnderTest.poll());
+        assertSame(highSecond, classUnderTest.poll());
+        assertSame(low, classUnderTest.poll());
+        assertNull(classUnderTest.poll());
+    }
+
+    @Test
+    public void testPoll_priority_aging() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        classUnderTest.setPriorityAgingMillis(5);
+        Execution execution = execution(1L);
+        classUnderTest.offer(execution);
+
+        // a steady stream of executions with the highest level must not starve the waiting one
+        long id = 100L;
+        int polled = 0;
+        while (true) {
+            Execution priorityExecution = execution(id++);
+            priorityExecution.setPriorityLevel(Execution.PRIORITY_LEVEL_MAX);
+            classUnderTest.offer(priorityExecution);
+            Execution next = classUnderTest.poll();
+            if (next == execution) {
+                break;
+            }
+            classUnderTest.removeRunningExecution(next.getId());
+            polled++;
+            assertTrue("execution got starved", polled < 100000);
+            Thread.sleep(1);
+        }
+        assertTrue(polled > 0);
+    }
+
+    @Test
+    public void testPoll_priority_aging_disabled() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        Execution execution = execution(1L);
+        classUnderTest.offer(execution);
+        Thread.sleep(20);
+        Execution priorityExecution = priorityExecution(2L);
+        classUnderTest.offer(priorityExecution);
+
+        assertSame(priorityExecution, classUnderTest.poll());
+        assertSame(execution, classUnderTest.poll());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        classUnderTest.offer(execution(1L));
+        classUnderTest.offer(priorityExecution(2L));
+
+        assertTrue(classUnderTest.isQueued(2L));
+        assertTrue(classUnderTest.remove(2L));
+        assertFalse(classUnderTest.isQueued(2L));
+        assertFalse(classUnderTest.remove(3L));
+        assertTrue(classUnderTest.isQueued(1L));
+    }
+
+    @Test
+    public void testUpdateRateLimit() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+        assertNull(classUnderTest.getRateLimiter());
+
+        classUnderTest.updateRateLimit(60);
+        RateLimiter rateLimiter = classUnderTest.getRateLimiter();
+        assertEquals(60, rateLimiter.getPermits());
+
+        // an unchanged limit keeps the state of the token bucket
+        classUnderTest.updateRateLimit(60);
+        assertSame(rateLimiter, classUnderTest.getRateLimiter());
+
+        classUnderTest.updateRateLimit(120);
+        assertEquals(120, classUnderTest.getRateLimiter().getPermits());
+
+        classUnderTest.updateRateLimit(null);
+        assertNull(classUnderTest.getRateLimiter());
+    }
+
+    @Test
+    public void testUpdateRateLimit_windowAndBurst() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+
+        classUnderTest.updateRateLimit(10, 3600, 5);
+        RateLimiter rateLimiter = classUnderTest.getRateLimiter();
+        assertTrue(rateLimiter.hasLimit(10, 1, TimeUnit.HOURS, 5));
+
+        classUnderTest.updateRateLimit(10, 3600, 5);
+        assertSame(rateLimiter, classUnderTest.getRateLimiter());
+
+        classUnderTest.updateRateLimit(10, 3600, 2);
+        assertEquals(2, classUnderTest.getRateLimiter().getBurst());
+
+        // no window means a minute, like for updateRateLimit(maxPerMinute)
+        classUnderTest.updateRateLimit(10, 0, 1);
+        rateLimiter = classUnderTest.getRateLimiter();
+        classUnderTest.updateRateLimit(10);
+        assertSame(rateLimiter, classUnderTest.getRateLimiter());
+    }
+
+    @Test
+    public void testScheduleResume() throws Exception {
+
+        JobBuffer classUnderTest = new JobBuffer(1);
+
+        assertTrue(classUnderTest.scheduleResume());
+        assertFalse(classUnderTest.scheduleResume());
+
+        classUnderTest.resumed();
+
+        assertTrue(classUnderTest.scheduleResume());
+    }
+
+    private Execution execution(Long id) {
+        Execution execution = new Execution();
+        execution.setId(id);
+        execution.setJobId(1L);
+        execution.setStatus(ExecutionStatus.QUEUED);
+        return execution;
+    }
+
+    private Execution priorityExecution(Long id) {
+        Execution execution = execution(id);
+        execution.setPriority(true);
+        return execution;
+    }
+
+}
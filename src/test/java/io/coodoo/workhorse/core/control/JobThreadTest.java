@@ -0,0 +1,155 @@
+package io.coodoo.workhorse.core.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.enterprise.event.Event;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.coodoo.workhorse.core.boundary.ExecutionContext;
+import io.coodoo.workhorse.core.boundary.WorkBatchResult;
+import io.coodoo.workhorse.core.boundary.Worker;
+import io.coodoo.workhorse.core.boundary.WorkerWith;
+import io.coodoo.workhorse.core.control.event.AllExecutionsDoneEvent;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JobThreadTest {
+
+    private static final long JOB_ID = 1L;
+
+    @Mock
+    WorkerRegistry workerRegistry;
+
+    @Mock
+    ExecutionPersistence executionPersistence;
+
+    @Mock
+    WorkhorseController workhorseController;
+
+    @Mock
+    ExecutionBuffer executionBuffer;
+
+    @Mock
+    Workhorse workhorse;
+
+    @Mock
+    Event<AllExecutionsDoneEvent> allExecutionsDoneEvent;
+
+    @Mock
+    ExecutionContext executionContext;
+
+    @InjectMocks
+    JobThread classUnderTest;
+
+    private Job job;
+    private JobBuffer jobBuffer;
+    private Worker worker;
+
+    @Before
+    public void setUp() {
+
+        job = new Job();
+        job.setId(JOB_ID);
+        job.setWorkerClassName(Worker.class.getName());
+        job.setThreads(1);
+        job.setMaxPerMinute(1);
+        job.setRateLimitWindow(3600);
+        job.setRateLimitBurst(2);
+
+        jobBuffer = new JobBuffer(job.getThreads());
+        jobBuffer.updateRateLimit(job.getMaxPerMinute(), job.getRateLimitWindow(), job.getRateLimitBurst());
+        // the slot of the job thread is reserved by the engine before it gets started
+        jobBuffer.tryAcquireJobThread();
+        when(executionBuffer.getJobBuffer(JOB_ID)).thenReturn(jobBuffer);
+
+        worker = mock(Worker.class);
+        when(worker.getExecutionContext()).thenReturn(executionContext);
+        when(workerRegistry.getWorker(job.getWorkerClassName())).thenReturn(worker);
+    }
+
+    private Execution queuedExecution(Long id) {
+        Execution execution = new Execution();
+        execution.setId(id);
+        execution.setJobId(JOB_ID);
+        execution.setStatus(ExecutionStatus.QUEUED);
+        return execution;
+    }
+
+    @Test
+    public void testExecute_rateLimit() throws Exception {
+
+        Execution execution = queuedExecution(1L);
+        jobBuffer.offer(execution);
+        when(workhorseController.claimExecution(execution)).thenReturn(execution);
+
+        classUnderTest.execute(job);
+
+        verify(worker).doWork();
+        assertEquals(1, jobBuffer.getRateLimiter().getAvailablePermits());
+    }
+
+    @Test
+    public void testExecute_rateLimit_claimLost() throws Exception {
+
+        Execution execution = queuedExecution(1L);
+        jobBuffer.offer(execution);
+        when(workhorseController.claimExecution(execution)).thenReturn(null);
+
+        classUnderTest.execute(job);
+
+        // nothing got started, so the permit is given back
+        verify(worker, never()).doWork();
+        assertEquals(2, jobBuffer.getRateLimiter().getAvailablePermits());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExecute_workBatch() throws Exception {
+
+        job.setWorkBatchSize(3);
+        jobBuffer.updateRateLimit(null);
+        WorkerWith<Object> workerWith = mock(WorkerWith.class);
+        when(workerWith.getExecutionContext()).thenReturn(executionContext);
+        when(workerRegistry.getWorker(job.getWorkerClassName())).thenReturn(workerWith);
+
+        Execution first = queuedExecution(1L);
+        Execution second = queuedExecution(2L);
+        Execution third = queuedExecution(3L);
+        Arrays.asList(first, second, third).forEach(jobBuffer::offer);
+        when(workhorseController.claimExecution(first)).thenReturn(first);
+        // the third execution got claimed elsewhere
+        when(workhorseController.claimExecutions(Arrays.asList(second, third))).thenReturn(Arrays.asList(second));
+
+        classUnderTest.execute(job);
+
+        ArgumentCaptor<List<Execution>> workBatch = ArgumentCaptor.forClass((Class<List<Execution>>) (Class<?>) List.class);
+        verify(workhorseController).finishWorkBatch(eq(job), eq(workerWith), workBatch.capture(), anyListOf(Object.class), any(WorkBatchResult.class),
+                        anyLong());
+        assertEquals(Arrays.asList(first, second), workBatch.getValue());
+        verify(workhorseController, never()).claimExecution(second);
+        assertFalse(jobBuffer.isKnown(third.getId()));
+    }
+
+}
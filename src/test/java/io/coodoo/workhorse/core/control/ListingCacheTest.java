@@ -0,0 +1,234 @@
+package io.coodoo.workhorse.core.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.coodoo.workhorse.core.entity.ListingCacheMetrics;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+import io.coodoo.workhorse.persistence.interfaces.listing.Metadata;
+
+public class ListingCacheTest {
+
+    private long now;
+
+    private ListingCache classUnderTest = new ListingCache() {
+        @Override
+        long now() {
+            return now;
+        }
+    };
+
+    private AtomicInteger queries = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        StaticConfig.LISTING_CACHE_TTL = 5;
+        StaticConfig.LISTING_CACHE_SIZE = 100;
+    }
+
+    @After
+    public void tearDown() {
+        StaticConfig.LISTING_CACHE_TTL = 0;
+    }
+
+    private String query() {
+        return "result " + queries.incrementAndGet();
+    }
+
+    @Test
+    public void testGet() throws Exception {
+
+        String result = classUnderTest.get(1L, ListingCache.key("test"), this::query);
+
+        assertSame(result, classUnderTest.get(1L, ListingCache.key("test"), this::query));
+        assertEquals(1, queries.get());
+
+        ListingCacheMetrics metrics = classUnderTest.getMetrics();
+        assertEquals(1L, metrics.getHits());
+        assertEquals(1L, metrics.getMisses());
+        assertEquals(1, metrics.getSize());
+    }
+
+    @Test
+    public void testGet_disabled() throws Exception {
+
+        StaticConfig.LISTING_CACHE_TTL = 0;
+
+        classUnderTest.get(1L, ListingCache.key("test"), this::query);
+        classUnderTest.get(1L, ListingCache.key("test"), this::query);
+
+        assertEquals(2, queries.get());
+        assertEquals(0, classUnderTest.getMetrics().getSize());
+    }
+
+    @Test
+    public void testGet_expired() throws Exception {
+
+        classUnderTest.get(1L, ListingCache.key("test"), this::query);
+
+        now += TimeUnit.SECONDS.toNanos(4);
+        classUnderTest.get(1L, ListingCache.key("test"), this::query);
+        assertEquals(1, queries.get());
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        classUnderTest.get(1L, ListingCache.key("test"), this::query);
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    public void testGet_leastRecentlyUsedGetsEvicted() throws Exception {
+
+        StaticConfig.LISTING_CACHE_SIZE = 2;
+
+        classUnderTest.get(1L, ListingCache.key("a"), this::query);
+        classUnderTest.get(1L, ListingCache.key("b"), this::query);
+        classUnderTest.get(1L, ListingCache.key("a"), this::query);
+        classUnderTest.get(1L, ListingCache.key("c"), this::query);
+
+        assertEquals(3, queries.get());
+        assertEquals(1L, classUnderTest.getMetrics().getEvictions());
+
+        classUnderTest.get(1L, ListingCache.key("a"), this::query);
+        assertEquals(3, queries.get());
+
+        classUnderTest.get(1L, ListingCache.key("b"), this::query);
+        assertEquals(4, queries.get());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+
+        classUnderTest.get(1L, ListingCache.key("job"), this::query);
+        classUnderTest.get(2L, ListingCache.key("other job"), this::query);
+        classUnderTest.get(null, ListingCache.key("all jobs"), this::query);
+
+        classUnderTest.invalidate(1L);
+
+        classUnderTest.get(1L, ListingCache.key("job"), this::query);
+        classUnderTest.get(2L, ListingCache.key("other job"), this::query);
+        // the results across all jobs include the executions of the job
+        classUnderTest.get(null, ListingCache.key("all jobs"), this::query);
+
+        assertEquals(5, queries.get());
+        assertEquals(1L, classUnderTest.getMetrics().getInvalidations());
+    }
+
+    @Test
+    public void testGet_readOnly() throws Exception {
+
+        List<String> list = classUnderTest.get(1L, ListingCache.key("list"), () -> new ArrayList<>(Arrays.asList("a", "b")));
+        List<String> cachedList = classUnderTest.get(1L, ListingCache.key("list"), () -> new ArrayList<>());
+
+        assertEquals(Arrays.asList("a", "b"), cachedList);
+        try {
+            list.clear();
+            fail("A cached list must not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        Metadata metadata = new Metadata(2L, 1, 10);
+        ListingResult<String> listingResult = classUnderTest.get(1L, ListingCache.key("listing"),
+                        () -> new ListingResult<>(new ArrayList<>(Arrays.asList("a", "b")), metadata));
+        listingResult.setResults(new ArrayList<>());
+        ListingResult<String> cachedListingResult = classUnderTest.get(1L, ListingCache.key("listing"), () -> null);
+
+        assertNotSame(listingResult, cachedListingResult);
+        assertEquals(Arrays.asList("a", "b"), cachedListingResult.getResults());
+        assertSame(metadata, cachedListingResult.getMetadata());
+    }
+
+    @Test
+    public void testInvalidateJobs() throws Exception {
+
+        classUnderTest.get(1L, ListingCache.key("job"), this::query);
+        classUnderTest.get(null, ListingCache.key("all jobs"), this::query);
+
+        classUnderTest.invalidateJobs();
+
+        classUnderTest.get(1L, ListingCache.key("job"), this::query);
+        classUnderTest.get(null, ListingCache.key("all jobs"), this::query);
+
+        assertEquals(3, queries.get());
+    }
+
+    @Test
+    public void testGet_failedQueryIsNotCached() throws Exception {
+
+        try {
+            classUnderTest.get(1L, ListingCache.key("test"), () -> {
+                throw new IllegalStateException("query failed");
+            });
+        } catch (IllegalStateException e) {
+            assertEquals("query failed", e.getMessage());
+        }
+        classUnderTest.get(1L, ListingCache.key("test"), this::query);
+
+        assertEquals(1, queries.get());
+        assertEquals(0L, classUnderTest.getMetrics().getHits());
+    }
+
+    @Test
+    public void testGet_concurrentRequestsQueryOnce() throws Exception {
+
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executorService.submit(() -> classUnderTest.get(1L, ListingCache.key("test"), () -> {
+                queryStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return query();
+            }));
+            queryStarted.await();
+            Future<String> second = executorService.submit(() -> classUnderTest.get(1L, ListingCache.key("test"), this::query));
+
+            release.countDown();
+
+            assertSame(first.get(), second.get());
+            assertEquals(1, queries.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testKey_normalizedListingParameters() throws Exception {
+
+        ListingParameters listingParameters = new ListingParameters(1, 20, "+name");
+        listingParameters.addFilterAttributes("status", "ACTIVE");
+        listingParameters.addFilterAttributes("name", "");
+
+        ListingParameters sameListingParameters = new ListingParameters(null, null, "name");
+        sameListingParameters.addFilterAttributes("status", "ACTIVE");
+
+        assertEquals(ListingCache.key("jobs", listingParameters), ListingCache.key("jobs", sameListingParameters));
+
+        sameListingParameters.setPage(2);
+
+        assertNotEquals(ListingCache.key("jobs", listingParameters), ListingCache.key("jobs", sameListingParameters));
+    }
+
+}
@@ -0,0 +1,124 @@
+package io.coodoo.workhorse.core.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+
+public class PlannedExecutionQueueTest {
+
+    @Test
+    public void testPollDue() throws Exception {
+
+        PlannedExecutionQueue classUnderTest = new PlannedExecutionQueue();
+        Execution first = execution(1L, 1L);
+        Execution second = execution(2L, 1L);
+        Execution later = execution(3L, 1L);
+
+        classUnderTest.add(second, 1001L);
+        classUnderTest.add(first, 1000L);
+        classUnderTest.add(later, 2000L);
+
+        List<Execution> dueExecutions = classUnderTest.pollDue(1001L);
+
+        assertEquals(2, dueExecutions.size());
+        assertSame(first, dueExecutions.get(0));
+        assertSame(second, dueExecutions.get(1));
+        assertEquals(1, classUnderTest.size());
+        assertTrue(classUnderTest.contains(3L));
+        assertTrue(classUnderTest.pollDue(1999L).isEmpty());
+    }
+
+    @Test
+    public void testAdd_reschedule() throws Exception {
+
+        PlannedExecutionQueue classUnderTest = new PlannedExecutionQueue();
+        Execution execution = execution(1L, 1L);
+
+        classUnderTest.add(execution, 1000L);
+        classUnderTest.add(execution, 3000L);
+
+        assertEquals(1, classUnderTest.size());
+        assertTrue(classUnderTest.pollDue(2000L).isEmpty());
+        assertEquals(1, classUnderTest.pollDue(3000L).size());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+
+        PlannedExecutionQueue classUnderTest = new PlannedExecutionQueue();
+        classUnderTest.add(execution(1L, 1L), 1000L);
+        classUnderTest.add(execution(2L, 1L), 1000L);
+
+        assertTrue(classUnderTest.cancel(1L));
+        assertFalse(classUnderTest.cancel(1L));
+        assertFalse(classUnderTest.contains(1L));
+
+        List<Execution> dueExecutions = classUnderTest.pollDue(1000L);
+        assertEquals(1, dueExecutions.size());
+        assertEquals(Long.valueOf(2L), dueExecutions.get(0).getId());
+    }
+
+    @Test
+    public void testCancelJob() throws Exception {
+
+        PlannedExecutionQueue classUnderTest = new PlannedExecutionQueue();
+        classUnderTest.add(execution(1L, 1L), 1000L);
+        classUnderTest.add(execution(2L, 2L), 1000L);
+        classUnderTest.add(execution(3L, 1L), 2000L);
+
+        classUnderTest.cancelJob(1L);
+
+        assertEquals(1, classUnderTest.size());
+        assertTrue(classUnderTest.contains(2L));
+    }
+
+    @Test
+    public void testStart() throws Exception {
+
+        PlannedExecutionQueue classUnderTest = new PlannedExecutionQueue();
+        List<Execution> promoted = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        classUnderTest.start(executions -> {
+            synchronized (promoted) {
+                promoted.addAll(executions);
+            }
+            for (int i = 0; i < executions.size(); i++) {
+                done.countDown();
+            }
+        });
+        long now = System.currentTimeMillis();
+        classUnderTest.add(execution(1L, 1L), now + 50);
+        classUnderTest.add(execution(2L, 1L), now + 50);
+        classUnderTest.add(execution(3L, 1L), now + 10);
+        classUnderTest.add(execution(4L, 1L), now + 60000);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        classUnderTest.stop();
+
+        assertEquals(3, promoted.size());
+        assertEquals(Long.valueOf(3L), promoted.get(0).getId());
+        assertTrue(classUnderTest.contains(4L));
+        assertFalse(classUnderTest.isRunning());
+    }
+
+    private Execution execution(Long id, Long jobId) {
+        Execution execution = new Execution();
+        execution.setId(id);
+        execution.setJobId(jobId);
+        execution.setStatus(ExecutionStatus.PLANNED);
+        return execution;
+    }
+
+}
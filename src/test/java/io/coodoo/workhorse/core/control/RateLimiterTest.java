@@ -0,0 +1,146 @@
+package io.coodoo.workhorse.core.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class RateLimiterTest {
+
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
+
+    @Test
+    public void testTryAcquire_burst() throws Exception {
+
+        RateLimiter classUnderTest = new RateLimiter(1, 1, TimeUnit.HOURS, 3);
+
+        assertTrue(classUnderTest.tryAcquire());
+        assertTrue(classUnderTest.tryAcquire());
+        assertTrue(classUnderTest.tryAcquire());
+        assertFalse(classUnderTest.tryAcquire());
+        assertEquals(0, classUnderTest.getAvailablePermits());
+        assertTrue(classUnderTest.getMillisUntilAvailable() > 0);
+    }
+
+    @Test
+    public void testTryAcquire_refill() throws Exception {
+
+        RateLimiter classUnderTest = new RateLimiter(100, 1, TimeUnit.SECONDS, 1);
+
+        assertTrue(classUnderTest.tryAcquire());
+        assertFalse(classUnderTest.tryAcquire());
+
+        Thread.sleep(classUnderTest.getMillisUntilAvailable() + 5);
+
+        assertTrue(classUnderTest.tryAcquire());
+    }
+
+    @Test
+    public void testPerMinute() throws Exception {
+
+        RateLimiter classUnderTest = RateLimiter.perMinute(30);
+
+        assertEquals(30, classUnderTest.getPermits());
+        assertEquals(1, classUnderTest.getBurst());
+        assertTrue(classUnderTest.hasLimit(30, 60, TimeUnit.SECONDS, 1));
+    }
+
+    @Test
+    public void testPerMinute_no_limit() throws Exception {
+
+        assertNull(RateLimiter.perMinute(null));
+        assertNull(RateLimiter.perMinute(0));
+    }
+
+    @Test
+    public void testPerWindow() throws Exception {
+
+        RateLimiter classUnderTest = RateLimiter.perWindow(10, 3600, 5);
+
+        assertEquals(10, classUnderTest.getPermits());
+        assertEquals(5, classUnderTest.getBurst());
+        assertTrue(classUnderTest.hasLimit(10, 1, TimeUnit.HOURS, 5));
+        assertEquals(5, classUnderTest.getAvailablePermits());
+    }
+
+    @Test
+    public void testPerWindow_defaults() throws Exception {
+
+        RateLimiter classUnderTest = RateLimiter.perWindow(30, 0, 0);
+
+        assertTrue(classUnderTest.hasLimit(30, 1, TimeUnit.MINUTES, 1));
+        assertNull(RateLimiter.perWindow(null, 60, 5));
+    }
+
+    @Test
+    public void testRelease() throws Exception {
+
+        RateLimiter classUnderTest = new RateLimiter(1, 1, TimeUnit.HOURS, 2);
+
+        assertTrue(classUnderTest.tryAcquire());
+        classUnderTest.release();
+        assertEquals(2, classUnderTest.getAvailablePermits());
+
+        // the bucket never holds more than the burst
+        classUnderTest.release();
+        assertEquals(2, classUnderTest.getAvailablePermits());
+    }
+
+    @Test
+    public void testRateLimiter_invalid() throws Exception {
+
+        exceptionRule.expect(RuntimeException.class);
+        exceptionRule.expectMessage("The permits, the window and the burst of a rate limiter must be higher than 0!");
+
+        new RateLimiter(0, 1, TimeUnit.MINUTES, 1);
+    }
+
+    @Test
+    public void testObservedRate_multiple_threads() throws Exception {
+
+        int permitsPerSecond = 50;
+        long measureMillis = 1000;
+        RateLimiter classUnderTest = new RateLimiter(permitsPerSecond, 1, TimeUnit.SECONDS, 1);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    long end = System.currentTimeMillis() + measureMillis;
+                    while (System.currentTimeMillis() < end) {
+                        if (classUnderTest.tryAcquire()) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // one permit of the initial burst plus one permit every 20 milliseconds, shared by all threads
+        int expected = 1 + (int) (permitsPerSecond * measureMillis / 1000);
+        assertTrue("acquired " + acquired.get() + " permits", acquired.get() >= expected - 5 && acquired.get() <= expected + 1);
+    }
+
+}
@@ -0,0 +1,217 @@
+package io.coodoo.workhorse.core.control;
+
+import java.util.ArrayList;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.event.Event;
+import javax.enterprise.event.NotificationOptions;
+import javax.enterprise.util.TypeLiteral;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.coodoo.workhorse.core.boundary.ExecutionContext;
+import io.coodoo.workhorse.core.boundary.Worker;
+import io.coodoo.workhorse.core.boundary.WorkerWith;
+import io.coodoo.workhorse.core.control.event.AllExecutionsDoneEvent;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.core.entity.WorkhorseConfig;
+
+/**
+ * Time to process 10k buffered executions of an I/O bound worker, simulated by a sleep, by the job threads of a job on the worker pool and on virtual
+ * threads. The job threads poll the {@link JobBuffer} and claim and finish the executions like the engine does, only the persistence is left out.
+ *
+ * The <code>virtual</code> mode needs the Java 21 classes of the multi-release JAR. Build it with a JDK 21 toolchain (<code>mvn package</code>) and run the
+ * <code>main</code> method on Java 21 with <code>target/workhorse.jar</code> instead of <code>target/classes</code> on the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    private static final Long JOB_ID = 1L;
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    @Param({"10000"})
+    int executions;
+
+    @Param({"1000"})
+    int jobThreads;
+
+    @Param({"10"})
+    long sleepMillis;
+
+    ExecutorService executorService;
+    ExecutionBuffer executionBuffer;
+    WorkhorseController workhorseController;
+    Event<AllExecutionsDoneEvent> allExecutionsDoneEvent;
+    ExecutionContext executionContext;
+    Worker worker;
+    Job job;
+
+    @Setup
+    public void setup() {
+        if ("virtual".equals(mode)) {
+            if (!VirtualThreads.isSupported()) {
+                throw new RuntimeException("Virtual threads are not available, run the benchmark with Java 21 on the multi-release JAR");
+            }
+            executorService = VirtualThreads.newExecutor("benchmark-virtual-");
+        } else {
+            executorService = Workhorse.createWorkerPool(WorkhorseConfig.DEFAULT_WORKER_POOL_SIZE);
+        }
+
+        job = new Job();
+        job.setId(JOB_ID);
+        job.setThreads(jobThreads);
+
+        // the persistence is left out, the claim and the finish only change the status and free the execution in the buffer
+        workhorseController = new WorkhorseController() {
+            @Override
+            public Execution claimExecution(Execution execution) {
+                execution.setStatus(ExecutionStatus.RUNNING);
+                return execution;
+            }
+
+            @Override
+            public void finishExecution(Job job, Execution execution, BaseWorker workerInstance, Worker worker, WorkerWith<Object> workerWith,
+                            boolean isWorkerWithParameters, Object parameters, String summary) {
+                execution.setStatus(ExecutionStatus.FINISHED);
+                VirtualThreadsBenchmark.this.executionBuffer.removeRunningExecution(job.getId(), execution.getId());
+            }
+
+            @Override
+            public Execution handleFailedExecution(Job job, Long executionId, Throwable throwable, Long duration, boolean isWorkerWithParameters,
+                            Worker worker, WorkerWith<Object> workerWith, Object parameters) {
+                throw new RuntimeException("Execution " + executionId + " failed", throwable);
+            }
+        };
+        allExecutionsDoneEvent = new NoObserverEvent<>();
+        executionContext = new ExecutionContext();
+        worker = new Worker() {
+            @Override
+            public String doWork() throws Exception {
+                Thread.sleep(sleepMillis);
+                return null;
+            }
+        };
+        worker.executionContext = executionContext;
+    }
+
+    @Setup(Level.Invocation)
+    public void fillBuffer() {
+        executionBuffer = new ExecutionBuffer();
+        executionBuffer.initialize(job);
+        JobBuffer jobBuffer = executionBuffer.getJobBuffer(JOB_ID);
+        for (long id = 1; id <= executions; id++) {
+            Execution execution = new Execution();
+            execution.setId(id);
+            execution.setJobId(JOB_ID);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            jobBuffer.offer(execution);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public int bufferedExecutions() throws Exception {
+
+        JobBuffer jobBuffer = executionBuffer.getJobBuffer(JOB_ID);
+        List<Future<Long>> futures = new ArrayList<>(jobThreads);
+        // the slots of the job threads are reserved like the engine does before it starts them
+        while (jobBuffer.tryAcquireJobThread()) {
+            JobThread jobThread = createJobThread();
+            futures.add(executorService.submit(() -> jobThread.execute(job)));
+        }
+        for (Future<Long> future : futures) {
+            future.get();
+        }
+        if (jobBuffer.size() > 0) {
+            throw new RuntimeException(jobBuffer.size() + " executions are left in the buffer");
+        }
+        return futures.size();
+    }
+
+    private JobThread createJobThread() {
+
+        JobThread jobThread = new JobThread();
+        jobThread.workerRegistry = new WorkerRegistry() {
+            @Override
+            public BaseWorker getWorker(String className) {
+                return worker;
+            }
+        };
+        jobThread.workhorseController = workhorseController;
+        jobThread.executionBuffer = executionBuffer;
+        jobThread.allExecutionsDoneEvent = allExecutionsDoneEvent;
+        jobThread.executionContext = executionContext;
+        return jobThread;
+    }
+
+    /**
+     * The observers of the events are left out as well, Mockito can't mock on Java 21
+     */
+    static class NoObserverEvent<T> implements Event<T> {
+
+        @Override
+        public void fire(T event) {}
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(U event) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(U event, NotificationOptions options) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Event<T> select(Annotation... qualifiers) {
+            return this;
+        }
+
+        @Override
+        public <U extends T> Event<U> select(Class<U> subtype, Annotation... qualifiers) {
+            return new NoObserverEvent<>();
+        }
+
+        @Override
+        public <U extends T> Event<U> select(TypeLiteral<U> subtype, Annotation... qualifiers) {
+            return new NoObserverEvent<>();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(VirtualThreadsBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,138 @@
+package io.coodoo.workhorse.core.control;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.util.AnnotationLiteral;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.coodoo.workhorse.core.boundary.Worker;
+
+/**
+ * Cost of resolving the worker of a job, like it is done on every job thread start.
+ *
+ * <code>scanBeanManager</code> walks all worker beans of the {@link BeanManager} like before, <code>registry</code> uses the {@link WorkerRegistry}. The
+ * {@link BeanManager} is a plain stub that copies the resolved beans on every call, like CDI containers do, so only the lookup itself is measured.
+ *
+ * Run the <code>main</code> method on the test classpath (after <code>mvn test-compile</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkerRegistryBenchmark {
+
+    private static final Class<?>[] BEAN_CLASSES = {String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class,
+                    Boolean.class, Character.class, Object.class, Number.class, Thread.class, Runnable.class, StringBuilder.class, Math.class, System.class,
+                    java.util.List.class, java.util.ArrayList.class, java.util.LinkedList.class, java.util.Map.class, java.util.HashMap.class,
+                    java.util.TreeMap.class, java.util.Set.class, java.util.HashSet.class, java.util.TreeSet.class, java.util.Optional.class,
+                    java.util.UUID.class, java.util.Random.class, java.util.Objects.class, java.util.Arrays.class, java.util.Collections.class,
+                    java.util.Locale.class};
+
+    @Param({"8", "32"})
+    int workers;
+
+    BeanManager beanManager;
+    WorkerRegistry workerRegistry;
+    String workerClassName;
+
+    @SuppressWarnings("serial")
+    private static final AnnotationLiteral<Any> ANY = new AnnotationLiteral<Any>() {};
+
+    @Setup
+    public void setup() {
+
+        List<Bean<?>> beans = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            beans.add(bean(BEAN_CLASSES[i]));
+        }
+        BaseWorker worker = new Worker() {
+            @Override
+            public String doWork() throws Exception {
+                return null;
+            }
+        };
+        beanManager = (BeanManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {BeanManager.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getBeans":
+                    return new LinkedHashSet<>(beans);
+                case "createCreationalContext":
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {CreationalContext.class}, (p, m, a) -> null);
+                case "getReference":
+                    return worker;
+                case "isNormalScope":
+                    return true;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        workerRegistry = new WorkerRegistry();
+        workerRegistry.beanManager = beanManager;
+        workerRegistry.load();
+        // the last bean is the worst case of the scan
+        workerClassName = BEAN_CLASSES[workers - 1].getName();
+    }
+
+    private static Bean<?> bean(Class<?> beanClass) {
+        return (Bean<?>) Proxy.newProxyInstance(WorkerRegistryBenchmark.class.getClassLoader(), new Class<?>[] {Bean.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getBeanClass":
+                    return beanClass;
+                case "getScope":
+                    return ApplicationScoped.class;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public BaseWorker scanBeanManager() {
+        Set<Bean<?>> beans = beanManager.getBeans(BaseWorker.class, ANY);
+        for (Bean<?> bean : beans) {
+            if (workerClassName.equals(bean.getBeanClass().getName())) {
+                CreationalContext<?> creationalContext = beanManager.createCreationalContext(bean);
+                return (BaseWorker) beanManager.getReference(bean, bean.getBeanClass(), creationalContext);
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public BaseWorker registry() {
+        return workerRegistry.getWorker(workerClassName);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(WorkerRegistryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,140 @@
+package io.coodoo.workhorse.core.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Dependent;
+import javax.enterprise.context.spi.CreationalContext;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.coodoo.workhorse.core.boundary.Worker;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WorkerRegistryTest {
+
+    public class ApplicationScopedWorker extends Worker {
+        @Override
+        public String doWork() throws Exception {
+            return null;
+        }
+    }
+
+    public class DependentWorker extends Worker {
+        @Override
+        public String doWork() throws Exception {
+            return null;
+        }
+    }
+
+    @Mock
+    BeanManager beanManager;
+
+    @InjectMocks
+    WorkerRegistry classUnderTest;
+
+    Bean<?> applicationScopedBean;
+    Bean<?> dependentBean;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Before
+    public void setUp() {
+
+        applicationScopedBean = bean(ApplicationScopedWorker.class, ApplicationScoped.class);
+        dependentBean = bean(DependentWorker.class, Dependent.class);
+        Set<Bean<?>> beans = new HashSet<>(Arrays.asList(dependentBean, applicationScopedBean));
+
+        when(beanManager.getBeans(any(), anyVararg())).thenReturn(beans);
+        when(beanManager.createCreationalContext(any())).thenReturn(mock(CreationalContext.class));
+        when(beanManager.isNormalScope(ApplicationScoped.class)).thenReturn(true);
+        when(beanManager.isNormalScope(Dependent.class)).thenReturn(false);
+        when(beanManager.getReference(any(Bean.class), any(), any())).thenAnswer(invocation -> {
+            Class<?> beanClass = (Class<?>) invocation.getArguments()[1];
+            return beanClass == ApplicationScopedWorker.class ? new ApplicationScopedWorker() : new DependentWorker();
+        });
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+
+        List<Bean<?>> result = classUnderTest.load();
+
+        // sorted by class name
+        assertEquals(Arrays.asList(applicationScopedBean, dependentBean), result);
+    }
+
+    @Test
+    public void testGetBean() throws Exception {
+
+        assertSame(dependentBean, classUnderTest.getBean(DependentWorker.class.getName()));
+        assertSame(DependentWorker.class, classUnderTest.getWorkerClass(DependentWorker.class.getName()));
+        assertNull(classUnderTest.getBean("no.such.Worker"));
+        assertNull(classUnderTest.getWorkerClass(null));
+
+        // the beans are resolved only once
+        verify(beanManager, times(1)).getBeans(any(), anyVararg());
+    }
+
+    @Test
+    public void testGetWorker_normal_scope_is_cached() throws Exception {
+
+        classUnderTest.load();
+
+        BaseWorker result = classUnderTest.getWorker(ApplicationScopedWorker.class.getName());
+
+        assertSame(result, classUnderTest.getWorker(ApplicationScopedWorker.class.getName()));
+    }
+
+    @Test
+    public void testGetWorker_dependent_is_not_cached() throws Exception {
+
+        classUnderTest.load();
+
+        BaseWorker result = classUnderTest.getWorker(DependentWorker.class.getName());
+
+        assertNotSame(result, classUnderTest.getWorker(DependentWorker.class.getName()));
+        assertNull(classUnderTest.getWorker("no.such.Worker"));
+    }
+
+    @Test
+    public void testLoad_reloads() throws Exception {
+
+        classUnderTest.load();
+        BaseWorker worker = classUnderTest.getWorker(ApplicationScopedWorker.class.getName());
+
+        classUnderTest.load();
+
+        assertNotSame(worker, classUnderTest.getWorker(ApplicationScopedWorker.class.getName()));
+        verify(beanManager, times(2)).getBeans(any(), anyVararg());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Bean<?> bean(Class<?> beanClass, Class scope) {
+        Bean bean = mock(Bean.class);
+        when(bean.getBeanClass()).thenReturn(beanClass);
+        when(bean.getScope()).thenReturn(scope);
+        return bean;
+    }
+
+}
@@ -1,9 +1,12 @@
 package io.coodoo.workhorse.core.control;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeFalse;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
@@ -40,6 +43,12 @@ public class WorkhorseConfigControllerTest {
     @Mock
     Workhorse workhorse;
 
+    @Mock
+    ExecutionBuffer executionBuffer;
+
+    @Mock
+    ListingCache listingCache;
+
     @InjectMocks
     WorkhorseConfigController classUnderTest;
 
@@ -85,6 +94,68 @@ public class WorkhorseConfigControllerTest {
         verify(workhorseLogService, never()).logChange(anyLong(), any(JobStatus.class), anyString(), anyObject(), anyObject(), anyString());
     }
 
+    @Test
+    public void testUpdateWorkerPoolSize() {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+        int workerPoolSize = 8;
+
+        classUnderTest.updateWorkerPoolSize(workhorseConfig, workerPoolSize);
+
+        assertEquals(workerPoolSize, workhorseConfig.getWorkerPoolSize());
+        assertEquals(workerPoolSize, StaticConfig.WORKER_POOL_SIZE);
+        verify(workhorse).resizeWorkerPool(workerPoolSize);
+    }
+
+    @Test
+    public void testUpdateWorkerPoolSize_tooLow() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+        int workerPoolSize = 0;
+
+        exceptionRule.expect(RuntimeException.class);
+        exceptionRule.expectMessage("The worker pool size must be higher than 0!");
+
+        classUnderTest.updateWorkerPoolSize(workhorseConfig, workerPoolSize);
+    }
+
+    @Test
+    public void testUpdateWorkerPoolSize_dontUpdateIfEquals() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+        int workerPoolSize = 8;
+
+        workhorseConfig.setWorkerPoolSize(workerPoolSize);
+        classUnderTest.updateWorkerPoolSize(workhorseConfig, workerPoolSize);
+
+        verify(workhorseLogService, never()).logChange(anyLong(), any(JobStatus.class), anyString(), anyObject(), anyObject(), anyString());
+        verify(workhorse, never()).resizeWorkerPool(workerPoolSize);
+    }
+
+    @Test
+    public void testUpdateVirtualThreads_notSupported() throws Exception {
+
+        assumeFalse(VirtualThreads.isSupported());
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+
+        exceptionRule.expect(RuntimeException.class);
+        exceptionRule.expectMessage("Virtual threads require Java 21 or higher!");
+
+        classUnderTest.updateVirtualThreads(workhorseConfig, true);
+    }
+
+    @Test
+    public void testUpdateVirtualThreads_dontUpdateIfEquals() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+
+        classUnderTest.updateVirtualThreads(workhorseConfig, false);
+
+        assertFalse(workhorseConfig.isVirtualThreads());
+        verify(workhorseLogService, never()).logChange(anyLong(), any(JobStatus.class), anyString(), anyObject(), anyObject(), anyString());
+        verify(workhorse, never()).useVirtualThreads(false);
+    }
+
     @Test
     public void testUpdateBufferMax_logMessage() throws Exception {
 
@@ -965,4 +1036,75 @@ public class WorkhorseConfigControllerTest {
 
     }
 
+    @Test
+    public void testUpdatePriorityAging() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+        int priorityAging = 30;
+
+        classUnderTest.updatePriorityAging(workhorseConfig, priorityAging);
+
+        assertEquals(priorityAging, workhorseConfig.getPriorityAging());
+        assertEquals(priorityAging, StaticConfig.PRIORITY_AGING);
+        verify(executionBuffer).updatePriorityAging(priorityAging);
+    }
+
+    @Test
+    public void testUpdatePriorityAging_negative() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+
+        exceptionRule.expect(RuntimeException.class);
+        exceptionRule.expectMessage("The priority aging can't be negative!");
+
+        classUnderTest.updatePriorityAging(workhorseConfig, -1);
+    }
+
+    @Test
+    public void testUpdateListingCacheTtl() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+        int listingCacheTtl = 5;
+
+        classUnderTest.updateListingCacheTtl(workhorseConfig, listingCacheTtl);
+
+        assertEquals(listingCacheTtl, workhorseConfig.getListingCacheTtl());
+        assertEquals(listingCacheTtl, StaticConfig.LISTING_CACHE_TTL);
+        verify(listingCache).clear();
+
+        StaticConfig.LISTING_CACHE_TTL = 0;
+    }
+
+    @Test
+    public void testUpdateListingCacheTtl_negative() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+
+        exceptionRule.expect(RuntimeException.class);
+        exceptionRule.expectMessage("The listing cache TTL can't be negative!");
+
+        classUnderTest.updateListingCacheTtl(workhorseConfig, -1);
+    }
+
+    @Test
+    public void testUpdateListingCacheSize_dontUpdateIfEquals() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+
+        classUnderTest.updateListingCacheSize(workhorseConfig, workhorseConfig.getListingCacheSize());
+
+        verify(listingCache, never()).clear();
+    }
+
+    @Test
+    public void testUpdatePriorityAging_dontUpdateIfEquals() throws Exception {
+
+        WorkhorseConfig workhorseConfig = new MemoryConfigBuilder().build();
+
+        classUnderTest.updatePriorityAging(workhorseConfig, workhorseConfig.getPriorityAging());
+
+        verify(executionBuffer, never()).updatePriorityAging(anyInt());
+        verify(workhorseLogService, never()).logChange(anyLong(), any(JobStatus.class), anyString(), anyObject(), anyObject(), anyString());
+    }
+
 }
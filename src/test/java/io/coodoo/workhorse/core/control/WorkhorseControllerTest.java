@@ -4,10 +4,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -19,8 +23,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.enterprise.context.ContextNotActiveException;
 import javax.enterprise.event.Event;
-import javax.enterprise.inject.spi.BeanManager;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -31,7 +35,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import io.coodoo.workhorse.core.boundary.ExecutionContext;
+import io.coodoo.workhorse.core.boundary.WorkBatchResult;
 import io.coodoo.workhorse.core.boundary.Worker;
+import io.coodoo.workhorse.core.boundary.WorkerWith;
 import io.coodoo.workhorse.core.boundary.WorkhorseLogService;
 import io.coodoo.workhorse.core.boundary.annotation.InitialJobConfig;
 import io.coodoo.workhorse.core.control.event.JobErrorEvent;
@@ -39,6 +46,7 @@ import io.coodoo.workhorse.core.entity.Execution;
 import io.coodoo.workhorse.core.entity.ExecutionStatus;
 import io.coodoo.workhorse.core.entity.Job;
 import io.coodoo.workhorse.core.entity.JobStatus;
+import io.coodoo.workhorse.core.entity.RetryBackoff;
 import io.coodoo.workhorse.persistence.interfaces.ExecutionPersistence;
 import io.coodoo.workhorse.persistence.interfaces.JobPersistence;
 import io.coodoo.workhorse.util.WorkhorseUtil;
@@ -53,6 +61,9 @@ public class WorkhorseControllerTest {
     private final static String TAGS = "unit, test, java";
     private final static int MAX_PER_MINUTE = 1000;
     private final static int MINUTES_UNTIL_CLEANUP = 400;
+    private final static int RETRY_DELAY_MAX = 30000;
+    private final static int WORK_BATCH_SIZE = 100;
+    private final static int WORK_BATCH_WAIT = 50;
 
     public class TestWorker extends Worker {
         @Override
@@ -109,9 +120,28 @@ public class WorkhorseControllerTest {
         }
     }
 
+    @InitialJobConfig(retryBackoff = RetryBackoff.EXPONENTIAL_JITTER, retryDelayMax = RETRY_DELAY_MAX)
+    public class TestWorkerWithRetryBackoff extends Worker {
+        @Override
+        public String doWork() throws Exception {
+            return null;
+        }
+    }
+
+    @InitialJobConfig(workBatchSize = WORK_BATCH_SIZE, workBatchWait = WORK_BATCH_WAIT)
+    public class TestWorkerWithWorkBatch extends WorkerWith<String> {
+        @Override
+        public String doWork(String parameters) throws Exception {
+            return null;
+        }
+    }
+
     @Mock
     ExecutionPersistence executionPersistence;
 
+    @Mock
+    ExecutionContext executionContext;
+
     @Mock
     WorkhorseLogService workhorseLogService;
 
@@ -125,7 +155,10 @@ public class WorkhorseControllerTest {
     Event<JobErrorEvent> jobErrorEvent;
 
     @Mock
-    BeanManager beanManager;
+    WorkerRegistry workerRegistry;
+
+    @Mock
+    ListingCache listingCache;
 
     @InjectMocks
     WorkhorseController classUnderTest;
@@ -455,6 +488,103 @@ public class WorkhorseControllerTest {
         classUnderTest.createExecution(jobId, null, false, null, null, null, null, false);
     }
 
+    @SuppressWarnings("unchecked")
+    private void persistAllWithIds() {
+        when(executionPersistence.persistAll(anyListOf(Execution.class))).thenAnswer(invocation -> {
+            List<Execution> executions = (List<Execution>) invocation.getArguments()[0];
+            long id = 100L;
+            for (Execution execution : executions) {
+                execution.setId(id++);
+            }
+            return executions;
+        });
+    }
+
+    @Test
+    public void testCreateExecutions() throws Exception {
+
+        Long jobId = 1L;
+        persistAllWithIds();
+
+        List<Execution> executions = classUnderTest.createExecutions(jobId, Arrays.asList("{a:1}", "{a:2}", "{a:3}"), Execution.PRIORITY_LEVEL_MIN, null, null,
+                        Execution.FIRST_EXECUTION_ID, null, false);
+
+        verify(executionPersistence).persistAll(anyListOf(Execution.class));
+        verify(executionPersistence, never()).persist(anyObject());
+        verify(executionPersistence, never()).update(anyObject());
+
+        assertEquals(3, executions.size());
+        assertEquals("{a:2}", executions.get(1).getParameters());
+        assertEquals(Long.valueOf(101L), executions.get(1).getId());
+        assertEquals(ExecutionStatus.QUEUED, executions.get(1).getStatus());
+        assertEquals(Execution.FIRST_EXECUTION_ID, executions.get(1).getBatchId());
+    }
+
+    @Test
+    public void testCreateExecutions_uniqueQueued() throws Exception {
+
+        Long jobId = 1L;
+        persistAllWithIds();
+
+        Execution foundExecution = new Execution();
+        foundExecution.setId(7L);
+        when(executionPersistence.getFirstCreatedByJobIdAndParametersHash(jobId, "{a:1}".hashCode())).thenReturn(foundExecution);
+
+        List<Execution> executions = classUnderTest.createExecutions(jobId, Arrays.asList("{a:1}", "{a:2}", "{a:2}"), Execution.PRIORITY_LEVEL_MIN, null, null,
+                        null, null, true);
+
+        ArgumentCaptor<List> argument = ArgumentCaptor.forClass(List.class);
+        verify(executionPersistence).persistAll(argument.capture());
+
+        assertEquals(1, argument.getValue().size());
+        assertEquals(3, executions.size());
+        assertEquals(foundExecution, executions.get(0));
+        assertEquals(Long.valueOf(100L), executions.get(1).getId());
+        assertEquals(executions.get(1), executions.get(2));
+    }
+
+    @Test
+    public void testCreateNewExecutions_chain_firstAlreadyQueued() throws Exception {
+
+        Long jobId = 1L;
+        when(executionPersistence.persistAll(anyListOf(Execution.class))).thenAnswer(invocation -> {
+            List<Execution> executions = (List<Execution>) invocation.getArguments()[0];
+            long id = 100L;
+            for (Execution execution : executions) {
+                execution.setId(id++);
+                // like the persistences, the placeholder gets resolved to the ID of the first persisted execution
+                execution.setChainId(executions.get(0).getId());
+            }
+            return executions;
+        });
+
+        Execution foundExecution = new Execution();
+        foundExecution.setId(7L);
+        foundExecution.setChainId(3L);
+        when(executionPersistence.getFirstCreatedByJobIdAndParametersHash(jobId, "{a:1}".hashCode())).thenReturn(foundExecution);
+
+        List<Execution> executions = classUnderTest.createNewExecutions(jobId, Arrays.asList("{a:1}", "{a:2}", "{a:3}"), Execution.PRIORITY_LEVEL_MIN, null,
+                        null, null, Execution.FIRST_EXECUTION_ID, true);
+
+        assertEquals(2, executions.size());
+        assertEquals(Long.valueOf(100L), executions.get(0).getId());
+        assertEquals(Long.valueOf(100L), executions.get(0).getChainId());
+        assertEquals(Long.valueOf(100L), executions.get(1).getChainId());
+    }
+
+    @Test
+    public void testCreateExecutions_without_returned_execution_id() throws Exception {
+
+        Long jobId = 1L;
+
+        when(executionPersistence.persistAll(anyListOf(Execution.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        exceptionRule.expect(RuntimeException.class);
+        exceptionRule.expectMessage("The 2 executions of job 1 couldn't be persisited by the persisitence.");
+
+        classUnderTest.createExecutions(jobId, Arrays.asList("{a:1}", "{a:2}"), Execution.PRIORITY_LEVEL_MIN, null, null, null, null, false);
+    }
+
     @Test
     public void testCreateJob() throws Exception {
 
@@ -637,6 +767,362 @@ public class WorkhorseControllerTest {
 
     }
 
+    @Test
+    public void testCreateJob_with_RetryBackoff() throws Exception {
+
+        Class<?> workerClass = TestWorkerWithRetryBackoff.class;
+
+        Job job = new Job();
+        job.setId(1L);
+        when(jobPersistence.persist(anyObject())).thenReturn(job);
+
+        classUnderTest.createJob(workerClass);
+
+        ArgumentCaptor<Job> argument = ArgumentCaptor.forClass(Job.class);
+        verify(jobPersistence).persist(argument.capture());
+
+        assertEquals(RetryBackoff.EXPONENTIAL_JITTER, argument.getValue().getRetryBackoff());
+        assertEquals(RETRY_DELAY_MAX, argument.getValue().getRetryDelayMax());
+    }
+
+    @Test
+    public void testCreateJob_with_WorkBatch() throws Exception {
+
+        Class<?> workerClass = TestWorkerWithWorkBatch.class;
+
+        Job job = new Job();
+        job.setId(1L);
+        when(jobPersistence.persist(anyObject())).thenReturn(job);
+
+        classUnderTest.createJob(workerClass);
+
+        ArgumentCaptor<Job> argument = ArgumentCaptor.forClass(Job.class);
+        verify(jobPersistence).persist(argument.capture());
+
+        assertEquals(WORK_BATCH_SIZE, argument.getValue().getWorkBatchSize());
+        assertEquals(WORK_BATCH_WAIT, argument.getValue().getWorkBatchWait());
+    }
+
+    @Test
+    public void testCreateJob_without_WorkBatch() throws Exception {
+
+        Class<?> workerClass = TestWorkerWithInitialConfig.class;
+
+        Job job = new Job();
+        job.setId(1L);
+        when(jobPersistence.persist(anyObject())).thenReturn(job);
+
+        classUnderTest.createJob(workerClass);
+
+        ArgumentCaptor<Job> argument = ArgumentCaptor.forClass(Job.class);
+        verify(jobPersistence).persist(argument.capture());
+
+        assertEquals(InitialJobConfig.JOB_CONFIG_WORK_BATCH_SIZE, argument.getValue().getWorkBatchSize());
+        assertEquals(InitialJobConfig.JOB_CONFIG_WORK_BATCH_WAIT, argument.getValue().getWorkBatchWait());
+    }
+
+    @Test
+    public void testClaimExecutions() throws Exception {
+
+        List<Execution> executions = Arrays.asList(workBatchExecution(1L, null), workBatchExecution(2L, null));
+        Execution claimedExecution = workBatchExecution(2L, null);
+        when(executionPersistence.claimAll(executions.get(0).getJobId(), Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(claimedExecution));
+
+        List<Execution> result = classUnderTest.claimExecutions(executions);
+
+        assertEquals(1, result.size());
+        assertSame(claimedExecution, result.get(0));
+        verify(executionPersistence, never()).claim(anyLong(), anyLong());
+        verify(executionPersistence, never()).updateAll(anyObject());
+        verify(listingCache).invalidate(executions.get(0).getJobId());
+    }
+
+    @Test
+    public void testClaimExecutions_empty() throws Exception {
+
+        assertTrue(classUnderTest.claimExecutions(new ArrayList<>()).isEmpty());
+
+        verify(executionPersistence, never()).claimAll(anyLong(), anyObject());
+    }
+
+    @Test
+    public void testUpdateJob_retry() throws Exception {
+
+        Job job = new Job();
+        job.setId(1L);
+        job.setStatus(JobStatus.ACTIVE);
+        job.setRetryDelay(1000);
+        when(jobPersistence.get(1L)).thenReturn(job);
+        when(jobPersistence.update(job)).thenReturn(job);
+
+        Job updatedJob = classUnderTest.updateJob(1L, null, null, null, null, JobStatus.ACTIVE, 0, null, 0, 1, 3, 1000, RetryBackoff.EXPONENTIAL, 60000,
+                        1, 0, 0, false);
+
+        assertEquals(RetryBackoff.EXPONENTIAL, updatedJob.getRetryBackoff());
+        assertEquals(60000, updatedJob.getRetryDelayMax());
+        verify(workhorseLogService).logChange(1L, JobStatus.ACTIVE, "Retry backoff", RetryBackoff.FIXED, RetryBackoff.EXPONENTIAL, null);
+        verify(workhorseLogService).logChange(1L, JobStatus.ACTIVE, "Retry delay max", 0, 60000, null);
+        verify(listingCache).invalidateJobs();
+    }
+
+    @Test
+    public void testUpdateJob_workBatch() throws Exception {
+
+        Job job = new Job();
+        job.setId(1L);
+        job.setStatus(JobStatus.ACTIVE);
+        when(jobPersistence.get(1L)).thenReturn(job);
+        when(jobPersistence.update(job)).thenReturn(job);
+
+        Job updatedJob = classUnderTest.updateJob(1L, null, null, null, null, JobStatus.ACTIVE, 0, null, 0, 1, 0, 0, RetryBackoff.FIXED, 0, 50, 200, 0,
+                        false);
+
+        assertEquals(50, updatedJob.getWorkBatchSize());
+        assertEquals(200, updatedJob.getWorkBatchWait());
+        verify(workhorseLogService).logChange(1L, JobStatus.ACTIVE, "Work batch size", 1, 50, null);
+        verify(workhorseLogService).logChange(1L, JobStatus.ACTIVE, "Work batch wait", 0, 200, null);
+    }
+
+    @Test
+    public void testUpdateJob_rateLimit() throws Exception {
+
+        Job job = new Job();
+        job.setId(1L);
+        job.setStatus(JobStatus.ACTIVE);
+        job.setMaxPerMinute(10);
+        when(jobPersistence.get(1L)).thenReturn(job);
+        when(jobPersistence.update(job)).thenReturn(job);
+
+        Job updatedJob = classUnderTest.updateJob(1L, null, null, null, null, JobStatus.ACTIVE, 0, 10, 3600, 5, 0, 0, RetryBackoff.FIXED, 0, 1, 0, 0,
+                        false);
+
+        assertEquals(3600, updatedJob.getRateLimitWindow());
+        assertEquals(5, updatedJob.getRateLimitBurst());
+        verify(workhorseLogService).logChange(1L, JobStatus.ACTIVE, "Rate limit window", 0, 3600, null);
+        verify(workhorseLogService).logChange(1L, JobStatus.ACTIVE, "Rate limit burst", 1, 5, null);
+    }
+
+    @Test
+    public void testSetExecutionStatusToQueued() throws Exception {
+
+        List<Execution> executions = Arrays.asList(workBatchExecution(1L, null), workBatchExecution(2L, null), workBatchExecution(3L, null));
+        executions.forEach(execution -> execution.setStatus(ExecutionStatus.PLANNED));
+        executions.get(2).setJobId(2L);
+        Execution queuedExecution = workBatchExecution(1L, null);
+        when(executionPersistence.queuePlanned(executions.get(0).getJobId(), Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(queuedExecution));
+        when(executionPersistence.queuePlanned(2L, Arrays.asList(3L))).thenReturn(new ArrayList<>());
+
+        List<Execution> result = classUnderTest.setExecutionStatusToQueued(executions);
+
+        assertEquals(1, result.size());
+        assertSame(queuedExecution, result.get(0));
+        verify(executionPersistence, never()).update(anyObject());
+        verify(executionPersistence, never()).updateAll(anyObject());
+        verify(listingCache).invalidate(executions.get(0).getJobId());
+        verify(listingCache, never()).invalidate(2L);
+
+        // the pushed instances stay as they are
+        executions.forEach(execution -> assertEquals(ExecutionStatus.PLANNED, execution.getStatus()));
+    }
+
+    @Test
+    public void testSetExecutionStatusToQueued_empty() throws Exception {
+
+        assertTrue(classUnderTest.setExecutionStatusToQueued(new ArrayList<>()).isEmpty());
+
+        verify(executionPersistence, never()).queuePlanned(anyLong(), anyObject());
+    }
+
+    @Test
+    public void testClaimExecution() throws Exception {
+
+        Execution execution = workBatchExecution(1L, null);
+        Execution claimedExecution = workBatchExecution(1L, null);
+        when(executionPersistence.claim(execution.getJobId(), execution.getId())).thenReturn(claimedExecution);
+
+        assertSame(claimedExecution, classUnderTest.claimExecution(execution));
+        verify(listingCache).invalidate(execution.getJobId());
+    }
+
+    @Test
+    public void testClaimExecution_lost() throws Exception {
+
+        Execution execution = workBatchExecution(1L, null);
+        when(executionPersistence.claim(execution.getJobId(), execution.getId())).thenReturn(null);
+
+        assertNull(classUnderTest.claimExecution(execution));
+        verify(executionPersistence, never()).update(anyObject());
+        verify(listingCache, never()).invalidate(anyLong());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFinishWorkBatch() throws Exception {
+
+        StaticConfig.TIME_ZONE = "UTC";
+
+        Job job = new Job();
+        job.setId(1L);
+        WorkerWith<Object> workerWith = mock(WorkerWith.class);
+        List<Execution> executions = Arrays.asList(workBatchExecution(1L, null), workBatchExecution(2L, null), workBatchExecution(3L, null));
+        List<Object> parametersList = Arrays.asList("a", "b", "c");
+        Exception exception = new Exception("b failed");
+        WorkBatchResult workBatchResult = new WorkBatchResult(3).summarize(0, "done a").fail(1, exception);
+
+        when(executionPersistence.getById(1L, 2L)).thenReturn(executions.get(1));
+
+        classUnderTest.finishWorkBatch(job, workerWith, executions, parametersList, workBatchResult, 10L);
+
+        ArgumentCaptor<List> argument = ArgumentCaptor.forClass(List.class);
+        verify(executionPersistence).updateAll(argument.capture());
+        assertEquals(Arrays.asList(executions.get(0), executions.get(2)), argument.getValue());
+        assertEquals(ExecutionStatus.FINISHED, executions.get(0).getStatus());
+        assertEquals(ExecutionStatus.FINISHED, executions.get(2).getStatus());
+        verify(executionContext).applySummary(executions.get(0), "done a");
+
+        verify(workerWith).onFinished(1L, "a", "done a");
+        verify(workerWith).onFinished(3L, "c", null);
+        verify(workerWith).onFailed(2L, "b", exception);
+        verify(executionPersistence).update(executions.get(1));
+        assertEquals(ExecutionStatus.FAILED, executions.get(1).getStatus());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testFinishWorkBatch_batch_checked_once() throws Exception {
+
+        StaticConfig.TIME_ZONE = "UTC";
+
+        Job job = new Job();
+        job.setId(1L);
+        WorkerWith<Object> workerWith = mock(WorkerWith.class);
+        List<Execution> executions = Arrays.asList(workBatchExecution(1L, 1L), workBatchExecution(2L, 1L), workBatchExecution(3L, null));
+        List<Object> parametersList = Arrays.asList("a", "b", "c");
+
+        when(executionPersistence.isBatchFinished(1L, 1L)).thenReturn(true);
+
+        classUnderTest.finishWorkBatch(job, workerWith, executions, parametersList, new WorkBatchResult(3), 10L);
+
+        verify(executionPersistence).isBatchFinished(1L, 1L);
+        verify(executionPersistence, never()).isBatchFinished(1L, null);
+        verify(workerWith).onFinishedBatch(1L, 2L);
+    }
+
+    private Execution workBatchExecution(Long id, Long batchId) {
+        Execution execution = new Execution();
+        execution.setId(id);
+        execution.setJobId(1L);
+        execution.setBatchId(batchId);
+        execution.setStatus(ExecutionStatus.RUNNING);
+        execution.setStartedAt(WorkhorseUtil.timestamp());
+        return execution;
+    }
+
+    @Test
+    public void testGetRetryDelay_FIXED() throws Exception {
+
+        Job job = new Job();
+        job.setRetryDelay(1000);
+
+        assertEquals(1000L, classUnderTest.getRetryDelay(job, 1));
+        assertEquals(1000L, classUnderTest.getRetryDelay(job, 5));
+    }
+
+    @Test
+    public void testGetRetryDelay_EXPONENTIAL() throws Exception {
+
+        Job job = new Job();
+        job.setRetryDelay(1000);
+        job.setRetryBackoff(RetryBackoff.EXPONENTIAL);
+
+        assertEquals(1000L, classUnderTest.getRetryDelay(job, 1));
+        assertEquals(2000L, classUnderTest.getRetryDelay(job, 2));
+        assertEquals(8000L, classUnderTest.getRetryDelay(job, 4));
+    }
+
+    @Test
+    public void testGetRetryDelay_EXPONENTIAL_capped() throws Exception {
+
+        Job job = new Job();
+        job.setRetryDelay(1000);
+        job.setRetryDelayMax(5000);
+        job.setRetryBackoff(RetryBackoff.EXPONENTIAL);
+
+        assertEquals(4000L, classUnderTest.getRetryDelay(job, 3));
+        assertEquals(5000L, classUnderTest.getRetryDelay(job, 4));
+        assertEquals(5000L, classUnderTest.getRetryDelay(job, 100));
+    }
+
+    @Test
+    public void testGetRetryDelay_EXPONENTIAL_JITTER() throws Exception {
+
+        Job job = new Job();
+        job.setRetryDelay(1000);
+        job.setRetryDelayMax(3000);
+        job.setRetryBackoff(RetryBackoff.EXPONENTIAL_JITTER);
+
+        for (int i = 0; i < 100; i++) {
+            long delay = classUnderTest.getRetryDelay(job, 3);
+            assertTrue(delay >= 0 && delay <= 3000);
+        }
+    }
+
+    @Test
+    public void testCreateRetryExecution_PLANNED() throws Exception {
+
+        StaticConfig.TIME_ZONE = "UTC";
+
+        Job job = new Job();
+        job.setId(1L);
+        job.setRetryDelay(60000);
+        Execution failedExecution = new Execution();
+        failedExecution.setId(1L);
+        failedExecution.setJobId(job.getId());
+        failedExecution.setStatus(ExecutionStatus.RUNNING);
+        failedExecution.setFailRetry(0);
+
+        when(executionPersistence.persist(anyObject())).thenAnswer(invocation -> {
+            Execution execution = (Execution) invocation.getArguments()[0];
+            execution.setId(2L);
+            return execution;
+        });
+
+        LocalDateTime minPlannedFor = WorkhorseUtil.timestamp().plusSeconds(59);
+        Execution result = classUnderTest.createRetryExecution(job, failedExecution);
+
+        assertEquals(ExecutionStatus.PLANNED, result.getStatus());
+        assertEquals(1, result.getFailRetry());
+        assertEquals(failedExecution.getId(), result.getFailRetryExecutionId());
+        assertTrue(result.getPlannedFor().isAfter(minPlannedFor));
+    }
+
+    @Test
+    public void testCreateRetryExecution_chain() throws Exception {
+
+        StaticConfig.TIME_ZONE = "UTC";
+
+        Job job = new Job();
+        job.setId(1L);
+        job.setRetryDelay(60000);
+        Execution failedExecution = new Execution();
+        failedExecution.setId(1L);
+        failedExecution.setJobId(job.getId());
+        failedExecution.setChainId(1L);
+        failedExecution.setStatus(ExecutionStatus.RUNNING);
+
+        when(executionPersistence.persist(anyObject())).thenAnswer(invocation -> {
+            Execution execution = (Execution) invocation.getArguments()[0];
+            execution.setId(2L);
+            return execution;
+        });
+
+        Execution result = classUnderTest.createRetryExecution(job, failedExecution);
+
+        // executions of a chain are retried by the running job thread
+        assertEquals(ExecutionStatus.RUNNING, result.getStatus());
+        assertNull(result.getPlannedFor());
+    }
+
     @Test
     public void testHandleFailedExecution_with_unexisting_execution() throws Exception {
 
@@ -658,6 +1144,29 @@ public class WorkhorseControllerTest {
         assertNull(result);
     }
 
+    @Test
+    public void testHandleFailedExecution_flushes_log() throws Exception {
+
+        Job job = new Job();
+        job.setId(1L);
+
+        classUnderTest.handleFailedExecution(job, 1L, new Exception(), 50L, false, null, null, null);
+
+        verify(executionContext).flushLog();
+    }
+
+    @Test
+    public void testHandleFailedExecution_without_request_context() throws Exception {
+
+        Job job = new Job();
+        job.setId(1L);
+        doThrow(new ContextNotActiveException()).when(executionContext).flushLog();
+
+        Execution result = classUnderTest.handleFailedExecution(job, 1L, new Exception(), 50L, false, null, null, null);
+
+        assertNull(result);
+    }
+
     @Test
     public void testHandleFailedExecution_with_created_retry_execution() throws Exception {
 
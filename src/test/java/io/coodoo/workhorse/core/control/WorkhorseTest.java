@@ -1,19 +1,30 @@
 package io.coodoo.workhorse.core.control;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -45,6 +56,9 @@ public class WorkhorseTest {
     @Mock
     ScheduledExecutorService scheduledExecutorService;
 
+    @Mock
+    PlannedExecutionQueue plannedExecutionQueue;
+
     @InjectMocks
     Workhorse classUnderTest;
 
@@ -115,11 +129,15 @@ public class WorkhorseTest {
         when(executionPersistence.getById(jobId, executionId)).thenReturn(execution);
         when(executionBuffer.getNumberOfExecution(jobId)).thenReturn(1);
 
+        long minDueTime = System.currentTimeMillis() + 29000;
         classUnderTest.push(newExecutionEvent);
 
         verify(executionPersistence).isPusherAvailable();
         verify(executionBuffer).getNumberOfExecution(jobId);
-        verify(scheduledExecutorService).schedule(any(Runnable.class), anyLong(), anyObject());
+        verify(scheduledExecutorService, never()).schedule(any(Runnable.class), anyLong(), anyObject());
+        ArgumentCaptor<Long> dueTime = ArgumentCaptor.forClass(Long.class);
+        verify(plannedExecutionQueue).add(eq(execution), dueTime.capture());
+        assertTrue(dueTime.getValue() >= minDueTime);
     }
 
     @Test
@@ -141,4 +159,129 @@ public class WorkhorseTest {
         verify(scheduledExecutorService, never()).schedule(any(Runnable.class), anyLong(), anyObject());
     }
 
+    @Test
+    public void testExecutionDistributor_queued() throws Exception {
+
+        Execution execution = new Execution();
+        execution.setId(4L);
+        execution.setJobId(1L);
+        execution.setStatus(ExecutionStatus.QUEUED);
+        when(executionBuffer.getJobBuffer(1L)).thenReturn(new JobBuffer(0));
+
+        classUnderTest.executionDistributor(execution);
+
+        // a queued execution that was never planned doesn't touch the planned execution queue
+        verify(plannedExecutionQueue, never()).cancel(anyLong());
+    }
+
+    @Test
+    public void testExecutionDistributor_planned() throws Exception {
+
+        Execution execution = new Execution();
+        execution.setId(4L);
+        execution.setJobId(1L);
+        execution.setStatus(ExecutionStatus.PLANNED);
+        execution.setPlannedFor(LocalDateTime.now());
+        when(executionBuffer.getJobBuffer(1L)).thenReturn(new JobBuffer(0));
+
+        classUnderTest.executionDistributor(execution);
+
+        verify(plannedExecutionQueue).cancel(4L);
+        verify(workhorseController).updateExecutionStatus(1L, 4L, ExecutionStatus.QUEUED);
+    }
+
+    @Test
+    public void testPromotePlannedExecutions() throws Exception {
+
+        List<Execution> executions = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            Execution execution = new Execution();
+            execution.setId(id);
+            execution.setJobId(1L);
+            execution.setStatus(ExecutionStatus.PLANNED);
+            execution.setPlannedFor(LocalDateTime.now());
+            executions.add(execution);
+        }
+        JobBuffer jobBuffer = new JobBuffer(0);
+        when(executionBuffer.getJobBuffer(1L)).thenReturn(jobBuffer);
+
+        // the second execution got changed since it was pushed, so it is not PLANNED anymore
+        List<Execution> queuedExecutions = new ArrayList<>();
+        for (Execution execution : Arrays.asList(executions.get(0), executions.get(2))) {
+            Execution queuedExecution = new Execution();
+            queuedExecution.setId(execution.getId());
+            queuedExecution.setJobId(execution.getJobId());
+            queuedExecution.setStatus(ExecutionStatus.QUEUED);
+            queuedExecutions.add(queuedExecution);
+        }
+        when(workhorseController.setExecutionStatusToQueued(executions)).thenReturn(queuedExecutions);
+
+        classUnderTest.promotePlannedExecutions(executions);
+
+        verify(workhorseController).setExecutionStatusToQueued(executions);
+        assertEquals(2, jobBuffer.size());
+        assertTrue(jobBuffer.isKnown(1L));
+        assertFalse(jobBuffer.isKnown(2L));
+        assertTrue(jobBuffer.isKnown(3L));
+        verify(workhorseController, never()).updateExecutionStatus(anyLong(), anyLong(), any(ExecutionStatus.class));
+        verify(plannedExecutionQueue, never()).cancel(anyLong());
+    }
+
+    @Test
+    public void testResizeWorkerPool() throws Exception {
+
+        classUnderTest.init();
+        ThreadPoolExecutor workerPool = (ThreadPoolExecutor) classUnderTest.jobThreadExecutorService;
+
+        classUnderTest.resizeWorkerPool(8);
+
+        assertEquals(8, workerPool.getCorePoolSize());
+        assertEquals(8, workerPool.getMaximumPoolSize());
+
+        classUnderTest.resizeWorkerPool(128);
+
+        assertEquals(128, workerPool.getCorePoolSize());
+        assertEquals(128, workerPool.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testResizeWorkerPool_invalid_size() throws Exception {
+
+        classUnderTest.init();
+        ThreadPoolExecutor workerPool = (ThreadPoolExecutor) classUnderTest.jobThreadExecutorService;
+        int workerPoolSize = workerPool.getMaximumPoolSize();
+
+        classUnderTest.resizeWorkerPool(0);
+
+        assertEquals(workerPoolSize, workerPool.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testUseVirtualThreads() throws Exception {
+
+        classUnderTest.init();
+        ExecutorService workerPool = classUnderTest.jobThreadExecutorService;
+
+        classUnderTest.useVirtualThreads(true);
+
+        assertEquals(VirtualThreads.isSupported(), classUnderTest.isUsingVirtualThreads());
+        if (VirtualThreads.isSupported()) {
+            assertTrue(workerPool.isShutdown());
+        } else {
+            assertSame(workerPool, classUnderTest.jobThreadExecutorService);
+        }
+    }
+
+    @Test
+    public void testUseVirtualThreads_false() throws Exception {
+
+        classUnderTest.init();
+        ExecutorService workerPool = classUnderTest.jobThreadExecutorService;
+
+        classUnderTest.useVirtualThreads(false);
+
+        assertFalse(classUnderTest.isUsingVirtualThreads());
+        assertSame(workerPool, classUnderTest.jobThreadExecutorService);
+    }
+
 }
@@ -0,0 +1,105 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IdBitSetTest {
+
+    IdBitSet classUnderTest = new IdBitSet();
+
+    @Test
+    public void testAdd() throws Exception {
+
+        assertTrue(classUnderTest.add(5L));
+        assertTrue(classUnderTest.add(700L));
+        assertFalse(classUnderTest.add(5L));
+
+        assertEquals(2, classUnderTest.size());
+        assertTrue(classUnderTest.contains(5L));
+        assertTrue(classUnderTest.contains(700L));
+        assertFalse(classUnderTest.contains(6L));
+    }
+
+    @Test
+    public void testAdd_belowRange() throws Exception {
+
+        classUnderTest.add(10_000L);
+        classUnderTest.add(3L);
+
+        assertEquals(3L, classUnderTest.first());
+        assertEquals(10_000L, classUnderTest.last());
+        assertTrue(classUnderTest.contains(10_000L));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+
+        classUnderTest.add(1L);
+        classUnderTest.add(2L);
+
+        assertTrue(classUnderTest.remove(1L));
+        assertFalse(classUnderTest.remove(1L));
+        assertFalse(classUnderTest.remove(99L));
+
+        assertEquals(1, classUnderTest.size());
+        assertEquals(2L, classUnderTest.first());
+    }
+
+    @Test
+    public void testRemove_dropsLeadingWords() throws Exception {
+
+        for (long id = 1; id <= 64 * 100; id++) {
+            classUnderTest.add(id);
+        }
+        long memorySize = classUnderTest.memorySize();
+        for (long id = 1; id <= 64 * 90; id++) {
+            classUnderTest.remove(id);
+        }
+
+        assertTrue(classUnderTest.memorySize() < memorySize);
+        assertEquals(64 * 10, classUnderTest.size());
+        assertEquals(64 * 90 + 1, classUnderTest.first());
+        assertEquals(64 * 100, classUnderTest.last());
+        assertTrue(classUnderTest.contains(64 * 95));
+    }
+
+    @Test
+    public void testNext() throws Exception {
+
+        classUnderTest.add(3L);
+        classUnderTest.add(64L);
+        classUnderTest.add(500L);
+
+        assertEquals(3L, classUnderTest.next(0L));
+        assertEquals(64L, classUnderTest.next(4L));
+        assertEquals(64L, classUnderTest.next(64L));
+        assertEquals(500L, classUnderTest.next(65L));
+        assertEquals(-1L, classUnderTest.next(501L));
+    }
+
+    @Test
+    public void testPrevious() throws Exception {
+
+        classUnderTest.add(3L);
+        classUnderTest.add(64L);
+        classUnderTest.add(500L);
+
+        assertEquals(500L, classUnderTest.previous(Long.MAX_VALUE));
+        assertEquals(64L, classUnderTest.previous(499L));
+        assertEquals(64L, classUnderTest.previous(64L));
+        assertEquals(3L, classUnderTest.previous(63L));
+        assertEquals(-1L, classUnderTest.previous(2L));
+    }
+
+    @Test
+    public void testNext_empty() throws Exception {
+
+        assertEquals(-1L, classUnderTest.first());
+        assertEquals(-1L, classUnderTest.last());
+        assertEquals(0, classUnderTest.size());
+    }
+
+}
@@ -0,0 +1,504 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.enterprise.event.Event;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.coodoo.workhorse.core.control.StaticConfig;
+import io.coodoo.workhorse.core.control.event.NewExecutionEvent;
+import io.coodoo.workhorse.core.control.event.NewExecutionsEvent;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionFailStatus;
+import io.coodoo.workhorse.core.entity.ExecutionLog;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.core.entity.ExecutionStatusCounts;
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MappedExecutionPersistenceTest {
+
+    private static final Long JOB_ID = 1L;
+
+    // the smallest segment holds 64 records
+    private static final int SEGMENT_SIZE = ExecutionStore.RECORD_SIZE * 64;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Spy
+    MappedPersistence mappedPersistence = new MappedPersistence();
+
+    @Mock
+    Event<NewExecutionEvent> newExecutionEventEvent;
+
+    @Mock
+    Event<NewExecutionsEvent> newExecutionsEventEvent;
+
+    @InjectMocks
+    MappedExecutionPersistence classUnderTest;
+
+    MappedConfig mappedConfig;
+
+    @Before
+    public void setUp() throws Exception {
+        StaticConfig.TIME_ZONE = ZoneId.systemDefault().getId();
+
+        mappedConfig = new MappedConfigBuilder().directory(temporaryFolder.getRoot().getPath()).segmentSize(SEGMENT_SIZE).build();
+        mappedPersistence.open(mappedConfig);
+
+        Job job = new Job();
+        job.setId(JOB_ID);
+        mappedPersistence.getJobs().put(JOB_ID, job);
+    }
+
+    @After
+    public void tearDown() {
+        mappedPersistence.close();
+    }
+
+    private void restart() {
+        mappedPersistence.close();
+        mappedPersistence.open(mappedConfig);
+
+        Job job = new Job();
+        job.setId(JOB_ID);
+        mappedPersistence.getJobs().put(JOB_ID, job);
+    }
+
+    private Execution persist(ExecutionStatus status) {
+        Execution execution = new Execution();
+        execution.setJobId(JOB_ID);
+        execution.setStatus(status);
+        return classUnderTest.persist(execution);
+    }
+
+    private List<Execution> persistAll(int count, ExecutionStatus status) {
+        List<Execution> executions = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            Execution execution = new Execution();
+            execution.setJobId(JOB_ID);
+            execution.setStatus(status);
+            executions.add(execution);
+        }
+        return classUnderTest.persistAll(executions);
+    }
+
+    @Test
+    public void testPersist() throws Exception {
+
+        LocalDateTime plannedFor = LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6_000_000);
+        Execution execution = new Execution();
+        execution.setJobId(JOB_ID);
+        execution.setStatus(ExecutionStatus.PLANNED);
+        execution.setPlannedFor(plannedFor);
+        execution.setPriorityLevel(7);
+        execution.setParameters("{\"name\":\"Jürgen\"}");
+        execution.setParametersHash(-42);
+        execution.setBatchId(3L);
+
+        Execution persisted = classUnderTest.persist(execution);
+        Execution result = classUnderTest.getById(JOB_ID, persisted.getId());
+
+        assertEquals(persisted.getId(), result.getId());
+        assertEquals(JOB_ID, result.getJobId());
+        assertEquals(ExecutionStatus.PLANNED, result.getStatus());
+        assertEquals(plannedFor, result.getPlannedFor());
+        assertEquals(persisted.getCreatedAt(), result.getCreatedAt());
+        assertEquals(7, result.getPriorityLevel());
+        assertEquals("{\"name\":\"Jürgen\"}", result.getParameters());
+        assertEquals(Integer.valueOf(-42), result.getParametersHash());
+        assertEquals(Long.valueOf(3L), result.getBatchId());
+        assertNull(result.getChainId());
+        assertNull(result.getSummary());
+        assertEquals(ExecutionFailStatus.NONE, result.getFailStatus());
+    }
+
+    @Test
+    public void testGetById_otherJob() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+
+        assertNotNull(classUnderTest.getById(null, execution.getId()));
+        assertNull(classUnderTest.getById(2L, execution.getId()));
+        assertNull(classUnderTest.getById(JOB_ID, 99L));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+        execution.setStatus(ExecutionStatus.RUNNING);
+        execution.setSummary("running");
+        execution.setStartedAt(LocalDateTime.now().minusHours(1));
+
+        assertNotNull(classUnderTest.update(execution));
+
+        Execution result = classUnderTest.getById(JOB_ID, execution.getId());
+        assertEquals(ExecutionStatus.RUNNING, result.getStatus());
+        assertEquals("running", result.getSummary());
+        assertNotNull(result.getUpdatedAt());
+        assertEquals(1, classUnderTest.findTimeoutExecutions(LocalDateTime.now()).size());
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 10).isEmpty());
+        assertTrue(classUnderTest.isBatchFinished(JOB_ID, 1L));
+    }
+
+    @Test
+    public void testUpdate_deleted() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+        classUnderTest.delete(JOB_ID, execution.getId());
+
+        assertNull(classUnderTest.update(execution));
+        assertNull(classUnderTest.getById(JOB_ID, execution.getId()));
+    }
+
+    @Test
+    public void testClaim() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+        Execution buffered = classUnderTest.getById(JOB_ID, execution.getId());
+
+        Execution claimed = classUnderTest.claim(JOB_ID, execution.getId());
+
+        assertEquals(ExecutionStatus.RUNNING, claimed.getStatus());
+        assertNotNull(claimed.getStartedAt());
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 10).isEmpty());
+
+        // a second copy of the execution loses the claim
+        assertEquals(ExecutionStatus.QUEUED, buffered.getStatus());
+        assertNull(classUnderTest.claim(JOB_ID, buffered.getId()));
+        assertEquals(1L, classUnderTest.getExecutionStatusCounts(JOB_ID, null, null).getRunning());
+    }
+
+    @Test
+    public void testQueuePlanned() throws Exception {
+
+        Execution planned = persist(ExecutionStatus.PLANNED);
+        Execution pushed = classUnderTest.getById(JOB_ID, planned.getId());
+        Execution aborted = persist(ExecutionStatus.PLANNED);
+        aborted.setStatus(ExecutionStatus.ABORTED);
+        classUnderTest.update(aborted);
+
+        List<Execution> result = classUnderTest.queuePlanned(JOB_ID, Arrays.asList(planned.getId(), aborted.getId()));
+
+        assertEquals(1, result.size());
+        assertEquals(ExecutionStatus.QUEUED, result.get(0).getStatus());
+        assertEquals(ExecutionStatus.ABORTED, classUnderTest.getById(JOB_ID, aborted.getId()).getStatus());
+        assertEquals(1L, classUnderTest.getExecutionStatusCounts(JOB_ID, null, null).getQueued());
+        assertEquals(0L, classUnderTest.getExecutionStatusCounts(JOB_ID, null, null).getPlanned());
+
+        // the pushed copy loses against the status in the store
+        assertEquals(ExecutionStatus.PLANNED, pushed.getStatus());
+        assertTrue(classUnderTest.queuePlanned(JOB_ID, Arrays.asList(pushed.getId())).isEmpty());
+    }
+
+    @Test
+    public void testPollNextExecutions() throws Exception {
+
+        Execution low = persist(ExecutionStatus.QUEUED);
+        Execution high = new Execution();
+        high.setJobId(JOB_ID);
+        high.setStatus(ExecutionStatus.QUEUED);
+        high.setPriorityLevel(5);
+        classUnderTest.persist(high);
+        Execution planned = new Execution();
+        planned.setJobId(JOB_ID);
+        planned.setStatus(ExecutionStatus.PLANNED);
+        planned.setPlannedFor(LocalDateTime.now().plusHours(1));
+        classUnderTest.persist(planned);
+        persist(ExecutionStatus.FINISHED);
+
+        List<Execution> result = classUnderTest.pollNextExecutions(JOB_ID, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(high.getId(), result.get(0).getId());
+        assertEquals(low.getId(), result.get(1).getId());
+        assertEquals(1, classUnderTest.pollNextExecutions(JOB_ID, 1).size());
+    }
+
+    @Test
+    public void testPollNextExecutions_limitByPriority() throws Exception {
+
+        // more than a segment per level, so the due queues grow
+        List<Execution> low = persistAll(100, ExecutionStatus.QUEUED);
+        List<Execution> high = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            Execution execution = new Execution();
+            execution.setJobId(JOB_ID);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            execution.setPriorityLevel(5);
+            high.add(execution);
+        }
+        classUnderTest.persistAll(high);
+
+        List<Execution> result = classUnderTest.pollNextExecutions(JOB_ID, 3);
+
+        assertEquals(3, result.size());
+        assertEquals(high.get(0).getId(), result.get(0).getId());
+        assertEquals(high.get(1).getId(), result.get(1).getId());
+        assertEquals(high.get(2).getId(), result.get(2).getId());
+
+        // a changed priority level moves the execution to the other level
+        Execution raised = classUnderTest.getById(JOB_ID, low.get(50).getId());
+        raised.setPriorityLevel(9);
+        classUnderTest.update(raised);
+        for (Execution execution : high) {
+            classUnderTest.claim(JOB_ID, execution.getId());
+        }
+        restart();
+
+        result = classUnderTest.pollNextExecutions(JOB_ID, 2);
+
+        assertEquals(2, result.size());
+        assertEquals(raised.getId(), result.get(0).getId());
+        assertEquals(low.get(0).getId(), result.get(1).getId());
+        assertEquals(100, classUnderTest.pollNextExecutions(JOB_ID, 1000).size());
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 0).isEmpty());
+    }
+
+    @Test
+    public void testPersistAll_chainPlaceholder() throws Exception {
+
+        List<Execution> executions = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            Execution execution = new Execution();
+            execution.setJobId(JOB_ID);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            execution.setChainId(Execution.FIRST_EXECUTION_ID);
+            executions.add(execution);
+        }
+        classUnderTest.persistAll(executions);
+        Long chainId = executions.get(0).getId();
+
+        assertEquals(3, classUnderTest.getChain(JOB_ID, chainId).size());
+
+        // only the first execution of a chain gets polled
+        List<Execution> polled = classUnderTest.pollNextExecutions(JOB_ID, 10);
+        assertEquals(1, polled.size());
+        assertEquals(chainId, polled.get(0).getId());
+
+        classUnderTest.abortChain(JOB_ID, chainId);
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 10).isEmpty());
+    }
+
+    @Test
+    public void testGetFirstCreatedByJobIdAndParametersHash() throws Exception {
+
+        Execution planned = persist(ExecutionStatus.PLANNED);
+        planned.setParametersHash(42);
+        classUnderTest.update(planned);
+        Execution first = persist(ExecutionStatus.QUEUED);
+        first.setParametersHash(42);
+        classUnderTest.update(first);
+        Execution second = persist(ExecutionStatus.QUEUED);
+        second.setParametersHash(42);
+        classUnderTest.update(second);
+        Execution withoutHash = persist(ExecutionStatus.QUEUED);
+
+        assertEquals(first.getId(), classUnderTest.getFirstCreatedByJobIdAndParametersHash(JOB_ID, 42).getId());
+        assertEquals(withoutHash.getId(), classUnderTest.getFirstCreatedByJobIdAndParametersHash(JOB_ID, null).getId());
+        assertNull(classUnderTest.getFirstCreatedByJobIdAndParametersHash(JOB_ID, 43));
+        assertNull(classUnderTest.getFirstCreatedByJobIdAndParametersHash(2L, 42));
+
+        // only queued executions count
+        classUnderTest.claim(JOB_ID, first.getId());
+        assertEquals(second.getId(), classUnderTest.getFirstCreatedByJobIdAndParametersHash(JOB_ID, 42).getId());
+
+        classUnderTest.queuePlanned(JOB_ID, Arrays.asList(planned.getId()));
+        assertEquals(planned.getId(), classUnderTest.getFirstCreatedByJobIdAndParametersHash(JOB_ID, 42).getId());
+
+        classUnderTest.delete(JOB_ID, planned.getId());
+        restart();
+        assertEquals(second.getId(), classUnderTest.getFirstCreatedByJobIdAndParametersHash(JOB_ID, 42).getId());
+    }
+
+    @Test
+    public void testGetBatch() throws Exception {
+
+        List<Execution> executions = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            Execution execution = new Execution();
+            execution.setJobId(JOB_ID);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            execution.setBatchId(Execution.FIRST_EXECUTION_ID);
+            executions.add(execution);
+        }
+        // executions before the batch and between its executions don't belong to it
+        persistAll(2, ExecutionStatus.QUEUED);
+        classUnderTest.persistAll(executions);
+        persist(ExecutionStatus.QUEUED);
+        Long batchId = executions.get(0).getId();
+
+        List<Execution> batch = classUnderTest.getBatch(JOB_ID, batchId);
+        assertEquals(3, batch.size());
+        assertEquals(batchId, batch.get(0).getId());
+        assertTrue(classUnderTest.getBatch(2L, batchId).isEmpty());
+
+        assertFalse(classUnderTest.isBatchFinished(JOB_ID, batchId));
+        for (Execution execution : executions) {
+            classUnderTest.claim(JOB_ID, execution.getId());
+        }
+        assertTrue(classUnderTest.isBatchFinished(JOB_ID, batchId));
+    }
+
+    @Test
+    public void testLog() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.RUNNING);
+
+        assertNull(classUnderTest.getLog(JOB_ID, execution.getId()));
+
+        classUnderTest.log(JOB_ID, execution.getId(), "first");
+        ExecutionLog created = classUnderTest.getLog(JOB_ID, execution.getId());
+        assertNotNull(created.getCreatedAt());
+        assertNull(created.getUpdatedAt());
+
+        List<String> logs = new ArrayList<>();
+        logs.add("second");
+        logs.add("third");
+        classUnderTest.logAll(JOB_ID, execution.getId(), logs);
+        classUnderTest.logStacktrace(JOB_ID, execution.getId(), "stacktrace");
+
+        ExecutionLog result = classUnderTest.getLog(JOB_ID, execution.getId());
+        assertEquals(String.join(System.lineSeparator(), "first", "second", "third"), result.getLog());
+        assertEquals("stacktrace", result.getStacktrace());
+        assertEquals(execution.getId(), result.getExecutionId());
+        assertNotNull(result.getUpdatedAt());
+    }
+
+    @Test
+    public void testGetExecutionListing_acrossSegments() throws Exception {
+
+        persistAll(150, ExecutionStatus.FINISHED);
+        persistAll(50, ExecutionStatus.FAILED);
+
+        ListingParameters listingParameters = new ListingParameters(10);
+        listingParameters.addFilterAttributes("status", ExecutionStatus.FAILED);
+        ListingResult<Execution> result = classUnderTest.getExecutionListing(JOB_ID, listingParameters);
+
+        assertEquals(10, result.getResults().size());
+        assertEquals(Long.valueOf(50L), result.getMetadata().getCount());
+        assertTrue(mappedPersistence.getExecutionStore().getSegmentCount() > 3);
+    }
+
+    @Test
+    public void testGetExecutionListing_cursor() throws Exception {
+
+        List<Execution> executions = persistAll(150, ExecutionStatus.FINISHED);
+
+        ListingParameters listingParameters = new ListingParameters(100);
+        listingParameters.setCursor("");
+        ListingResult<Execution> first = classUnderTest.getExecutionListing(JOB_ID, listingParameters);
+        listingParameters.setCursor(first.getMetadata().getNextCursor());
+        ListingResult<Execution> second = classUnderTest.getExecutionListing(JOB_ID, listingParameters);
+
+        assertEquals(100, first.getResults().size());
+        assertEquals(50, second.getResults().size());
+        assertEquals(executions.get(100).getId(), second.getResults().get(0).getId());
+        assertNull(second.getMetadata().getNextCursor());
+    }
+
+    @Test
+    public void testForEachExecution() throws Exception {
+
+        persistAll(100, ExecutionStatus.FINISHED);
+        persistAll(30, ExecutionStatus.QUEUED);
+
+        ListingParameters listingParameters = new ListingParameters(0);
+        listingParameters.addFilterAttributes("status", ExecutionStatus.QUEUED);
+        List<Long> ids = new ArrayList<>();
+        classUnderTest.forEachExecution(JOB_ID, listingParameters, execution -> ids.add(execution.getId()));
+
+        assertEquals(30, ids.size());
+        assertTrue(ids.get(0) < ids.get(29));
+    }
+
+    @Test
+    public void testForEachExecution_otherSortAttribute() throws Exception {
+
+        persistAll(20, ExecutionStatus.FINISHED);
+        persistAll(10, ExecutionStatus.QUEUED);
+
+        ListingParameters listingParameters = new ListingParameters(0);
+        listingParameters.setSortAttribute("+status");
+        List<Execution> executions = new ArrayList<>();
+        classUnderTest.forEachExecution(JOB_ID, listingParameters, executions::add);
+
+        assertEquals(30, executions.size());
+        assertEquals(ExecutionStatus.QUEUED, executions.get(0).getStatus());
+        assertEquals(ExecutionStatus.FINISHED, executions.get(29).getStatus());
+    }
+
+    @Test
+    public void testDeleteOlderExecutions() throws Exception {
+
+        persistAll(200, ExecutionStatus.FINISHED);
+        Execution queued = persist(ExecutionStatus.QUEUED);
+        int segmentCount = mappedPersistence.getExecutionStore().getSegmentCount();
+
+        int deleted = classUnderTest.deleteOlderExecutions(JOB_ID, LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(200, deleted);
+        assertTrue(mappedPersistence.getExecutionStore().getSegmentCount() < segmentCount);
+        assertNotNull(classUnderTest.getById(JOB_ID, queued.getId()));
+        assertEquals(1, classUnderTest.getByJobId(JOB_ID, 10L).size());
+    }
+
+    @Test
+    public void testGetExecutionStatusCounts() throws Exception {
+
+        persistAll(3, ExecutionStatus.FINISHED);
+        persist(ExecutionStatus.QUEUED);
+
+        ExecutionStatusCounts result = classUnderTest.getExecutionStatusCounts(null, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(3L, result.getFinished());
+        assertEquals(1L, result.getQueued());
+        assertEquals(0L, result.getFailed());
+        assertEquals(1, classUnderTest.getJobExecutionStatusSummaries(ExecutionStatus.FINISHED, null).size());
+    }
+
+    @Test
+    public void testRestart() throws Exception {
+
+        List<Execution> executions = persistAll(100, ExecutionStatus.FINISHED);
+        Execution queued = persist(ExecutionStatus.QUEUED);
+        classUnderTest.log(JOB_ID, queued.getId(), "before restart");
+        classUnderTest.delete(JOB_ID, executions.get(0).getId());
+
+        restart();
+
+        assertNull(classUnderTest.getById(JOB_ID, executions.get(0).getId()));
+        assertEquals(ExecutionStatus.FINISHED, classUnderTest.getById(JOB_ID, executions.get(1).getId()).getStatus());
+        assertEquals("before restart", classUnderTest.getLog(JOB_ID, queued.getId()).getLog());
+        assertEquals(queued.getId(), classUnderTest.pollNextExecutions(JOB_ID, 10).get(0).getId());
+
+        Execution next = persist(ExecutionStatus.QUEUED);
+        assertTrue(next.getId() > queued.getId());
+        assertEquals(101, classUnderTest.getByJobId(JOB_ID, 0L).size());
+    }
+
+}
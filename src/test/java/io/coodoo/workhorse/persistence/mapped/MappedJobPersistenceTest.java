@@ -0,0 +1,119 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.core.entity.JobStatus;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MappedJobPersistenceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Spy
+    MappedPersistence mappedPersistence = new MappedPersistence();
+
+    @InjectMocks
+    MappedJobPersistence classUnderTest;
+
+    MappedConfig mappedConfig;
+
+    @Before
+    public void setUp() throws Exception {
+        mappedConfig = new MappedConfigBuilder().directory(temporaryFolder.getRoot().getPath()).segmentSize(ExecutionStore.RECORD_SIZE * 64).build();
+        mappedPersistence.open(mappedConfig);
+    }
+
+    @After
+    public void tearDown() {
+        mappedPersistence.close();
+    }
+
+    private Job persist(String name, JobStatus status) {
+        Job job = new Job();
+        job.setName(name);
+        job.setStatus(status);
+        job.setWorkerClassName("io.coodoo." + name);
+        return classUnderTest.persist(job);
+    }
+
+    @Test
+    public void testPersist_restart() throws Exception {
+
+        Job first = persist("First", JobStatus.ACTIVE);
+        Job second = persist("Second", JobStatus.INACTIVE);
+        second.setStatus(JobStatus.ERROR);
+        classUnderTest.update(second);
+
+        mappedPersistence.close();
+        mappedPersistence.open(mappedConfig);
+
+        assertEquals(Long.valueOf(2L), classUnderTest.count());
+        assertEquals("First", classUnderTest.get(first.getId()).getName());
+        assertEquals(JobStatus.ERROR, classUnderTest.getByName("Second").getStatus());
+        assertEquals(Long.valueOf(1L), classUnderTest.countByStatus(JobStatus.ERROR));
+
+        Job third = persist("Third", JobStatus.ACTIVE);
+        assertEquals(Long.valueOf(3L), third.getId());
+    }
+
+    @Test
+    public void testOpen_failure() throws Exception {
+
+        persist("First", JobStatus.ACTIVE);
+        mappedPersistence.close();
+
+        // a directory where the journal of the logs is expected can't be loaded
+        Path logJournal = temporaryFolder.getRoot().toPath().resolve("workhorse-logs.journal");
+        Files.delete(logJournal);
+        Files.createDirectory(logJournal);
+        try {
+            mappedPersistence.open(mappedConfig);
+            fail("The journal of the logs can't be loaded");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().startsWith("Can't load the journal"));
+        }
+        assertTrue(mappedPersistence.getJobs().isEmpty());
+        try {
+            mappedPersistence.getExecutionStore();
+            fail("The persistence stays closed");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().endsWith("is not initialized"));
+        }
+
+        Files.delete(logJournal);
+        mappedPersistence.open(mappedConfig);
+        assertEquals("First", classUnderTest.getByName("First").getName());
+    }
+
+    @Test
+    public void testDeleteJob_restart() throws Exception {
+
+        Job job = persist("Deleted", JobStatus.ACTIVE);
+        classUnderTest.deleteJob(job.getId());
+
+        mappedPersistence.close();
+        mappedPersistence.open(mappedConfig);
+
+        assertNull(classUnderTest.get(job.getId()));
+        assertEquals(Long.valueOf(0L), classUnderTest.count());
+    }
+
+}
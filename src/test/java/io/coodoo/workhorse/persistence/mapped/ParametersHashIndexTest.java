@@ -0,0 +1,61 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ParametersHashIndexTest {
+
+    ParametersHashIndex classUnderTest = new ParametersHashIndex();
+
+    @Test
+    public void testAdd() throws Exception {
+
+        assertTrue(classUnderTest.add(42, 7L));
+        assertTrue(classUnderTest.add(42, 3L));
+        assertTrue(classUnderTest.add(-1, 5L));
+        assertFalse(classUnderTest.add(42, 7L));
+
+        assertEquals(3, classUnderTest.size());
+        assertEquals(3L, classUnderTest.first(42));
+        assertEquals(5L, classUnderTest.first(-1));
+        assertEquals(-1L, classUnderTest.first(0));
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+
+        classUnderTest.add(42, 3L);
+        classUnderTest.add(42, 7L);
+
+        assertTrue(classUnderTest.remove(42, 3L));
+        assertFalse(classUnderTest.remove(42, 3L));
+        assertFalse(classUnderTest.remove(43, 7L));
+
+        assertEquals(7L, classUnderTest.first(42));
+        assertTrue(classUnderTest.remove(42, 7L));
+        assertEquals(-1L, classUnderTest.first(42));
+        assertEquals(0, classUnderTest.size());
+        assertEquals(0L, classUnderTest.memorySize());
+    }
+
+    @Test
+    public void testRemove_keepsProbeSequences() throws Exception {
+
+        // many pairs, so the probe sequences run into each other and get shifted on removal
+        for (long id = 1; id <= 10_000; id++) {
+            classUnderTest.add((int) ((id - 1) % 1000), id);
+        }
+        for (long id = 1; id <= 5_000; id++) {
+            assertTrue(classUnderTest.remove((int) ((id - 1) % 1000), id));
+        }
+
+        assertEquals(5_000, classUnderTest.size());
+        for (int hash = 0; hash < 1000; hash++) {
+            assertEquals(hash + 5_001L, classUnderTest.first(hash));
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package io.coodoo.workhorse.persistence.mapped;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PayloadStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    PayloadStore classUnderTest;
+
+    @Before
+    public void setUp() throws Exception {
+        classUnderTest = new PayloadStore(temporaryFolder.getRoot().toPath(), 4096);
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+
+        long address = classUnderTest.append(1L, "value", PayloadStore.NULL);
+
+        assertEquals("value", classUnderTest.read(address));
+        assertEquals(PayloadStore.NULL, classUnderTest.append(1L, null, PayloadStore.NULL));
+        assertNull(classUnderTest.read(PayloadStore.NULL));
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+
+        String value = "{\"name\":\"Größe €\",\"emoji\":\"😀\"}";
+        long address = classUnderTest.append(1L, value, PayloadStore.NULL);
+
+        assertTrue(classUnderTest.matches(address, new String(value)));
+        assertFalse(classUnderTest.matches(address, value.substring(0, value.length() - 1)));
+        assertFalse(classUnderTest.matches(address, value + " "));
+        assertFalse(classUnderTest.matches(address, value.replace('ö', 'o')));
+        assertFalse(classUnderTest.matches(address, null));
+        assertFalse(classUnderTest.matches(PayloadStore.NULL, value));
+        assertTrue(classUnderTest.matches(PayloadStore.NULL, null));
+    }
+
+    @Test
+    public void testMatches_empty() throws Exception {
+
+        long address = classUnderTest.append(1L, "", PayloadStore.NULL);
+
+        assertTrue(classUnderTest.matches(address, ""));
+        assertFalse(classUnderTest.matches(address, "a"));
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.coodoo.workhorse.persistence.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExecutionJobIndexTest {
+
+    ExecutionJobIndex classUnderTest;
+
+    @Before
+    public void setUp() {
+        classUnderTest = new ExecutionJobIndex();
+    }
+
+    @Test
+    public void testGet() throws Exception {
+
+        classUnderTest.put(1L, 10L);
+        classUnderTest.put(2L, 20L);
+
+        assertEquals(Long.valueOf(10L), classUnderTest.get(1L));
+        assertEquals(Long.valueOf(20L), classUnderTest.get(2L));
+        assertEquals(2, classUnderTest.size());
+    }
+
+    @Test
+    public void testGet_unknown() throws Exception {
+
+        classUnderTest.put(1L, 10L);
+
+        assertNull(classUnderTest.get(2L));
+    }
+
+    @Test
+    public void testPut_replace() throws Exception {
+
+        classUnderTest.put(1L, 10L);
+        classUnderTest.put(1L, 11L);
+
+        assertEquals(Long.valueOf(11L), classUnderTest.get(1L));
+        assertEquals(1, classUnderTest.size());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+
+        classUnderTest.put(1L, 10L);
+
+        classUnderTest.remove(1L);
+        classUnderTest.remove(2L);
+
+        assertNull(classUnderTest.get(1L));
+        assertEquals(0, classUnderTest.size());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPut_zero() throws Exception {
+
+        classUnderTest.put(0L, 10L);
+    }
+
+    @Test
+    public void testResizeAndRemove_manyEntries() throws Exception {
+
+        for (long executionId = 1; executionId <= 10_000; executionId++) {
+            classUnderTest.put(executionId, executionId % 7);
+        }
+        // removing every other entry shifts the remaining entries of the probe sequences
+        for (long executionId = 1; executionId <= 10_000; executionId += 2) {
+            classUnderTest.remove(executionId);
+        }
+
+        assertEquals(5_000, classUnderTest.size());
+        for (long executionId = 1; executionId <= 10_000; executionId++) {
+            if (executionId % 2 == 1) {
+                assertNull(classUnderTest.get(executionId));
+            } else {
+                assertEquals(Long.valueOf(executionId % 7), classUnderTest.get(executionId));
+            }
+        }
+    }
+
+}
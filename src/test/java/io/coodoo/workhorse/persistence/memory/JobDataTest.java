@@ -0,0 +1,107 @@
+package io.coodoo.workhorse.persistence.memory;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.coodoo.workhorse.core.control.StaticConfig;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.util.WorkhorseUtil;
+
+public class JobDataTest {
+
+    private static final LocalDateTime MINUTE = LocalDateTime.of(2021, 3, 1, 12, 0);
+
+    JobData classUnderTest;
+
+    long id;
+
+    @Before
+    public void setUp() {
+        StaticConfig.TIME_ZONE = ZoneId.systemDefault().getId();
+        classUnderTest = new JobData();
+    }
+
+    private Execution index(LocalDateTime createdAt, ExecutionStatus status) {
+        Execution execution = new Execution();
+        execution.setId(++id);
+        execution.setCreatedAt(createdAt);
+        execution.setStatus(status);
+        classUnderTest.executions.put(execution.getId(), execution);
+        classUnderTest.index(execution);
+        return execution;
+    }
+
+    private long millis(LocalDateTime localDateTime) {
+        return WorkhorseUtil.toEpochMilli(localDateTime);
+    }
+
+    @Test
+    public void testCountExecutions() throws Exception {
+
+        index(MINUTE, ExecutionStatus.QUEUED);
+        index(MINUTE.plusMinutes(5), ExecutionStatus.QUEUED);
+        index(MINUTE.plusMinutes(5), ExecutionStatus.FAILED);
+
+        assertEquals(2L, classUnderTest.countExecutions(ExecutionStatus.QUEUED));
+        assertEquals(1L, classUnderTest.countExecutions(ExecutionStatus.FAILED));
+        assertEquals(0L, classUnderTest.countExecutions(ExecutionStatus.RUNNING));
+    }
+
+    @Test
+    public void testCountExecutions_statusTransition() throws Exception {
+
+        Execution execution = index(MINUTE, ExecutionStatus.QUEUED);
+
+        execution.setStatus(ExecutionStatus.RUNNING);
+        classUnderTest.index(execution);
+        execution.setStatus(ExecutionStatus.FINISHED);
+        classUnderTest.index(execution);
+
+        assertEquals(0L, classUnderTest.countExecutions(ExecutionStatus.QUEUED, millis(MINUTE), millis(MINUTE.plusHours(1))));
+        assertEquals(0L, classUnderTest.countExecutions(ExecutionStatus.RUNNING, millis(MINUTE), millis(MINUTE.plusHours(1))));
+        assertEquals(1L, classUnderTest.countExecutions(ExecutionStatus.FINISHED, millis(MINUTE), millis(MINUTE.plusHours(1))));
+    }
+
+    @Test
+    public void testCountExecutions_range() throws Exception {
+
+        index(MINUTE.minusMinutes(1), ExecutionStatus.FINISHED);
+        index(MINUTE, ExecutionStatus.FINISHED);
+        index(MINUTE.plusMinutes(10), ExecutionStatus.FINISHED);
+        index(MINUTE.plusMinutes(20), ExecutionStatus.FINISHED);
+
+        assertEquals(2L, classUnderTest.countExecutions(ExecutionStatus.FINISHED, millis(MINUTE), millis(MINUTE.plusMinutes(10))));
+        assertEquals(4L, classUnderTest.countExecutions(ExecutionStatus.FINISHED, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testCountExecutions_partialMinute() throws Exception {
+
+        index(MINUTE.plusSeconds(10), ExecutionStatus.QUEUED);
+        index(MINUTE.plusSeconds(30), ExecutionStatus.QUEUED);
+        index(MINUTE.plusSeconds(50), ExecutionStatus.QUEUED);
+
+        assertEquals(1L, classUnderTest.countExecutions(ExecutionStatus.QUEUED, millis(MINUTE.plusSeconds(20)), millis(MINUTE.plusSeconds(40))));
+        assertEquals(2L, classUnderTest.countExecutions(ExecutionStatus.QUEUED, millis(MINUTE.plusSeconds(30)), millis(MINUTE.plusMinutes(5))));
+        assertEquals(3L, classUnderTest.countExecutions(ExecutionStatus.QUEUED, millis(MINUTE), millis(MINUTE.plusSeconds(59))));
+    }
+
+    @Test
+    public void testCountExecutions_unindex() throws Exception {
+
+        Execution execution = index(MINUTE, ExecutionStatus.FAILED);
+        index(MINUTE, ExecutionStatus.FAILED);
+
+        classUnderTest.unindex(execution.getId());
+
+        assertEquals(1L, classUnderTest.countExecutions(ExecutionStatus.FAILED));
+        assertEquals(1L, classUnderTest.countExecutions(ExecutionStatus.FAILED, millis(MINUTE), millis(MINUTE.plusMinutes(1))));
+    }
+
+}
@@ -0,0 +1,71 @@
+package io.coodoo.workhorse.persistence.memory;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost to write the whole log of an execution line by line and read it once at the end.
+ *
+ * <code>concat</code> is the former way of the memory persistence that copies the log so far on every line, <code>chunked</code> appends to the blocks of
+ * {@link MemoryExecutionLog} and <code>chunkedLimited</code> does the same with a limit of 64k characters.
+ *
+ * Run the <code>main</code> method on the test classpath (after <code>mvn test-compile</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryExecutionLogBenchmark {
+
+    private static final String LINE = "[12:34:56.789] processed item 4711 of 10000 without any problems";
+
+    @Param({"100", "10000"})
+    int lines;
+
+    @Benchmark
+    public String concat() {
+        String log = null;
+        for (int i = 0; i < lines; i++) {
+            log = log == null ? LINE : log + System.lineSeparator() + LINE;
+        }
+        return log;
+    }
+
+    @Benchmark
+    public String chunked() {
+        MemoryExecutionLog log = new MemoryExecutionLog(1L, LocalDateTime.MIN);
+        for (int i = 0; i < lines; i++) {
+            log.append(LINE, 0);
+        }
+        return log.getLog();
+    }
+
+    @Benchmark
+    public String chunkedLimited() {
+        MemoryExecutionLog log = new MemoryExecutionLog(1L, LocalDateTime.MIN);
+        for (int i = 0; i < lines; i++) {
+            log.append(LINE, 65536);
+        }
+        return log.getLog();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(MemoryExecutionLogBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,102 @@
+package io.coodoo.workhorse.persistence.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.Test;
+
+import io.coodoo.workhorse.core.entity.ExecutionLog;
+
+public class MemoryExecutionLogTest {
+
+    private static final String NL = System.lineSeparator();
+
+    MemoryExecutionLog classUnderTest = new MemoryExecutionLog(1L, LocalDateTime.now());
+
+    @Test
+    public void testGetLog_empty() throws Exception {
+
+        assertNull(classUnderTest.getLog());
+    }
+
+    @Test
+    public void testAppend() throws Exception {
+
+        classUnderTest.append("first", 0);
+        classUnderTest.append("second", 0);
+        classUnderTest.append("third", 0);
+
+        assertEquals("first" + NL + "second" + NL + "third", classUnderTest.getLog());
+    }
+
+    @Test
+    public void testAppend_manyBlocks() throws Exception {
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            classUnderTest.append("line " + i, 0);
+            if (i > 0) {
+                expected.append(NL);
+            }
+            expected.append("line ").append(i);
+        }
+
+        assertEquals(expected.toString(), classUnderTest.getLog());
+    }
+
+    @Test
+    public void testGetLog_cached() throws Exception {
+
+        classUnderTest.append("first", 0);
+
+        String log = classUnderTest.getLog();
+
+        assertSame(log, classUnderTest.getLog());
+
+        classUnderTest.append("second", 0);
+
+        assertEquals("first" + NL + "second", classUnderTest.getLog());
+    }
+
+    @Test
+    public void testAppend_maxSizeKeepsHeadAndTail() throws Exception {
+
+        for (int i = 0; i < 10_000; i++) {
+            classUnderTest.append(String.format("line %05d", i), 1000);
+        }
+
+        String log = classUnderTest.getLog();
+
+        assertTrue(log.startsWith("line 00000" + NL + "line 00001"));
+        assertTrue(log.endsWith("line 09998" + NL + "line 09999"));
+        assertTrue(log.contains("characters omitted"));
+        assertTrue(log.length() < 1100);
+    }
+
+    @Test
+    public void testAppend_maxSizeNotReached() throws Exception {
+
+        classUnderTest.append("first", 1000);
+        classUnderTest.append("second", 1000);
+
+        assertEquals("first" + NL + "second", classUnderTest.getLog());
+    }
+
+    @Test
+    public void testToExecutionLog() throws Exception {
+
+        classUnderTest.append("first", 0);
+        classUnderTest.setStacktrace("stacktrace");
+
+        ExecutionLog executionLog = classUnderTest.toExecutionLog();
+
+        assertEquals(Long.valueOf(1L), executionLog.getExecutionId());
+        assertEquals("first", executionLog.getLog());
+        assertEquals("stacktrace", executionLog.getStacktrace());
+    }
+
+}
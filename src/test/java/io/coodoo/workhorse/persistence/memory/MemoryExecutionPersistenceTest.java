@@ -0,0 +1,506 @@
+package io.coodoo.workhorse.persistence.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.enterprise.event.Event;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import io.coodoo.workhorse.core.control.StaticConfig;
+import io.coodoo.workhorse.core.control.event.NewExecutionEvent;
+import io.coodoo.workhorse.core.control.event.NewExecutionsEvent;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.core.entity.ExecutionStatusCounts;
+import io.coodoo.workhorse.core.entity.Job;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingResult;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MemoryExecutionPersistenceTest {
+
+    private static final Long JOB_ID = 1L;
+
+    @Spy
+    MemoryPersistence memoryPersistence = new MemoryPersistence();
+
+    @Mock
+    Event<NewExecutionEvent> newExecutionEventEvent;
+
+    @Mock
+    Event<NewExecutionsEvent> newExecutionsEventEvent;
+
+    @InjectMocks
+    MemoryExecutionPersistence classUnderTest;
+
+    JobData jobData;
+
+    @Before
+    public void setUp() {
+        StaticConfig.TIME_ZONE = ZoneId.systemDefault().getId();
+
+        Job job = new Job();
+        job.setId(JOB_ID);
+        memoryPersistence.getJobs().put(JOB_ID, job);
+        jobData = new JobData();
+        memoryPersistence.getJobDataMap().put(JOB_ID, jobData);
+    }
+
+    private Execution persist(ExecutionStatus status) {
+        Execution execution = new Execution();
+        execution.setJobId(JOB_ID);
+        execution.setStatus(status);
+        return classUnderTest.persist(execution);
+    }
+
+    @Test
+    public void testPersist_indexedByStatus() throws Exception {
+
+        Execution queued = persist(ExecutionStatus.QUEUED);
+        Execution finished = persist(ExecutionStatus.FINISHED);
+
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.QUEUED).contains(queued.getId()));
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.FINISHED).contains(finished.getId()));
+        assertEquals(1, jobData.getExecutionIds(ExecutionStatus.QUEUED).size());
+    }
+
+    @Test
+    public void testPersistAll() throws Exception {
+
+        List<Execution> executions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Execution execution = new Execution();
+            execution.setJobId(JOB_ID);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            execution.setChainId(Execution.FIRST_EXECUTION_ID);
+            executions.add(execution);
+        }
+
+        List<Execution> result = classUnderTest.persistAll(executions);
+
+        Long head = result.get(0).getId();
+        assertEquals(Long.valueOf(head + 1), result.get(1).getId());
+        assertEquals(Long.valueOf(head + 2), result.get(2).getId());
+        for (Execution execution : result) {
+            assertEquals(head, execution.getChainId());
+            assertSame(execution, classUnderTest.getById(null, execution.getId()));
+        }
+        assertEquals(1, classUnderTest.pollNextExecutions(JOB_ID, 10).size());
+        assertEquals(3, jobData.getExecutionIds(ExecutionStatus.QUEUED).size());
+
+        verify(newExecutionsEventEvent).fireAsync(any(NewExecutionsEvent.class));
+        verify(newExecutionEventEvent, never()).fireAsync(any(NewExecutionEvent.class));
+    }
+
+    @Test
+    public void testGetChain_orderedById() throws Exception {
+
+        // the executions of another job take the IDs up to 509, the IDs 510 to 519 wrap around the 16 slots of the hash table of the job
+        Long otherJobId = 2L;
+        memoryPersistence.getJobDataMap().put(otherJobId, new JobData());
+        for (int i = 1; i < 510; i++) {
+            Execution execution = new Execution();
+            execution.setJobId(otherJobId);
+            execution.setStatus(ExecutionStatus.FINISHED);
+            classUnderTest.persist(execution);
+        }
+        List<Execution> executions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Execution execution = new Execution();
+            execution.setJobId(JOB_ID);
+            execution.setStatus(ExecutionStatus.QUEUED);
+            execution.setChainId(Execution.FIRST_EXECUTION_ID);
+            executions.add(execution);
+        }
+        classUnderTest.persistAll(executions);
+
+        List<Execution> chain = classUnderTest.getChain(JOB_ID, 510L);
+
+        assertEquals(10, chain.size());
+        for (int i = 0; i < chain.size(); i++) {
+            assertEquals(Long.valueOf(510L + i), chain.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testQueuePlanned() throws Exception {
+
+        Execution planned = persist(ExecutionStatus.PLANNED);
+        Execution aborted = persist(ExecutionStatus.ABORTED);
+
+        List<Execution> result = classUnderTest.queuePlanned(JOB_ID, Arrays.asList(planned.getId(), aborted.getId(), aborted.getId() + 1));
+
+        assertEquals(1, result.size());
+        assertSame(planned, result.get(0));
+        assertEquals(ExecutionStatus.QUEUED, planned.getStatus());
+        assertEquals(ExecutionStatus.ABORTED, aborted.getStatus());
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.QUEUED).contains(planned.getId()));
+        assertTrue(classUnderTest.queuePlanned(JOB_ID, Arrays.asList(planned.getId())).isEmpty());
+    }
+
+    @Test
+    public void testClaim() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+
+        Execution claimed = classUnderTest.claim(JOB_ID, execution.getId());
+
+        assertSame(execution, claimed);
+        assertEquals(ExecutionStatus.RUNNING, claimed.getStatus());
+        assertNotNull(claimed.getStartedAt());
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.RUNNING).contains(execution.getId()));
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 10).isEmpty());
+    }
+
+    @Test
+    public void testClaim_alreadyClaimed() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+        classUnderTest.claim(JOB_ID, execution.getId());
+
+        assertNull(classUnderTest.claim(JOB_ID, execution.getId()));
+        assertNull(classUnderTest.claim(JOB_ID, execution.getId() + 1));
+    }
+
+    @Test
+    public void testGetById_withoutJobId() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+
+        assertSame(execution, classUnderTest.getById(null, execution.getId()));
+        assertNull(classUnderTest.getById(null, execution.getId() + 1));
+    }
+
+    @Test
+    public void testGetById_withoutJobIdDeleted() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+
+        classUnderTest.delete(JOB_ID, execution.getId());
+
+        assertNull(classUnderTest.getById(null, execution.getId()));
+    }
+
+    @Test
+    public void testDelete_keepsOrderedIds() throws Exception {
+
+        Execution first = persist(ExecutionStatus.FINISHED);
+        Execution second = persist(ExecutionStatus.FINISHED);
+        Execution third = persist(ExecutionStatus.FINISHED);
+
+        classUnderTest.delete(JOB_ID, second.getId());
+
+        assertEquals(Arrays.asList(first.getId(), third.getId()), new ArrayList<>(jobData.orderedIds));
+    }
+
+    @Test
+    public void testUpdateStatus_movesIndex() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+
+        classUnderTest.updateStatus(JOB_ID, execution.getId(), ExecutionStatus.RUNNING, null);
+
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.QUEUED).isEmpty());
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.RUNNING).contains(execution.getId()));
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 10).isEmpty());
+    }
+
+    @Test
+    public void testDelete_removesIndex() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+
+        classUnderTest.delete(JOB_ID, execution.getId());
+
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.QUEUED).isEmpty());
+        assertTrue(jobData.getDueExecutionIds(Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testPollNextExecutions() throws Exception {
+
+        Execution queued = persist(ExecutionStatus.QUEUED);
+        persist(ExecutionStatus.FINISHED);
+        persist(ExecutionStatus.RUNNING);
+
+        List<Execution> result = classUnderTest.pollNextExecutions(JOB_ID, 10);
+
+        assertEquals(1, result.size());
+        assertSame(queued, result.get(0));
+    }
+
+    @Test
+    public void testPollNextExecutions_plannedForFuture() throws Exception {
+
+        Execution planned = new Execution();
+        planned.setJobId(JOB_ID);
+        planned.setStatus(ExecutionStatus.PLANNED);
+        planned.setPlannedFor(LocalDateTime.now().plusHours(1));
+        classUnderTest.persist(planned);
+
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 10).isEmpty());
+
+        planned.setPlannedFor(LocalDateTime.now().minusSeconds(1));
+        classUnderTest.update(planned);
+
+        List<Execution> result = classUnderTest.pollNextExecutions(JOB_ID, 10);
+
+        assertEquals(1, result.size());
+        assertSame(planned, result.get(0));
+    }
+
+    @Test
+    public void testPollNextExecutions_onlyChainHead() throws Exception {
+
+        Execution head = persist(ExecutionStatus.QUEUED);
+        head.setChainId(head.getId());
+        classUnderTest.update(head);
+
+        Execution member = new Execution();
+        member.setJobId(JOB_ID);
+        member.setStatus(ExecutionStatus.QUEUED);
+        member.setChainId(head.getId());
+        classUnderTest.persist(member);
+
+        List<Execution> result = classUnderTest.pollNextExecutions(JOB_ID, 10);
+
+        assertEquals(1, result.size());
+        assertSame(head, result.get(0));
+    }
+
+    @Test
+    public void testPollNextExecutions_limit() throws Exception {
+
+        Execution first = persist(ExecutionStatus.QUEUED);
+        persist(ExecutionStatus.QUEUED);
+        persist(ExecutionStatus.QUEUED);
+
+        List<Execution> result = classUnderTest.pollNextExecutions(JOB_ID, 2);
+
+        assertEquals(2, result.size());
+        assertSame(first, result.get(0));
+    }
+
+    @Test
+    public void testPollNextExecutions_limitByPriority() throws Exception {
+
+        Execution first = persist(ExecutionStatus.QUEUED);
+        Execution urgent = persist(ExecutionStatus.QUEUED);
+        persist(ExecutionStatus.QUEUED);
+        Execution important = persist(ExecutionStatus.QUEUED);
+        urgent.setPriorityLevel(Execution.PRIORITY_LEVEL_MAX);
+        classUnderTest.update(urgent);
+        important.setPriorityLevel(Execution.PRIORITY_LEVEL_MAX - 1);
+        classUnderTest.update(important);
+
+        List<Execution> result = classUnderTest.pollNextExecutions(JOB_ID, 3);
+
+        assertEquals(3, result.size());
+        assertSame(urgent, result.get(0));
+        assertSame(important, result.get(1));
+        assertSame(first, result.get(2));
+        assertTrue(classUnderTest.pollNextExecutions(JOB_ID, 0).isEmpty());
+    }
+
+    @Test
+    public void testIsBatchFinished() throws Exception {
+
+        Execution execution = persist(ExecutionStatus.QUEUED);
+        execution.setBatchId(execution.getId());
+        classUnderTest.update(execution);
+
+        assertFalse(classUnderTest.isBatchFinished(JOB_ID, execution.getId()));
+
+        classUnderTest.updateStatus(JOB_ID, execution.getId(), ExecutionStatus.FINISHED, null);
+
+        assertTrue(classUnderTest.isBatchFinished(JOB_ID, execution.getId()));
+    }
+
+    @Test
+    public void testAbortChain() throws Exception {
+
+        Execution head = persist(ExecutionStatus.QUEUED);
+        head.setChainId(head.getId());
+        classUnderTest.update(head);
+
+        Execution other = persist(ExecutionStatus.QUEUED);
+
+        classUnderTest.abortChain(JOB_ID, head.getId());
+
+        assertEquals(ExecutionStatus.FAILED, head.getStatus());
+        assertEquals(ExecutionStatus.QUEUED, other.getStatus());
+        assertTrue(jobData.getExecutionIds(ExecutionStatus.FAILED).contains(head.getId()));
+    }
+
+    @Test
+    public void testFindTimeoutExecutions() throws Exception {
+
+        Execution timedOut = persist(ExecutionStatus.RUNNING);
+        timedOut.setStartedAt(LocalDateTime.now().minusHours(2));
+        classUnderTest.update(timedOut);
+
+        Execution running = persist(ExecutionStatus.RUNNING);
+        running.setStartedAt(LocalDateTime.now());
+        classUnderTest.update(running);
+
+        List<Execution> result = classUnderTest.findTimeoutExecutions(LocalDateTime.now().minusHours(1));
+
+        assertEquals(1, result.size());
+        assertSame(timedOut, result.get(0));
+    }
+
+    @Test
+    public void testDeleteOlderExecutions() throws Exception {
+
+        Execution finished = persist(ExecutionStatus.FINISHED);
+        Execution queued = persist(ExecutionStatus.QUEUED);
+
+        int deleted = classUnderTest.deleteOlderExecutions(JOB_ID, LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(1, deleted);
+        assertNull(jobData.executions.get(finished.getId()));
+        assertSame(queued, jobData.executions.get(queued.getId()));
+    }
+
+    @Test
+    public void testGetExecutionStatusCounts() throws Exception {
+
+        persist(ExecutionStatus.QUEUED);
+        persist(ExecutionStatus.QUEUED);
+        persist(ExecutionStatus.FAILED);
+
+        ExecutionStatusCounts counts = classUnderTest.getExecutionStatusCounts(JOB_ID, LocalDateTime.now().minusMinutes(1), LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(2L, counts.getQueued());
+        assertEquals(1L, counts.getFailed());
+        assertEquals(0L, counts.getFinished());
+    }
+
+    @Test
+    public void testGetExecutionListing_cursorById() throws Exception {
+
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Execution execution = persist(i % 2 == 0 ? ExecutionStatus.FINISHED : ExecutionStatus.FAILED);
+            if (execution.getStatus() == ExecutionStatus.FINISHED) {
+                expected.add(0, execution.getId());
+            }
+        }
+
+        assertEquals(expected, pageIds("-id"));
+    }
+
+    @Test
+    public void testGetExecutionListing_cursorByCreatedAt() throws Exception {
+
+        List<Execution> executions = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            executions.add(persist(i % 2 == 0 ? ExecutionStatus.FINISHED : ExecutionStatus.FAILED));
+        }
+        List<Long> expected = new ArrayList<>();
+        executions.stream().filter(execution -> execution.getStatus() == ExecutionStatus.FINISHED)
+                        .sorted(Comparator.comparing(Execution::getCreatedAt).thenComparing(Execution::getId).reversed())
+                        .forEach(execution -> expected.add(execution.getId()));
+
+        assertEquals(expected, pageIds("-createdAt"));
+
+        Collections.reverse(expected);
+        assertEquals(expected, pageIds("createdAt"));
+    }
+
+    private List<Long> pageIds(String sort) {
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            ListingParameters listingParameters = new ListingParameters(null, 5, sort);
+            listingParameters.addFilterAttributes("status", ExecutionStatus.FINISHED.name());
+            listingParameters.setCursor(cursor);
+
+            ListingResult<Execution> listingResult = classUnderTest.getExecutionListing(JOB_ID, listingParameters);
+
+            listingResult.getResults().forEach(execution -> ids.add(execution.getId()));
+            cursor = listingResult.getMetadata().getNextCursor();
+        }
+        return ids;
+    }
+
+    @Test
+    public void testForEachExecution() throws Exception {
+
+        Execution first = persist(ExecutionStatus.FAILED);
+        persist(ExecutionStatus.FINISHED);
+        Execution second = persist(ExecutionStatus.FAILED);
+
+        ListingParameters listingParameters = new ListingParameters(1);
+        listingParameters.addFilterAttributes("status", ExecutionStatus.FAILED.name());
+        List<Execution> result = new ArrayList<>();
+
+        classUnderTest.forEachExecution(JOB_ID, listingParameters, result::add);
+
+        assertEquals(Arrays.asList(first, second), result);
+    }
+
+    @Test
+    public void testForEachExecution_createdAt() throws Exception {
+
+        Execution first = persist(ExecutionStatus.FAILED);
+        Execution second = persist(ExecutionStatus.FAILED);
+        Execution third = persist(ExecutionStatus.FAILED);
+
+        ListingParameters listingParameters = new ListingParameters(1);
+        listingParameters.setSortAttribute("-createdAt");
+        List<Execution> result = new ArrayList<>();
+
+        classUnderTest.forEachExecution(JOB_ID, listingParameters, result::add);
+
+        assertEquals(Arrays.asList(third, second, first), result);
+    }
+
+    @Test
+    public void testForEachExecution_otherSortAttribute() throws Exception {
+
+        // more executions than a page, so the pages continue after the cursor
+        for (int index = 0; index < 2500; index++) {
+            Execution execution = new Execution();
+            execution.setJobId(JOB_ID);
+            execution.setStatus(ExecutionStatus.FINISHED);
+            execution.setPriorityLevel(index % 3);
+            classUnderTest.persist(execution);
+        }
+        ListingParameters listingParameters = new ListingParameters(1);
+        listingParameters.setSortAttribute("-priorityLevel");
+        List<Execution> result = new ArrayList<>();
+
+        classUnderTest.forEachExecution(JOB_ID, listingParameters, result::add);
+
+        assertEquals(2500, result.size());
+        assertEquals(2500, result.stream().map(Execution::getId).distinct().count());
+        for (int index = 1; index < result.size(); index++) {
+            assertTrue(result.get(index - 1).getPriorityLevel() >= result.get(index).getPriorityLevel());
+        }
+    }
+
+}
@@ -0,0 +1,180 @@
+package io.coodoo.workhorse.util;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.coodoo.workhorse.core.control.StaticConfig;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+
+/**
+ * Cost to filter 100k and 1M executions by status (enum), parameters (LIKE), ID (range) and creation time (less than) and to sort them by the creation time.
+ *
+ * <code>reflective</code> is the former evaluation of {@link CollectionListing} that parsed the filters of every entity, read every attribute by
+ * {@link Field#get(Object)} and matched the LIKE filters by {@link String#matches(String)}. <code>compiled</code> is the current
+ * {@link CollectionListing#getListingResult(java.util.Collection, Class, ListingParameters)} with its cached {@link ListingQueryPlan}.
+ *
+ * Run the <code>main</code> method on the test classpath (after <code>mvn test-compile</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionListingBenchmark {
+
+    private static final String REGEX_LONG = "[-+]?\\d{1,37}";
+    private static final String REGEX_DATE = "((\\d{1,2})\\D)?((\\d{1,2})\\D)?(\\d{2,})";
+
+    @Param({"100000", "1000000"})
+    int executions;
+
+    List<Execution> collection;
+    ListingParameters listingParameters;
+
+    @Setup
+    public void setup() {
+        StaticConfig.TIME_ZONE = ZoneId.systemDefault().getId();
+
+        ExecutionStatus[] statuses = ExecutionStatus.values();
+        LocalDateTime createdAt = LocalDateTime.of(2021, 1, 1, 0, 0);
+        collection = new ArrayList<>(executions);
+        for (int i = 0; i < executions; i++) {
+            Execution execution = new Execution();
+            execution.setId((long) i);
+            execution.setStatus(statuses[i % statuses.length]);
+            execution.setParameters("{\"customer\":" + (i % 1000) + "}");
+            execution.setCreatedAt(createdAt.plusSeconds(i * 60L));
+            collection.add(execution);
+        }
+
+        listingParameters = new ListingParameters(1, 100, CollectionListing.SORT_DESC + "createdAt");
+        listingParameters.addFilterAttributes("status", "QUEUED");
+        listingParameters.addFilterAttributes("parameters", "customer\":1*");
+        listingParameters.addFilterAttributes("id", "1000-" + executions);
+        listingParameters.addFilterAttributes("createdAt", CollectionListing.OPERATOR_LT + "2022");
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+
+        Field status = Execution.class.getDeclaredField("status");
+        Field parameters = Execution.class.getDeclaredField("parameters");
+        Field id = Execution.class.getSuperclass().getDeclaredField("id");
+        Field createdAt = Execution.class.getSuperclass().getDeclaredField("createdAt");
+
+        Predicate<Execution> filter = enumPredicate(status, "QUEUED").and(stringPredicate(parameters, "customer\":1*"))
+                        .and(longPredicate(id, "1000-" + executions)).and(localDateTimePredicate(createdAt, CollectionListing.OPERATOR_LT + "2022"));
+
+        List<Execution> filteredList = collection.stream().filter(filter).collect(Collectors.toList());
+        filteredList.sort((e1, e2) -> compare(createdAt, e1, e2));
+        Collections.reverse(filteredList);
+        return filteredList.subList(0, Math.min(100, filteredList.size()));
+    }
+
+    @Benchmark
+    public Object compiled() {
+        return CollectionListing.getListingResult(collection, Execution.class, listingParameters);
+    }
+
+    // the former per entity evaluation of the filters used above
+
+    private static Object read(Field field, Object instance) {
+        try {
+            field.setAccessible(true);
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Predicate<Execution> enumPredicate(Field field, String filter) {
+        List<Object> enumValues = new ArrayList<>();
+        for (Object enumValue : field.getType().getEnumConstants()) {
+            if (enumValue.toString().toUpperCase().contains(filter.toUpperCase())) {
+                enumValues.add(enumValue);
+            }
+        }
+        return instance -> {
+            Object value = read(field, instance);
+            return value != null && enumValues.contains(value);
+        };
+    }
+
+    private static Predicate<Execution> stringPredicate(Field field, String filter) {
+        return instance -> {
+            String value = (String) read(field, instance);
+            return value != null && value.toLowerCase().matches(".*" + filter.replace("*", ".*").replace("?", ".{1}").toLowerCase() + ".*");
+        };
+    }
+
+    private static Predicate<Execution> longPredicate(Field field, String filter) {
+        return instance -> {
+            Long value = (Long) read(field, instance);
+            if (value != null && !filter.matches("^" + REGEX_LONG + "$")) {
+                Matcher longRange = Pattern.compile("^(" + REGEX_LONG + ")(\\-| TO )(" + REGEX_LONG + ")$").matcher(filter);
+                if (longRange.find()) {
+                    return Long.valueOf(longRange.group(1)) <= value && value <= Long.valueOf(longRange.group(3));
+                }
+            }
+            return false;
+        };
+    }
+
+    private static Predicate<Execution> localDateTimePredicate(Field field, String filter) {
+        return instance -> {
+            LocalDateTime value = (LocalDateTime) read(field, instance);
+            if (value != null && !filter.matches("^" + REGEX_DATE + "$")) {
+                long valueMillis = WorkhorseUtil.toEpochMilli(value);
+                String ltFilter = filter.replace(CollectionListing.OPERATOR_LT, "");
+                if (ltFilter.matches("^" + REGEX_DATE + "$")) {
+                    Matcher matcher = Pattern.compile(REGEX_DATE).matcher(ltFilter);
+                    matcher.find();
+                    int year = Integer.valueOf(matcher.group(5));
+                    return valueMillis < WorkhorseUtil.toEpochMilli(LocalDateTime.of(year, 1, 1, 0, 0, 0));
+                }
+            }
+            return false;
+        };
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compare(Field field, Execution e1, Execution e2) {
+        Comparable val1 = (Comparable) read(field, e1);
+        Comparable val2 = (Comparable) read(field, e2);
+        if (val1 == null) {
+            return val2 == null ? 0 : -1;
+        }
+        return val2 == null ? 1 : val1.compareTo(val2);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CollectionListingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,104 @@
+package io.coodoo.workhorse.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.coodoo.workhorse.core.control.StaticConfig;
+import io.coodoo.workhorse.core.entity.Execution;
+import io.coodoo.workhorse.core.entity.ExecutionStatus;
+import io.coodoo.workhorse.persistence.interfaces.listing.ListingParameters;
+
+/**
+ * Cost to list 1M executions of the values of a {@link ConcurrentHashMap}, like the memory persistence holds them, by 1, 2, 4 and 8 threads of a
+ * {@link ForkJoinPool}.
+ *
+ * <code>sortedPage</code> is the first page of the executions in a status sorted by their creation time, <code>lastPage</code> is the last page of the
+ * unsorted executions in a status, that can only be found after all of them got filtered.
+ *
+ * Run the <code>main</code> method on the test classpath (after <code>mvn test-compile</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionListingParallelBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    @Param({"1000000"})
+    int executions;
+
+    ForkJoinPool pool;
+    Collection<Execution> collection;
+    ListingParameters sortedPage;
+    ListingParameters lastPage;
+
+    @Setup
+    public void setup() {
+        StaticConfig.TIME_ZONE = ZoneId.systemDefault().getId();
+        pool = new ForkJoinPool(threads);
+
+        ExecutionStatus[] statuses = ExecutionStatus.values();
+        LocalDateTime createdAt = LocalDateTime.of(2021, 1, 1, 0, 0);
+        Map<Long, Execution> map = new ConcurrentHashMap<>();
+        for (int i = 0; i < executions; i++) {
+            Execution execution = new Execution();
+            execution.setId((long) i);
+            execution.setStatus(statuses[i % statuses.length]);
+            execution.setParameters("{\"customer\":" + (i % 1000) + "}");
+            execution.setCreatedAt(createdAt.plusSeconds(i * 60L));
+            map.put(execution.getId(), execution);
+        }
+        collection = map.values();
+
+        sortedPage = new ListingParameters(1, 100, CollectionListing.SORT_DESC + "createdAt");
+        sortedPage.addFilterAttributes("status", "QUEUED");
+        sortedPage.addFilterAttributes("parameters", "customer\":1*");
+
+        lastPage = new ListingParameters(executions / statuses.length / 100, 100);
+        lastPage.addFilterAttributes("status", "QUEUED");
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object sortedPage() {
+        return CollectionListing.getListingResult(collection, Execution.class, sortedPage, 1, pool);
+    }
+
+    @Benchmark
+    public Object lastPage() {
+        return CollectionListing.getListingResult(collection, Execution.class, lastPage, 1, pool);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CollectionListingParallelBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -2,14 +2,23 @@ package io.coodoo.workhorse.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.BeforeClass;
 import org.junit.Ignore;
@@ -1636,4 +1645,328 @@ public class CollectionListingTest {
         assertEquals(job3, listingResult.getResults().get(3)); // nulls first desc
     }
 
+
+    @Test
+    public void testGetListingResult_fieldWithoutGetter() throws Exception {
+
+        Set<Counter> collection = new HashSet<>();
+        collection.add(new Counter(1));
+        collection.add(new Counter(2));
+        collection.add(new Counter(3));
+
+        ListingParameters listingParameters = new ListingParameters();
+        listingParameters.addFilterAttributes("count", CollectionListing.OPERATOR_GT + "1");
+        listingParameters.setSortAttribute(CollectionListing.SORT_DESC + "count");
+
+        ListingResult<Counter> listingResult = CollectionListing.getListingResult(collection, Counter.class, listingParameters);
+
+        assertEquals(2, listingResult.getResults().size());
+        assertEquals(3, listingResult.getResults().get(0).count);
+        assertEquals(2, listingResult.getResults().get(1).count);
+    }
+
+    @Test
+    public void testGetListingResult_filterWildcardStringMultiLine() throws Exception {
+
+        Set<Job> collection = new HashSet<>();
+        Job job1 = new Job();
+        job1.setName("first part, second part");
+        collection.add(job1);
+        Job job2 = new Job();
+        job2.setName("first part\nsecond part");
+        collection.add(job2);
+        Job job3 = new Job();
+        job3.setName("second part, first part");
+        collection.add(job3);
+
+        ListingParameters listingParameters = new ListingParameters();
+        listingParameters.addFilterAttributes("name", "FIRST*second");
+
+        ListingResult<Job> listingResult = CollectionListing.getListingResult(collection, Job.class, listingParameters);
+
+        // like a pattern, the wildcard doesn't match a line break
+        assertEquals(1, listingResult.getResults().size());
+        assertTrue(listingResult.getResults().contains(job1));
+    }
+
+    @Test
+    public void testGetQueryPlan_cached() throws Exception {
+
+        ListingParameters listingParameters = new ListingParameters();
+        listingParameters.addFilterAttributes("id", "2");
+        listingParameters.setSortAttribute("name");
+
+        ListingParameters samePlanOtherPage = new ListingParameters(3, 50, "name");
+        samePlanOtherPage.addFilterAttributes("id", "2");
+
+        ListingParameters otherFilter = new ListingParameters();
+        otherFilter.addFilterAttributes("id", "3");
+        otherFilter.setSortAttribute("name");
+
+        ListingQueryPlan<Job> queryPlan = CollectionListing.getQueryPlan(Job.class, listingParameters);
+
+        assertSame(queryPlan, CollectionListing.getQueryPlan(Job.class, samePlanOtherPage));
+        assertNotSame(queryPlan, CollectionListing.getQueryPlan(Job.class, otherFilter));
+    }
+
+    @Test
+    public void testGetQueryPlan_recentlyUsedKept() throws Exception {
+
+        ListingParameters listingParameters = new ListingParameters();
+        listingParameters.addFilterAttributes("name", "recently used");
+
+        ListingQueryPlan<Job> queryPlan = CollectionListing.getQueryPlan(Job.class, listingParameters);
+        ListingQueryPlan<Job> firstOtherPlan = null;
+
+        for (int i = 0; i < 1000; i++) {
+            ListingParameters otherFilter = new ListingParameters();
+            otherFilter.addFilterAttributes("id", String.valueOf(i));
+            ListingQueryPlan<Job> otherPlan = CollectionListing.getQueryPlan(Job.class, otherFilter);
+            if (firstOtherPlan == null) {
+                firstOtherPlan = otherPlan;
+            }
+            assertSame(queryPlan, CollectionListing.getQueryPlan(Job.class, listingParameters));
+        }
+
+        ListingParameters firstOtherFilter = new ListingParameters();
+        firstOtherFilter.addFilterAttributes("id", "0");
+        assertNotSame(firstOtherPlan, CollectionListing.getQueryPlan(Job.class, firstOtherFilter));
+    }
+
+    private static List<Job> jobsWithTies(int size) {
+        List<Job> collection = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Job job = new Job();
+            job.setId((long) i);
+            job.setName(i % 7 == 0 ? null : "job-" + (i % 13));
+            job.setThreads(i % 5);
+            collection.add(job);
+        }
+        return collection;
+    }
+
+    private static List<Job> fullSort(List<Job> collection, String sort, int page, int limit) {
+        List<Job> sorted = new ArrayList<>(collection);
+        Comparator<Job> byName = Comparator.comparing(Job::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+        sorted.sort(byName);
+        if (sort.startsWith(CollectionListing.SORT_DESC)) {
+            Collections.reverse(sorted);
+        }
+        return sorted.subList((page - 1) * limit, page * limit);
+    }
+
+    @Test
+    public void testGetListingResult_topPageSorted() throws Exception {
+
+        List<Job> collection = jobsWithTies(500);
+
+        for (String sort : Arrays.asList(CollectionListing.SORT_ASC + "name", CollectionListing.SORT_DESC + "name")) {
+            for (int page = 1; page <= 3; page++) {
+
+                ListingResult<Job> listingResult = CollectionListing.getListingResult(collection, Job.class, new ListingParameters(page, 20, sort));
+
+                assertEquals(Long.valueOf(500), listingResult.getMetadata().getCount());
+                // equal names keep the order of the collection like a full stable sort does
+                assertEquals(fullSort(collection, sort, page, 20), listingResult.getResults());
+            }
+        }
+    }
+
+    @Test
+    public void testGetListingResult_pageUnsorted() throws Exception {
+
+        List<Job> collection = jobsWithTies(100);
+
+        ListingParameters listingParameters = new ListingParameters(2, 10);
+        listingParameters.addFilterAttributes("threads", "3");
+
+        ListingResult<Job> listingResult = CollectionListing.getListingResult(collection, Job.class, listingParameters);
+
+        assertEquals(Long.valueOf(20), listingResult.getMetadata().getCount());
+        assertEquals(10, listingResult.getResults().size());
+        assertEquals(Long.valueOf(53), listingResult.getResults().get(0).getId());
+        assertEquals(Long.valueOf(98), listingResult.getResults().get(9).getId());
+    }
+
+    @Test
+    public void testGetFirstResult() throws Exception {
+
+        List<Job> collection = jobsWithTies(100);
+
+        ListingParameters listingParameters = new ListingParameters();
+        listingParameters.addFilterAttributes("threads", "4");
+
+        assertEquals(Long.valueOf(4), CollectionListing.getFirstResult(collection, Job.class, listingParameters).getId());
+
+        listingParameters.setSortAttribute(CollectionListing.SORT_DESC + "id");
+
+        assertEquals(Long.valueOf(99), CollectionListing.getFirstResult(collection, Job.class, listingParameters).getId());
+
+        listingParameters.addFilterAttributes("threads", "5");
+
+        assertNull(CollectionListing.getFirstResult(collection, Job.class, listingParameters));
+    }
+
+    @Test
+    public void testCount() throws Exception {
+
+        List<Job> collection = jobsWithTies(100);
+
+        ListingParameters listingParameters = new ListingParameters(1);
+        listingParameters.addFilterAttributes("threads", "0");
+
+        assertEquals(20L, CollectionListing.count(collection, Job.class, listingParameters));
+        assertEquals(Long.valueOf(20), CollectionListing.getListingResult(collection, Job.class, listingParameters).getMetadata().getCount());
+    }
+
+    @Test
+    public void testGetListingResult_parallelSorted() throws Exception {
+
+        List<Job> collection = jobsWithTies(20_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (String sort : Arrays.asList(CollectionListing.SORT_ASC + "name", CollectionListing.SORT_DESC + "name")) {
+                for (int page : Arrays.asList(1, 3, 400)) {
+
+                    ListingParameters listingParameters = new ListingParameters(page, 20, sort);
+                    listingParameters.addFilterAttributes("threads", "3");
+
+                    ListingResult<Job> sequential = CollectionListing.getListingResult(collection, Job.class, listingParameters, 0, pool);
+                    ListingResult<Job> parallel = CollectionListing.getListingResult(collection, Job.class, listingParameters, 1, pool);
+
+                    assertEquals(Long.valueOf(4_000), parallel.getMetadata().getCount());
+                    assertEquals(sequential.getResults(), parallel.getResults());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetListingResult_parallelUnsorted() throws Exception {
+
+        List<Job> collection = jobsWithTies(20_000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int limit : Arrays.asList(0, 10)) {
+                for (int page : Arrays.asList(1, 2, 300, 500)) {
+
+                    ListingParameters listingParameters = new ListingParameters(page, limit);
+                    listingParameters.addFilterAttributes("threads", "3");
+
+                    ListingResult<Job> sequential = CollectionListing.getListingResult(collection, Job.class, listingParameters, 0, pool);
+                    ListingResult<Job> parallel = CollectionListing.getListingResult(collection, Job.class, listingParameters, 1, pool);
+
+                    assertEquals(sequential.getMetadata().getCount(), parallel.getMetadata().getCount());
+                    assertEquals(sequential.getResults(), parallel.getResults());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetListingResult_cursor() throws Exception {
+
+        List<Job> collection = jobsWithTies(200);
+        Collections.shuffle(collection);
+
+        for (String sort : Arrays.asList(null, CollectionListing.SORT_ASC + "name", CollectionListing.SORT_DESC + "name", CollectionListing.SORT_DESC + "id")) {
+
+            List<Job> expected = new ArrayList<>();
+            for (Job job : collection) {
+                if (job.getThreads() == 3) {
+                    expected.add(job);
+                }
+            }
+            Comparator<Job> order = Comparator.comparing(Job::getId);
+            if (sort != null && sort.endsWith("name")) {
+                order = Comparator.comparing(Job::getName, Comparator.nullsFirst(Comparator.naturalOrder())).thenComparing(Job::getId);
+            }
+            if (sort != null && sort.startsWith(CollectionListing.SORT_DESC)) {
+                order = order.reversed();
+            }
+            expected.sort(order);
+
+            List<Job> paged = new ArrayList<>();
+            String cursor = "";
+            int pages = 0;
+            while (cursor != null) {
+                ListingParameters listingParameters = new ListingParameters(null, 7, sort);
+                listingParameters.addFilterAttributes("threads", "3");
+                listingParameters.setCursor(cursor);
+
+                ListingResult<Job> listingResult = CollectionListing.getListingResult(collection, Job.class, listingParameters);
+
+                assertNull(listingResult.getMetadata().getCount());
+                paged.addAll(listingResult.getResults());
+                cursor = listingResult.getMetadata().getNextCursor();
+                pages++;
+            }
+            assertEquals(expected, paged);
+            assertEquals(6, pages);
+        }
+    }
+
+    @Test
+    public void testGetListingResult_cursorWithoutLimit() throws Exception {
+
+        List<Job> collection = jobsWithTies(50);
+
+        ListingParameters listingParameters = new ListingParameters(null, 10, CollectionListing.SORT_DESC + "name");
+        listingParameters.setCursor("");
+        ListingResult<Job> firstPage = CollectionListing.getListingResult(collection, Job.class, listingParameters);
+
+        listingParameters.setLimit(0);
+        listingParameters.setCursor(firstPage.getMetadata().getNextCursor());
+        ListingResult<Job> rest = CollectionListing.getListingResult(collection, Job.class, listingParameters);
+
+        assertEquals(40, rest.getResults().size());
+        assertNull(rest.getMetadata().getNextCursor());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testGetListingResult_cursorInvalid() throws Exception {
+
+        ListingParameters listingParameters = new ListingParameters(null, 10, "name");
+        listingParameters.setCursor("not a cursor!");
+
+        CollectionListing.getListingResult(jobsWithTies(10), Job.class, listingParameters);
+    }
+
+    @Test
+    public void testGetCursorListingResult() throws Exception {
+
+        List<Job> collection = jobsWithTies(100);
+
+        ListingParameters listingParameters = new ListingParameters(null, 10, null);
+        listingParameters.addFilterAttributes("threads", "3");
+        listingParameters.setCursor("");
+
+        ListingResult<Job> firstPage = CollectionListing.getCursorListingResult(collection.iterator(), Job.class, listingParameters);
+
+        assertEquals(10, firstPage.getResults().size());
+        assertEquals(Long.valueOf(3), firstPage.getResults().get(0).getId());
+
+        listingParameters.setCursor(firstPage.getMetadata().getNextCursor());
+        ListingResult<Job> secondPage = CollectionListing.getCursorListingResult(collection.iterator(), Job.class, listingParameters);
+
+        assertEquals(10, secondPage.getResults().size());
+        assertEquals(Long.valueOf(53), secondPage.getResults().get(0).getId());
+        assertNull(secondPage.getMetadata().getNextCursor());
+    }
+
+    private static class Counter {
+
+        private int count;
+
+        private Counter(int count) {
+            this.count = count;
+        }
+    }
+
 }
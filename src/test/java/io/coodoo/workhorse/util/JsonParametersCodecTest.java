@@ -0,0 +1,89 @@
+package io.coodoo.workhorse.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+public class JsonParametersCodecTest {
+
+    public static class Animal {
+        public String name;
+    }
+
+    public static class Dog extends Animal {
+        public boolean barks;
+    }
+
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
+
+    @Test
+    public void testDecode_generic_list() throws Exception {
+
+        Type type = new TypeReference<List<Animal>>() {}.getType();
+        JsonParametersCodec<List<Animal>> classUnderTest = new JsonParametersCodec<>(type);
+
+        List<Animal> result = classUnderTest.decode("[{\"name\":\"Rex\"},{\"name\":\"Tom\"}]");
+
+        assertEquals(2, result.size());
+        assertEquals(Animal.class, result.get(0).getClass());
+        assertEquals("Tom", result.get(1).name);
+    }
+
+    @Test
+    public void testEncode_decode() throws Exception {
+
+        Type type = new TypeReference<List<Long>>() {}.getType();
+        JsonParametersCodec<List<Long>> classUnderTest = new JsonParametersCodec<>(type);
+
+        String encoded = classUnderTest.encode(Arrays.asList(1L, 2L));
+
+        assertEquals("[1,2]", encoded);
+        assertEquals(Arrays.asList(1L, 2L), classUnderTest.decode(encoded));
+    }
+
+    @Test
+    public void testEncode_runtime_type() throws Exception {
+
+        JsonParametersCodec<Animal> classUnderTest = new JsonParametersCodec<>(Animal.class);
+        Dog dog = new Dog();
+        dog.name = "Rex";
+        dog.barks = true;
+
+        String result = classUnderTest.encode(dog);
+
+        assertTrue(result.contains("\"barks\":true"));
+    }
+
+    @Test
+    public void testNull_and_empty() throws Exception {
+
+        JsonParametersCodec<String> classUnderTest = new JsonParametersCodec<>(String.class);
+
+        assertNull(classUnderTest.encode(null));
+        assertNull(classUnderTest.decode(null));
+        assertNull(classUnderTest.decode(""));
+    }
+
+    @Test
+    public void testDecode_invalid() throws Exception {
+
+        JsonParametersCodec<Animal> classUnderTest = new JsonParametersCodec<>(Animal.class);
+
+        exceptionRule.expect(RuntimeException.class);
+        exceptionRule.expectMessage("JSON Parameter could not be mapped to an object");
+
+        classUnderTest.decode("{invalid");
+    }
+
+}
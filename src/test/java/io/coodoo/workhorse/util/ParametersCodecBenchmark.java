@@ -0,0 +1,90 @@
+package io.coodoo.workhorse.util;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Cost to decode the parameters of a <code>WorkerWith&lt;List&lt;Item&gt;&gt;</code> for small (1 item) and large (500 items) parameter objects.
+ *
+ * <code>rawClass</code> is the former {@link WorkhorseUtil#jsonToParameters(String, Class)} that only knows the raw <code>List</code> and returns maps,
+ * <code>typeReference</code> reads the full type from the shared mapper on every call, <code>codec</code> uses the cached reader of
+ * {@link JsonParametersCodec}.
+ *
+ * Run the <code>main</code> method on the test classpath (after <code>mvn test-compile</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParametersCodecBenchmark {
+
+    public static class Item {
+        public long id;
+        public String name;
+        public List<String> tags;
+    }
+
+    private static final TypeReference<List<Item>> TYPE_REFERENCE = new TypeReference<List<Item>>() {};
+
+    @Param({"1", "500"})
+    int items;
+
+    String json;
+    JsonParametersCodec<List<Item>> codec;
+
+    @Setup
+    public void setup() {
+        List<Item> parameters = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Item item = new Item();
+            item.id = i;
+            item.name = "item-" + i;
+            item.tags = Arrays.asList("a", "b", "c");
+            parameters.add(item);
+        }
+        json = WorkhorseUtil.parametersToJson(parameters);
+        Type type = TYPE_REFERENCE.getType();
+        codec = new JsonParametersCodec<>(type);
+    }
+
+    @Benchmark
+    public Object rawClass() {
+        return WorkhorseUtil.jsonToParameters(json, List.class);
+    }
+
+    @Benchmark
+    public Object typeReference() throws Exception {
+        return WorkhorseUtil.getObjectMapper().readValue(json, TYPE_REFERENCE);
+    }
+
+    @Benchmark
+    public Object codec() {
+        return codec.decode(json);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(ParametersCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}